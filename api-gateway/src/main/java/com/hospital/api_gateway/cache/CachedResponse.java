@@ -0,0 +1,45 @@
+package com.hospital.api_gateway.cache;
+
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.http.HttpHeaders;
+
+/**
+ * A stored upstream response
+ *
+ * @param status The HTTP status code
+ * @param headers End-to-end response headers, read-only
+ * @param body The full response body
+ * @param etag The validator sent by the backend, or null
+ * @param storedAt When the response was received or last revalidated, in epoch milliseconds
+ * @param expiresAt When the response stops being fresh, in {@link System#nanoTime()} units
+ */
+record CachedResponse(int status, HttpHeaders headers, byte[] body, String etag, long storedAt, long expiresAt) {
+
+	boolean isFresh(long now) {
+		return expiresAt - now > 0;
+	}
+
+	/**
+	 * The same response, fresh again after a successful revalidation
+	 */
+	CachedResponse revalidated(long freshnessNanos) {
+		return new CachedResponse(status, headers, body, etag, System.currentTimeMillis(),
+			System.nanoTime() + freshnessNanos);
+	}
+
+	/**
+	 * Approximate bytes held, counting headers as well as the body
+	 */
+	long weight() {
+		long weight = body.length + 64;
+		for (Map.Entry<String, List<String>> header : headers.entrySet()) {
+			weight += header.getKey().length();
+			for (String value : header.getValue()) {
+				weight += value.length() + 16;
+			}
+		}
+		return weight;
+	}
+}
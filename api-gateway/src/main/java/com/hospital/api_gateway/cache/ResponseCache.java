@@ -0,0 +1,78 @@
+package com.hospital.api_gateway.cache;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * Byte-bounded LRU store for cached responses
+ *
+ * Entries are kept past their freshness so they can still be revalidated
+ * with their ETag; only the byte budget evicts them.
+ */
+@Component
+public class ResponseCache {
+
+	private final long maxBytes;
+	private final ReentrantLock lock = new ReentrantLock();
+	/** Guarded by lock */
+	private final LinkedHashMap<String, CachedResponse> entries = new LinkedHashMap<>(16, 0.75f, true);
+	/** Guarded by lock */
+	private long bytes;
+
+	public ResponseCache(ResponseCacheProperties properties) {
+		this.maxBytes = properties.getMaxSizeBytes();
+	}
+
+	CachedResponse get(String key) {
+		lock.lock();
+		try {
+			return entries.get(key);
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	void put(String key, CachedResponse response) {
+		long weight = response.weight();
+		if (weight > maxBytes) {
+			return;
+		}
+		lock.lock();
+		try {
+			CachedResponse previous = entries.put(key, response);
+			if (previous != null) {
+				bytes -= previous.weight();
+			}
+			bytes += weight;
+			Iterator<Map.Entry<String, CachedResponse>> lru = entries.entrySet().iterator();
+			while (bytes > maxBytes && lru.hasNext()) {
+				bytes -= lru.next().getValue().weight();
+				lru.remove();
+			}
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	public int size() {
+		lock.lock();
+		try {
+			return entries.size();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	public long bytes() {
+		lock.lock();
+		try {
+			return bytes;
+		} finally {
+			lock.unlock();
+		}
+	}
+}
@@ -0,0 +1,334 @@
+package com.hospital.api_gateway.cache;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.reactivestreams.Publisher;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.core.Ordered;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.server.ServerWebExchange;
+
+import com.hospital.api_gateway.security.JwtAuthenticationFilter;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+/**
+ * Shared cache for GET routes listed in {@code beemo.cache.rules}
+ *
+ * Responses are keyed by caller, Accept header, path and query, so one
+ * caller never sees another's data. Backends control storage with
+ * Cache-Control: no-store and private are never stored, max-age and
+ * s-maxage set the freshness, and no-cache stores the response but
+ * revalidates it every time. Without Cache-Control the rule's TTL applies.
+ *
+ * Stale entries with an ETag are revalidated with If-None-Match, so an
+ * unchanged resource costs the backend a 304 instead of a full body.
+ * Clients' own If-None-Match is answered at the gateway. Concurrent misses
+ * for the same key wait for the first request instead of all going upstream.
+ */
+@Component
+public class ResponseCacheFilter implements GlobalFilter, Ordered {
+
+	private static final String CACHE_STATUS_HEADER = "X-Cache";
+	/** Hop-by-hop headers and headers that describe one response rather than the resource */
+	private static final Set<String> UNCACHED_HEADERS = Set.of(
+		HttpHeaders.CONNECTION.toLowerCase(), HttpHeaders.TRANSFER_ENCODING.toLowerCase(),
+		HttpHeaders.UPGRADE.toLowerCase(), HttpHeaders.TRAILER.toLowerCase(), "keep-alive", "proxy-connection",
+		HttpHeaders.SET_COOKIE.toLowerCase(), HttpHeaders.AGE.toLowerCase(), HttpHeaders.DATE.toLowerCase(),
+		HttpHeaders.CONTENT_LENGTH.toLowerCase(), HttpHeaders.RETRY_AFTER.toLowerCase(),
+		"x-ratelimit-remaining", "x-request-id", "server-timing", CACHE_STATUS_HEADER.toLowerCase());
+
+	private final ResponseCache cache;
+	private final ResponseCacheProperties properties;
+	private final AntPathMatcher pathMatcher = new AntPathMatcher();
+	/** Misses being fetched, by key; completes empty when the response turns out to be uncacheable */
+	private final Map<String, Sinks.One<CachedResponse>> inFlight = new ConcurrentHashMap<>();
+
+	public ResponseCacheFilter(ResponseCache cache, ResponseCacheProperties properties) {
+		this.cache = cache;
+		this.properties = properties;
+	}
+
+	@Override
+	public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+		ServerHttpRequest request = exchange.getRequest();
+		if (!properties.isEnabled() || request.getMethod() != HttpMethod.GET) {
+			return chain.filter(exchange);
+		}
+		ResponseCacheProperties.Rule rule = findRule(request.getPath().value());
+		List<String> requestDirectives = directives(request.getHeaders());
+		if (rule == null || requestDirectives.contains("no-store")) {
+			return chain.filter(exchange);
+		}
+
+		String key = key(exchange);
+		// Copied before the request is mutated: a mutated request shares its headers with the original
+		List<String> clientValidators = request.getHeaders().getIfNoneMatch();
+		CachedResponse cached = cache.get(key);
+		if (cached != null && cached.isFresh(System.nanoTime()) && !requestDirectives.contains("no-cache")) {
+			return serve(exchange.getResponse(), clientValidators, cached, "HIT");
+		}
+
+		Sinks.One<CachedResponse> sink = Sinks.one();
+		Sinks.One<CachedResponse> leader = inFlight.putIfAbsent(key, sink);
+		if (leader != null) {
+			return leader.asMono()
+				.timeout(properties.getCollapseTimeout())
+				.map(Optional::of)
+				.onErrorReturn(Optional.empty())
+				.defaultIfEmpty(Optional.empty())
+				.flatMap(response -> response.isPresent()
+					? serve(exchange.getResponse(), clientValidators, response.get(), "HIT")
+					: chain.filter(exchange));
+		}
+
+		CachedResponse stale = cached != null && cached.etag() != null ? cached : null;
+		ServerHttpRequest upstream = request.mutate()
+			.headers(headers -> {
+				headers.remove(HttpHeaders.IF_NONE_MATCH);
+				headers.remove(HttpHeaders.IF_MODIFIED_SINCE);
+				if (stale != null) {
+					headers.setIfNoneMatch(stale.etag());
+				}
+			})
+			.build();
+		CapturingResponse response = new CapturingResponse(exchange.getResponse(), clientValidators, key, rule, stale,
+			sink);
+		return chain.filter(exchange.mutate().request(upstream).response(response).build())
+			.doFinally(signal -> response.complete(null));
+	}
+
+	/**
+	 * After authentication and rate limiting, and before the response is written
+	 */
+	@Override
+	public int getOrder() {
+		return Ordered.HIGHEST_PRECEDENCE + 30;
+	}
+
+	private ResponseCacheProperties.Rule findRule(String path) {
+		for (ResponseCacheProperties.Rule rule : properties.getRules()) {
+			if (pathMatcher.match(rule.getPath(), path)) {
+				return rule;
+			}
+		}
+		return null;
+	}
+
+	private static String key(ServerWebExchange exchange) {
+		ServerHttpRequest request = exchange.getRequest();
+		String subject = exchange.getAttribute(JwtAuthenticationFilter.SUBJECT_ATTRIBUTE);
+		String accept = request.getHeaders().getFirst(HttpHeaders.ACCEPT);
+		String query = request.getURI().getRawQuery();
+		return (subject != null ? "sub:" + subject : "anonymous") + '\n'
+			+ (accept != null ? accept : "") + '\n'
+			+ request.getPath().value() + (query != null ? "?" + query : "");
+	}
+
+	/**
+	 * How long a response stays fresh, or -1 if it must not be stored
+	 */
+	private static long freshnessNanos(HttpStatusCode status, HttpHeaders headers, Duration defaultTtl) {
+		if (status.value() != HttpStatus.OK.value() || headers.containsKey(HttpHeaders.SET_COOKIE)
+				|| headers.getVary().contains("*")) {
+			return -1;
+		}
+		long maxAge = -1;
+		long sharedMaxAge = -1;
+		for (String directive : directives(headers)) {
+			if (directive.equals("no-store") || directive.equals("private")) {
+				return -1;
+			} else if (directive.equals("no-cache")) {
+				return headers.getETag() != null ? 0 : -1;
+			} else if (directive.startsWith("max-age=")) {
+				maxAge = parseSeconds(directive.substring("max-age=".length()));
+			} else if (directive.startsWith("s-maxage=")) {
+				sharedMaxAge = parseSeconds(directive.substring("s-maxage=".length()));
+			}
+		}
+		long seconds = sharedMaxAge >= 0 ? sharedMaxAge : maxAge;
+		long nanos = seconds >= 0 ? TimeUnit.SECONDS.toNanos(seconds) : defaultTtl.toNanos();
+		return nanos > 0 || headers.getETag() != null ? nanos : -1;
+	}
+
+	private static List<String> directives(HttpHeaders headers) {
+		String cacheControl = headers.getCacheControl();
+		if (cacheControl == null || cacheControl.isBlank()) {
+			return List.of();
+		}
+		return List.of(cacheControl.toLowerCase().replace(" ", "").split(","));
+	}
+
+	private static long parseSeconds(String value) {
+		try {
+			return Math.max(0, Long.parseLong(value));
+		} catch (NumberFormatException e) {
+			return 0;
+		}
+	}
+
+	private static boolean matchesIfNoneMatch(List<String> clientValidators, String etag) {
+		if (etag == null) {
+			return false;
+		}
+		for (String candidate : clientValidators) {
+			if (candidate.equals("*") || weak(candidate).equals(weak(etag))) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static String weak(String etag) {
+		return etag.startsWith("W/") ? etag.substring(2) : etag;
+	}
+
+	private static Mono<Void> serve(ServerHttpResponse response, List<String> clientValidators, CachedResponse cached,
+			String outcome) {
+		HttpHeaders headers = response.getHeaders();
+		headers.putAll(cached.headers());
+		headers.set(HttpHeaders.AGE, Long.toString(Math.max(0, (System.currentTimeMillis() - cached.storedAt()) / 1000)));
+		headers.set(CACHE_STATUS_HEADER, outcome);
+		if (matchesIfNoneMatch(clientValidators, cached.etag())) {
+			response.setStatusCode(HttpStatus.NOT_MODIFIED);
+			headers.remove(HttpHeaders.CONTENT_TYPE);
+			return response.setComplete();
+		}
+		response.setStatusCode(HttpStatusCode.valueOf(cached.status()));
+		headers.setContentLength(cached.body().length);
+		return response.writeWith(Mono.fromSupplier(() -> response.bufferFactory().wrap(cached.body())));
+	}
+
+	/**
+	 * Copies the upstream response into the cache while it is written to the client
+	 */
+	private final class CapturingResponse extends ServerHttpResponseDecorator {
+
+		private final List<String> clientValidators;
+		private final String key;
+		private final ResponseCacheProperties.Rule rule;
+		private final CachedResponse stale;
+		private final Sinks.One<CachedResponse> sink;
+
+		CapturingResponse(ServerHttpResponse delegate, List<String> clientValidators, String key,
+				ResponseCacheProperties.Rule rule, CachedResponse stale, Sinks.One<CachedResponse> sink) {
+			super(delegate);
+			this.clientValidators = clientValidators;
+			this.key = key;
+			this.rule = rule;
+			this.stale = stale;
+			this.sink = sink;
+		}
+
+		@Override
+		public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+			HttpStatusCode status = getStatusCode() != null ? getStatusCode() : HttpStatus.OK;
+			HttpHeaders headers = getHeaders();
+
+			if (stale != null && status.value() == HttpStatus.NOT_MODIFIED.value()) {
+				long freshness = Math.max(0, freshnessNanos(HttpStatus.OK, headers, rule.getTtl()));
+				CachedResponse revalidated = stale.revalidated(freshness);
+				cache.put(key, revalidated);
+				complete(revalidated);
+				headers.clear();
+				return Flux.from(body).doOnNext(DataBufferUtils::release)
+					.then(serve(getDelegate(), clientValidators, revalidated, "REVALIDATED"));
+			}
+
+			long freshness = freshnessNanos(status, headers, rule.getTtl());
+			if (freshness < 0) {
+				complete(null);
+				return super.writeWith(body);
+			}
+
+			headers.set(CACHE_STATUS_HEADER, "MISS");
+			boolean notModified = matchesIfNoneMatch(clientValidators, headers.getETag());
+			ByteArrayOutputStream captured = new ByteArrayOutputStream();
+			boolean[] tooLarge = new boolean[1];
+			Flux<DataBuffer> tee = Flux.from(body)
+				.map(buffer -> (DataBuffer) buffer)
+				.doOnNext(buffer -> {
+					int length = buffer.readableByteCount();
+					if (tooLarge[0] || captured.size() + length > properties.getMaxEntryBytes()) {
+						tooLarge[0] = true;
+						return;
+					}
+					byte[] chunk = new byte[length];
+					buffer.toByteBuffer(buffer.readPosition(), ByteBuffer.wrap(chunk), 0, length);
+					captured.writeBytes(chunk);
+				})
+				.doOnComplete(() -> {
+					if (tooLarge[0]) {
+						complete(null);
+						return;
+					}
+					CachedResponse response = new CachedResponse(status.value(), storedHeaders(headers),
+						captured.toByteArray(), headers.getETag(), System.currentTimeMillis(),
+						System.nanoTime() + freshness);
+					cache.put(key, response);
+					complete(response);
+				});
+
+			if (notModified) {
+				setStatusCode(HttpStatus.NOT_MODIFIED);
+				headers.remove(HttpHeaders.CONTENT_LENGTH);
+				headers.remove(HttpHeaders.CONTENT_TYPE);
+				return tee.doOnNext(DataBufferUtils::release).then(getDelegate().setComplete());
+			}
+			return super.writeWith(tee);
+		}
+
+		/**
+		 * Streaming responses are passed through uncached
+		 */
+		@Override
+		public Mono<Void> writeAndFlushWith(Publisher<? extends Publisher<? extends DataBuffer>> body) {
+			complete(null);
+			return super.writeAndFlushWith(body);
+		}
+
+		/**
+		 * Release requests waiting on this miss, with the response if it was cached
+		 */
+		void complete(CachedResponse response) {
+			if (inFlight.remove(key, sink)) {
+				if (response != null) {
+					sink.tryEmitValue(response);
+				} else {
+					sink.tryEmitEmpty();
+				}
+			}
+		}
+
+		private static HttpHeaders storedHeaders(HttpHeaders upstream) {
+			HttpHeaders stored = new HttpHeaders();
+			upstream.forEach((name, values) -> {
+				if (!UNCACHED_HEADERS.contains(name.toLowerCase())) {
+					stored.put(name, List.copyOf(values));
+				}
+			});
+			return HttpHeaders.readOnlyHttpHeaders(stored);
+		}
+	}
+}
@@ -0,0 +1,87 @@
+package com.hospital.api_gateway.cache;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Response caching applied by {@link ResponseCacheFilter}, bound from {@code beemo.cache}
+ */
+@ConfigurationProperties(prefix = "beemo.cache")
+public class ResponseCacheProperties {
+
+	private boolean enabled = true;
+	/** Total body and header bytes held across all entries */
+	private long maxSizeBytes = 64L * 1024 * 1024;
+	/** Larger responses are passed through without being cached */
+	private int maxEntryBytes = 1024 * 1024;
+	/** How long a request waits for an identical in-flight request before going upstream itself */
+	private Duration collapseTimeout = Duration.ofSeconds(5);
+	/** GET paths that may be cached; nothing else is */
+	private List<Rule> rules = new ArrayList<>();
+
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	public void setEnabled(boolean enabled) {
+		this.enabled = enabled;
+	}
+
+	public long getMaxSizeBytes() {
+		return maxSizeBytes;
+	}
+
+	public void setMaxSizeBytes(long maxSizeBytes) {
+		this.maxSizeBytes = maxSizeBytes;
+	}
+
+	public int getMaxEntryBytes() {
+		return maxEntryBytes;
+	}
+
+	public void setMaxEntryBytes(int maxEntryBytes) {
+		this.maxEntryBytes = maxEntryBytes;
+	}
+
+	public Duration getCollapseTimeout() {
+		return collapseTimeout;
+	}
+
+	public void setCollapseTimeout(Duration collapseTimeout) {
+		this.collapseTimeout = collapseTimeout;
+	}
+
+	public List<Rule> getRules() {
+		return rules;
+	}
+
+	public void setRules(List<Rule> rules) {
+		this.rules = rules;
+	}
+
+	public static class Rule {
+		/** Ant-style gateway path, e.g. /products/** */
+		private String path;
+		/** Freshness used when the backend sends no max-age */
+		private Duration ttl = Duration.ofSeconds(5);
+
+		public String getPath() {
+			return path;
+		}
+
+		public void setPath(String path) {
+			this.path = path;
+		}
+
+		public Duration getTtl() {
+			return ttl;
+		}
+
+		public void setTtl(Duration ttl) {
+			this.ttl = ttl;
+		}
+	}
+}
@@ -0,0 +1,25 @@
+package com.hospital.api_gateway.loadbalancer;
+
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.loadbalancer.core.ReactorLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.support.LoadBalancerClientFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.env.Environment;
+
+/**
+ * Load balancer configuration applied in each service's load balancer context
+ *
+ * Deliberately not a component: it is registered per service through
+ * {@link LoadBalancerConfig}, never in the gateway's own context.
+ */
+public class AdaptiveLoadBalancerConfiguration {
+
+	@Bean
+	ReactorLoadBalancer<ServiceInstance> adaptiveLoadBalancer(Environment environment,
+			LoadBalancerClientFactory clientFactory, InstanceHealthRegistry registry) {
+		String serviceId = environment.getProperty(LoadBalancerClientFactory.PROPERTY_NAME);
+		return new AdaptiveLoadBalancer(clientFactory.getLazyProvider(serviceId, ServiceInstanceListSupplier.class),
+			registry);
+	}
+}
@@ -0,0 +1,114 @@
+package com.hospital.api_gateway.loadbalancer;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Instance selection and outlier ejection settings, bound from {@code beemo.loadbalancer}
+ */
+@ConfigurationProperties(prefix = "beemo.loadbalancer")
+public class AdaptiveLoadBalancerProperties {
+
+	/** Consecutive failed or slow calls that eject an instance */
+	private int consecutiveFailures = 5;
+	/** Calls slower than this count as failures, unless the service overrides it */
+	private Duration slowCallThreshold = Duration.ofSeconds(2);
+	/** Overrides by service ID, matched ignoring case */
+	private Map<String, ServiceSettings> services = new HashMap<>();
+	/** First ejection period; doubles with each repeated ejection */
+	private Duration baseEjectionTime = Duration.ofSeconds(30);
+	private Duration maxEjectionTime = Duration.ofMinutes(5);
+	/** How quickly old latency samples lose weight in the moving average */
+	private Duration latencyDecay = Duration.ofSeconds(10);
+
+	/**
+	 * Settings for a service, or null if it has no overrides
+	 */
+	public ServiceSettings service(String serviceId) {
+		for (Map.Entry<String, ServiceSettings> entry : services.entrySet()) {
+			if (entry.getKey().equalsIgnoreCase(serviceId)) {
+				return entry.getValue();
+			}
+		}
+		return null;
+	}
+
+	public int getConsecutiveFailures() {
+		return consecutiveFailures;
+	}
+
+	public void setConsecutiveFailures(int consecutiveFailures) {
+		this.consecutiveFailures = consecutiveFailures;
+	}
+
+	public Duration getSlowCallThreshold() {
+		return slowCallThreshold;
+	}
+
+	public void setSlowCallThreshold(Duration slowCallThreshold) {
+		this.slowCallThreshold = slowCallThreshold;
+	}
+
+	public Duration getBaseEjectionTime() {
+		return baseEjectionTime;
+	}
+
+	public void setBaseEjectionTime(Duration baseEjectionTime) {
+		this.baseEjectionTime = baseEjectionTime;
+	}
+
+	public Duration getMaxEjectionTime() {
+		return maxEjectionTime;
+	}
+
+	public void setMaxEjectionTime(Duration maxEjectionTime) {
+		this.maxEjectionTime = maxEjectionTime;
+	}
+
+	public Duration getLatencyDecay() {
+		return latencyDecay;
+	}
+
+	public void setLatencyDecay(Duration latencyDecay) {
+		this.latencyDecay = latencyDecay;
+	}
+
+	public Map<String, ServiceSettings> getServices() {
+		return services;
+	}
+
+	public void setServices(Map<String, ServiceSettings> services) {
+		this.services = services;
+	}
+
+	/**
+	 * Slow call handling for one service
+	 */
+	public static class ServiceSettings {
+		/** Replaces the global slow call threshold */
+		private Duration slowCallThreshold;
+		/** Ant-style paths, as forwarded to the instance, whose duration is neither judged nor averaged */
+		private List<String> slowCallExemptPaths = new ArrayList<>();
+
+		public Duration getSlowCallThreshold() {
+			return slowCallThreshold;
+		}
+
+		public void setSlowCallThreshold(Duration slowCallThreshold) {
+			this.slowCallThreshold = slowCallThreshold;
+		}
+
+		public List<String> getSlowCallExemptPaths() {
+			return slowCallExemptPaths;
+		}
+
+		public void setSlowCallExemptPaths(List<String> slowCallExemptPaths) {
+			this.slowCallExemptPaths = slowCallExemptPaths;
+		}
+	}
+}
@@ -0,0 +1,179 @@
+package com.hospital.api_gateway.loadbalancer;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.CompletionContext;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerLifecycle;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.RequestDataContext;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.client.loadbalancer.ResponseData;
+import org.springframework.cloud.client.loadbalancer.TimedRequestContext;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+
+/**
+ * Tracks every instance the gateway routes to and picks the next one
+ *
+ * Picking is power of two choices: two random healthy instances are
+ * compared and the one with the lower latency-times-queue cost wins. That
+ * keeps load spread out while steering away from slow instances, without
+ * the herding a strict least-loaded pick causes.
+ *
+ * Instances are ejected after consecutive errors, 5xx responses or slow
+ * calls. What counts as slow can be set per service, and long-lived
+ * responses such as streams and exports can be exempted by path; their
+ * durations are also kept out of the latency average. Once the ejection period is over, a single request is let through
+ * as a probe; success reinstates the instance, failure ejects it for twice
+ * as long. If every instance is ejected, all of them are used rather than
+ * failing every request.
+ *
+ * Outcomes arrive through the load balancer lifecycle, which the gateway
+ * calls around each proxied request.
+ */
+@Component
+public class InstanceHealthRegistry
+		implements LoadBalancerLifecycle<RequestDataContext, ResponseData, ServiceInstance> {
+
+	private static final long IDLE_NANOS = TimeUnit.MINUTES.toNanos(10);
+	private static final Logger logger = LoggerFactory.getLogger(InstanceHealthRegistry.class);
+
+	private final AdaptiveLoadBalancerProperties properties;
+	private final Map<String, InstanceStats> stats = new ConcurrentHashMap<>();
+	private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+	public InstanceHealthRegistry(AdaptiveLoadBalancerProperties properties) {
+		this.properties = properties;
+	}
+
+	/**
+	 * Pick an instance for the next request
+	 *
+	 * @param instances The instances currently registered for the service, not empty
+	 */
+	public ServiceInstance choose(List<ServiceInstance> instances) {
+		long now = System.nanoTime();
+		List<ServiceInstance> healthy = new ArrayList<>(instances.size());
+		for (ServiceInstance instance : instances) {
+			InstanceStats instanceStats = stats(instance);
+			if (instanceStats.isHealthy()) {
+				healthy.add(instance);
+			} else if (instanceStats.tryStartProbe(now, properties)) {
+				logger.info("Probing ejected instance {} of {}", key(instance), instance.getServiceId());
+				return instance;
+			}
+		}
+		List<ServiceInstance> candidates = healthy.isEmpty() ? instances : healthy;
+		if (candidates.size() == 1) {
+			return candidates.get(0);
+		}
+		ThreadLocalRandom random = ThreadLocalRandom.current();
+		int first = random.nextInt(candidates.size());
+		int second = random.nextInt(candidates.size() - 1);
+		if (second >= first) {
+			second++;
+		}
+		ServiceInstance a = candidates.get(first);
+		ServiceInstance b = candidates.get(second);
+		return stats(a).cost() <= stats(b).cost() ? a : b;
+	}
+
+	@Override
+	public boolean supports(Class requestContextClass, Class responseClass, Class serverTypeClass) {
+		return RequestDataContext.class.isAssignableFrom(requestContextClass)
+			&& ResponseData.class.isAssignableFrom(responseClass)
+			&& ServiceInstance.class.isAssignableFrom(serverTypeClass);
+	}
+
+	@Override
+	public void onStart(Request<RequestDataContext> request) {
+	}
+
+	@Override
+	public void onStartRequest(Request<RequestDataContext> request, Response<ServiceInstance> lbResponse) {
+		if (!lbResponse.hasServer()) {
+			return;
+		}
+		if (request.getContext() instanceof TimedRequestContext timed && timed.getRequestStartTime() == 0) {
+			timed.setRequestStartTime(System.nanoTime());
+		}
+		stats(lbResponse.getServer()).started();
+	}
+
+	@Override
+	public void onComplete(CompletionContext<ResponseData, ServiceInstance, RequestDataContext> context) {
+		Response<ServiceInstance> lbResponse = context.getLoadBalancerResponse();
+		if (lbResponse == null || !lbResponse.hasServer()) {
+			return;
+		}
+		long latency = -1;
+		if (context.getLoadBalancerRequest() != null
+				&& context.getLoadBalancerRequest().getContext() instanceof TimedRequestContext timed
+				&& timed.getRequestStartTime() != 0) {
+			latency = System.nanoTime() - timed.getRequestStartTime();
+		}
+		ResponseData response = context.getClientResponse();
+		boolean failed = switch (context.status()) {
+			case FAILED -> true;
+			case SUCCESS -> response != null && response.getHttpStatus() != null
+				&& response.getHttpStatus().is5xxServerError();
+			case DISCARD -> false;
+		};
+		ServiceInstance instance = lbResponse.getServer();
+		AdaptiveLoadBalancerProperties.ServiceSettings service = properties.service(instance.getServiceId());
+		if (service != null && isExempt(service, context.getLoadBalancerRequest())) {
+			latency = -1;
+		}
+		if (latency > slowCallThreshold(service).toNanos()) {
+			failed = true;
+		}
+
+		if (stats(instance).completed(latency, failed, properties)) {
+			logger.warn("Ejected instance {} of {} after repeated failed or slow calls", key(instance),
+				instance.getServiceId());
+		}
+	}
+
+	@Scheduled(fixedDelay = 60_000)
+	public void evictIdle() {
+		long now = System.nanoTime();
+		stats.values().removeIf(instanceStats -> instanceStats.inFlight() == 0 && now - instanceStats.lastUsed() > IDLE_NANOS);
+	}
+
+	private Duration slowCallThreshold(AdaptiveLoadBalancerProperties.ServiceSettings service) {
+		return service != null && service.getSlowCallThreshold() != null
+			? service.getSlowCallThreshold() : properties.getSlowCallThreshold();
+	}
+
+	private boolean isExempt(AdaptiveLoadBalancerProperties.ServiceSettings service, Request<RequestDataContext> request) {
+		if (service.getSlowCallExemptPaths().isEmpty() || request == null || request.getContext() == null
+				|| request.getContext().getClientRequest() == null) {
+			return false;
+		}
+		String path = request.getContext().getClientRequest().getUrl().getPath();
+		for (String pattern : service.getSlowCallExemptPaths()) {
+			if (pathMatcher.match(pattern, path)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private InstanceStats stats(ServiceInstance instance) {
+		return stats.computeIfAbsent(key(instance), k -> new InstanceStats());
+	}
+
+	private static String key(ServiceInstance instance) {
+		return instance.getServiceId() + "/" + instance.getHost() + ":" + instance.getPort();
+	}
+}
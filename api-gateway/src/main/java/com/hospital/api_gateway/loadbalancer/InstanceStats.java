@@ -0,0 +1,111 @@
+package com.hospital.api_gateway.loadbalancer;
+
+/**
+ * Load and health of one service instance as seen by this gateway
+ *
+ * Latency is a time-decayed moving average, so an instance that slows down
+ * loses traffic within seconds and one that recovers regains it as new
+ * samples replace the old ones.
+ */
+final class InstanceStats {
+
+	enum State {
+		HEALTHY, EJECTED, PROBING
+	}
+
+	private int inFlight;
+	private double latencyNanos;
+	private long sampledAt;
+	private int consecutiveFailures;
+	private int ejections;
+	private long ejectedUntil;
+	private long probeStartedAt;
+	private State state = State.HEALTHY;
+	private long lastUsed = System.nanoTime();
+
+	synchronized void started() {
+		inFlight++;
+		lastUsed = System.nanoTime();
+	}
+
+	/**
+	 * Record a finished call
+	 *
+	 * @return true if this call ejected the instance
+	 */
+	synchronized boolean completed(long latency, boolean failed, AdaptiveLoadBalancerProperties properties) {
+		long now = System.nanoTime();
+		inFlight = Math.max(0, inFlight - 1);
+		lastUsed = now;
+		if (latency >= 0) {
+			double weight = sampledAt == 0 ? 0 : Math.exp(-(double) (now - sampledAt) / properties.getLatencyDecay().toNanos());
+			latencyNanos = latencyNanos * weight + latency * (1 - weight);
+			sampledAt = now;
+		}
+
+		if (!failed) {
+			consecutiveFailures = 0;
+			if (state == State.PROBING) {
+				state = State.HEALTHY;
+				ejections = 0;
+			}
+			return false;
+		}
+		if (state == State.PROBING || ++consecutiveFailures >= properties.getConsecutiveFailures()) {
+			eject(now, properties);
+			return true;
+		}
+		return false;
+	}
+
+	synchronized boolean isHealthy() {
+		return state == State.HEALTHY;
+	}
+
+	/**
+	 * Claim the single probe call for an ejected instance whose ejection period has passed
+	 * A probe that never reports back is replaced after another base period.
+	 *
+	 * @return true if the caller should send its request to this instance as the probe
+	 */
+	synchronized boolean tryStartProbe(long now, AdaptiveLoadBalancerProperties properties) {
+		boolean due = switch (state) {
+			case HEALTHY -> false;
+			case EJECTED -> ejectedUntil - now <= 0;
+			case PROBING -> now - probeStartedAt > properties.getBaseEjectionTime().toNanos();
+		};
+		if (due) {
+			state = State.PROBING;
+			probeStartedAt = now;
+		}
+		return due;
+	}
+
+	/**
+	 * Expected wait for a new call: average latency scaled by calls already queued on the instance
+	 */
+	synchronized double cost() {
+		return (latencyNanos + 1) * (inFlight + 1);
+	}
+
+	synchronized int inFlight() {
+		return inFlight;
+	}
+
+	synchronized State state() {
+		return state;
+	}
+
+	synchronized long lastUsed() {
+		return lastUsed;
+	}
+
+	private void eject(long now, AdaptiveLoadBalancerProperties properties) {
+		long base = properties.getBaseEjectionTime().toNanos();
+		long period = Math.min(properties.getMaxEjectionTime().toNanos(), base << Math.min(ejections, 16));
+		ejections++;
+		ejectedUntil = now + period;
+		consecutiveFailures = 0;
+		state = State.EJECTED;
+	}
+}
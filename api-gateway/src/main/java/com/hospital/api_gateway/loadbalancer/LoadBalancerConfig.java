@@ -0,0 +1,31 @@
+package com.hospital.api_gateway.loadbalancer;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.cloud.loadbalancer.annotation.LoadBalancerClients;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.beemo.common.client.RegistryPushLoadBalancerConfiguration;
+import com.beemo.common.client.RegistryPushSettings;
+import com.beemo.common.client.RegistrySubscriber;
+
+/**
+ * Use {@link AdaptiveLoadBalancer} for every {@code lb://} route instead of round-robin,
+ * choosing from instance lists kept current by registry pushes from eureka-server
+ */
+@Configuration
+@LoadBalancerClients(defaultConfiguration = { AdaptiveLoadBalancerConfiguration.class,
+		RegistryPushLoadBalancerConfiguration.class })
+public class LoadBalancerConfig {
+
+	@Bean
+	@ConfigurationProperties(prefix = "beemo.registry-push")
+	public RegistryPushSettings registryPushSettings() {
+		return new RegistryPushSettings();
+	}
+
+	@Bean
+	public RegistrySubscriber registrySubscriber(RegistryPushSettings registryPushSettings) {
+		return new RegistrySubscriber(registryPushSettings);
+	}
+}
@@ -0,0 +1,152 @@
+package com.hospital.api_gateway.ratelimit;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * In-process stand-in for Redis, serving the commands the rate limiter uses
+ *
+ * Supports PING, GET, INCR, INCRBY, EXPIRE and DEL on integer counters. Lets
+ * several gateways share limits in development, or in a small deployment,
+ * without running Redis: one instance serves the store and the others point
+ * {@code beemo.ratelimit.shared.host} at it.
+ */
+@Component
+@ConditionalOnProperty(name = "beemo.ratelimit.shared.embedded", havingValue = "true")
+public class EmbeddedRespServer {
+
+	private static final Logger logger = LoggerFactory.getLogger(EmbeddedRespServer.class);
+
+	private record Counter(long value, long expiresAt) {
+		boolean isExpired(long now) {
+			return expiresAt != 0 && now >= expiresAt;
+		}
+	}
+
+	private final RateLimitProperties.Shared config;
+	private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+	private ServerSocket serverSocket;
+
+	public EmbeddedRespServer(RateLimitProperties properties) {
+		this.config = properties.getShared();
+	}
+
+	@PostConstruct
+	public void start() throws IOException {
+		serverSocket = new ServerSocket();
+		serverSocket.bind(new InetSocketAddress(InetAddress.getByName(config.getHost()), config.getPort()));
+		Thread.ofVirtual().name("rate-limit-store-accept").start(this::acceptLoop);
+		logger.info("Embedded rate limit store listening on {}:{}", config.getHost(), config.getPort());
+	}
+
+	@PreDestroy
+	public void stop() throws IOException {
+		serverSocket.close();
+	}
+
+	@Scheduled(fixedDelay = 1000)
+	public void purgeExpired() {
+		long now = System.currentTimeMillis();
+		counters.values().removeIf(counter -> counter.isExpired(now));
+	}
+
+	private void acceptLoop() {
+		while (!serverSocket.isClosed()) {
+			try {
+				Socket client = serverSocket.accept();
+				client.setTcpNoDelay(true);
+				Thread.ofVirtual().name("rate-limit-store-client").start(() -> serve(client));
+			} catch (IOException e) {
+				if (!serverSocket.isClosed()) {
+					logger.warn("Embedded rate limit store failed to accept a connection", e);
+				}
+			}
+		}
+	}
+
+	private void serve(Socket client) {
+		try (client) {
+			InputStream in = new BufferedInputStream(client.getInputStream());
+			OutputStream out = new BufferedOutputStream(client.getOutputStream());
+			while (true) {
+				Object command = Resp.read(in);
+				if (command instanceof List<?> args && !args.isEmpty()) {
+					execute(args, out);
+				} else {
+					Resp.writeError(out, "expected a command array");
+				}
+				// Flush once the pipelined commands already received are answered
+				if (in.available() == 0) {
+					out.flush();
+				}
+			}
+		} catch (IOException e) {
+			// Client disconnected
+		}
+	}
+
+	private void execute(List<?> args, OutputStream out) throws IOException {
+		String name = String.valueOf(args.get(0)).toUpperCase(Locale.ROOT);
+		long now = System.currentTimeMillis();
+		try {
+			switch (name) {
+				case "PING" -> Resp.writeSimple(out, "PONG");
+				case "GET" -> {
+					Counter counter = live(String.valueOf(args.get(1)), now);
+					Resp.writeBulk(out, counter == null ? null : Long.toString(counter.value()));
+				}
+				case "INCR", "INCRBY" -> {
+					long delta = name.equals("INCR") ? 1 : Long.parseLong(String.valueOf(args.get(2)));
+					Counter updated = counters.compute(String.valueOf(args.get(1)), (key, counter) ->
+						counter == null || counter.isExpired(now)
+							? new Counter(delta, 0)
+							: new Counter(counter.value() + delta, counter.expiresAt()));
+					Resp.writeInteger(out, updated.value());
+				}
+				case "EXPIRE" -> {
+					long expiresAt = now + Long.parseLong(String.valueOf(args.get(2))) * 1000;
+					Counter updated = counters.computeIfPresent(String.valueOf(args.get(1)), (key, counter) ->
+						counter.isExpired(now) ? null : new Counter(counter.value(), expiresAt));
+					Resp.writeInteger(out, updated == null ? 0 : 1);
+				}
+				case "DEL" -> {
+					long removed = 0;
+					for (int i = 1; i < args.size(); i++) {
+						removed += counters.remove(String.valueOf(args.get(i))) != null ? 1 : 0;
+					}
+					Resp.writeInteger(out, removed);
+				}
+				default -> Resp.writeError(out, "unknown command '" + name + "'");
+			}
+		} catch (IndexOutOfBoundsException e) {
+			Resp.writeError(out, "wrong number of arguments for '" + name + "'");
+		} catch (NumberFormatException e) {
+			Resp.writeError(out, "value is not an integer or out of range");
+		}
+	}
+
+	private Counter live(String key, long now) {
+		Counter counter = counters.get(key);
+		return counter == null || counter.isExpired(now) ? null : counter;
+	}
+}
@@ -0,0 +1,96 @@
+package com.hospital.api_gateway.ratelimit;
+
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+
+import com.hospital.api_gateway.security.JwtAuthenticationFilter;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Admission control per route and per caller
+ *
+ * Each request takes one token from the caller's bucket on its route and
+ * one from the route's bucket. The caller is checked first, and its token is
+ * refunded if the route is full, so one caller over its limit cannot drain
+ * the route's shared budget for everyone else. Callers are identified by token subject,
+ * or by client IP when anonymous, so login brute-forcing is limited too.
+ * Rejected requests get 429 with Retry-After and never reach a backend.
+ */
+@Component
+public class RateLimitFilter implements GlobalFilter, Ordered {
+
+	private final RateLimiter rateLimiter;
+	private final RateLimitProperties properties;
+
+	public RateLimitFilter(RateLimiter rateLimiter, RateLimitProperties properties) {
+		this.rateLimiter = rateLimiter;
+		this.properties = properties;
+	}
+
+	@Override
+	public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+		Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+		if (!properties.isEnabled() || route == null) {
+			return chain.filter(exchange);
+		}
+		String routeId = route.getId();
+
+		String callerKey = "caller:" + routeId + ":" + caller(exchange);
+		RateLimiter.Decision callerDecision = rateLimiter.tryAcquire(callerKey, properties.userLimit(routeId));
+		if (!callerDecision.allowed()) {
+			return tooManyRequests(exchange, callerDecision);
+		}
+		RateLimiter.Decision routeDecision = rateLimiter.tryAcquire("route:" + routeId, properties.routeLimit(routeId));
+		if (!routeDecision.allowed()) {
+			rateLimiter.refund(callerKey);
+			return tooManyRequests(exchange, routeDecision);
+		}
+		exchange.getResponse().getHeaders().set("X-RateLimit-Remaining", Long.toString(callerDecision.remaining()));
+		return chain.filter(exchange);
+	}
+
+	/**
+	 * After authentication, so callers are keyed by verified subject
+	 */
+	@Override
+	public int getOrder() {
+		return Ordered.HIGHEST_PRECEDENCE + 20;
+	}
+
+	private static String caller(ServerWebExchange exchange) {
+		String subject = exchange.getAttribute(JwtAuthenticationFilter.SUBJECT_ATTRIBUTE);
+		if (subject != null) {
+			return "sub:" + subject;
+		}
+		InetSocketAddress remote = exchange.getRequest().getRemoteAddress();
+		return "ip:" + (remote != null && remote.getAddress() != null ? remote.getAddress().getHostAddress() : "unknown");
+	}
+
+	private static Mono<Void> tooManyRequests(ServerWebExchange exchange, RateLimiter.Decision decision) {
+		ServerHttpResponse response = exchange.getResponse();
+		long retryAfterSeconds = decision.retryAfterNanos() == Long.MAX_VALUE
+			? 60
+			: Math.max(1, TimeUnit.NANOSECONDS.toSeconds(decision.retryAfterNanos() + 999_999_999));
+		response.setStatusCode(HttpStatus.TOO_MANY_REQUESTS);
+		response.getHeaders().set("Retry-After", Long.toString(retryAfterSeconds));
+		response.getHeaders().set("X-RateLimit-Remaining", "0");
+		response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+		byte[] body = "{\"error\":\"Too Many Requests\",\"message\":\"Rate limit exceeded\"}".getBytes(StandardCharsets.UTF_8);
+		DataBuffer buffer = response.bufferFactory().wrap(body);
+		return response.writeWith(Mono.just(buffer));
+	}
+}
@@ -0,0 +1,186 @@
+package com.hospital.api_gateway.ratelimit;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Rate limits applied by {@link RateLimitFilter}, bound from {@code beemo.ratelimit}
+ */
+@ConfigurationProperties(prefix = "beemo.ratelimit")
+public class RateLimitProperties {
+
+	private boolean enabled = true;
+	/** Limit shared by every caller of a route */
+	private Limit defaultRoute = new Limit(200, 100);
+	/** Limit per caller (token subject, or client IP when anonymous) on a route */
+	private Limit defaultUser = new Limit(20, 10);
+	/** Overrides by route ID */
+	private Map<String, RouteLimits> routes = new HashMap<>();
+	private Shared shared = new Shared();
+
+	public Limit routeLimit(String routeId) {
+		RouteLimits limits = routes.get(routeId);
+		return limits != null && limits.getRoute() != null ? limits.getRoute() : defaultRoute;
+	}
+
+	public Limit userLimit(String routeId) {
+		RouteLimits limits = routes.get(routeId);
+		return limits != null && limits.getUser() != null ? limits.getUser() : defaultUser;
+	}
+
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	public void setEnabled(boolean enabled) {
+		this.enabled = enabled;
+	}
+
+	public Limit getDefaultRoute() {
+		return defaultRoute;
+	}
+
+	public void setDefaultRoute(Limit defaultRoute) {
+		this.defaultRoute = defaultRoute;
+	}
+
+	public Limit getDefaultUser() {
+		return defaultUser;
+	}
+
+	public void setDefaultUser(Limit defaultUser) {
+		this.defaultUser = defaultUser;
+	}
+
+	public Map<String, RouteLimits> getRoutes() {
+		return routes;
+	}
+
+	public void setRoutes(Map<String, RouteLimits> routes) {
+		this.routes = routes;
+	}
+
+	public Shared getShared() {
+		return shared;
+	}
+
+	public void setShared(Shared shared) {
+		this.shared = shared;
+	}
+
+	/**
+	 * Token bucket size and refill rate
+	 */
+	public static class Limit {
+		private long capacity;
+		private double refillPerSecond;
+
+		public Limit() {
+		}
+
+		public Limit(long capacity, double refillPerSecond) {
+			this.capacity = capacity;
+			this.refillPerSecond = refillPerSecond;
+		}
+
+		public long getCapacity() {
+			return capacity;
+		}
+
+		public void setCapacity(long capacity) {
+			this.capacity = capacity;
+		}
+
+		public double getRefillPerSecond() {
+			return refillPerSecond;
+		}
+
+		public void setRefillPerSecond(double refillPerSecond) {
+			this.refillPerSecond = refillPerSecond;
+		}
+	}
+
+	public static class RouteLimits {
+		private Limit route;
+		private Limit user;
+
+		public Limit getRoute() {
+			return route;
+		}
+
+		public void setRoute(Limit route) {
+			this.route = route;
+		}
+
+		public Limit getUser() {
+			return user;
+		}
+
+		public void setUser(Limit user) {
+			this.user = user;
+		}
+	}
+
+	/**
+	 * Redis-protocol store used to share consumption between gateway instances
+	 */
+	public static class Shared {
+		private boolean enabled;
+		private String host = "localhost";
+		private int port = 6379;
+		private long syncIntervalMs = 100;
+		private int timeoutMs = 200;
+		/** Serve the store from this gateway instead of an external Redis */
+		private boolean embedded;
+
+		public boolean isEnabled() {
+			return enabled;
+		}
+
+		public void setEnabled(boolean enabled) {
+			this.enabled = enabled;
+		}
+
+		public String getHost() {
+			return host;
+		}
+
+		public void setHost(String host) {
+			this.host = host;
+		}
+
+		public int getPort() {
+			return port;
+		}
+
+		public void setPort(int port) {
+			this.port = port;
+		}
+
+		public long getSyncIntervalMs() {
+			return syncIntervalMs;
+		}
+
+		public void setSyncIntervalMs(long syncIntervalMs) {
+			this.syncIntervalMs = syncIntervalMs;
+		}
+
+		public int getTimeoutMs() {
+			return timeoutMs;
+		}
+
+		public void setTimeoutMs(int timeoutMs) {
+			this.timeoutMs = timeoutMs;
+		}
+
+		public boolean isEmbedded() {
+			return embedded;
+		}
+
+		public void setEmbedded(boolean embedded) {
+			this.embedded = embedded;
+		}
+	}
+}
@@ -0,0 +1,67 @@
+package com.hospital.api_gateway.ratelimit;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Local token buckets by key
+ *
+ * Decisions only touch the bucket for the key, so they never block or wait
+ * on the network. Buckets idle for a minute are dropped; a new bucket starts
+ * full, which is what an idle bucket would have refilled to anyway.
+ */
+@Component
+public class RateLimiter {
+
+	private static final long IDLE_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+	/**
+	 * @param allowed Whether the request may proceed
+	 * @param remaining Tokens left in the bucket
+	 * @param retryAfterNanos How long to wait before retrying, when not allowed
+	 */
+	public record Decision(boolean allowed, long remaining, long retryAfterNanos) {
+	}
+
+	private final Map<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+
+	public Decision tryAcquire(String key, RateLimitProperties.Limit limit) {
+		long now = System.nanoTime();
+		TokenBucket bucket = buckets.computeIfAbsent(key, k -> new TokenBucket(limit, now));
+		long wait = bucket.tryConsume(now);
+		return new Decision(wait == 0, bucket.remaining(now), wait);
+	}
+
+	/**
+	 * Return the token taken by an allowed {@link #tryAcquire} on this key
+	 */
+	public void refund(String key) {
+		TokenBucket bucket = buckets.get(key);
+		if (bucket != null) {
+			bucket.refund(System.nanoTime());
+		}
+	}
+
+	/**
+	 * Visit buckets used within the last {@code withinNanos}
+	 */
+	void forEachActive(long withinNanos, BiConsumer<String, TokenBucket> action) {
+		long now = System.nanoTime();
+		buckets.forEach((key, bucket) -> {
+			if (now - bucket.lastUsed() <= withinNanos) {
+				action.accept(key, bucket);
+			}
+		});
+	}
+
+	@Scheduled(fixedDelay = 30_000)
+	public void evictIdle() {
+		long now = System.nanoTime();
+		buckets.values().removeIf(bucket -> now - bucket.lastUsed() > IDLE_NANOS);
+	}
+}
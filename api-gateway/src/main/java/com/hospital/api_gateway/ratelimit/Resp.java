@@ -0,0 +1,116 @@
+package com.hospital.api_gateway.ratelimit;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Minimal RESP (Redis serialization protocol) codec
+ *
+ * Covers what the rate limiter and its embedded store exchange: commands as
+ * arrays of bulk strings, and simple string, error, integer, bulk and array
+ * replies.
+ */
+final class Resp {
+
+	/** Error reply from the server */
+	record Error(String message) {
+	}
+
+	private Resp() {
+	}
+
+	static void writeCommand(OutputStream out, String... args) throws IOException {
+		out.write(('*' + Integer.toString(args.length) + "\r\n").getBytes(StandardCharsets.US_ASCII));
+		for (String arg : args) {
+			writeBulk(out, arg);
+		}
+	}
+
+	static void writeBulk(OutputStream out, String value) throws IOException {
+		if (value == null) {
+			out.write("$-1\r\n".getBytes(StandardCharsets.US_ASCII));
+			return;
+		}
+		byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+		out.write(('$' + Integer.toString(bytes.length) + "\r\n").getBytes(StandardCharsets.US_ASCII));
+		out.write(bytes);
+		out.write("\r\n".getBytes(StandardCharsets.US_ASCII));
+	}
+
+	static void writeSimple(OutputStream out, String value) throws IOException {
+		out.write(('+' + value + "\r\n").getBytes(StandardCharsets.US_ASCII));
+	}
+
+	static void writeError(OutputStream out, String message) throws IOException {
+		out.write(("-ERR " + message + "\r\n").getBytes(StandardCharsets.US_ASCII));
+	}
+
+	static void writeInteger(OutputStream out, long value) throws IOException {
+		out.write((':' + Long.toString(value) + "\r\n").getBytes(StandardCharsets.US_ASCII));
+	}
+
+	/**
+	 * Read one value
+	 *
+	 * @return A String, Long, List, {@link Error} or null for a nil reply
+	 */
+	static Object read(InputStream in) throws IOException {
+		int type = in.read();
+		if (type < 0) {
+			throw new EOFException();
+		}
+		String line = readLine(in);
+		switch (type) {
+			case '+':
+				return line;
+			case '-':
+				return new Error(line);
+			case ':':
+				return Long.parseLong(line);
+			case '$': {
+				int length = Integer.parseInt(line);
+				if (length < 0) {
+					return null;
+				}
+				byte[] bytes = in.readNBytes(length);
+				if (bytes.length < length || in.read() != '\r' || in.read() != '\n') {
+					throw new EOFException();
+				}
+				return new String(bytes, StandardCharsets.UTF_8);
+			}
+			case '*': {
+				int count = Integer.parseInt(line);
+				if (count < 0) {
+					return null;
+				}
+				List<Object> items = new ArrayList<>(count);
+				for (int i = 0; i < count; i++) {
+					items.add(read(in));
+				}
+				return items;
+			}
+			default:
+				throw new IOException("Unexpected RESP type '" + (char) type + "'");
+		}
+	}
+
+	private static String readLine(InputStream in) throws IOException {
+		StringBuilder line = new StringBuilder();
+		int c;
+		while ((c = in.read()) != '\r') {
+			if (c < 0) {
+				throw new EOFException();
+			}
+			line.append((char) c);
+		}
+		if (in.read() != '\n') {
+			throw new IOException("Malformed RESP line");
+		}
+		return line.toString();
+	}
+}
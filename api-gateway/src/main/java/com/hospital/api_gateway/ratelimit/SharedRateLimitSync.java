@@ -0,0 +1,110 @@
+package com.hospital.api_gateway.ratelimit;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Shares rate limit consumption between gateway instances through a Redis-protocol store
+ *
+ * Every sync interval each instance adds the tokens it handed out to a
+ * per-second counter ({@code INCRBY} + {@code EXPIRE}, one pipelined round
+ * trip for all active buckets). When a counter shows the whole cluster has
+ * used the second's budget, the local bucket is drained, so this instance
+ * stops admitting until it refills. Requests are never held for the store:
+ * the cluster may overshoot by at most one sync interval of traffic, and if
+ * the store is unreachable each instance simply enforces its local limits.
+ */
+@Component
+@ConditionalOnProperty(name = "beemo.ratelimit.shared.enabled", havingValue = "true")
+public class SharedRateLimitSync {
+
+	private static final Logger logger = LoggerFactory.getLogger(SharedRateLimitSync.class);
+	private static final long ACTIVE_NANOS = TimeUnit.SECONDS.toNanos(2);
+
+	private record Pending(String counterKey, TokenBucket bucket, long used) {
+	}
+
+	private final RateLimiter rateLimiter;
+	private final RateLimitProperties.Shared config;
+	private Socket socket;
+	private InputStream in;
+	private OutputStream out;
+
+	public SharedRateLimitSync(RateLimiter rateLimiter, RateLimitProperties properties) {
+		this.rateLimiter = rateLimiter;
+		this.config = properties.getShared();
+	}
+
+	@Scheduled(fixedDelayString = "${beemo.ratelimit.shared.sync-interval-ms:100}")
+	public void sync() {
+		long second = System.currentTimeMillis() / 1000;
+		List<Pending> pending = new ArrayList<>();
+		rateLimiter.forEachActive(ACTIVE_NANOS, (key, bucket) ->
+			pending.add(new Pending("rl:" + key + ":" + second, bucket, bucket.takeUnsynced())));
+		if (pending.isEmpty()) {
+			return;
+		}
+
+		try {
+			connect();
+			for (Pending entry : pending) {
+				Resp.writeCommand(out, "INCRBY", entry.counterKey(), Long.toString(entry.used()));
+				Resp.writeCommand(out, "EXPIRE", entry.counterKey(), "2");
+			}
+			out.flush();
+			long now = System.nanoTime();
+			for (Pending entry : pending) {
+				Object total = Resp.read(in);
+				Resp.read(in);
+				if (total instanceof Long used && used >= entry.bucket().globalBudgetPerSecond()) {
+					entry.bucket().drain(now);
+				}
+			}
+		} catch (IOException | RuntimeException e) {
+			logger.warn("Rate limit store {}:{} unavailable, enforcing local limits only: {}",
+				config.getHost(), config.getPort(), e.toString());
+			disconnect();
+		}
+	}
+
+	@PreDestroy
+	public void disconnect() {
+		if (socket != null) {
+			try {
+				socket.close();
+			} catch (IOException e) {
+				// Nothing left to release
+			}
+			socket = null;
+		}
+	}
+
+	private void connect() throws IOException {
+		if (socket != null) {
+			return;
+		}
+		Socket connection = new Socket();
+		connection.connect(new InetSocketAddress(config.getHost(), config.getPort()), config.getTimeoutMs());
+		connection.setSoTimeout(config.getTimeoutMs());
+		connection.setTcpNoDelay(true);
+		socket = connection;
+		in = new BufferedInputStream(connection.getInputStream());
+		out = new BufferedOutputStream(connection.getOutputStream());
+	}
+}
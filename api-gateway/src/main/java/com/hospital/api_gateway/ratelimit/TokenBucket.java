@@ -0,0 +1,100 @@
+package com.hospital.api_gateway.ratelimit;
+
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free token bucket
+ *
+ * The bucket state is one immutable snapshot swapped with compare-and-set,
+ * and tokens are refilled lazily from the time elapsed since the last swap,
+ * so no timer or lock is involved in a decision.
+ */
+final class TokenBucket {
+
+	private record State(double tokens, long refilledAt) {
+	}
+
+	private final long capacity;
+	private final double refillPerNano;
+	private final long globalBudgetPerSecond;
+	private final AtomicReference<State> state;
+	/** Tokens taken since the last sync with the shared store */
+	private final LongAdder unsynced = new LongAdder();
+	private volatile long lastUsed;
+
+	TokenBucket(RateLimitProperties.Limit limit, long now) {
+		this.capacity = limit.getCapacity();
+		this.refillPerNano = limit.getRefillPerSecond() / 1_000_000_000d;
+		this.globalBudgetPerSecond = Math.max(1, Math.round(limit.getRefillPerSecond()));
+		this.state = new AtomicReference<>(new State(capacity, now));
+		this.lastUsed = now;
+	}
+
+	/**
+	 * Take one token if available
+	 *
+	 * @return 0 if a token was taken, otherwise the nanoseconds until one will be
+	 */
+	long tryConsume(long now) {
+		lastUsed = now;
+		while (true) {
+			State current = state.get();
+			double tokens = refill(current, now);
+			if (tokens < 1) {
+				return refillPerNano > 0 ? (long) Math.ceil((1 - tokens) / refillPerNano) : Long.MAX_VALUE;
+			}
+			if (state.compareAndSet(current, new State(tokens - 1, now))) {
+				unsynced.increment();
+				return 0;
+			}
+		}
+	}
+
+	/**
+	 * Give back a token taken by {@link #tryConsume} for a request that was
+	 * rejected elsewhere, so it does not count against this bucket
+	 */
+	void refund(long now) {
+		while (true) {
+			State current = state.get();
+			if (state.compareAndSet(current, new State(Math.min(capacity, refill(current, now) + 1), now))) {
+				unsynced.decrement();
+				return;
+			}
+		}
+	}
+
+	/**
+	 * Remaining whole tokens, for the X-RateLimit-Remaining header
+	 */
+	long remaining(long now) {
+		return (long) refill(state.get(), now);
+	}
+
+	/**
+	 * Empty the bucket because other instances used up the shared budget
+	 */
+	void drain(long now) {
+		State current;
+		do {
+			current = state.get();
+		} while (!state.compareAndSet(current, new State(0, now)));
+	}
+
+	long takeUnsynced() {
+		return unsynced.sumThenReset();
+	}
+
+	long globalBudgetPerSecond() {
+		return globalBudgetPerSecond;
+	}
+
+	long lastUsed() {
+		return lastUsed;
+	}
+
+	private double refill(State current, long now) {
+		return Math.min(capacity, current.tokens() + Math.max(0, now - current.refilledAt()) * refillPerNano);
+	}
+}
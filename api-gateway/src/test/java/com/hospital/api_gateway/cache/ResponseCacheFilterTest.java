@@ -0,0 +1,191 @@
+package com.hospital.api_gateway.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.ServerWebExchange;
+
+import com.hospital.api_gateway.security.JwtAuthenticationFilter;
+
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+class ResponseCacheFilterTest {
+
+	private ResponseCacheFilter filter;
+	/** If-None-Match of every request that reached the backend */
+	private final List<List<String>> upstreamValidators = new ArrayList<>();
+	private String cacheControl;
+	private String etag;
+	private HttpStatus upstreamStatus = HttpStatus.OK;
+	private Mono<Void> upstreamGate = Mono.empty();
+
+	@BeforeEach
+	void setUp() {
+		ResponseCacheProperties.Rule rule = new ResponseCacheProperties.Rule();
+		rule.setPath("/products/**");
+		rule.setTtl(Duration.ofMinutes(1));
+		ResponseCacheProperties properties = new ResponseCacheProperties();
+		properties.setRules(List.of(rule));
+		filter = new ResponseCacheFilter(new ResponseCache(properties), properties);
+	}
+
+	@Test
+	void secondRequestIsServedFromTheCache() {
+		MockServerWebExchange miss = get("/products/1");
+		MockServerWebExchange hit = get("/products/1");
+
+		assertEquals("MISS", miss.getResponse().getHeaders().getFirst("X-Cache"));
+		assertEquals("HIT", hit.getResponse().getHeaders().getFirst("X-Cache"));
+		assertEquals("product /products/1", hit.getResponse().getBodyAsString().block());
+		assertEquals(1, upstreamValidators.size());
+	}
+
+	@Test
+	void entriesAreKeptApartPerCaller() {
+		exchange("/products/1", "alice", null);
+		exchange("/products/1", "bob", null);
+		MockServerWebExchange again = exchange("/products/1", "alice", null);
+
+		assertEquals(2, upstreamValidators.size());
+		assertEquals("HIT", again.getResponse().getHeaders().getFirst("X-Cache"));
+	}
+
+	@Test
+	void pathsWithoutARuleAreNotCached() {
+		MockServerWebExchange first = get("/orders/1");
+		get("/orders/1");
+
+		assertNull(first.getResponse().getHeaders().getFirst("X-Cache"));
+		assertEquals(2, upstreamValidators.size());
+	}
+
+	@Test
+	void noStoreAndPrivateResponsesAreNotCached() {
+		cacheControl = "no-store";
+		get("/products/1");
+		get("/products/1");
+		cacheControl = "private, max-age=60";
+		get("/products/2");
+		get("/products/2");
+
+		assertEquals(4, upstreamValidators.size());
+	}
+
+	@Test
+	void staleEntryIsRevalidatedWithItsETag() {
+		cacheControl = "max-age=0";
+		etag = "\"v1\"";
+		get("/products/1");
+
+		upstreamStatus = HttpStatus.NOT_MODIFIED;
+		MockServerWebExchange revalidated = get("/products/1");
+
+		assertEquals(List.of(List.of(), List.of("\"v1\"")), upstreamValidators);
+		assertEquals(HttpStatus.OK, revalidated.getResponse().getStatusCode());
+		assertEquals("REVALIDATED", revalidated.getResponse().getHeaders().getFirst("X-Cache"));
+		assertEquals("product /products/1", revalidated.getResponse().getBodyAsString().block());
+	}
+
+	@Test
+	void clientValidatorIsAnsweredAtTheGateway() {
+		etag = "\"v1\"";
+		get("/products/1");
+
+		MockServerWebExchange conditional = exchange("/products/1", null, "W/\"v1\"");
+
+		assertEquals(HttpStatus.NOT_MODIFIED, conditional.getResponse().getStatusCode());
+		assertEquals(1, upstreamValidators.size());
+	}
+
+	@Test
+	void clientValidatorOnAMissIsNotForwardedButStillAnswered() {
+		etag = "\"v1\"";
+
+		MockServerWebExchange conditional = exchange("/products/1", null, "\"v1\"");
+
+		assertEquals(List.of(List.of()), upstreamValidators);
+		assertEquals(HttpStatus.NOT_MODIFIED, conditional.getResponse().getStatusCode());
+		assertEquals("", conditional.getResponse().getBodyAsString().defaultIfEmpty("").block());
+	}
+
+	@Test
+	void concurrentMissesShareOneUpstreamRequest() throws Exception {
+		Sinks.Empty<Void> release = Sinks.empty();
+		upstreamGate = release.asMono();
+		MockServerWebExchange leader = request("/products/1", null, null);
+		MockServerWebExchange follower = request("/products/1", null, null);
+
+		CompletableFuture<Void> leading = filter.filter(leader, chain()).toFuture();
+		CompletableFuture<Void> following = filter.filter(follower, chain()).toFuture();
+		release.tryEmitEmpty();
+		leading.get(5, TimeUnit.SECONDS);
+		following.get(5, TimeUnit.SECONDS);
+
+		assertEquals(1, upstreamValidators.size());
+		assertEquals("HIT", follower.getResponse().getHeaders().getFirst("X-Cache"));
+		assertEquals("product /products/1", follower.getResponse().getBodyAsString().block());
+	}
+
+	private MockServerWebExchange get(String path) {
+		return exchange(path, null, null);
+	}
+
+	private MockServerWebExchange exchange(String path, String subject, String ifNoneMatch) {
+		MockServerWebExchange exchange = request(path, subject, ifNoneMatch);
+		filter.filter(exchange, chain()).block(Duration.ofSeconds(5));
+		return exchange;
+	}
+
+	private static MockServerWebExchange request(String path, String subject, String ifNoneMatch) {
+		MockServerHttpRequest.BaseBuilder<?> request = MockServerHttpRequest.get(path);
+		if (ifNoneMatch != null) {
+			request.header(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+		}
+		MockServerWebExchange exchange = MockServerWebExchange.from(request);
+		if (subject != null) {
+			exchange.getAttributes().put(JwtAuthenticationFilter.SUBJECT_ATTRIBUTE, subject);
+		}
+		return exchange;
+	}
+
+	/**
+	 * Backend answering every path with a small body and the configured headers
+	 */
+	private GatewayFilterChain chain() {
+		return exchange -> {
+			upstreamValidators.add(exchange.getRequest().getHeaders().getIfNoneMatch());
+			return upstreamGate.then(Mono.defer(() -> respond(exchange)));
+		};
+	}
+
+	private Mono<Void> respond(ServerWebExchange exchange) {
+		HttpHeaders headers = exchange.getResponse().getHeaders();
+		exchange.getResponse().setStatusCode(upstreamStatus);
+		if (cacheControl != null) {
+			headers.setCacheControl(cacheControl);
+		}
+		if (etag != null) {
+			headers.setETag(etag);
+		}
+		if (upstreamStatus == HttpStatus.NOT_MODIFIED) {
+			return exchange.getResponse().writeWith(Mono.empty());
+		}
+		byte[] body = ("product " + exchange.getRequest().getPath().value()).getBytes(StandardCharsets.UTF_8);
+		return exchange.getResponse().writeWith(Mono.just(exchange.getResponse().bufferFactory().wrap(body)));
+	}
+}
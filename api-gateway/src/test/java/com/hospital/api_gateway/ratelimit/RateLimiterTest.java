@@ -0,0 +1,66 @@
+package com.hospital.api_gateway.ratelimit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+class RateLimiterTest {
+
+	private final RateLimiter limiter = new RateLimiter();
+	private final RateLimitProperties.Limit limit = new RateLimitProperties.Limit(2, 0);
+
+	@Test
+	void allowsUpToCapacityPerKey() {
+		RateLimiter.Decision first = limiter.tryAcquire("user:1", limit);
+		assertTrue(first.allowed());
+		assertEquals(1, first.remaining());
+		assertTrue(limiter.tryAcquire("user:1", limit).allowed());
+
+		RateLimiter.Decision rejected = limiter.tryAcquire("user:1", limit);
+		assertFalse(rejected.allowed());
+		assertEquals(0, rejected.remaining());
+		assertTrue(rejected.retryAfterNanos() > 0);
+
+		// Other keys have their own bucket
+		assertTrue(limiter.tryAcquire("user:2", limit).allowed());
+	}
+
+	@Test
+	void refundMakesRoomForAnotherRequest() {
+		limiter.tryAcquire("route:orders", limit);
+		limiter.tryAcquire("route:orders", limit);
+
+		limiter.refund("route:orders");
+
+		assertTrue(limiter.tryAcquire("route:orders", limit).allowed());
+		assertFalse(limiter.tryAcquire("route:orders", limit).allowed());
+	}
+
+	@Test
+	void refundOfAnUnknownKeyIsIgnored() {
+		limiter.refund("user:unknown");
+
+		List<String> keys = new ArrayList<>();
+		limiter.forEachActive(TimeUnit.MINUTES.toNanos(1), (key, bucket) -> keys.add(key));
+		assertEquals(List.of(), keys);
+	}
+
+	@Test
+	void forEachActiveVisitsRecentlyUsedBuckets() {
+		limiter.tryAcquire("user:1", limit);
+
+		List<String> keys = new ArrayList<>();
+		limiter.forEachActive(TimeUnit.MINUTES.toNanos(1), (key, bucket) -> keys.add(key));
+		assertEquals(List.of("user:1"), keys);
+
+		keys.clear();
+		limiter.forEachActive(-1, (key, bucket) -> keys.add(key));
+		assertEquals(List.of(), keys);
+	}
+}
@@ -0,0 +1,105 @@
+package com.hospital.api_gateway.ratelimit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+class TokenBucketTest {
+
+	private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+	@Test
+	void startsFullAndRejectsOnceEmpty() {
+		TokenBucket bucket = new TokenBucket(new RateLimitProperties.Limit(3, 1), 0);
+
+		for (int i = 0; i < 3; i++) {
+			assertEquals(0, bucket.tryConsume(0));
+		}
+		assertEquals(0, bucket.remaining(0));
+		assertEquals(SECOND, bucket.tryConsume(0), 10);
+	}
+
+	@Test
+	void refillsFromElapsedTimeUpToCapacity() {
+		TokenBucket bucket = new TokenBucket(new RateLimitProperties.Limit(2, 4), 0);
+		bucket.tryConsume(0);
+		bucket.tryConsume(0);
+
+		// Four tokens a second: one is back after 250ms, half of the next after another 125ms
+		long quarter = SECOND / 4 + 1;
+		assertEquals(1, bucket.remaining(quarter));
+		assertEquals(0, bucket.tryConsume(quarter));
+		assertEquals(SECOND / 8, bucket.tryConsume(quarter + SECOND / 8), 10);
+
+		assertEquals(2, bucket.remaining(10 * SECOND));
+	}
+
+	@Test
+	void neverRefillsWithoutARate() {
+		TokenBucket bucket = new TokenBucket(new RateLimitProperties.Limit(1, 0), 0);
+		bucket.tryConsume(0);
+
+		assertEquals(Long.MAX_VALUE, bucket.tryConsume(100 * SECOND));
+	}
+
+	@Test
+	void refundReturnsATokenWithoutExceedingCapacity() {
+		TokenBucket bucket = new TokenBucket(new RateLimitProperties.Limit(2, 1), 0);
+		bucket.tryConsume(0);
+		bucket.tryConsume(0);
+
+		bucket.refund(0);
+		assertEquals(1, bucket.remaining(0));
+		assertEquals(1, bucket.takeUnsynced());
+
+		bucket.refund(0);
+		bucket.refund(0);
+		assertEquals(2, bucket.remaining(0));
+	}
+
+	@Test
+	void drainEmptiesTheBucketUntilItRefills() {
+		TokenBucket bucket = new TokenBucket(new RateLimitProperties.Limit(5, 1), 0);
+
+		bucket.drain(0);
+
+		assertTrue(bucket.tryConsume(0) > 0);
+		assertEquals(0, bucket.tryConsume(SECOND + 1));
+	}
+
+	@Test
+	void concurrentConsumersNeverTakeMoreThanCapacity() throws InterruptedException {
+		TokenBucket bucket = new TokenBucket(new RateLimitProperties.Limit(1000, 0), 0);
+		AtomicInteger taken = new AtomicInteger();
+		CountDownLatch start = new CountDownLatch(1);
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+		for (int thread = 0; thread < 8; thread++) {
+			executor.execute(() -> {
+				try {
+					start.await();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					return;
+				}
+				for (int i = 0; i < 500; i++) {
+					if (bucket.tryConsume(0) == 0) {
+						taken.incrementAndGet();
+					}
+				}
+			});
+		}
+		start.countDown();
+		executor.shutdown();
+		assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+		assertEquals(1000, taken.get());
+		assertEquals(1000, bucket.takeUnsynced());
+	}
+}
@@ -0,0 +1,136 @@
+package com.hospital.api_gateway.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+
+import com.beemo.common.security.IdentityHeader;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import reactor.core.publisher.Mono;
+
+class JwtAuthenticationFilterTest {
+
+	private static final String SECRET = "beemo_secret_key_that_is_long_enough_for_hmac_sha256";
+	private static final String IDENTITY_SECRET = "beemo_identity_secret_shared_by_gateway_and_backends";
+
+	/** Built with the same arguments the application.yaml defaults give it */
+	private final JwtAuthenticationFilter filter =
+		new JwtAuthenticationFilter(SECRET, 10000, List.of("/payments/**"), IDENTITY_SECRET);
+	private final AtomicReference<ServerHttpRequest> forwarded = new AtomicReference<>();
+
+	@Test
+	void validTokenIsReplacedBySignedIdentity() {
+		Instant expiresAt = Instant.now().plus(Duration.ofHours(1));
+		MockServerWebExchange exchange = exchange("/orders/1", "Bearer " + token("alice", expiresAt));
+
+		filter.filter(exchange, chain()).block(Duration.ofSeconds(5));
+
+		HttpHeaders headers = forwarded.get().getHeaders();
+		assertNull(headers.getFirst(HttpHeaders.AUTHORIZATION));
+		IdentityHeader backend = new IdentityHeader(IDENTITY_SECRET.getBytes(StandardCharsets.UTF_8), 10);
+		assertEquals("alice", backend.verify(headers.getFirst(IdentityHeader.NAME)).subject());
+		assertEquals("alice", exchange.getAttribute(JwtAuthenticationFilter.SUBJECT_ATTRIBUTE));
+	}
+
+	@Test
+	void anonymousRequestsLoseAnyForgedIdentity() {
+		MockServerWebExchange exchange = MockServerWebExchange.from(
+			MockServerHttpRequest.get("/products/1").header(IdentityHeader.NAME, "forged"));
+
+		filter.filter(exchange, chain()).block(Duration.ofSeconds(5));
+
+		assertNull(forwarded.get().getHeaders().getFirst(IdentityHeader.NAME));
+	}
+
+	@Test
+	void requiredPathsRejectMissingAndInvalidTokens() {
+		MockServerWebExchange missing = exchange("/payments/1", null);
+		MockServerWebExchange expired = exchange("/orders/1",
+			"Bearer " + token("alice", Instant.now().minus(Duration.ofMinutes(1))));
+
+		filter.filter(missing, chain()).block(Duration.ofSeconds(5));
+		filter.filter(expired, chain()).block(Duration.ofSeconds(5));
+
+		assertEquals(HttpStatus.UNAUTHORIZED, missing.getResponse().getStatusCode());
+		assertEquals(HttpStatus.UNAUTHORIZED, expired.getResponse().getStatusCode());
+		assertNull(forwarded.get());
+	}
+
+	@Test
+	void unauthorizedBodyIsEscapedJson() throws Exception {
+		// The verifier echoes the algorithm back in its message
+		String algorithm = "x\"y\\z";
+		MockServerWebExchange exchange = exchange("/orders/1", "Bearer "
+			+ token("{\"alg\":" + new ObjectMapper().writeValueAsString(algorithm) + "}", "alice",
+				Instant.now().plusSeconds(60)));
+
+		filter.filter(exchange, chain()).block(Duration.ofSeconds(5));
+
+		JsonNode body = new ObjectMapper().readTree(exchange.getResponse().getBodyAsString().block());
+		assertEquals("Unauthorized", body.get("error").asText());
+		assertEquals("Unsupported token algorithm " + algorithm, body.get("message").asText());
+	}
+
+	@Test
+	void serviceSubjectsAreRejected() {
+		MockServerWebExchange exchange = exchange("/orders/1",
+			"Bearer " + token(IdentityHeader.SERVICE_PREFIX + "order-service", Instant.now().plusSeconds(60)));
+
+		filter.filter(exchange, chain()).block(Duration.ofSeconds(5));
+
+		assertEquals(HttpStatus.UNAUTHORIZED, exchange.getResponse().getStatusCode());
+		assertNull(forwarded.get());
+	}
+
+	private GatewayFilterChain chain() {
+		return exchange -> {
+			forwarded.set(exchange.getRequest());
+			return Mono.empty();
+		};
+	}
+
+	private static MockServerWebExchange exchange(String path, String authorization) {
+		MockServerHttpRequest.BaseBuilder<?> request = MockServerHttpRequest.get(path);
+		if (authorization != null) {
+			request.header(HttpHeaders.AUTHORIZATION, authorization);
+		}
+		return MockServerWebExchange.from(request);
+	}
+
+	private static String token(String subject, Instant expiresAt) {
+		return token("{\"alg\":\"HS256\",\"typ\":\"JWT\"}", subject, expiresAt);
+	}
+
+	private static String token(String header, String subject, Instant expiresAt) {
+		Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+		String unsigned = encoder.encodeToString(header.getBytes(StandardCharsets.UTF_8))
+			+ "." + encoder.encodeToString(("{\"sub\":\"" + subject + "\",\"exp\":" + expiresAt.getEpochSecond() + "}")
+				.getBytes(StandardCharsets.UTF_8));
+		try {
+			Mac mac = Mac.getInstance("HmacSHA256");
+			mac.init(new SecretKeySpec(SECRET.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+			return unsigned + "." + encoder.encodeToString(mac.doFinal(unsigned.getBytes(StandardCharsets.US_ASCII)));
+		} catch (Exception e) {
+			throw new IllegalStateException(e);
+		}
+	}
+}
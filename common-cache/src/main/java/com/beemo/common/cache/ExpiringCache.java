@@ -0,0 +1,108 @@
+package com.beemo.common.cache;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * Bounded cache whose entries each carry their own expiry
+ * 
+ * Reads are a lock-free map lookup. Writes take a lock and keep the keys in
+ * write order, so when the cache is full the least recently written key is
+ * evicted. Re-writing a key moves it to the back, so a fresh value is never
+ * evicted early because of an older write of the same key. Expired entries
+ * read as absent and are dropped when they are read or evicted.
+ * 
+ * Expiry times are in the units of the clock passed in, e.g.
+ * {@code System::nanoTime} or epoch milliseconds.
+ *
+ * @param <K> The key type
+ * @param <V> The value type
+ */
+public class ExpiringCache<K, V> {
+    
+    private record Entry<V>(V value, long expiresAt) {
+    }
+    
+    private final int maxSize;
+    private final LongSupplier clock;
+    private final Map<K, Entry<V>> entries = new ConcurrentHashMap<>();
+    /** Keys in write order, guarded by {@code lock} */
+    private final LinkedHashMap<K, Boolean> writeOrder = new LinkedHashMap<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    
+    /**
+     * @param maxSize Maximum number of entries, expired or not
+     * @param clock Current time, in the same units as the expiry times given to {@link #put}
+     */
+    public ExpiringCache(int maxSize, LongSupplier clock) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("maxSize must be positive");
+        }
+        this.maxSize = maxSize;
+        this.clock = clock;
+    }
+    
+    /**
+     * Get a value that has not expired
+     * 
+     * @return The value, or null if it is absent or expired
+     */
+    public V get(K key) {
+        Entry<V> entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.expiresAt() - clock.getAsLong() > 0) {
+            return entry.value();
+        }
+        lock.lock();
+        try {
+            if (entries.remove(key, entry)) {
+                writeOrder.remove(key);
+            }
+        } finally {
+            lock.unlock();
+        }
+        return null;
+    }
+    
+    /**
+     * Store a value until the given time, replacing any previous value
+     */
+    public void put(K key, V value, long expiresAt) {
+        lock.lock();
+        try {
+            entries.put(key, new Entry<>(value, expiresAt));
+            writeOrder.remove(key);
+            writeOrder.put(key, Boolean.TRUE);
+            Iterator<K> oldest = writeOrder.keySet().iterator();
+            while (writeOrder.size() > maxSize) {
+                entries.remove(oldest.next());
+                oldest.remove();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    public void remove(K key) {
+        lock.lock();
+        try {
+            entries.remove(key);
+            writeOrder.remove(key);
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    /**
+     * Number of entries, including expired ones not yet dropped
+     */
+    public int size() {
+        return entries.size();
+    }
+}
@@ -0,0 +1,146 @@
+package com.beemo.common.client;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Count-based circuit breaker
+ *
+ * Closed, it records the outcome of the last {@code slidingWindowSize}
+ * calls and opens once the failure rate reaches the threshold. Open, it
+ * rejects calls for {@code openDuration}, then goes half-open and lets
+ * {@code halfOpenCalls} probes through: if all succeed it closes, and any
+ * failure opens it again.
+ *
+ * Guarded by a lock rather than {@code synchronized}: every call passes
+ * through here, and on Java 21 a virtual thread waiting for a monitor blocks
+ * its carrier thread.
+ */
+final class CircuitBreaker {
+
+    enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final ClientPolicy policy;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final boolean[] window;
+    private int next;
+    private int recorded;
+    private int failures;
+    private State state = State.CLOSED;
+    private long openedAt;
+    private int probesStarted;
+    private int probesSucceeded;
+
+    CircuitBreaker(ClientPolicy policy) {
+        this.policy = policy;
+        this.window = new boolean[Math.max(1, policy.getSlidingWindowSize())];
+    }
+
+    /**
+     * Ask to make a call; every granted call must be followed by one outcome
+     */
+    boolean tryAcquire(long now) {
+        lock.lock();
+        try {
+            if (state == State.OPEN) {
+                if (now - openedAt < policy.getOpenDuration().toNanos()) {
+                    return false;
+                }
+                state = State.HALF_OPEN;
+                probesStarted = 0;
+                probesSucceeded = 0;
+            }
+            if (state == State.HALF_OPEN) {
+                if (probesStarted >= policy.getHalfOpenCalls()) {
+                    return false;
+                }
+                probesStarted++;
+            }
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void onSuccess() {
+        lock.lock();
+        try {
+            if (state == State.HALF_OPEN) {
+                if (++probesSucceeded >= policy.getHalfOpenCalls()) {
+                    close();
+                }
+            } else if (state == State.CLOSED) {
+                record(false);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void onFailure(long now) {
+        lock.lock();
+        try {
+            if (state == State.HALF_OPEN) {
+                open(now);
+            } else if (state == State.CLOSED) {
+                record(true);
+                if (recorded >= policy.getMinimumCalls() && failures * 100 >= policy.getFailureRateThreshold() * recorded) {
+                    open(now);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Give back a granted call whose outcome will never be known, e.g. one its caller cancelled
+     */
+    void onAbandoned() {
+        lock.lock();
+        try {
+            if (state == State.HALF_OPEN && probesStarted > probesSucceeded) {
+                probesStarted--;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    State state() {
+        lock.lock();
+        try {
+            return state;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void record(boolean failed) {
+        if (recorded == window.length) {
+            if (window[next]) {
+                failures--;
+            }
+        } else {
+            recorded++;
+        }
+        window[next] = failed;
+        if (failed) {
+            failures++;
+        }
+        next = (next + 1) % window.length;
+    }
+
+    private void open(long now) {
+        state = State.OPEN;
+        openedAt = now;
+    }
+
+    private void close() {
+        state = State.CLOSED;
+        next = 0;
+        recorded = 0;
+        failures = 0;
+    }
+}
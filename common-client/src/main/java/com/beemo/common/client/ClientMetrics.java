@@ -0,0 +1,59 @@
+package com.beemo.common.client;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Call counters and latency for one client method
+ */
+public final class ClientMetrics {
+
+    /**
+     * @param calls Calls made by the client, however they ended
+     * @param failures Calls that ended in an error, including rejected ones
+     * @param rejected Calls refused because the bulkhead was full
+     * @param shortCircuited Calls refused because the circuit breaker was open
+     * @param retries Extra attempts made by retrying
+     * @param meanLatencyMillis Mean time per call, including retries
+     * @param maxLatencyMillis Slowest call since startup
+     */
+    public record Snapshot(long calls, long failures, long rejected, long shortCircuited, long retries,
+            double meanLatencyMillis, double maxLatencyMillis) {
+    }
+
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder shortCircuited = new LongAdder();
+    private final LongAdder retries = new LongAdder();
+    private final LongAdder latencyNanos = new LongAdder();
+    private final LongAccumulator maxLatencyNanos = new LongAccumulator(Math::max, 0);
+
+    void recordCall(long nanos, boolean failed) {
+        calls.increment();
+        if (failed) {
+            failures.increment();
+        }
+        latencyNanos.add(nanos);
+        maxLatencyNanos.accumulate(nanos);
+    }
+
+    void recordRejected() {
+        rejected.increment();
+    }
+
+    void recordShortCircuited() {
+        shortCircuited.increment();
+    }
+
+    void recordRetry() {
+        retries.increment();
+    }
+
+    public Snapshot snapshot() {
+        long count = calls.sum();
+        double mean = count == 0 ? 0 : latencyNanos.sum() / 1e6 / count;
+        return new Snapshot(count, failures.sum(), rejected.sum(), shortCircuited.sum(), retries.sum(), mean,
+            maxLatencyNanos.get() / 1e6);
+    }
+}
@@ -0,0 +1,120 @@
+package com.beemo.common.client;
+
+import java.time.Duration;
+
+/**
+ * Limits applied to the calls made to one downstream service
+ *
+ * Plain setters so services can bind it from configuration properties.
+ */
+public class ClientPolicy {
+
+    /** Calls allowed in flight at once; further calls wait up to {@code bulkheadWait} */
+    private int maxConcurrentCalls = 32;
+    private Duration bulkheadWait = Duration.ofMillis(50);
+
+    /** Failure percentage over the last {@code slidingWindowSize} calls that opens the breaker */
+    private int failureRateThreshold = 50;
+    private int slidingWindowSize = 20;
+    /** Calls needed in the window before the failure rate is trusted */
+    private int minimumCalls = 10;
+    /** How long an open breaker rejects calls before letting probes through */
+    private Duration openDuration = Duration.ofSeconds(10);
+    /** Probe calls that must all succeed to close a half-open breaker */
+    private int halfOpenCalls = 3;
+
+    /** Attempts per idempotent call, including the first */
+    private int maxAttempts = 3;
+    private Duration retryBaseDelay = Duration.ofMillis(50);
+    private Duration retryMaxDelay = Duration.ofSeconds(1);
+    /** Total time budget for a call and its retries; no retry starts past it */
+    private Duration deadline = Duration.ofSeconds(5);
+
+    public int getMaxConcurrentCalls() {
+        return maxConcurrentCalls;
+    }
+
+    public void setMaxConcurrentCalls(int maxConcurrentCalls) {
+        this.maxConcurrentCalls = maxConcurrentCalls;
+    }
+
+    public Duration getBulkheadWait() {
+        return bulkheadWait;
+    }
+
+    public void setBulkheadWait(Duration bulkheadWait) {
+        this.bulkheadWait = bulkheadWait;
+    }
+
+    public int getFailureRateThreshold() {
+        return failureRateThreshold;
+    }
+
+    public void setFailureRateThreshold(int failureRateThreshold) {
+        this.failureRateThreshold = failureRateThreshold;
+    }
+
+    public int getSlidingWindowSize() {
+        return slidingWindowSize;
+    }
+
+    public void setSlidingWindowSize(int slidingWindowSize) {
+        this.slidingWindowSize = slidingWindowSize;
+    }
+
+    public int getMinimumCalls() {
+        return minimumCalls;
+    }
+
+    public void setMinimumCalls(int minimumCalls) {
+        this.minimumCalls = minimumCalls;
+    }
+
+    public Duration getOpenDuration() {
+        return openDuration;
+    }
+
+    public void setOpenDuration(Duration openDuration) {
+        this.openDuration = openDuration;
+    }
+
+    public int getHalfOpenCalls() {
+        return halfOpenCalls;
+    }
+
+    public void setHalfOpenCalls(int halfOpenCalls) {
+        this.halfOpenCalls = halfOpenCalls;
+    }
+
+    public int getMaxAttempts() {
+        return maxAttempts;
+    }
+
+    public void setMaxAttempts(int maxAttempts) {
+        this.maxAttempts = maxAttempts;
+    }
+
+    public Duration getRetryBaseDelay() {
+        return retryBaseDelay;
+    }
+
+    public void setRetryBaseDelay(Duration retryBaseDelay) {
+        this.retryBaseDelay = retryBaseDelay;
+    }
+
+    public Duration getRetryMaxDelay() {
+        return retryMaxDelay;
+    }
+
+    public void setRetryMaxDelay(Duration retryMaxDelay) {
+        this.retryMaxDelay = retryMaxDelay;
+    }
+
+    public Duration getDeadline() {
+        return deadline;
+    }
+
+    public void setDeadline(Duration deadline) {
+        this.deadline = deadline;
+    }
+}
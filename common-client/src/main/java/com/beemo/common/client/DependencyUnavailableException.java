@@ -0,0 +1,12 @@
+package com.beemo.common.client;
+
+/**
+ * Thrown instead of calling a downstream service whose circuit breaker is
+ * open or whose bulkhead is full
+ */
+public class DependencyUnavailableException extends RuntimeException {
+
+    public DependencyUnavailableException(String message) {
+        super(message);
+    }
+}
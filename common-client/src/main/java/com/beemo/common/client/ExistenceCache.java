@@ -0,0 +1,179 @@
+package com.beemo.common.client;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+import com.beemo.common.cache.ExpiringCache;
+
+/**
+ * Client-side cache of which IDs exist in a remote service
+ * 
+ * Hits and misses are cached with separate TTLs, so unknown IDs do not hit
+ * the remote service on every request either. The cache holds at most
+ * {@code maxSize} IDs in an {@link ExpiringCache}. Concurrent lookups of an
+ * ID that is not cached share one remote call, and all the uncached IDs of
+ * one lookup are resolved in a single bulk call. Failed calls are not cached.
+ *
+ * @param <K> The ID type
+ */
+public class ExistenceCache<K> {
+    
+    private final Function<Collection<K>, Set<K>> loader;
+    private final long positiveTtlNanos;
+    private final long negativeTtlNanos;
+    private final ExpiringCache<K, Boolean> entries;
+    private final Map<K, CompletableFuture<Boolean>> inFlight = new ConcurrentHashMap<>();
+    
+    /**
+     * @param loader Bulk lookup returning the subset of the given IDs that exist
+     * @param positiveTtl How long an existing ID is trusted
+     * @param negativeTtl How long an unknown ID is remembered as unknown
+     * @param maxSize Maximum number of cached IDs
+     */
+    public ExistenceCache(Function<Collection<K>, Set<K>> loader, Duration positiveTtl,
+                          Duration negativeTtl, int maxSize) {
+        this.loader = loader;
+        this.positiveTtlNanos = positiveTtl.toNanos();
+        this.negativeTtlNanos = negativeTtl.toNanos();
+        this.entries = new ExpiringCache<>(maxSize, System::nanoTime);
+    }
+    
+    /**
+     * Cache without a loader, for callers that look IDs up asynchronously
+     * Only {@link #cached(Object)} and {@link #record(Collection, Set)} may be used
+     */
+    public ExistenceCache(Duration positiveTtl, Duration negativeTtl, int maxSize) {
+        this(null, positiveTtl, negativeTtl, maxSize);
+    }
+    
+    /**
+     * Check whether one ID exists
+     */
+    public boolean exists(K id) {
+        Boolean exists = entries.get(id);
+        if (exists != null) {
+            return exists;
+        }
+        return !existing(List.of(id)).isEmpty();
+    }
+    
+    /**
+     * Find which of the given IDs exist
+     * 
+     * @param ids The IDs to check
+     * @return The subset of {@code ids} that exist
+     */
+    public Set<K> existing(Collection<K> ids) {
+        if (loader == null) {
+            throw new IllegalStateException("No loader configured; use cached() and record()");
+        }
+        Set<K> result = new HashSet<>();
+        Map<K, CompletableFuture<Boolean>> claimed = new HashMap<>();
+        Map<K, CompletableFuture<Boolean>> joined = new HashMap<>();
+        
+        for (K id : ids) {
+            Boolean exists = entries.get(id);
+            if (exists != null) {
+                if (exists) {
+                    result.add(id);
+                }
+                continue;
+            }
+            if (claimed.containsKey(id) || joined.containsKey(id)) {
+                continue;
+            }
+            CompletableFuture<Boolean> mine = new CompletableFuture<>();
+            CompletableFuture<Boolean> other = inFlight.putIfAbsent(id, mine);
+            if (other == null) {
+                claimed.put(id, mine);
+            } else {
+                joined.put(id, other);
+            }
+        }
+        
+        if (!claimed.isEmpty()) {
+            load(claimed);
+        }
+        try {
+            claimed.forEach((id, future) -> {
+                if (future.join()) {
+                    result.add(id);
+                }
+            });
+            joined.forEach((id, future) -> {
+                if (future.join()) {
+                    result.add(id);
+                }
+            });
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException runtime ? runtime : e;
+        }
+        return result;
+    }
+    
+    /**
+     * Get a cached answer without loading
+     * 
+     * @return Whether the ID exists, or null if it is not cached or has expired
+     */
+    public Boolean cached(K id) {
+        return entries.get(id);
+    }
+    
+    /**
+     * Cache the answer of a lookup made by the caller
+     * 
+     * @param checked The IDs that were looked up
+     * @param existing The subset of them that exist
+     */
+    public void record(Collection<K> checked, Set<K> existing) {
+        long now = System.nanoTime();
+        for (K id : checked) {
+            put(id, existing.contains(id), now);
+        }
+    }
+    
+    /**
+     * Forget a cached answer, e.g. after the ID was created or deleted
+     */
+    public void invalidate(K id) {
+        entries.remove(id);
+    }
+    
+    /**
+     * Number of IDs currently cached, including expired ones not yet replaced
+     */
+    public int size() {
+        return entries.size();
+    }
+    
+    private void load(Map<K, CompletableFuture<Boolean>> claimed) {
+        try {
+            Set<K> found = loader.apply(new ArrayList<>(claimed.keySet()));
+            long now = System.nanoTime();
+            claimed.forEach((id, future) -> {
+                boolean exists = found.contains(id);
+                put(id, exists, now);
+                future.complete(exists);
+            });
+        } catch (RuntimeException e) {
+            claimed.values().forEach(future -> future.completeExceptionally(e));
+        } finally {
+            claimed.forEach(inFlight::remove);
+        }
+    }
+    
+    private void put(K id, boolean exists, long now) {
+        entries.put(id, exists, now + (exists ? positiveTtlNanos : negativeTtlNanos));
+    }
+}
@@ -0,0 +1,124 @@
+package com.beemo.common.client;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Connection settings for {@link PooledHttpClientFactory}
+ *
+ * Plain setters so services can bind it from configuration properties.
+ */
+public class HttpClientSettings {
+
+    public enum Protocol {
+        /** Pooled keep-alive connections, one request per connection at a time */
+        HTTP_1_1,
+        /** Requests multiplexed over one connection per host; falls back to HTTP/1.1 if the server declines */
+        HTTP_2
+    }
+
+    private Protocol protocol = Protocol.HTTP_1_1;
+    private Duration connectTimeout = Duration.ofSeconds(1);
+    /** Longest wait for response data on an open connection */
+    private Duration readTimeout = Duration.ofSeconds(3);
+    /** Longest wait for a free connection (HTTP/1.1) or request slot (HTTP/2) to a host */
+    private Duration poolWait = Duration.ofSeconds(1);
+    /** Connections across all hosts */
+    private int maxTotal = 200;
+    /** Connections (HTTP/1.1) or concurrent requests (HTTP/2) per host */
+    private int maxPerRoute = 50;
+    /** Overrides of maxPerRoute for every instance of a service, keyed by service ID */
+    private Map<String, Integer> routes = new HashMap<>();
+    /** How long an idle connection is kept for reuse */
+    private Duration keepAlive = Duration.ofSeconds(30);
+    /** Idle connections are checked before reuse after this long, in case the server closed them */
+    private Duration validateAfterInactivity = Duration.ofSeconds(2);
+    /** Run the HTTP/2 client's response handling on virtual threads instead of a cached platform pool */
+    private boolean virtualThreads;
+
+    public int maxForService(String serviceId) {
+        return routes.getOrDefault(serviceId.toLowerCase(Locale.ROOT), maxPerRoute);
+    }
+
+    public Protocol getProtocol() {
+        return protocol;
+    }
+
+    public void setProtocol(Protocol protocol) {
+        this.protocol = protocol;
+    }
+
+    public Duration getConnectTimeout() {
+        return connectTimeout;
+    }
+
+    public void setConnectTimeout(Duration connectTimeout) {
+        this.connectTimeout = connectTimeout;
+    }
+
+    public Duration getReadTimeout() {
+        return readTimeout;
+    }
+
+    public void setReadTimeout(Duration readTimeout) {
+        this.readTimeout = readTimeout;
+    }
+
+    public Duration getPoolWait() {
+        return poolWait;
+    }
+
+    public void setPoolWait(Duration poolWait) {
+        this.poolWait = poolWait;
+    }
+
+    public int getMaxTotal() {
+        return maxTotal;
+    }
+
+    public void setMaxTotal(int maxTotal) {
+        this.maxTotal = maxTotal;
+    }
+
+    public int getMaxPerRoute() {
+        return maxPerRoute;
+    }
+
+    public void setMaxPerRoute(int maxPerRoute) {
+        this.maxPerRoute = maxPerRoute;
+    }
+
+    public Map<String, Integer> getRoutes() {
+        return routes;
+    }
+
+    public void setRoutes(Map<String, Integer> routes) {
+        this.routes = routes;
+    }
+
+    public Duration getKeepAlive() {
+        return keepAlive;
+    }
+
+    public void setKeepAlive(Duration keepAlive) {
+        this.keepAlive = keepAlive;
+    }
+
+    public Duration getValidateAfterInactivity() {
+        return validateAfterInactivity;
+    }
+
+    public void setValidateAfterInactivity(Duration validateAfterInactivity) {
+        this.validateAfterInactivity = validateAfterInactivity;
+    }
+
+    public boolean isVirtualThreads() {
+        return virtualThreads;
+    }
+
+    public void setVirtualThreads(boolean virtualThreads) {
+        this.virtualThreads = virtualThreads;
+    }
+}
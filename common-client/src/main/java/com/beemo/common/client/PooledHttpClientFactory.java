@@ -0,0 +1,311 @@
+package com.beemo.common.client;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.hc.client5.http.HttpRoute;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.http.HttpHost;
+import org.apache.hc.core5.pool.PoolStats;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.CompletionContext;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerLifecycle;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+
+/**
+ * Request factory for inter-service RestTemplates that reuses connections
+ *
+ * In HTTP/1.1 mode, requests run on an Apache HttpClient connection pool
+ * with a limit per host, keep-alive, and idle connections validated before
+ * reuse. In HTTP/2 mode, the JDK client multiplexes requests over one
+ * connection per host (the server must accept h2c, e.g. Tomcat with
+ * {@code server.http2.enabled}), and the per-host limit caps concurrent
+ * requests instead of connections.
+ *
+ * In HTTP/1.1 mode the calling thread does the I/O, so on a virtual thread
+ * a request waits without holding a carrier; the pool's locks are
+ * {@code ReentrantLock}s and do not pin it.
+ *
+ * Per-service limits ({@link HttpClientSettings#getRoutes()}) are applied to
+ * an instance's host:port when the load balancer first picks it, since
+ * requests only reach this factory with the instance address.
+ *
+ * Connection-level retries are disabled; retrying is left to
+ * {@link ResilientCaller}, which knows which calls are safe to repeat.
+ */
+public class PooledHttpClientFactory implements ClientHttpRequestFactory, DisposableBean,
+        LoadBalancerLifecycle<Object, Object, ServiceInstance> {
+
+    private final HttpClientSettings settings;
+    private final ClientHttpRequestFactory delegate;
+    private final PoolingHttpClientConnectionManager connectionManager;
+    private final CloseableHttpClient apacheClient;
+    private final HttpClient jdkClient;
+    /** Request slots per host:port in HTTP/2 mode */
+    private final Map<String, Semaphore> routeSlots = new ConcurrentHashMap<>();
+    /** Limit per instance host:port, from its service's override */
+    private final Map<String, Integer> instanceLimits = new ConcurrentHashMap<>();
+
+    public PooledHttpClientFactory(HttpClientSettings settings) {
+        this.settings = settings;
+        if (settings.getProtocol() == HttpClientSettings.Protocol.HTTP_2) {
+            this.connectionManager = null;
+            this.apacheClient = null;
+            HttpClient.Builder builder = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_2)
+                    .connectTimeout(settings.getConnectTimeout())
+                    .followRedirects(HttpClient.Redirect.NEVER);
+            if (settings.isVirtualThreads()) {
+                builder.executor(Executors.newVirtualThreadPerTaskExecutor());
+            }
+            this.jdkClient = builder.build();
+            JdkClientHttpRequestFactory jdkFactory = new JdkClientHttpRequestFactory(jdkClient);
+            jdkFactory.setReadTimeout(settings.getReadTimeout());
+            this.delegate = jdkFactory;
+        } else {
+            this.jdkClient = null;
+            this.connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+                    .setMaxConnTotal(settings.getMaxTotal())
+                    .setMaxConnPerRoute(settings.getMaxPerRoute())
+                    .setDefaultConnectionConfig(ConnectionConfig.custom()
+                            .setConnectTimeout(Timeout.of(settings.getConnectTimeout()))
+                            .setSocketTimeout(Timeout.of(settings.getReadTimeout()))
+                            .setValidateAfterInactivity(TimeValue.of(settings.getValidateAfterInactivity()))
+                            .build())
+                    .build();
+            TimeValue keepAlive = TimeValue.of(settings.getKeepAlive());
+            this.apacheClient = HttpClients.custom()
+                    .setConnectionManager(connectionManager)
+                    .setDefaultRequestConfig(RequestConfig.custom()
+                            .setConnectionRequestTimeout(Timeout.of(settings.getPoolWait()))
+                            .setResponseTimeout(Timeout.of(settings.getReadTimeout()))
+                            .build())
+                    .setKeepAliveStrategy((response, context) -> keepAlive)
+                    .evictExpiredConnections()
+                    .evictIdleConnections(keepAlive)
+                    .disableAutomaticRetries()
+                    .disableRedirectHandling()
+                    .build();
+            this.delegate = new HttpComponentsClientHttpRequestFactory(apacheClient);
+        }
+    }
+
+    @Override
+    public ClientHttpRequest createRequest(URI uri, HttpMethod httpMethod) throws IOException {
+        ClientHttpRequest request = delegate.createRequest(uri, httpMethod);
+        return jdkClient != null ? new RouteLimitedRequest(request) : request;
+    }
+
+    @Override
+    public boolean supports(Class requestContextClass, Class responseClass, Class serverTypeClass) {
+        return ServiceInstance.class.isAssignableFrom(serverTypeClass);
+    }
+
+    @Override
+    public void onStart(Request<Object> request) {
+    }
+
+    /**
+     * Applies the chosen instance's service limit the first time the instance is picked
+     */
+    @Override
+    public void onStartRequest(Request<Object> request, Response<ServiceInstance> lbResponse) {
+        ServiceInstance instance = lbResponse.getServer();
+        if (instance == null || settings.getRoutes().isEmpty()) {
+            return;
+        }
+        String hostAndPort = instance.getHost() + ":" + instance.getPort();
+        int max = settings.maxForService(instance.getServiceId());
+        Integer previous = instanceLimits.put(hostAndPort, max);
+        if (connectionManager != null && (previous == null || previous != max)) {
+            HttpHost target = new HttpHost(instance.isSecure() ? "https" : "http", instance.getHost(), instance.getPort());
+            connectionManager.setMaxPerRoute(new HttpRoute(target, null, instance.isSecure()), max);
+        }
+    }
+
+    @Override
+    public void onComplete(CompletionContext<Object, ServiceInstance, Object> completionContext) {
+    }
+
+    /**
+     * Connections leased, idle and awaited, in total and per host
+     */
+    public Map<String, Object> metrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("protocol", settings.getProtocol().name());
+        Map<String, Object> routes = new LinkedHashMap<>();
+        if (connectionManager != null) {
+            metrics.put("total", poolStats(connectionManager.getTotalStats()));
+            for (HttpRoute route : connectionManager.getRoutes()) {
+                HttpHost target = route.getTargetHost();
+                routes.put(target.getHostName() + ":" + target.getPort(), poolStats(connectionManager.getStats(route)));
+            }
+        } else {
+            routeSlots.forEach((hostAndPort, slots) -> {
+                int max = maxForRoute(hostAndPort);
+                Map<String, Object> stats = new LinkedHashMap<>();
+                stats.put("inFlight", max - slots.availablePermits());
+                stats.put("waiting", slots.getQueueLength());
+                stats.put("max", max);
+                routes.put(hostAndPort, stats);
+            });
+        }
+        metrics.put("routes", routes);
+        return metrics;
+    }
+
+    @Override
+    public void destroy() throws IOException {
+        if (apacheClient != null) {
+            apacheClient.close();
+        }
+        if (jdkClient != null) {
+            jdkClient.close();
+        }
+    }
+
+    private static Map<String, Object> poolStats(PoolStats stats) {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("leased", stats.getLeased());
+        map.put("available", stats.getAvailable());
+        map.put("pending", stats.getPending());
+        map.put("max", stats.getMax());
+        return map;
+    }
+
+    private int maxForRoute(String hostAndPort) {
+        return instanceLimits.getOrDefault(hostAndPort, settings.getMaxPerRoute());
+    }
+
+    private static String hostAndPort(URI uri) {
+        int port = uri.getPort() != -1 ? uri.getPort() : "https".equals(uri.getScheme()) ? 443 : 80;
+        return uri.getHost() + ":" + port;
+    }
+
+    /**
+     * Holds one of its host's request slots from execution until the response is closed
+     */
+    private final class RouteLimitedRequest implements ClientHttpRequest {
+
+        private final ClientHttpRequest request;
+
+        RouteLimitedRequest(ClientHttpRequest request) {
+            this.request = request;
+        }
+
+        @Override
+        public ClientHttpResponse execute() throws IOException {
+            String route = hostAndPort(request.getURI());
+            Semaphore slots = routeSlots.computeIfAbsent(route, r -> new Semaphore(maxForRoute(r), true));
+            try {
+                if (!slots.tryAcquire(settings.getPoolWait().toNanos(), TimeUnit.NANOSECONDS)) {
+                    throw new IOException("No free request slot for " + route + " within " + settings.getPoolWait());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted waiting for a request slot for " + route, e);
+            }
+            try {
+                return new SlotReleasingResponse(request.execute(), slots);
+            } catch (IOException | RuntimeException e) {
+                slots.release();
+                throw e;
+            }
+        }
+
+        @Override
+        public OutputStream getBody() throws IOException {
+            return request.getBody();
+        }
+
+        @Override
+        public HttpMethod getMethod() {
+            return request.getMethod();
+        }
+
+        @Override
+        public URI getURI() {
+            return request.getURI();
+        }
+
+        @Override
+        public Map<String, Object> getAttributes() {
+            return request.getAttributes();
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return request.getHeaders();
+        }
+    }
+
+    private static final class SlotReleasingResponse implements ClientHttpResponse {
+
+        private final ClientHttpResponse response;
+        private final Semaphore slots;
+        private boolean released;
+
+        SlotReleasingResponse(ClientHttpResponse response, Semaphore slots) {
+            this.response = response;
+            this.slots = slots;
+        }
+
+        @Override
+        public HttpStatusCode getStatusCode() throws IOException {
+            return response.getStatusCode();
+        }
+
+        @Override
+        public String getStatusText() throws IOException {
+            return response.getStatusText();
+        }
+
+        @Override
+        public InputStream getBody() throws IOException {
+            return response.getBody();
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return response.getHeaders();
+        }
+
+        @Override
+        public void close() {
+            try {
+                response.close();
+            } finally {
+                if (!released) {
+                    released = true;
+                    slots.release();
+                }
+            }
+        }
+    }
+}
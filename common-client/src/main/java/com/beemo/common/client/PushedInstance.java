@@ -0,0 +1,20 @@
+package com.beemo.common.client;
+
+import java.util.Map;
+
+/**
+ * An instance as last pushed by the Eureka server
+ *
+ * Cancelled instances are kept for a while with status {@code CANCELLED}.
+ *
+ * @param receivedAt {@link System#nanoTime()} when the change arrived
+ */
+public record PushedInstance(String serviceId, String instanceId, String host, int port, boolean secure,
+        String status, Map<String, String> metadata, long receivedAt) {
+
+    public static final String CANCELLED = "CANCELLED";
+
+    public boolean isUp() {
+        return "UP".equals(status);
+    }
+}
@@ -0,0 +1,63 @@
+package com.beemo.common.client;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.loadbalancer.core.DelegatingServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+
+import reactor.core.publisher.Flux;
+
+/**
+ * Corrects the Eureka client's cached instance list with changes pushed to {@link RegistrySubscriber}
+ *
+ * Instances pushed as anything but UP, or cancelled, are dropped from the
+ * list; UP instances the client has not fetched yet are added. Instances
+ * the subscriber has not heard of are left alone, so a restarted Eureka
+ * server with a half-filled registry cannot empty the list.
+ */
+public class PushedRegistryServiceInstanceListSupplier extends DelegatingServiceInstanceListSupplier {
+
+    private final RegistrySubscriber subscriber;
+
+    public PushedRegistryServiceInstanceListSupplier(ServiceInstanceListSupplier delegate, RegistrySubscriber subscriber) {
+        super(delegate);
+        this.subscriber = subscriber;
+    }
+
+    @Override
+    public Flux<List<ServiceInstance>> get() {
+        return delegate.get().map(this::overlay);
+    }
+
+    private List<ServiceInstance> overlay(List<ServiceInstance> fetched) {
+        if (!subscriber.isSynced()) {
+            return fetched;
+        }
+        Map<String, PushedInstance> pushed = subscriber.instances(getServiceId());
+        if (pushed.isEmpty()) {
+            return fetched;
+        }
+        List<ServiceInstance> instances = new ArrayList<>(fetched.size() + 1);
+        Set<String> seen = new HashSet<>();
+        for (ServiceInstance instance : fetched) {
+            PushedInstance change = pushed.get(instance.getInstanceId());
+            if (change == null || change.isUp()) {
+                instances.add(instance);
+                seen.add(instance.getInstanceId());
+            }
+        }
+        for (PushedInstance instance : pushed.values()) {
+            if (instance.isUp() && !seen.contains(instance.instanceId())) {
+                instances.add(new DefaultServiceInstance(instance.instanceId(), getServiceId(), instance.host(),
+                        instance.port(), instance.secure(), instance.metadata()));
+            }
+        }
+        return instances;
+    }
+}
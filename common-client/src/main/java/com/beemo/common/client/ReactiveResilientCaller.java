@@ -0,0 +1,166 @@
+package com.beemo.common.client;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+import reactor.util.retry.Retry;
+
+/**
+ * {@link ResilientCaller} for WebClient calls that must not block the event loop
+ *
+ * Same policy, breaker and metrics, with two differences: a full bulkhead
+ * fails the call at once instead of waiting {@code bulkheadWait}, and the
+ * deadline cancels the call in flight rather than only stopping retries.
+ * An attempt cut off by the deadline counts as a failure for the breaker;
+ * one cancelled earlier by the caller counts as neither outcome.
+ */
+public class ReactiveResilientCaller {
+
+    private final String dependency;
+    private final ClientPolicy policy;
+    private final Semaphore bulkhead;
+    private final CircuitBreaker breaker;
+    private final Map<String, ClientMetrics> metrics = new ConcurrentHashMap<>();
+
+    /**
+     * @param dependency Name of the downstream service, used in errors and metrics
+     * @param policy Limits for calls to it
+     */
+    public ReactiveResilientCaller(String dependency, ClientPolicy policy) {
+        this.dependency = dependency;
+        this.policy = policy;
+        this.bulkhead = new Semaphore(policy.getMaxConcurrentCalls());
+        this.breaker = new CircuitBreaker(policy);
+    }
+
+    /**
+     * Make a call that is safe to repeat, retrying transient failures
+     *
+     * @param method Name of the client method, for metrics
+     * @param call Creates the remote call; invoked again for each attempt
+     * @return The call's result, failing with {@link DependencyUnavailableException} if the breaker
+     *         is open or the bulkhead is full
+     */
+    public <T> Mono<T> idempotent(String method, Supplier<Mono<T>> call) {
+        return execute(method, call, policy.getMaxAttempts());
+    }
+
+    /**
+     * Make a call that must not be repeated, such as one that changes state
+     *
+     * @see #idempotent(String, Supplier)
+     */
+    public <T> Mono<T> once(String method, Supplier<Mono<T>> call) {
+        return execute(method, call, 1);
+    }
+
+    public String getDependency() {
+        return dependency;
+    }
+
+    /**
+     * Breaker state, bulkhead headroom and per-method counters
+     */
+    public Map<String, Object> metrics() {
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("circuitBreaker", breaker.state().name());
+        snapshot.put("availableConcurrentCalls", bulkhead.availablePermits());
+        Map<String, ClientMetrics.Snapshot> methods = new LinkedHashMap<>();
+        metrics.forEach((method, methodMetrics) -> methods.put(method, methodMetrics.snapshot()));
+        snapshot.put("methods", methods);
+        return snapshot;
+    }
+
+    private <T> Mono<T> execute(String method, Supplier<Mono<T>> call, int maxAttempts) {
+        return Mono.defer(() -> {
+            ClientMetrics methodMetrics = metrics.computeIfAbsent(method, m -> new ClientMetrics());
+            long started = System.nanoTime();
+            long deadline = started + policy.getDeadline().toNanos();
+
+            if (!bulkhead.tryAcquire()) {
+                methodMetrics.recordRejected();
+                methodMetrics.recordCall(System.nanoTime() - started, true);
+                return Mono.error(new DependencyUnavailableException(dependency + " has too many calls in flight"));
+            }
+            Retry retry = Retry.from(signals -> signals.concatMap(signal -> {
+                Throwable e = signal.failure();
+                long delay = backoff(signal.totalRetries() + 1);
+                if (signal.totalRetries() + 1 >= maxAttempts || !isRetryable(e)
+                        || System.nanoTime() + delay - deadline >= 0) {
+                    return Mono.error(e);
+                }
+                methodMetrics.recordRetry();
+                return Mono.delay(Duration.ofNanos(delay));
+            }));
+            return attempt(methodMetrics, call, deadline)
+                .retryWhen(retry)
+                .timeout(policy.getDeadline(), Mono.error(() -> new TimeoutException(
+                    dependency + " did not answer within " + policy.getDeadline().toMillis() + "ms")))
+                .doFinally(signal -> {
+                    bulkhead.release();
+                    methodMetrics.recordCall(System.nanoTime() - started, signal != SignalType.ON_COMPLETE);
+                });
+        });
+    }
+
+    private <T> Mono<T> attempt(ClientMetrics methodMetrics, Supplier<Mono<T>> call, long deadline) {
+        return Mono.defer(() -> {
+            if (!breaker.tryAcquire(System.nanoTime())) {
+                methodMetrics.recordShortCircuited();
+                return Mono.error(new DependencyUnavailableException(dependency + " circuit breaker is open"));
+            }
+            return call.get()
+                .doOnSuccess(result -> breaker.onSuccess())
+                .doOnError(e -> {
+                    if (isFailure(e)) {
+                        breaker.onFailure(System.nanoTime());
+                    } else {
+                        breaker.onSuccess();
+                    }
+                })
+                .doOnCancel(() -> {
+                    long now = System.nanoTime();
+                    if (now - deadline >= 0) {
+                        breaker.onFailure(now);
+                    } else {
+                        breaker.onAbandoned();
+                    }
+                });
+        });
+    }
+
+    /**
+     * Full jitter: a random delay up to the exponential bound, so retrying callers spread out
+     */
+    private long backoff(long attempt) {
+        long base = policy.getRetryBaseDelay().toNanos();
+        long bound = Math.min(policy.getRetryMaxDelay().toNanos(), base << Math.min(attempt - 1, 20));
+        return ThreadLocalRandom.current().nextLong(Math.max(1, bound));
+    }
+
+    private static boolean isFailure(Throwable e) {
+        return !(e instanceof WebClientResponseException status && status.getStatusCode().is4xxClientError());
+    }
+
+    private static boolean isRetryable(Throwable e) {
+        if (e instanceof WebClientRequestException) {
+            return true;
+        }
+        if (e instanceof WebClientResponseException status) {
+            int code = status.getStatusCode().value();
+            return code == 502 || code == 503 || code == 504;
+        }
+        return false;
+    }
+}
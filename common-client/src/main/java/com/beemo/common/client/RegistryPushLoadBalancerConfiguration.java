@@ -0,0 +1,34 @@
+package com.beemo.common.client;
+
+import org.springframework.beans.factory.BeanFactoryUtils;
+import org.springframework.cloud.client.discovery.ReactiveDiscoveryClient;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplierBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+
+/**
+ * Load balancer configuration that applies pushed registry changes on top of the cached discovery list
+ *
+ * Register it per service with
+ * {@code @LoadBalancerClients(defaultConfiguration = RegistryPushLoadBalancerConfiguration.class)};
+ * it needs a {@link RegistrySubscriber} bean in the application context.
+ * Deliberately not a component, so it never lands in the application context itself.
+ * Like Spring Cloud's default configuration, it reads the blocking discovery
+ * client when the application has no reactive one.
+ */
+public class RegistryPushLoadBalancerConfiguration {
+
+    @Bean
+    public ServiceInstanceListSupplier pushedRegistryServiceInstanceListSupplier(ConfigurableApplicationContext context,
+            RegistrySubscriber subscriber) {
+        ServiceInstanceListSupplierBuilder builder = ServiceInstanceListSupplier.builder();
+        builder = BeanFactoryUtils.beanNamesForTypeIncludingAncestors(context, ReactiveDiscoveryClient.class).length > 0
+                ? builder.withDiscoveryClient()
+                : builder.withBlockingDiscoveryClient();
+        return builder
+                .withCaching()
+                .with((ctx, delegate) -> new PushedRegistryServiceInstanceListSupplier(delegate, subscriber))
+                .build(context);
+    }
+}
@@ -0,0 +1,80 @@
+package com.beemo.common.client;
+
+import java.time.Duration;
+
+/**
+ * Settings for {@link RegistrySubscriber}
+ *
+ * Plain setters so services can bind it from configuration properties.
+ */
+public class RegistryPushSettings {
+
+    private boolean enabled = true;
+    /** Base URL of the Eureka server serving {@code /registry/deltas} */
+    private String url = "http://localhost:8761";
+    /** How long each poll may be parked on the server */
+    private Duration wait = Duration.ofSeconds(30);
+    /** With no answer from the server for this long, pushed changes are ignored until it is back */
+    private Duration staleAfter = Duration.ofSeconds(45);
+    /** How long a cancelled instance stays hidden, until the Eureka client's own fetch has dropped it */
+    private Duration tombstoneTtl = Duration.ofSeconds(90);
+    /** First delay after a failed poll; doubles up to retryMaxDelay */
+    private Duration retryDelay = Duration.ofSeconds(1);
+    private Duration retryMaxDelay = Duration.ofSeconds(30);
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    public void setUrl(String url) {
+        this.url = url;
+    }
+
+    public Duration getWait() {
+        return wait;
+    }
+
+    public void setWait(Duration wait) {
+        this.wait = wait;
+    }
+
+    public Duration getStaleAfter() {
+        return staleAfter;
+    }
+
+    public void setStaleAfter(Duration staleAfter) {
+        this.staleAfter = staleAfter;
+    }
+
+    public Duration getTombstoneTtl() {
+        return tombstoneTtl;
+    }
+
+    public void setTombstoneTtl(Duration tombstoneTtl) {
+        this.tombstoneTtl = tombstoneTtl;
+    }
+
+    public Duration getRetryDelay() {
+        return retryDelay;
+    }
+
+    public void setRetryDelay(Duration retryDelay) {
+        this.retryDelay = retryDelay;
+    }
+
+    public Duration getRetryMaxDelay() {
+        return retryMaxDelay;
+    }
+
+    public void setRetryMaxDelay(Duration retryMaxDelay) {
+        this.retryMaxDelay = retryMaxDelay;
+    }
+}
@@ -0,0 +1,200 @@
+package com.beemo.common.client;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Keeps a live view of the Eureka registry by long-polling the server's
+ * {@code /registry/deltas} endpoint
+ *
+ * The server answers as soon as an instance changes, so registrations and
+ * cancellations arrive within a round trip instead of after the Eureka
+ * client's next registry fetch and the load balancer cache TTL. The first
+ * answer, and any after the server restarts or the subscriber falls too far
+ * behind, is a snapshot that replaces the view.
+ *
+ * The view only adds to the Eureka client's own registry copy (see
+ * {@link PushedRegistryServiceInstanceListSupplier}); if the server stops
+ * answering, it is ignored after {@code staleAfter} and the client's copy is
+ * used alone.
+ */
+public class RegistrySubscriber implements InitializingBean, DisposableBean {
+
+    private static final Log logger = LogFactory.getLog(RegistrySubscriber.class);
+    private static final Duration CONNECT_TIMEOUT = Duration.ofSeconds(2);
+
+    record Delta(long version, String action, String serviceId, String instanceId, String host, int port,
+            boolean secure, String status, Map<String, String> metadata) {
+    }
+
+    record Batch(String epoch, long version, boolean snapshot, List<Delta> deltas) {
+    }
+
+    private final RegistryPushSettings settings;
+    private final ObjectMapper mapper = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+    private final HttpClient httpClient;
+
+    /** Service ID to instance ID to instance; replaced whole on every batch */
+    private volatile Map<String, Map<String, PushedInstance>> services = Map.of();
+    private volatile long lastContact;
+    private volatile boolean synced;
+    private volatile boolean running;
+    private String epoch;
+    private volatile long version;
+    private Thread poller;
+
+    public RegistrySubscriber(RegistryPushSettings settings) {
+        this.settings = settings;
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(CONNECT_TIMEOUT)
+                .build();
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        if (!settings.isEnabled()) {
+            return;
+        }
+        running = true;
+        poller = Thread.ofPlatform().name("registry-subscriber").daemon().start(this::run);
+    }
+
+    @Override
+    public void destroy() {
+        running = false;
+        if (poller != null) {
+            poller.interrupt();
+        }
+        httpClient.close();
+    }
+
+    /**
+     * Whether the view is complete and recent enough to use
+     */
+    public boolean isSynced() {
+        return synced && System.nanoTime() - lastContact < settings.getStaleAfter().toNanos();
+    }
+
+    /**
+     * Pushed instances of a service, including recently cancelled ones, by instance ID
+     */
+    public Map<String, PushedInstance> instances(String serviceId) {
+        return services.getOrDefault(serviceId.toLowerCase(Locale.ROOT), Map.of());
+    }
+
+    /**
+     * Sync state and view size
+     */
+    public Map<String, Object> metrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("synced", isSynced());
+        metrics.put("version", version);
+        metrics.put("services", services.size());
+        metrics.put("instances", services.values().stream().mapToInt(Map::size).sum());
+        metrics.put("lastContactMillisAgo", lastContact == 0 ? null
+                : TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - lastContact));
+        return metrics;
+    }
+
+    private void run() {
+        long delay = settings.getRetryDelay().toNanos();
+        boolean failing = false;
+        while (running) {
+            try {
+                apply(poll());
+                if (failing) {
+                    logger.info("Registry push from " + settings.getUrl() + " resumed");
+                    failing = false;
+                }
+                delay = settings.getRetryDelay().toNanos();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (IOException | RuntimeException e) {
+                if (!failing) {
+                    logger.warn("Registry push from " + settings.getUrl() + " failed, using the Eureka client's registry only: " + e);
+                    failing = true;
+                }
+                try {
+                    TimeUnit.NANOSECONDS.sleep(ThreadLocalRandom.current().nextLong(delay / 2, delay + 1));
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                delay = Math.min(delay * 2, settings.getRetryMaxDelay().toNanos());
+            }
+        }
+    }
+
+    private Batch poll() throws IOException, InterruptedException {
+        StringBuilder uri = new StringBuilder(settings.getUrl()).append("/registry/deltas?since=").append(version)
+                .append("&waitMs=").append(settings.getWait().toMillis());
+        if (epoch != null) {
+            uri.append("&epoch=").append(URLEncoder.encode(epoch, StandardCharsets.UTF_8));
+        }
+        HttpRequest request = HttpRequest.newBuilder(URI.create(uri.toString()))
+                .timeout(settings.getWait().plus(CONNECT_TIMEOUT))
+                .GET()
+                .build();
+        HttpResponse<byte[]> response = httpClient.send(request, HttpResponse.BodyHandlers.ofByteArray());
+        if (response.statusCode() != 200) {
+            throw new IOException("Registry push answered " + response.statusCode());
+        }
+        return mapper.readValue(response.body(), Batch.class);
+    }
+
+    private void apply(Batch batch) {
+        long now = System.nanoTime();
+        Map<String, Map<String, PushedInstance>> next = new HashMap<>();
+        if (!batch.snapshot()) {
+            services.forEach((serviceId, instances) -> next.put(serviceId, new HashMap<>(instances)));
+        }
+        for (Delta delta : batch.deltas()) {
+            Map<String, PushedInstance> instances = next.computeIfAbsent(delta.serviceId(), s -> new HashMap<>());
+            if ("DELETED".equals(delta.action())) {
+                // Kept even if never seen here, to hide it from the Eureka client's older copy
+                instances.put(delta.instanceId(), new PushedInstance(delta.serviceId(), delta.instanceId(),
+                        delta.host(), delta.port(), delta.secure(), PushedInstance.CANCELLED, Map.of(), now));
+            } else {
+                instances.put(delta.instanceId(), new PushedInstance(delta.serviceId(), delta.instanceId(),
+                        delta.host(), delta.port(), delta.secure(), delta.status(),
+                        delta.metadata() == null ? Map.of() : Map.copyOf(delta.metadata()), now));
+            }
+        }
+
+        long tombstoneTtl = settings.getTombstoneTtl().toNanos();
+        next.values().forEach(instances -> instances.values().removeIf(
+                instance -> PushedInstance.CANCELLED.equals(instance.status()) && now - instance.receivedAt() > tombstoneTtl));
+        next.values().removeIf(Map::isEmpty);
+        next.replaceAll((serviceId, instances) -> Map.copyOf(instances));
+
+        services = Map.copyOf(next);
+        epoch = batch.epoch();
+        version = batch.version();
+        synced = true;
+        lastContact = now;
+    }
+}
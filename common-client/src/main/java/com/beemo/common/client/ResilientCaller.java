@@ -0,0 +1,167 @@
+package com.beemo.common.client;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.ResourceAccessException;
+
+/**
+ * Guards the calls made to one downstream service
+ *
+ * Each call holds a bulkhead permit, so a slow dependency can tie up at
+ * most {@code maxConcurrentCalls} threads; callers beyond that fail fast.
+ * A circuit breaker stops calling a dependency that keeps failing and
+ * probes it before trusting it again. Idempotent calls are retried on
+ * I/O errors and 502/503/504 with jittered exponential backoff, within the
+ * call's deadline.
+ *
+ * 4xx responses are the dependency answering correctly, so they are
+ * rethrown untouched and count as successes for the breaker.
+ */
+public class ResilientCaller {
+
+    private final String dependency;
+    private final ClientPolicy policy;
+    private final Semaphore bulkhead;
+    private final CircuitBreaker breaker;
+    private final Map<String, ClientMetrics> metrics = new ConcurrentHashMap<>();
+
+    /**
+     * @param dependency Name of the downstream service, used in errors and metrics
+     * @param policy Limits for calls to it
+     */
+    public ResilientCaller(String dependency, ClientPolicy policy) {
+        this.dependency = dependency;
+        this.policy = policy;
+        this.bulkhead = new Semaphore(policy.getMaxConcurrentCalls());
+        this.breaker = new CircuitBreaker(policy);
+    }
+
+    /**
+     * Make a call that is safe to repeat, retrying transient failures
+     *
+     * @param method Name of the client method, for metrics
+     * @param call The remote call
+     * @return What the call returned
+     * @throws DependencyUnavailableException if the breaker is open or the bulkhead is full
+     */
+    public <T> T idempotent(String method, Supplier<T> call) {
+        return execute(method, call, policy.getMaxAttempts());
+    }
+
+    /**
+     * Make a call that must not be repeated, such as one that changes state
+     *
+     * @see #idempotent(String, Supplier)
+     */
+    public <T> T once(String method, Supplier<T> call) {
+        return execute(method, call, 1);
+    }
+
+    public String getDependency() {
+        return dependency;
+    }
+
+    /**
+     * Breaker state, bulkhead headroom and per-method counters
+     */
+    public Map<String, Object> metrics() {
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("circuitBreaker", breaker.state().name());
+        snapshot.put("availableConcurrentCalls", bulkhead.availablePermits());
+        Map<String, ClientMetrics.Snapshot> methods = new LinkedHashMap<>();
+        metrics.forEach((method, methodMetrics) -> methods.put(method, methodMetrics.snapshot()));
+        snapshot.put("methods", methods);
+        return snapshot;
+    }
+
+    private <T> T execute(String method, Supplier<T> call, int maxAttempts) {
+        ClientMetrics methodMetrics = metrics.computeIfAbsent(method, m -> new ClientMetrics());
+        long started = System.nanoTime();
+        long deadline = started + policy.getDeadline().toNanos();
+
+        if (!acquireBulkhead()) {
+            methodMetrics.recordRejected();
+            methodMetrics.recordCall(System.nanoTime() - started, true);
+            throw new DependencyUnavailableException(dependency + " has too many calls in flight");
+        }
+        boolean failed = true;
+        try {
+            for (int attempt = 1; ; attempt++) {
+                if (!breaker.tryAcquire(System.nanoTime())) {
+                    methodMetrics.recordShortCircuited();
+                    throw new DependencyUnavailableException(dependency + " circuit breaker is open");
+                }
+                try {
+                    T result = call.get();
+                    breaker.onSuccess();
+                    failed = false;
+                    return result;
+                } catch (RuntimeException e) {
+                    if (!isFailure(e)) {
+                        breaker.onSuccess();
+                        throw e;
+                    }
+                    breaker.onFailure(System.nanoTime());
+                    long delay = backoff(attempt);
+                    if (attempt >= maxAttempts || !isRetryable(e) || System.nanoTime() + delay - deadline >= 0) {
+                        throw e;
+                    }
+                    methodMetrics.recordRetry();
+                    sleep(delay, e);
+                }
+            }
+        } finally {
+            bulkhead.release();
+            methodMetrics.recordCall(System.nanoTime() - started, failed);
+        }
+    }
+
+    private boolean acquireBulkhead() {
+        try {
+            return bulkhead.tryAcquire(policy.getBulkheadWait().toNanos(), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * Full jitter: a random delay up to the exponential bound, so retrying callers spread out
+     */
+    private long backoff(int attempt) {
+        long base = policy.getRetryBaseDelay().toNanos();
+        long bound = Math.min(policy.getRetryMaxDelay().toNanos(), base << Math.min(attempt - 1, 20));
+        return ThreadLocalRandom.current().nextLong(Math.max(1, bound));
+    }
+
+    private static void sleep(long nanos, RuntimeException cause) {
+        try {
+            TimeUnit.NANOSECONDS.sleep(nanos);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw cause;
+        }
+    }
+
+    private static boolean isFailure(RuntimeException e) {
+        return !(e instanceof HttpStatusCodeException status && status.getStatusCode().is4xxClientError());
+    }
+
+    private static boolean isRetryable(RuntimeException e) {
+        if (e instanceof ResourceAccessException) {
+            return true;
+        }
+        if (e instanceof HttpStatusCodeException status) {
+            int code = status.getStatusCode().value();
+            return code == 502 || code == 503 || code == 504;
+        }
+        return false;
+    }
+}
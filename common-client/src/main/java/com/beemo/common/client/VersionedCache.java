@@ -0,0 +1,201 @@
+package com.beemo.common.client;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bounded, expiring cache whose entries carry a version
+ *
+ * Writes never replace a newer version with an older one, and invalidations
+ * leave a versioned tombstone behind, so a fetch that started before an
+ * invalidation cannot put stale data back once it returns.
+ *
+ * Eviction is LRU guarded by TinyLFU admission: when the cache is full, a
+ * new key is only admitted if a frequency sketch says it has been requested
+ * more often than the LRU victim. One-off lookups therefore cannot flush
+ * the hot set out of the cache.
+ *
+ * @param <K> The key type
+ * @param <V> The value type
+ */
+public class VersionedCache<K, V> {
+
+    private record Entry<V>(V value, long version, long expiresAt) {
+        boolean isTombstone() {
+            return value == null;
+        }
+    }
+
+    private final long ttlNanos;
+    private final int maxSize;
+    private final FrequencySketch sketch;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final LinkedHashMap<K, Entry<V>> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    /**
+     * @param ttl How long an entry or tombstone is kept after it is written
+     * @param maxSize Maximum number of entries and tombstones
+     */
+    public VersionedCache(Duration ttl, int maxSize) {
+        this.ttlNanos = ttl.toNanos();
+        this.maxSize = maxSize;
+        this.sketch = new FrequencySketch(maxSize);
+    }
+
+    /**
+     * Get a live value
+     *
+     * @return The cached value, or null if absent, expired or invalidated
+     */
+    public V get(K key) {
+        lock.lock();
+        try {
+            sketch.increment(key);
+            Entry<V> entry = entries.get(key);
+            if (entry == null) {
+                return null;
+            }
+            if (entry.expiresAt() - System.nanoTime() <= 0) {
+                entries.remove(key);
+                return null;
+            }
+            return entry.value();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Cache a value unless a newer version or invalidation is already known
+     *
+     * @return true if the value was stored
+     */
+    public boolean put(K key, V value, long version) {
+        return write(key, new Entry<>(value, version, System.nanoTime() + ttlNanos));
+    }
+
+    /**
+     * Drop the value for a key and block writes of versions older than {@code version}
+     */
+    public void invalidate(K key, long version) {
+        write(key, new Entry<>(null, version, System.nanoTime() + ttlNanos));
+    }
+
+    /**
+     * Number of entries and tombstones held
+     */
+    public int size() {
+        lock.lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private boolean write(K key, Entry<V> entry) {
+        lock.lock();
+        try {
+            Entry<V> current = entries.get(key);
+            if (current != null) {
+                boolean expired = current.expiresAt() - System.nanoTime() <= 0;
+                boolean newer = entry.version() > current.version()
+                    || (entry.version() == current.version() && (current.isTombstone() || entry.isTombstone()));
+                if (!expired && !newer) {
+                    return false;
+                }
+                entries.put(key, entry);
+                return true;
+            }
+            if (entries.size() >= maxSize && !makeRoomFor(key, entry.isTombstone())) {
+                return false;
+            }
+            entries.put(key, entry);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Evict the LRU entry if it has expired or the candidate is more popular
+     * Tombstones are always admitted so an invalidation is never lost
+     */
+    private boolean makeRoomFor(K candidate, boolean force) {
+        Iterator<Map.Entry<K, Entry<V>>> lru = entries.entrySet().iterator();
+        Map.Entry<K, Entry<V>> victim = lru.next();
+        boolean expired = victim.getValue().expiresAt() - System.nanoTime() <= 0;
+        if (!force && !expired && sketch.frequency(candidate) <= sketch.frequency(victim.getKey())) {
+            return false;
+        }
+        lru.remove();
+        return true;
+    }
+
+    /**
+     * Count-min sketch of recent key frequencies with 4-bit saturating counters
+     * Counts are halved every {@code 10 * capacity} increments so old popularity fades
+     */
+    private static final class FrequencySketch {
+        private static final int DEPTH = 4;
+        private static final int MAX_COUNT = 15;
+
+        private final byte[][] counters;
+        private final int mask;
+        private final int resetAfter;
+        private int increments;
+
+        FrequencySketch(int capacity) {
+            int width = Integer.highestOneBit(Math.max(16, capacity) * 2 - 1);
+            this.counters = new byte[DEPTH][width];
+            this.mask = width - 1;
+            this.resetAfter = Math.max(16, capacity) * 10;
+        }
+
+        void increment(Object key) {
+            int hash = spread(key.hashCode());
+            for (int row = 0; row < DEPTH; row++) {
+                int index = index(hash, row);
+                if (counters[row][index] < MAX_COUNT) {
+                    counters[row][index]++;
+                }
+            }
+            if (++increments >= resetAfter) {
+                halve();
+            }
+        }
+
+        int frequency(Object key) {
+            int hash = spread(key.hashCode());
+            int min = MAX_COUNT;
+            for (int row = 0; row < DEPTH; row++) {
+                min = Math.min(min, counters[row][index(hash, row)]);
+            }
+            return min;
+        }
+
+        private void halve() {
+            for (byte[] row : counters) {
+                for (int i = 0; i < row.length; i++) {
+                    row[i] >>= 1;
+                }
+            }
+            increments /= 2;
+        }
+
+        private int index(int hash, int row) {
+            int h = hash * (0x9E3779B9 + 2 * row + 1);
+            return (h ^ (h >>> 16)) & mask;
+        }
+
+        private static int spread(int hash) {
+            hash ^= hash >>> 17;
+            hash *= 0xED5AD4BB;
+            hash ^= hash >>> 11;
+            return hash;
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.beemo.common.client;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+
+class CircuitBreakerTest {
+
+    private static final long OPEN_NANOS = Duration.ofSeconds(10).toNanos();
+
+    private final CircuitBreaker breaker = new CircuitBreaker(policy());
+
+    @Test
+    void staysClosedUntilMinimumCallsAreRecorded() {
+        for (int i = 0; i < 3; i++) {
+            assertTrue(breaker.tryAcquire(0));
+            breaker.onFailure(0);
+        }
+
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.state());
+    }
+
+    @Test
+    void opensAtTheFailureRateThreshold() {
+        fail(2);
+        succeed(1);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.state());
+
+        // Fourth call: 3 of 4 failed, over the 50% threshold
+        fail(1);
+
+        assertEquals(CircuitBreaker.State.OPEN, breaker.state());
+        assertFalse(breaker.tryAcquire(OPEN_NANOS - 1));
+    }
+
+    @Test
+    void oldOutcomesSlideOutOfTheWindow() {
+        fail(2);
+        succeed(2);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.state());
+
+        // The window holds four calls, so the two failures drop out
+        succeed(2);
+        fail(1);
+
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.state());
+    }
+
+    @Test
+    void halfOpenClosesOnceEveryProbeSucceeds() {
+        open();
+
+        assertTrue(breaker.tryAcquire(OPEN_NANOS));
+        assertTrue(breaker.tryAcquire(OPEN_NANOS));
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.state());
+        assertFalse(breaker.tryAcquire(OPEN_NANOS), "only two probes may be in flight");
+
+        breaker.onSuccess();
+        breaker.onSuccess();
+
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.state());
+        // Closing starts a fresh window
+        fail(3);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.state());
+    }
+
+    @Test
+    void halfOpenReopensOnAFailedProbe() {
+        open();
+        assertTrue(breaker.tryAcquire(OPEN_NANOS));
+
+        breaker.onFailure(OPEN_NANOS);
+
+        assertEquals(CircuitBreaker.State.OPEN, breaker.state());
+        assertFalse(breaker.tryAcquire(2 * OPEN_NANOS - 1));
+        assertTrue(breaker.tryAcquire(2 * OPEN_NANOS));
+    }
+
+    @Test
+    void abandonedProbeFreesItsSlot() {
+        open();
+        assertTrue(breaker.tryAcquire(OPEN_NANOS));
+        assertTrue(breaker.tryAcquire(OPEN_NANOS));
+
+        breaker.onAbandoned();
+
+        assertTrue(breaker.tryAcquire(OPEN_NANOS));
+    }
+
+    private void open() {
+        fail(4);
+        assertEquals(CircuitBreaker.State.OPEN, breaker.state());
+    }
+
+    private void fail(int calls) {
+        for (int i = 0; i < calls; i++) {
+            assertTrue(breaker.tryAcquire(0));
+            breaker.onFailure(0);
+        }
+    }
+
+    private void succeed(int calls) {
+        for (int i = 0; i < calls; i++) {
+            assertTrue(breaker.tryAcquire(0));
+            breaker.onSuccess();
+        }
+    }
+
+    private static ClientPolicy policy() {
+        ClientPolicy policy = new ClientPolicy();
+        policy.setSlidingWindowSize(4);
+        policy.setMinimumCalls(4);
+        policy.setFailureRateThreshold(50);
+        policy.setOpenDuration(Duration.ofSeconds(10));
+        policy.setHalfOpenCalls(2);
+        return policy;
+    }
+}
@@ -0,0 +1,144 @@
+package com.beemo.common.client;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.web.client.RestTemplate;
+
+/**
+ * Per-call overhead of the inter-service RestTemplate with and without connection pooling
+ *
+ * Starts a minimal local HTTP/1.1 server answering a small JSON body and
+ * times the same GET through each request factory, one caller at a time
+ * and then with concurrent callers. Run with:
+ *
+ * <pre>
+ * mvn -q test-compile exec:java -Dexec.mainClass=com.beemo.common.client.HttpClientBenchmark -Dexec.classpathScope=test
+ * </pre>
+ *
+ * Optional arguments: calls per run (default 20000) and concurrent callers (default 16).
+ */
+public class HttpClientBenchmark {
+
+    private static final byte[] BODY = "{\"id\":1,\"name\":\"Hihi Cola\",\"price\":19.0}".getBytes(StandardCharsets.UTF_8);
+
+    public static void main(String[] args) throws Exception {
+        int calls = args.length > 0 ? Integer.parseInt(args[0]) : 20_000;
+        int callers = args.length > 1 ? Integer.parseInt(args[1]) : 16;
+
+        try (ServerSocket server = new ServerSocket(0, 1024, InetAddress.getLoopbackAddress())) {
+            Thread.ofVirtual().start(() -> accept(server));
+            String url = "http://127.0.0.1:" + server.getLocalPort() + "/products/1";
+
+            HttpClientSettings http11 = new HttpClientSettings();
+            HttpClientSettings http2 = new HttpClientSettings();
+            http2.setProtocol(HttpClientSettings.Protocol.HTTP_2);
+            PooledHttpClientFactory pooled = new PooledHttpClientFactory(http11);
+            PooledHttpClientFactory multiplexed = new PooledHttpClientFactory(http2);
+
+            RestTemplate closing = new RestTemplate(new SimpleClientHttpRequestFactory());
+            closing.getInterceptors().add((request, body, execution) -> {
+                request.getHeaders().set("Connection", "close");
+                return execution.execute(request, body);
+            });
+
+            System.out.printf("%-34s %14s %14s%n", "request factory", "seq us/call", "conc calls/s");
+            run("new connection per call", closing, url, calls, callers);
+            run("default (SimpleClientHttpRequest)", new RestTemplate(), url, calls, callers);
+            run("pooled HTTP/1.1 (Apache)", new RestTemplate(pooled), url, calls, callers);
+            run("HTTP/2 (JDK, h2c or fallback)", new RestTemplate(multiplexed), url, calls, callers);
+            System.out.println("pool after run: " + pooled.metrics());
+            pooled.destroy();
+            multiplexed.destroy();
+        }
+    }
+
+    private static void run(String name, RestTemplate restTemplate, String url, int calls, int callers)
+            throws Exception {
+        sequential(restTemplate, url, Math.min(calls, 2_000));
+        double microsPerCall = sequential(restTemplate, url, calls) / 1_000.0 / calls;
+        double callsPerSecond = calls / (concurrent(restTemplate, url, calls, callers) / 1e9);
+        System.out.printf("%-34s %14.1f %14.0f%n", name, microsPerCall, callsPerSecond);
+    }
+
+    private static long sequential(RestTemplate restTemplate, String url, int calls) {
+        long started = System.nanoTime();
+        for (int i = 0; i < calls; i++) {
+            restTemplate.getForObject(url, String.class);
+        }
+        return System.nanoTime() - started;
+    }
+
+    private static long concurrent(RestTemplate restTemplate, String url, int calls, int callers) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(callers);
+        try {
+            long started = System.nanoTime();
+            List<Future<Long>> parts = new ArrayList<>();
+            for (int c = 0; c < callers; c++) {
+                parts.add(pool.submit(() -> sequential(restTemplate, url, calls / callers)));
+            }
+            for (Future<Long> part : parts) {
+                part.get();
+            }
+            return System.nanoTime() - started;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private static void accept(ServerSocket server) {
+        while (!server.isClosed()) {
+            try {
+                Socket socket = server.accept();
+                Thread.ofVirtual().start(() -> serve(socket));
+            } catch (IOException e) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Answer every request on a connection with the same body until the client closes it
+     * HTTP/2 upgrade requests are answered over HTTP/1.1, as a server without h2c would
+     */
+    private static void serve(Socket socket) {
+        try (socket) {
+            socket.setTcpNoDelay(true);
+            BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.ISO_8859_1));
+            OutputStream out = socket.getOutputStream();
+            byte[] head = ("HTTP/1.1 200 OK\r\nContent-Type: application/json\r\nContent-Length: " + BODY.length
+                + "\r\n\r\n").getBytes(StandardCharsets.ISO_8859_1);
+            String line;
+            while ((line = in.readLine()) != null) {
+                boolean close = false;
+                while (line != null && !line.isEmpty()) {
+                    close |= line.equalsIgnoreCase("Connection: close");
+                    line = in.readLine();
+                }
+                out.write(head);
+                out.write(BODY);
+                out.flush();
+                if (close) {
+                    return;
+                }
+            }
+        } catch (IOException e) {
+            // Client went away
+        }
+    }
+
+    private HttpClientBenchmark() {
+    }
+}
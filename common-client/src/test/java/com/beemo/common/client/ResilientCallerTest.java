@@ -0,0 +1,153 @@
+package com.beemo.common.client;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+
+class ResilientCallerTest {
+
+    private final ClientPolicy policy = policy();
+    private final ResilientCaller caller = new ResilientCaller("trader-service", policy);
+    private final AtomicInteger attempts = new AtomicInteger();
+
+    @Test
+    void idempotentCallsRetryTransientFailures() {
+        String result = caller.idempotent("getProduct", () -> {
+            if (attempts.incrementAndGet() < 3) {
+                throw new HttpServerErrorException(HttpStatus.SERVICE_UNAVAILABLE);
+            }
+            return "product";
+        });
+
+        assertEquals("product", result);
+        assertEquals(3, attempts.get());
+        ClientMetrics.Snapshot snapshot = snapshot("getProduct");
+        assertEquals(2, snapshot.retries());
+        assertEquals(0, snapshot.failures());
+    }
+
+    @Test
+    void idempotentCallsGiveUpAfterMaxAttempts() {
+        assertThrows(ResourceAccessException.class, () -> caller.idempotent("getProduct", () -> {
+            attempts.incrementAndGet();
+            throw new ResourceAccessException("connection refused");
+        }));
+
+        assertEquals(3, attempts.get());
+        assertEquals(1, snapshot("getProduct").failures());
+    }
+
+    @Test
+    void onceCallsAreNeverRetried() {
+        assertThrows(HttpServerErrorException.class, () -> caller.once("reserveStock", () -> {
+            attempts.incrementAndGet();
+            throw new HttpServerErrorException(HttpStatus.BAD_GATEWAY);
+        }));
+
+        assertEquals(1, attempts.get());
+    }
+
+    @Test
+    void nonTransientErrorsAreNotRetried() {
+        assertThrows(HttpServerErrorException.class, () -> caller.idempotent("getProduct", () -> {
+            attempts.incrementAndGet();
+            throw new HttpServerErrorException(HttpStatus.INTERNAL_SERVER_ERROR);
+        }));
+
+        assertEquals(1, attempts.get());
+    }
+
+    @Test
+    void clientErrorsAreRethrownAndKeepTheBreakerClosed() {
+        HttpClientErrorException notFound = new HttpClientErrorException(HttpStatus.NOT_FOUND);
+        for (int i = 0; i < 10; i++) {
+            HttpClientErrorException thrown = assertThrows(HttpClientErrorException.class,
+                    () -> caller.idempotent("getProduct", () -> {
+                        attempts.incrementAndGet();
+                        throw notFound;
+                    }));
+            assertSame(notFound, thrown);
+        }
+
+        assertEquals(10, attempts.get());
+        assertEquals("CLOSED", caller.metrics().get("circuitBreaker"));
+    }
+
+    @Test
+    void openBreakerShortCircuitsWithoutCalling() {
+        for (int i = 0; i < 4; i++) {
+            assertThrows(IllegalStateException.class, () -> caller.once("reserveStock", () -> {
+                throw new IllegalStateException("broken");
+            }));
+        }
+        assertEquals("OPEN", caller.metrics().get("circuitBreaker"));
+
+        assertThrows(DependencyUnavailableException.class, () -> caller.once("reserveStock", () -> {
+            attempts.incrementAndGet();
+            return "stock";
+        }));
+
+        assertEquals(0, attempts.get());
+        assertEquals(1, snapshot("reserveStock").shortCircuited());
+    }
+
+    @Test
+    void fullBulkheadRejectsFurtherCalls() throws Exception {
+        CountDownLatch inFlight = new CountDownLatch(1);
+        CountDownLatch finish = new CountDownLatch(1);
+        CompletableFuture<String> first = CompletableFuture.supplyAsync(() -> caller.once("getProduct", () -> {
+            inFlight.countDown();
+            await(finish);
+            return "first";
+        }));
+        assertTrue(inFlight.await(5, TimeUnit.SECONDS));
+
+        assertThrows(DependencyUnavailableException.class, () -> caller.once("getProduct", () -> "second"));
+        assertEquals(0, caller.metrics().get("availableConcurrentCalls"));
+
+        finish.countDown();
+        assertEquals("first", first.get(5, TimeUnit.SECONDS));
+        assertEquals(1, snapshot("getProduct").rejected());
+        assertEquals(1, caller.metrics().get("availableConcurrentCalls"));
+    }
+
+    @SuppressWarnings("unchecked")
+    private ClientMetrics.Snapshot snapshot(String method) {
+        return ((Map<String, ClientMetrics.Snapshot>) caller.metrics().get("methods")).get(method);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static ClientPolicy policy() {
+        ClientPolicy policy = new ClientPolicy();
+        policy.setMaxConcurrentCalls(1);
+        policy.setBulkheadWait(Duration.ZERO);
+        policy.setSlidingWindowSize(4);
+        policy.setMinimumCalls(4);
+        policy.setFailureRateThreshold(50);
+        policy.setMaxAttempts(3);
+        policy.setRetryBaseDelay(Duration.ofMillis(1));
+        policy.setRetryMaxDelay(Duration.ofMillis(5));
+        return policy;
+    }
+}
@@ -1,12 +1,9 @@
-package com.order.dto;
+package com.beemo.common.order.dto;
 
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotNull;
 
-public class OrderRequest {
-    
-    @NotNull(message = "User ID is required")
-    private Long userId;
+public class OrderLineRequest {
     
     @NotNull(message = "Product ID is required")
     private Long productId;
@@ -15,23 +12,14 @@ public class OrderRequest {
     @Min(value = 1, message = "Quantity must be at least 1")
     private Integer quantity;
     
-    public OrderRequest() {
+    public OrderLineRequest() {
     }
     
-    public OrderRequest(Long userId, Long productId, Integer quantity) {
-        this.userId = userId;
+    public OrderLineRequest(Long productId, Integer quantity) {
         this.productId = productId;
         this.quantity = quantity;
     }
     
-    public Long getUserId() {
-        return userId;
-    }
-    
-    public void setUserId(Long userId) {
-        this.userId = userId;
-    }
-    
     public Long getProductId() {
         return productId;
     }
@@ -0,0 +1,48 @@
+package com.beemo.common.order.dto;
+
+import java.util.List;
+
+/**
+ * One page of order history, newest first, plus the cursor to continue from
+ */
+public class OrderPage {
+    
+    private List<OrderSummary> items;
+    
+    private String nextCursor;
+    
+    private boolean hasMore;
+    
+    public OrderPage() {
+    }
+    
+    public OrderPage(List<OrderSummary> items, String nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+        this.hasMore = nextCursor != null;
+    }
+    
+    public List<OrderSummary> getItems() {
+        return items;
+    }
+    
+    public void setItems(List<OrderSummary> items) {
+        this.items = items;
+    }
+    
+    public String getNextCursor() {
+        return nextCursor;
+    }
+    
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+    
+    public boolean isHasMore() {
+        return hasMore;
+    }
+    
+    public void setHasMore(boolean hasMore) {
+        this.hasMore = hasMore;
+    }
+}
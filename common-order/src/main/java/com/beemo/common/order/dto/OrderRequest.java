@@ -0,0 +1,89 @@
+package com.beemo.common.order.dto;
+
+import java.util.List;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+
+/**
+ * Order request with either a single productId/quantity pair
+ * or a list of line items for multi-product orders
+ */
+public class OrderRequest {
+    
+    @NotNull(message = "User ID is required")
+    private Long userId;
+    
+    private Long productId;
+    
+    @Min(value = 1, message = "Quantity must be at least 1")
+    private Integer quantity;
+    
+    @Valid
+    private List<OrderLineRequest> items;
+    
+    public OrderRequest() {
+    }
+    
+    public OrderRequest(Long userId, Long productId, Integer quantity) {
+        this.userId = userId;
+        this.productId = productId;
+        this.quantity = quantity;
+    }
+    
+    public OrderRequest(Long userId, List<OrderLineRequest> items) {
+        this.userId = userId;
+        this.items = items;
+    }
+    
+    /**
+     * Normalise the request into line items
+     * 
+     * @return The requested lines, or a single line built from productId and quantity
+     */
+    public List<OrderLineRequest> toLines() {
+        if (items != null && !items.isEmpty()) {
+            return items;
+        }
+        return List.of(new OrderLineRequest(productId, quantity));
+    }
+    
+    @AssertTrue(message = "Either productId and quantity or at least one item is required")
+    public boolean isLinesPresent() {
+        return (items != null && !items.isEmpty()) || (productId != null && quantity != null);
+    }
+    
+    public Long getUserId() {
+        return userId;
+    }
+    
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+    
+    public Long getProductId() {
+        return productId;
+    }
+    
+    public void setProductId(Long productId) {
+        this.productId = productId;
+    }
+    
+    public Integer getQuantity() {
+        return quantity;
+    }
+    
+    public void setQuantity(Integer quantity) {
+        this.quantity = quantity;
+    }
+    
+    public List<OrderLineRequest> getItems() {
+        return items;
+    }
+    
+    public void setItems(List<OrderLineRequest> items) {
+        this.items = items;
+    }
+}
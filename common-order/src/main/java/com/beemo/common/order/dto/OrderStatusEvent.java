@@ -0,0 +1,43 @@
+package com.beemo.common.order.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+
+public class OrderStatusEvent {
+    
+    @NotBlank(message = "Event ID is required")
+    private String eventId;
+    
+    @NotNull(message = "Order ID is required")
+    private Long orderId;
+    
+    @NotBlank(message = "Status is required")
+    private String status;
+    
+    public OrderStatusEvent() {
+    }
+    
+    public String getEventId() {
+        return eventId;
+    }
+    
+    public void setEventId(String eventId) {
+        this.eventId = eventId;
+    }
+    
+    public Long getOrderId() {
+        return orderId;
+    }
+    
+    public void setOrderId(Long orderId) {
+        this.orderId = orderId;
+    }
+    
+    public String getStatus() {
+        return status;
+    }
+    
+    public void setStatus(String status) {
+        this.status = status;
+    }
+}
@@ -0,0 +1,82 @@
+package com.beemo.common.order.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Order history row with only the columns list views display
+ */
+public class OrderSummary {
+    
+    private Long id;
+    
+    private Long userId;
+    
+    private String status;
+    
+    private Integer quantity;
+    
+    private Double totalPrice;
+    
+    private LocalDateTime orderDate;
+    
+    public OrderSummary() {
+    }
+    
+    public OrderSummary(Long id, Long userId, String status, Integer quantity, Double totalPrice,
+                        LocalDateTime orderDate) {
+        this.id = id;
+        this.userId = userId;
+        this.status = status;
+        this.quantity = quantity;
+        this.totalPrice = totalPrice;
+        this.orderDate = orderDate;
+    }
+    
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public Long getUserId() {
+        return userId;
+    }
+    
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+    
+    public String getStatus() {
+        return status;
+    }
+    
+    public void setStatus(String status) {
+        this.status = status;
+    }
+    
+    public Integer getQuantity() {
+        return quantity;
+    }
+    
+    public void setQuantity(Integer quantity) {
+        this.quantity = quantity;
+    }
+    
+    public Double getTotalPrice() {
+        return totalPrice;
+    }
+    
+    public void setTotalPrice(Double totalPrice) {
+        this.totalPrice = totalPrice;
+    }
+    
+    public LocalDateTime getOrderDate() {
+        return orderDate;
+    }
+    
+    public void setOrderDate(LocalDateTime orderDate) {
+        this.orderDate = orderDate;
+    }
+}
@@ -1,4 +1,4 @@
-package com.order.dto;
+package com.beemo.common.order.dto;
 
 public class ProductDto {
     
@@ -7,6 +7,7 @@ public class ProductDto {
     private String description;
     private Double price;
     private Integer stock;
+    private Long version;
     
     public ProductDto() {
     }
@@ -58,4 +59,21 @@ public class ProductDto {
     public void setStock(Integer stock) {
         this.stock = stock;
     }
+    
+    public Long getVersion() {
+        return version;
+    }
+    
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+    
+    /**
+     * Copy of this product without the stock level, which is never cached
+     */
+    public ProductDto withoutStock() {
+        ProductDto copy = new ProductDto(id, name, description, price, null);
+        copy.setVersion(version);
+        return copy;
+    }
 }
@@ -0,0 +1,43 @@
+package com.beemo.common.order.dto;
+
+import jakarta.validation.constraints.NotNull;
+
+/**
+ * Catalog change notice published by trader-service
+ */
+public class ProductInvalidation {
+    
+    @NotNull(message = "Product ID is required")
+    private Long productId;
+    
+    private long version;
+    
+    private boolean deleted;
+    
+    public ProductInvalidation() {
+    }
+    
+    public Long getProductId() {
+        return productId;
+    }
+    
+    public void setProductId(Long productId) {
+        this.productId = productId;
+    }
+    
+    public long getVersion() {
+        return version;
+    }
+    
+    public void setVersion(long version) {
+        this.version = version;
+    }
+    
+    public boolean isDeleted() {
+        return deleted;
+    }
+    
+    public void setDeleted(boolean deleted) {
+        this.deleted = deleted;
+    }
+}
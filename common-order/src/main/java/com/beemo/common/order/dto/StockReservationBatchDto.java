@@ -0,0 +1,31 @@
+package com.beemo.common.order.dto;
+
+import java.util.List;
+
+/**
+ * A batch reservation from trader-service, claimed or released by its ID
+ */
+public class StockReservationBatchDto {
+    
+    private String reservationId;
+    private List<StockReservationDto> lines;
+    
+    public StockReservationBatchDto() {
+    }
+    
+    public String getReservationId() {
+        return reservationId;
+    }
+    
+    public void setReservationId(String reservationId) {
+        this.reservationId = reservationId;
+    }
+    
+    public List<StockReservationDto> getLines() {
+        return lines;
+    }
+    
+    public void setLines(List<StockReservationDto> lines) {
+        this.lines = lines;
+    }
+}
@@ -0,0 +1,53 @@
+package com.beemo.common.order.dto;
+
+public class StockReservationDto {
+    
+    private Long productId;
+    private String name;
+    private Double price;
+    private Integer reserved;
+    private Integer remainingStock;
+    
+    public StockReservationDto() {
+    }
+    
+    public Long getProductId() {
+        return productId;
+    }
+    
+    public void setProductId(Long productId) {
+        this.productId = productId;
+    }
+    
+    public String getName() {
+        return name;
+    }
+    
+    public void setName(String name) {
+        this.name = name;
+    }
+    
+    public Double getPrice() {
+        return price;
+    }
+    
+    public void setPrice(Double price) {
+        this.price = price;
+    }
+    
+    public Integer getReserved() {
+        return reserved;
+    }
+    
+    public void setReserved(Integer reserved) {
+        this.reserved = reserved;
+    }
+    
+    public Integer getRemainingStock() {
+        return remainingStock;
+    }
+    
+    public void setRemainingStock(Integer remainingStock) {
+        this.remainingStock = remainingStock;
+    }
+}
@@ -1,4 +1,4 @@
-package com.order.exceptions;
+package com.beemo.common.order.exceptions;
 
 public class UserNotFoundException extends RuntimeException {
     public UserNotFoundException(String message) {
@@ -0,0 +1,28 @@
+package com.beemo.common.runtime;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+
+/**
+ * Starts a {@link VirtualThreadPinningMonitor} in services running on virtual threads
+ *
+ * {@code beemo.pinning-monitor.enabled} defaults to
+ * {@code spring.threads.virtual.enabled}, and
+ * {@code beemo.pinning-monitor.threshold} to 20ms.
+ */
+@AutoConfiguration
+@ConditionalOnExpression("${beemo.pinning-monitor.enabled:${spring.threads.virtual.enabled:false}}")
+public class VirtualThreadPinningAutoConfiguration {
+
+    @Bean
+    @ConditionalOnMissingBean
+    public VirtualThreadPinningMonitor virtualThreadPinningMonitor(
+            @Value("${beemo.pinning-monitor.threshold:20ms}") Duration threshold) {
+        return new VirtualThreadPinningMonitor(threshold);
+    }
+}
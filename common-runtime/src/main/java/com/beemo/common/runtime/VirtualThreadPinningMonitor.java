@@ -0,0 +1,109 @@
+package com.beemo.common.runtime;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+
+/**
+ * Reports virtual threads that block while pinned to their carrier thread
+ *
+ * On Java 21 a virtual thread that blocks inside a {@code synchronized}
+ * block or method, or in native code, keeps its carrier thread, so a few of
+ * them can stall every request. This streams JFR's
+ * {@code jdk.VirtualThreadPinned} events longer than the threshold and logs
+ * each blocking site, identified by its first application frame, with its
+ * stack the first time and then every hundredth time.
+ */
+public class VirtualThreadPinningMonitor implements InitializingBean, DisposableBean {
+
+    private static final Log logger = LogFactory.getLog(VirtualThreadPinningMonitor.class);
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    private static final int LOGGED_FRAMES = 16;
+    private static final List<String> PLATFORM_PACKAGES = List.of("java.", "javax.", "jdk.", "sun.", "com.sun.");
+
+    private final Duration threshold;
+    private final Map<String, LongAdder> sites = new ConcurrentHashMap<>();
+    private RecordingStream stream;
+
+    /**
+     * @param threshold Shortest pinned block to report
+     */
+    public VirtualThreadPinningMonitor(Duration threshold) {
+        this.threshold = threshold;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        stream = new RecordingStream();
+        stream.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+        stream.onEvent(PINNED_EVENT, this::report);
+        stream.startAsync();
+        logger.info("Reporting virtual threads pinned for longer than " + threshold);
+    }
+
+    @Override
+    public void destroy() {
+        if (stream != null) {
+            stream.close();
+        }
+    }
+
+    /**
+     * Pinned blocks seen so far per site
+     */
+    public Map<String, Long> counts() {
+        Map<String, Long> counts = new ConcurrentHashMap<>();
+        sites.forEach((site, count) -> counts.put(site, count.sum()));
+        return counts;
+    }
+
+    private void report(RecordedEvent event) {
+        RecordedStackTrace stackTrace = event.getStackTrace();
+        List<RecordedFrame> frames = stackTrace == null ? List.of() : stackTrace.getFrames();
+        String site = site(frames);
+        LongAdder count = sites.computeIfAbsent(site, s -> new LongAdder());
+        count.increment();
+        long seen = count.sum();
+        if (seen != 1 && seen % 100 != 0) {
+            return;
+        }
+
+        StringBuilder message = new StringBuilder("Virtual thread pinned for ")
+                .append(event.getDuration().toMillis()).append(" ms at ").append(site)
+                .append(" (seen ").append(seen).append(seen == 1 ? " time)" : " times)");
+        for (int i = 0; i < Math.min(frames.size(), LOGGED_FRAMES); i++) {
+            message.append("\n\tat ").append(frame(frames.get(i)));
+        }
+        logger.warn(message);
+    }
+
+    /**
+     * The first frame outside the JDK, which is usually the code holding the monitor or calling the blocking library
+     */
+    private static String site(List<RecordedFrame> frames) {
+        for (RecordedFrame frame : frames) {
+            String type = frame.getMethod().getType().getName();
+            if (PLATFORM_PACKAGES.stream().noneMatch(type::startsWith)) {
+                return frame(frame);
+            }
+        }
+        return frames.isEmpty() ? "unknown" : frame(frames.get(0));
+    }
+
+    private static String frame(RecordedFrame frame) {
+        return frame.getMethod().getType().getName() + "." + frame.getMethod().getName()
+                + (frame.getLineNumber() > 0 ? ":" + frame.getLineNumber() : "");
+    }
+}
@@ -0,0 +1,28 @@
+package com.beemo.common.security;
+
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+/**
+ * Shared by the servlet and WebFlux identity filters, which cannot load each other's classes
+ */
+final class IdentityAuthentication {
+    
+    static final String SERVICE_ROLE = "ROLE_SERVICE";
+    static final String USER_ROLE = "ROLE_USER";
+    
+    private IdentityAuthentication() {
+    }
+    
+    static UsernamePasswordAuthenticationToken of(IdentityHeader.Identity identity) {
+        return UsernamePasswordAuthenticationToken.authenticated(identity.subject(), null,
+            List.of(new SimpleGrantedAuthority(identity.isService() ? SERVICE_ROLE : USER_ROLE)));
+    }
+    
+    static Map<String, String> unauthorized(InvalidTokenException e) {
+        return Map.of("error", "Unauthorized", "message", e.getMessage());
+    }
+}
@@ -0,0 +1,135 @@
+package com.beemo.common.security;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.Base64;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import com.beemo.common.cache.ExpiringCache;
+
+/**
+ * Compact, signed caller identity passed from the gateway to backend services
+ *
+ * The value is {@code base64url(subject).expiresAt.base64url(hmac)}, signed
+ * with a secret shared by the gateway and the backends only. Signing is
+ * deterministic, so every request made with one token carries the same
+ * value, and backends cache verified values until they expire: after the
+ * first request a caller costs one map lookup.
+ */
+public class IdentityHeader {
+    
+    public static final String NAME = "X-Beemo-Identity";
+    /** Subject prefix of identities signed by a service for its own calls; never given to end users */
+    public static final String SERVICE_PREFIX = "service:";
+    private static final String ALGORITHM = "HmacSHA256";
+    
+    /**
+     * @param subject The authenticated caller
+     * @param expiresAt When the identity stops being valid
+     */
+    public record Identity(String subject, Instant expiresAt) {
+        
+        /**
+         * Whether the caller is another Beemo service rather than an end user
+         */
+        public boolean isService() {
+            return subject.startsWith(SERVICE_PREFIX);
+        }
+    }
+    
+    private final SecretKeySpec key;
+    private final Clock clock;
+    private final ThreadLocal<Mac> macs;
+    private final ExpiringCache<String, Identity> verified;
+    
+    /**
+     * @param secret The shared HMAC secret, at least 32 bytes
+     * @param maxSize Maximum number of verified values to remember, or 0 for a
+     *        signer such as the gateway that never verifies
+     */
+    public IdentityHeader(byte[] secret, int maxSize) {
+        this(secret, maxSize, Clock.systemUTC());
+    }
+    
+    public IdentityHeader(byte[] secret, int maxSize, Clock clock) {
+        if (secret.length < 32) {
+            throw new IllegalArgumentException("Identity secret must be at least 32 bytes");
+        }
+        this.key = new SecretKeySpec(secret, ALGORITHM);
+        this.clock = clock;
+        if (maxSize < 0) {
+            throw new IllegalArgumentException("maxSize must not be negative");
+        }
+        this.verified = maxSize == 0 ? null : new ExpiringCache<>(maxSize, clock::millis);
+        this.macs = ThreadLocal.withInitial(this::newMac);
+        newMac();
+    }
+    
+    /**
+     * Build the header value for a caller
+     */
+    public String sign(String subject, Instant expiresAt) {
+        String unsigned = Base64.getUrlEncoder().withoutPadding()
+            .encodeToString(subject.getBytes(StandardCharsets.UTF_8)) + "." + expiresAt.getEpochSecond();
+        return unsigned + "." + Base64.getUrlEncoder().withoutPadding().encodeToString(mac(unsigned));
+    }
+    
+    /**
+     * Check a header value and return the caller it names
+     *
+     * @throws InvalidTokenException if the value is malformed, wrongly signed or expired
+     */
+    public Identity verify(String value) {
+        Instant now = clock.instant();
+        Identity cached = verified == null ? null : verified.get(value);
+        if (cached != null) {
+            return cached;
+        }
+        
+        int subjectEnd = value.indexOf('.');
+        int expiryEnd = subjectEnd < 0 ? -1 : value.indexOf('.', subjectEnd + 1);
+        if (subjectEnd <= 0 || expiryEnd < 0) {
+            throw new InvalidTokenException("Malformed identity");
+        }
+        Identity identity;
+        byte[] signature;
+        try {
+            identity = new Identity(
+                new String(Base64.getUrlDecoder().decode(value.substring(0, subjectEnd)), StandardCharsets.UTF_8),
+                Instant.ofEpochSecond(Long.parseLong(value.substring(subjectEnd + 1, expiryEnd))));
+            signature = Base64.getUrlDecoder().decode(value.substring(expiryEnd + 1));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidTokenException("Malformed identity", e);
+        }
+        if (!MessageDigest.isEqual(mac(value.substring(0, expiryEnd)), signature)) {
+            throw new InvalidTokenException("Invalid identity signature");
+        }
+        if (!now.isBefore(identity.expiresAt())) {
+            throw new InvalidTokenException("Identity expired");
+        }
+        
+        if (verified != null) {
+            verified.put(value, identity, identity.expiresAt().toEpochMilli());
+        }
+        return identity;
+    }
+    
+    private byte[] mac(String input) {
+        return macs.get().doFinal(input.getBytes(StandardCharsets.US_ASCII));
+    }
+    
+    private Mac newMac() {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 is not available", e);
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.beemo.common.security;
+
+import java.io.IOException;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Authenticates servlet requests by the identity the api-gateway or a calling service signed
+ * 
+ * The gateway has already verified the caller's token, so this only checks
+ * the HMAC of the identity header, and repeat callers are served from the
+ * verified-value cache. End users get {@code ROLE_USER} and services
+ * {@code ROLE_SERVICE}, which each service's security rules require on its
+ * endpoints. Requests without the header stay anonymous; a forged or
+ * expired header is rejected with 401.
+ */
+public class IdentityHeaderFilter extends OncePerRequestFilter {
+    
+    private final IdentityHeader identityHeader;
+    private final ObjectMapper objectMapper;
+    
+    public IdentityHeaderFilter(IdentityHeader identityHeader, ObjectMapper objectMapper) {
+        this.identityHeader = identityHeader;
+        this.objectMapper = objectMapper;
+    }
+    
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String value = request.getHeader(IdentityHeader.NAME);
+        if (value == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+        
+        IdentityHeader.Identity identity;
+        try {
+            identity = identityHeader.verify(value);
+        } catch (InvalidTokenException e) {
+            response.setStatus(HttpStatus.UNAUTHORIZED.value());
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            objectMapper.writeValue(response.getOutputStream(), IdentityAuthentication.unauthorized(e));
+            return;
+        }
+        
+        SecurityContext context = SecurityContextHolder.createEmptyContext();
+        context.setAuthentication(IdentityAuthentication.of(identity));
+        SecurityContextHolder.setContext(context);
+        chain.doFilter(request, response);
+    }
+}
@@ -0,0 +1,59 @@
+package com.beemo.common.security;
+
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * WebFlux counterpart of {@link IdentityHeaderFilter}
+ * 
+ * Same checks and roles; the authentication is put in the Reactor context
+ * instead of a thread-bound security context.
+ */
+public class IdentityHeaderWebFilter implements WebFilter {
+    
+    private final IdentityHeader identityHeader;
+    private final ObjectMapper objectMapper;
+    
+    public IdentityHeaderWebFilter(IdentityHeader identityHeader, ObjectMapper objectMapper) {
+        this.identityHeader = identityHeader;
+        this.objectMapper = objectMapper;
+    }
+    
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        String value = exchange.getRequest().getHeaders().getFirst(IdentityHeader.NAME);
+        if (value == null) {
+            return chain.filter(exchange);
+        }
+        
+        IdentityHeader.Identity identity;
+        try {
+            identity = identityHeader.verify(value);
+        } catch (InvalidTokenException e) {
+            ServerHttpResponse response = exchange.getResponse();
+            response.setStatusCode(HttpStatus.UNAUTHORIZED);
+            response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+            DataBuffer body;
+            try {
+                body = response.bufferFactory().wrap(objectMapper.writeValueAsBytes(IdentityAuthentication.unauthorized(e)));
+            } catch (JsonProcessingException serialization) {
+                return Mono.error(serialization);
+            }
+            return response.writeWith(Mono.just(body));
+        }
+        
+        return chain.filter(exchange).contextWrite(
+            ReactiveSecurityContextHolder.withAuthentication(IdentityAuthentication.of(identity)));
+    }
+}
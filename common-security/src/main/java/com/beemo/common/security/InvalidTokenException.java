@@ -0,0 +1,15 @@
+package com.beemo.common.security;
+
+/**
+ * Thrown when a token is malformed, wrongly signed or expired
+ */
+public class InvalidTokenException extends RuntimeException {
+    
+    public InvalidTokenException(String message) {
+        super(message);
+    }
+    
+    public InvalidTokenException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,32 @@
+package com.beemo.common.security;
+
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * Claims of a verified token, parsed once
+ *
+ * @param subject The {@code sub} claim
+ * @param issuedAt The {@code iat} claim, or null if absent
+ * @param expiresAt The {@code exp} claim
+ * @param claims Every claim as decoded from the payload, unmodifiable
+ */
+public record JwtClaims(String subject, Instant issuedAt, Instant expiresAt, Map<String, Object> claims) {
+    
+    public JwtClaims {
+        claims = Map.copyOf(claims);
+    }
+    
+    public boolean isExpired(Instant now) {
+        return !now.isBefore(expiresAt);
+    }
+    
+    /**
+     * Get any other claim by name
+     *
+     * @return The claim value, or null if absent
+     */
+    public Object get(String name) {
+        return claims.get(name);
+    }
+}
@@ -0,0 +1,117 @@
+package com.beemo.common.security;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Map;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Verifies HS256-signed JWTs and decodes their claims in a single pass
+ *
+ * Only HS256 is accepted, so a token cannot pick a weaker algorithm through
+ * its header. Tokens without a subject or expiry are rejected.
+ */
+public class JwtVerifier {
+    
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final TypeReference<Map<String, Object>> CLAIMS_TYPE = new TypeReference<>() {
+    };
+    
+    private final SecretKeySpec key;
+    private final Clock clock;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ThreadLocal<Mac> macs;
+    
+    /**
+     * @param secret The shared HMAC secret, at least 32 bytes
+     */
+    public JwtVerifier(byte[] secret) {
+        this(secret, Clock.systemUTC());
+    }
+    
+    public JwtVerifier(byte[] secret, Clock clock) {
+        if (secret.length < 32) {
+            throw new IllegalArgumentException("HS256 secret must be at least 32 bytes");
+        }
+        this.key = new SecretKeySpec(secret, ALGORITHM);
+        this.clock = clock;
+        this.macs = ThreadLocal.withInitial(this::newMac);
+        newMac();
+    }
+    
+    /**
+     * Check the signature and expiry of a compact JWT and decode its claims
+     *
+     * @throws InvalidTokenException if the token is malformed, wrongly signed or expired
+     */
+    public JwtClaims verify(String token) {
+        int headerEnd = token.indexOf('.');
+        int payloadEnd = headerEnd < 0 ? -1 : token.indexOf('.', headerEnd + 1);
+        if (headerEnd <= 0 || payloadEnd < 0 || token.indexOf('.', payloadEnd + 1) >= 0) {
+            throw new InvalidTokenException("Malformed token");
+        }
+        
+        byte[] signature = decode(token.substring(payloadEnd + 1));
+        Mac mac = macs.get();
+        byte[] expected = mac.doFinal(token.substring(0, payloadEnd).getBytes(StandardCharsets.US_ASCII));
+        if (!MessageDigest.isEqual(expected, signature)) {
+            throw new InvalidTokenException("Invalid token signature");
+        }
+        
+        Map<String, Object> header = parse(token.substring(0, headerEnd));
+        if (!"HS256".equals(header.get("alg"))) {
+            throw new InvalidTokenException("Unsupported token algorithm " + header.get("alg"));
+        }
+        Map<String, Object> payload = parse(token.substring(headerEnd + 1, payloadEnd));
+        Object subject = payload.get("sub");
+        Instant expiresAt = epochSeconds(payload.get("exp"));
+        if (!(subject instanceof String) || expiresAt == null) {
+            throw new InvalidTokenException("Token needs a subject and an expiry");
+        }
+        JwtClaims claims = new JwtClaims((String) subject, epochSeconds(payload.get("iat")), expiresAt, payload);
+        if (claims.isExpired(clock.instant())) {
+            throw new InvalidTokenException("Token expired");
+        }
+        return claims;
+    }
+    
+    private Map<String, Object> parse(String segment) {
+        try {
+            return objectMapper.readValue(decode(segment), CLAIMS_TYPE);
+        } catch (IOException e) {
+            throw new InvalidTokenException("Malformed token", e);
+        }
+    }
+    
+    private static byte[] decode(String segment) {
+        try {
+            return Base64.getUrlDecoder().decode(segment);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidTokenException("Malformed token", e);
+        }
+    }
+    
+    private static Instant epochSeconds(Object value) {
+        return value instanceof Number number ? Instant.ofEpochSecond(number.longValue()) : null;
+    }
+    
+    private Mac newMac() {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 is not available", e);
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.beemo.common.security;
+
+import java.io.IOException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+
+import org.springframework.http.HttpRequest;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+
+/**
+ * Identity a service presents on its own calls to other services
+ * 
+ * The value is an {@link IdentityHeader} for {@code service:<name>}, so
+ * receivers verify it like a gateway-signed identity and can limit internal
+ * endpoints to services. It is signed once and re-signed when less than half
+ * of its lifetime is left. As an interceptor it adds the header to every
+ * request of a RestTemplate; WebFlux clients add {@link #value()} themselves.
+ */
+public class ServiceIdentity implements ClientHttpRequestInterceptor {
+    
+    private record Signed(String value, Instant renewAt) {
+    }
+    
+    /** Long enough to sign rarely, short enough that a leaked value is soon useless */
+    public static final Duration DEFAULT_TTL = Duration.ofMinutes(5);
+    
+    private final IdentityHeader identityHeader;
+    private final String subject;
+    private final Duration ttl;
+    private final Clock clock;
+    private volatile Signed signed;
+    
+    public ServiceIdentity(IdentityHeader identityHeader, String serviceName) {
+        this(identityHeader, serviceName, DEFAULT_TTL, Clock.systemUTC());
+    }
+    
+    public ServiceIdentity(IdentityHeader identityHeader, String serviceName, Duration ttl) {
+        this(identityHeader, serviceName, ttl, Clock.systemUTC());
+    }
+    
+    public ServiceIdentity(IdentityHeader identityHeader, String serviceName, Duration ttl, Clock clock) {
+        this.identityHeader = identityHeader;
+        this.subject = IdentityHeader.SERVICE_PREFIX + serviceName;
+        this.ttl = ttl;
+        this.clock = clock;
+    }
+    
+    /**
+     * The signed header value, valid for at least half the configured lifetime
+     */
+    public String value() {
+        Signed current = signed;
+        Instant now = clock.instant();
+        if (current == null || !now.isBefore(current.renewAt())) {
+            current = new Signed(identityHeader.sign(subject, now.plus(ttl)), now.plus(ttl.dividedBy(2)));
+            signed = current;
+        }
+        return current.value();
+    }
+    
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution)
+            throws IOException {
+        request.getHeaders().set(IdentityHeader.NAME, value());
+        return execution.execute(request, body);
+    }
+}
@@ -0,0 +1,59 @@
+package com.beemo.common.security;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Clock;
+
+import com.beemo.common.cache.ExpiringCache;
+
+/**
+ * Remembers tokens that already passed verification until they expire
+ *
+ * Entries are keyed by the token's signature segment, which is already a
+ * MAC of the rest, so a lookup costs no hashing of its own. A hit is only
+ * trusted if the whole token matches the one that was verified, and only
+ * until the token's own expiry. The cache holds at most {@code maxSize}
+ * tokens in an {@link ExpiringCache}; rejected tokens are never cached.
+ */
+public class VerifiedTokenCache {
+    
+    private record Entry(String token, JwtClaims claims) {
+    }
+    
+    private final JwtVerifier verifier;
+    private final ExpiringCache<String, Entry> entries;
+    
+    public VerifiedTokenCache(JwtVerifier verifier, int maxSize) {
+        this(verifier, maxSize, Clock.systemUTC());
+    }
+    
+    public VerifiedTokenCache(JwtVerifier verifier, int maxSize, Clock clock) {
+        this.verifier = verifier;
+        this.entries = new ExpiringCache<>(maxSize, clock::millis);
+    }
+    
+    /**
+     * Return the claims of a token, verifying it only if it is not cached
+     *
+     * @throws InvalidTokenException if the token is malformed, wrongly signed or expired
+     */
+    public JwtClaims verify(String token) {
+        String key = token.substring(token.lastIndexOf('.') + 1);
+        Entry cached = entries.get(key);
+        if (cached != null && MessageDigest.isEqual(cached.token().getBytes(StandardCharsets.US_ASCII),
+                                                    token.getBytes(StandardCharsets.US_ASCII))) {
+            return cached.claims();
+        }
+        
+        JwtClaims claims = verifier.verify(token);
+        entries.put(key, new Entry(token, claims), claims.expiresAt().toEpochMilli());
+        return claims;
+    }
+    
+    /**
+     * Number of cached tokens
+     */
+    public int size() {
+        return entries.size();
+    }
+}
@@ -0,0 +1,78 @@
+package com.beemo.common.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.Test;
+
+class JwtVerifierTest {
+    
+    private final TestTokens.MutableClock clock = new TestTokens.MutableClock();
+    private final JwtVerifier verifier = new JwtVerifier(TestTokens.SECRET, clock);
+    
+    @Test
+    void validTokenIsDecodedInOnePass() {
+        JwtClaims claims = verifier.verify(TestTokens.hs256("alice", TestTokens.NOW.plusSeconds(60)));
+        
+        assertEquals("alice", claims.subject());
+        assertEquals(TestTokens.NOW, claims.issuedAt());
+        assertEquals(TestTokens.NOW.plusSeconds(60), claims.expiresAt());
+        assertEquals("USER", claims.get("role"));
+    }
+    
+    @Test
+    void tokenIsRejectedFromItsExpirySecond() {
+        String token = TestTokens.hs256("alice", TestTokens.NOW.plusSeconds(60));
+        
+        clock.advance(59);
+        assertEquals("alice", verifier.verify(token).subject());
+        
+        clock.advance(1);
+        assertEquals("Token expired",
+            assertThrows(InvalidTokenException.class, () -> verifier.verify(token)).getMessage());
+    }
+    
+    @Test
+    void tokenSignedWithAnotherSecretIsRejected() {
+        byte[] other = "fedcba9876543210fedcba9876543210".getBytes(StandardCharsets.US_ASCII);
+        String token = TestTokens.sign(other, "{\"alg\":\"HS256\"}", "{\"sub\":\"alice\",\"exp\":4102444800}");
+        
+        assertEquals("Invalid token signature",
+            assertThrows(InvalidTokenException.class, () -> verifier.verify(token)).getMessage());
+    }
+    
+    @Test
+    void onlyHs256IsAccepted() {
+        String token = TestTokens.sign(TestTokens.SECRET, "{\"alg\":\"HS512\"}",
+            "{\"sub\":\"alice\",\"exp\":4102444800}");
+        
+        assertEquals("Unsupported token algorithm HS512",
+            assertThrows(InvalidTokenException.class, () -> verifier.verify(token)).getMessage());
+    }
+    
+    @Test
+    void subjectAndExpiryAreRequired() {
+        String noExpiry = TestTokens.sign(TestTokens.SECRET, "{\"alg\":\"HS256\"}", "{\"sub\":\"alice\"}");
+        String noSubject = TestTokens.sign(TestTokens.SECRET, "{\"alg\":\"HS256\"}", "{\"exp\":4102444800}");
+        
+        assertThrows(InvalidTokenException.class, () -> verifier.verify(noExpiry));
+        assertThrows(InvalidTokenException.class, () -> verifier.verify(noSubject));
+    }
+    
+    @Test
+    void malformedTokensAreRejected() {
+        String token = TestTokens.hs256("alice", TestTokens.NOW.plusSeconds(60));
+        String badSignature = token.substring(0, token.lastIndexOf('.') + 1) + "@@";
+        
+        assertThrows(InvalidTokenException.class, () -> verifier.verify("no-dots"));
+        assertThrows(InvalidTokenException.class, () -> verifier.verify(token + ".extra"));
+        assertThrows(InvalidTokenException.class, () -> verifier.verify(badSignature));
+    }
+    
+    @Test
+    void shortSecretsAreRefused() {
+        assertThrows(IllegalArgumentException.class, () -> new JwtVerifier(new byte[31]));
+    }
+}
@@ -0,0 +1,66 @@
+package com.beemo.common.security;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Base64;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+/**
+ * Signs compact JWTs for the verifier tests, and a clock they can move forward
+ */
+final class TestTokens {
+    
+    static final byte[] SECRET = "0123456789abcdef0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+    static final Instant NOW = Instant.parse("2024-05-01T12:00:00Z");
+    
+    private TestTokens() {
+    }
+    
+    static String hs256(String subject, Instant expiresAt) {
+        return sign(SECRET, "{\"alg\":\"HS256\",\"typ\":\"JWT\"}",
+            "{\"sub\":\"" + subject + "\",\"iat\":" + NOW.getEpochSecond() + ",\"exp\":" + expiresAt.getEpochSecond()
+                + ",\"role\":\"USER\"}");
+    }
+    
+    static String sign(byte[] secret, String header, String payload) {
+        Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+        String unsigned = encoder.encodeToString(header.getBytes(StandardCharsets.UTF_8)) + "."
+            + encoder.encodeToString(payload.getBytes(StandardCharsets.UTF_8));
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(secret, "HmacSHA256"));
+            return unsigned + "." + encoder.encodeToString(mac.doFinal(unsigned.getBytes(StandardCharsets.US_ASCII)));
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+    
+    static final class MutableClock extends Clock {
+        
+        private Instant now = NOW;
+        
+        void advance(long seconds) {
+            now = now.plusSeconds(seconds);
+        }
+        
+        @Override
+        public Instant instant() {
+            return now;
+        }
+        
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+        
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.beemo.common.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import org.junit.jupiter.api.Test;
+
+class VerifiedTokenCacheTest {
+    
+    private final TestTokens.MutableClock clock = new TestTokens.MutableClock();
+    private final JwtVerifier verifier = spy(new JwtVerifier(TestTokens.SECRET, clock));
+    private final VerifiedTokenCache cache = new VerifiedTokenCache(verifier, 2, clock);
+    
+    @Test
+    void verifiedTokenIsServedFromTheCache() {
+        String token = TestTokens.hs256("alice", TestTokens.NOW.plusSeconds(60));
+        
+        JwtClaims first = cache.verify(token);
+        
+        assertSame(first, cache.verify(token));
+        verify(verifier, times(1)).verify(token);
+    }
+    
+    @Test
+    void cachedTokenIsNotTrustedPastItsExpiry() {
+        String token = TestTokens.hs256("alice", TestTokens.NOW.plusSeconds(60));
+        cache.verify(token);
+        
+        clock.advance(60);
+        
+        assertThrows(InvalidTokenException.class, () -> cache.verify(token));
+        verify(verifier, times(2)).verify(token);
+    }
+    
+    @Test
+    void leastRecentlyWrittenTokenIsEvictedWhenFull() {
+        String alice = TestTokens.hs256("alice", TestTokens.NOW.plusSeconds(60));
+        String bob = TestTokens.hs256("bob", TestTokens.NOW.plusSeconds(60));
+        String carol = TestTokens.hs256("carol", TestTokens.NOW.plusSeconds(60));
+        
+        cache.verify(alice);
+        cache.verify(bob);
+        cache.verify(carol);
+        cache.verify(bob);
+        cache.verify(alice);
+        
+        assertEquals(2, cache.size());
+        verify(verifier, times(1)).verify(bob);
+        verify(verifier, times(2)).verify(alice);
+    }
+    
+    @Test
+    void tokenReusingACachedSignatureIsVerifiedAgain() {
+        String token = TestTokens.hs256("alice", TestTokens.NOW.plusSeconds(60));
+        cache.verify(token);
+        String signature = token.substring(token.lastIndexOf('.'));
+        String forged = TestTokens.hs256("mallory", TestTokens.NOW.plusSeconds(60));
+        String tampered = forged.substring(0, forged.lastIndexOf('.')) + signature;
+        
+        assertThrows(InvalidTokenException.class, () -> cache.verify(tampered));
+        verify(verifier, times(1)).verify(tampered);
+    }
+    
+    @Test
+    void rejectedTokensAreNotCached() {
+        String expired = TestTokens.hs256("alice", TestTokens.NOW);
+        
+        assertThrows(InvalidTokenException.class, () -> cache.verify(expired));
+        assertThrows(InvalidTokenException.class, () -> cache.verify(expired));
+        
+        assertEquals(0, cache.size());
+        verify(verifier, times(2)).verify(expired);
+    }
+}
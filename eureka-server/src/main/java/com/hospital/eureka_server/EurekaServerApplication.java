@@ -2,10 +2,12 @@ package com.hospital.eureka_server;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
 import org.springframework.cloud.netflix.eureka.server.EnableEurekaServer;
 
 @EnableEurekaServer
 @SpringBootApplication
+@ConfigurationPropertiesScan
 public class EurekaServerApplication {
 
 	public static void main(String[] args) {
@@ -0,0 +1,26 @@
+package com.hospital.eureka_server.registry;
+
+import java.util.Map;
+
+/**
+ * One change to one instance, numbered in the order the server saw it
+ *
+ * {@code serviceId} is the lower-cased Eureka application name, as used in
+ * load-balanced URLs. A {@code DELETED} delta carries only the IDs.
+ */
+public record RegistryDelta(long version, Action action, String serviceId, String instanceId, String host,
+		int port, boolean secure, String status, Map<String, String> metadata) {
+
+	public enum Action {
+		ADDED, MODIFIED, DELETED
+	}
+
+	RegistryDelta withVersion(long newVersion, Action newAction) {
+		return new RegistryDelta(newVersion, newAction, serviceId, instanceId, host, port, secure, status, metadata);
+	}
+
+	boolean sameInstanceState(RegistryDelta other) {
+		return other != null && port == other.port && secure == other.secure && status.equals(other.status)
+			&& host.equals(other.host) && metadata.equals(other.metadata);
+	}
+}
@@ -0,0 +1,14 @@
+package com.hospital.eureka_server.registry;
+
+import java.util.List;
+
+/**
+ * Answer to a subscriber's poll
+ *
+ * @param epoch Identifies this server run; versions from another run are meaningless
+ * @param version Version to poll from next
+ * @param snapshot Whether {@code deltas} is the whole registry, replacing what the subscriber had
+ * @param deltas Changes after the subscriber's version, oldest first
+ */
+public record RegistryDeltaBatch(String epoch, long version, boolean snapshot, List<RegistryDelta> deltas) {
+}
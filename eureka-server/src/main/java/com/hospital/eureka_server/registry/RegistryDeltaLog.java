@@ -0,0 +1,223 @@
+package com.hospital.eureka_server.registry;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.cloud.netflix.eureka.server.event.EurekaInstanceCanceledEvent;
+import org.springframework.cloud.netflix.eureka.server.event.EurekaInstanceRegisteredEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import com.hospital.eureka_server.registry.RegistryDelta.Action;
+import com.netflix.appinfo.InstanceInfo;
+import com.netflix.appinfo.InstanceInfo.InstanceStatus;
+import com.netflix.appinfo.InstanceInfo.PortType;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Numbered log of registry changes that subscribers long-poll
+ *
+ * Registrations (including a client re-registering with a new status) and
+ * cancellations, local or replicated from peers, are appended as deltas.
+ * Re-registrations that change nothing are dropped. A change to one of the
+ * fast-path statuses publishes at once and wakes parked polls; anything else
+ * is published with the next fast-path change or when the batch window
+ * ends, whichever comes first.
+ *
+ * The log keeps its own copy of the published registry for snapshots, so a
+ * snapshot and the deltas after it never disagree, even though Spring
+ * publishes registry events before Eureka applies them.
+ */
+@Component
+public class RegistryDeltaLog {
+
+	private record Waiter(long since, DeferredResult<RegistryDeltaBatch> result) {
+	}
+
+	private final RegistryPushProperties properties;
+	private final String epoch = UUID.randomUUID().toString();
+	private final ScheduledExecutorService flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+		Thread thread = new Thread(runnable, "registry-push-flush");
+		thread.setDaemon(true);
+		return thread;
+	});
+
+	/** Latest appended version; published deltas are those up to publishedVersion */
+	private long version;
+	private long publishedVersion;
+	private boolean flushScheduled;
+	/** Oldest first, every version from the oldest retained to the latest */
+	private final ArrayDeque<RegistryDelta> retained = new ArrayDeque<>();
+	/** Latest state per instance, including unpublished changes, keyed by service and instance ID */
+	private final Map<String, RegistryDelta> current = new LinkedHashMap<>();
+	/** Latest published state per instance */
+	private final Map<String, RegistryDelta> published = new LinkedHashMap<>();
+	private final Set<Waiter> waiters = new HashSet<>();
+
+	public RegistryDeltaLog(RegistryPushProperties properties) {
+		this.properties = properties;
+	}
+
+	@EventListener
+	public void onRegistered(EurekaInstanceRegisteredEvent event) {
+		InstanceInfo info = event.getInstanceInfo();
+		boolean secure = info.isPortEnabled(PortType.SECURE);
+		RegistryDelta change = new RegistryDelta(0, Action.ADDED, serviceId(info.getAppName()), info.getId(),
+			info.getHostName(), secure ? info.getSecurePort() : info.getPort(), secure, info.getStatus().name(),
+			Map.copyOf(info.getMetadata()));
+		append(change, properties.getFastPathStatuses().contains(info.getStatus()));
+	}
+
+	@EventListener
+	public void onCanceled(EurekaInstanceCanceledEvent event) {
+		RegistryDelta change = new RegistryDelta(0, Action.DELETED, serviceId(event.getAppName()),
+			event.getServerId(), null, 0, false, null, Map.of());
+		// A cancelled instance is as gone as a DOWN one
+		append(change, properties.getFastPathStatuses().contains(InstanceStatus.DOWN));
+	}
+
+	/**
+	 * Deltas after {@code since}, waiting up to {@code waitMillis} if there are none yet
+	 *
+	 * @param epoch The epoch of the subscriber's last batch, or null on first poll
+	 * @param since The version of the subscriber's last batch
+	 * @param waitMillis How long the subscriber is willing to wait
+	 * @return A batch, set when available; a snapshot if the subscriber is from
+	 *         another epoch or too far behind
+	 */
+	public synchronized DeferredResult<RegistryDeltaBatch> poll(String epoch, long since, long waitMillis) {
+		DeferredResult<RegistryDeltaBatch> result = new DeferredResult<>();
+		long oldest = retained.isEmpty() ? publishedVersion + 1 : retained.peekFirst().version();
+		if (!this.epoch.equals(epoch) || since > publishedVersion || since < oldest - 1) {
+			result.setResult(snapshot());
+			return result;
+		}
+		long timeout = Math.min(waitMillis, properties.getMaxWait().toMillis());
+		// A zero async timeout would mean no timeout at all, so a poll that will not wait is answered here
+		if (since < publishedVersion || timeout <= 0) {
+			result.setResult(deltasSince(since));
+			return result;
+		}
+
+		DeferredResult<RegistryDeltaBatch> parked = new DeferredResult<>(timeout);
+		Waiter waiter = new Waiter(since, parked);
+		waiters.add(waiter);
+		parked.onTimeout(() -> {
+			synchronized (this) {
+				waiters.remove(waiter);
+				parked.setResult(deltasSince(since));
+			}
+		});
+		parked.onCompletion(() -> {
+			synchronized (this) {
+				waiters.remove(waiter);
+			}
+		});
+		return parked;
+	}
+
+	@PreDestroy
+	public void shutdown() {
+		flusher.shutdownNow();
+	}
+
+	private synchronized void append(RegistryDelta change, boolean fastPath) {
+		String key = change.serviceId() + '/' + change.instanceId();
+		RegistryDelta previous = current.get(key);
+		RegistryDelta delta;
+		if (change.action() == Action.DELETED) {
+			if (previous == null) {
+				return;
+			}
+			current.remove(key);
+			delta = change.withVersion(++version, Action.DELETED);
+		} else {
+			if (change.sameInstanceState(previous)) {
+				return;
+			}
+			delta = change.withVersion(++version, previous == null ? Action.ADDED : Action.MODIFIED);
+			current.put(key, delta);
+		}
+		retained.addLast(delta);
+
+		if (fastPath || properties.getBatchWindow().isZero()) {
+			publish();
+		} else if (!flushScheduled) {
+			flushScheduled = true;
+			flusher.schedule(this::flush, properties.getBatchWindow().toMillis(), TimeUnit.MILLISECONDS);
+		}
+	}
+
+	private synchronized void flush() {
+		flushScheduled = false;
+		publish();
+	}
+
+	private void publish() {
+		if (publishedVersion == version) {
+			return;
+		}
+		for (RegistryDelta delta : newest(publishedVersion, version)) {
+			String key = delta.serviceId() + '/' + delta.instanceId();
+			if (delta.action() == Action.DELETED) {
+				published.remove(key);
+			} else {
+				published.put(key, delta);
+			}
+		}
+		publishedVersion = version;
+		while (retained.size() > properties.getRetainedDeltas()) {
+			retained.removeFirst();
+		}
+
+		for (Waiter waiter : List.copyOf(waiters)) {
+			waiter.result().setResult(deltasSince(waiter.since()));
+		}
+		waiters.clear();
+	}
+
+	private RegistryDeltaBatch deltasSince(long since) {
+		return new RegistryDeltaBatch(epoch, publishedVersion, false, newest(since, publishedVersion));
+	}
+
+	private RegistryDeltaBatch snapshot() {
+		return new RegistryDeltaBatch(epoch, publishedVersion, true, List.copyOf(published.values()));
+	}
+
+	/**
+	 * Retained deltas with versions in {@code (after, upTo]}, oldest first, reading back from the newest
+	 */
+	private List<RegistryDelta> newest(long after, long upTo) {
+		List<RegistryDelta> deltas = new ArrayList<>();
+		Iterator<RegistryDelta> it = retained.descendingIterator();
+		while (it.hasNext()) {
+			RegistryDelta delta = it.next();
+			if (delta.version() <= after) {
+				break;
+			}
+			if (delta.version() <= upTo) {
+				deltas.add(delta);
+			}
+		}
+		Collections.reverse(deltas);
+		return deltas;
+	}
+
+	private static String serviceId(String appName) {
+		return appName.toLowerCase(Locale.ROOT);
+	}
+}
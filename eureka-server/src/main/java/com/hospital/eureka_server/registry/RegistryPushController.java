@@ -0,0 +1,32 @@
+package com.hospital.eureka_server.registry;
+
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.DeferredResult;
+
+/**
+ * Long-poll endpoint for registry deltas
+ *
+ * Subscribers send back the epoch and version of their last batch. The
+ * request is parked until there is something newer or {@code waitMs} passes,
+ * so a change reaches subscribers within one round trip instead of one
+ * registry fetch interval.
+ */
+@RestController
+@RequestMapping("/registry")
+public class RegistryPushController {
+
+	private final RegistryDeltaLog deltaLog;
+
+	public RegistryPushController(RegistryDeltaLog deltaLog) {
+		this.deltaLog = deltaLog;
+	}
+
+	@GetMapping("/deltas")
+	public DeferredResult<RegistryDeltaBatch> deltas(@RequestParam(required = false) String epoch,
+			@RequestParam(defaultValue = "0") long since, @RequestParam(defaultValue = "30000") long waitMs) {
+		return deltaLog.poll(epoch, since, waitMs);
+	}
+}
@@ -0,0 +1,57 @@
+package com.hospital.eureka_server.registry;
+
+import java.time.Duration;
+import java.util.EnumSet;
+import java.util.Set;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import com.netflix.appinfo.InstanceInfo.InstanceStatus;
+
+/**
+ * Registry delta push settings, bound from {@code beemo.registry.push}
+ */
+@ConfigurationProperties(prefix = "beemo.registry.push")
+public class RegistryPushProperties {
+
+	/** Changes to these statuses, and cancellations, wake subscribers immediately */
+	private Set<InstanceStatus> fastPathStatuses = EnumSet.of(InstanceStatus.UP, InstanceStatus.DOWN);
+	/** Other changes are held this long so bursts reach subscribers as one batch */
+	private Duration batchWindow = Duration.ofSeconds(1);
+	/** Longest a subscriber's poll is parked waiting for a change */
+	private Duration maxWait = Duration.ofSeconds(30);
+	/** Deltas kept for catching up; subscribers further behind get a snapshot */
+	private int retainedDeltas = 10_000;
+
+	public Set<InstanceStatus> getFastPathStatuses() {
+		return fastPathStatuses;
+	}
+
+	public void setFastPathStatuses(Set<InstanceStatus> fastPathStatuses) {
+		this.fastPathStatuses = fastPathStatuses;
+	}
+
+	public Duration getBatchWindow() {
+		return batchWindow;
+	}
+
+	public void setBatchWindow(Duration batchWindow) {
+		this.batchWindow = batchWindow;
+	}
+
+	public Duration getMaxWait() {
+		return maxWait;
+	}
+
+	public void setMaxWait(Duration maxWait) {
+		this.maxWait = maxWait;
+	}
+
+	public int getRetainedDeltas() {
+		return retainedDeltas;
+	}
+
+	public void setRetainedDeltas(int retainedDeltas) {
+		this.retainedDeltas = retainedDeltas;
+	}
+}
@@ -0,0 +1,148 @@
+package com.hospital.eureka_server.registry;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.netflix.eureka.server.event.EurekaInstanceCanceledEvent;
+import org.springframework.cloud.netflix.eureka.server.event.EurekaInstanceRegisteredEvent;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import com.hospital.eureka_server.registry.RegistryDelta.Action;
+import com.netflix.appinfo.InstanceInfo;
+import com.netflix.appinfo.InstanceInfo.InstanceStatus;
+
+class RegistryDeltaLogTest {
+
+	private final RegistryPushProperties properties = new RegistryPushProperties();
+	private RegistryDeltaLog log;
+
+	@BeforeEach
+	void setUp() {
+		// Long enough that batched changes are only published by a fast-path change
+		properties.setBatchWindow(Duration.ofHours(1));
+		properties.setRetainedDeltas(3);
+		log = new RegistryDeltaLog(properties);
+	}
+
+	@AfterEach
+	void tearDown() {
+		log.shutdown();
+	}
+
+	@Test
+	void firstPollIsASnapshotOfPublishedInstances() {
+		register("trader-1", InstanceStatus.UP, 8081);
+
+		RegistryDeltaBatch batch = poll(null, 0);
+
+		assertTrue(batch.snapshot());
+		assertEquals(1, batch.version());
+		assertEquals(List.of("trader-1"), instanceIds(batch));
+		assertEquals("trader-service", batch.deltas().get(0).serviceId());
+	}
+
+	@Test
+	void changesAreNumberedAddedModifiedAndDeleted() {
+		String epoch = poll(null, 0).epoch();
+		register("trader-1", InstanceStatus.UP, 8081);
+		register("trader-1", InstanceStatus.DOWN, 8081);
+		cancel("trader-1");
+
+		RegistryDeltaBatch batch = poll(epoch, 0);
+
+		assertFalse(batch.snapshot());
+		assertEquals(3, batch.version());
+		assertEquals(List.of(Action.ADDED, Action.MODIFIED, Action.DELETED),
+			batch.deltas().stream().map(RegistryDelta::action).toList());
+		assertEquals(List.of(1L, 2L, 3L), batch.deltas().stream().map(RegistryDelta::version).toList());
+		assertEquals(List.of(), poll(null, 0).deltas());
+	}
+
+	@Test
+	void unchangedReRegistrationsAndUnknownCancellationsAreDropped() {
+		register("trader-1", InstanceStatus.UP, 8081);
+		register("trader-1", InstanceStatus.UP, 8081);
+		cancel("trader-2");
+
+		assertEquals(1, poll(null, 0).version());
+	}
+
+	@Test
+	void slowPathChangesWaitForTheNextFastPathChange() {
+		String epoch = poll(null, 0).epoch();
+		register("trader-1", InstanceStatus.STARTING, 8081);
+
+		assertEquals(0, poll(epoch, 0).version());
+
+		register("trader-2", InstanceStatus.UP, 8082);
+
+		RegistryDeltaBatch batch = poll(epoch, 0);
+		assertEquals(2, batch.version());
+		assertEquals(List.of("trader-1", "trader-2"), instanceIds(batch));
+	}
+
+	@Test
+	void parkedPollIsAnsweredByTheNextPublishedChange() {
+		String epoch = poll(null, 0).epoch();
+
+		DeferredResult<RegistryDeltaBatch> parked = log.poll(epoch, 0, 10_000);
+		assertFalse(parked.hasResult());
+
+		register("trader-1", InstanceStatus.UP, 8081);
+
+		assertTrue(parked.hasResult());
+		RegistryDeltaBatch batch = (RegistryDeltaBatch) parked.getResult();
+		assertEquals(List.of("trader-1"), instanceIds(batch));
+	}
+
+	@Test
+	void subscribersTooFarBehindOrFromAnotherEpochGetASnapshot() {
+		String epoch = poll(null, 0).epoch();
+		for (int i = 1; i <= 4; i++) {
+			register("trader-" + i, InstanceStatus.UP, 8080 + i);
+		}
+
+		// Only versions 2 to 4 are retained
+		assertFalse(poll(epoch, 1).snapshot());
+		RegistryDeltaBatch behind = poll(epoch, 0);
+		assertTrue(behind.snapshot());
+		assertEquals(4, behind.deltas().size());
+
+		assertTrue(poll("previous-run", 4).snapshot());
+		assertTrue(poll(epoch, 5).snapshot());
+	}
+
+	private RegistryDeltaBatch poll(String epoch, long since) {
+		DeferredResult<RegistryDeltaBatch> result = log.poll(epoch, since, 0);
+		assertTrue(result.hasResult());
+		return (RegistryDeltaBatch) result.getResult();
+	}
+
+	private void register(String instanceId, InstanceStatus status, int port) {
+		InstanceInfo info = InstanceInfo.Builder.newBuilder()
+			.setAppName("TRADER-SERVICE")
+			.setInstanceId(instanceId)
+			.setHostName("localhost")
+			.setPort(port)
+			.setStatus(status)
+			.setMetadata(Map.of("zone", "a"))
+			.build();
+		log.onRegistered(new EurekaInstanceRegisteredEvent(this, info, 90, false));
+	}
+
+	private void cancel(String instanceId) {
+		log.onCanceled(new EurekaInstanceCanceledEvent(this, "TRADER-SERVICE", instanceId, false));
+	}
+
+	private static List<String> instanceIds(RegistryDeltaBatch batch) {
+		return batch.deltas().stream().map(RegistryDelta::instanceId).toList();
+	}
+}
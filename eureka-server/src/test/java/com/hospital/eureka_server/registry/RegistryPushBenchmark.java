@@ -0,0 +1,277 @@
+package com.hospital.eureka_server.registry;
+
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hospital.eureka_server.EurekaServerApplication;
+
+/**
+ * Registration-to-routable latency: how long after an instance registers
+ * (or changes status) a client can route to it
+ *
+ * Starts an embedded Eureka server, then for each fleet size registers that
+ * many instances in one burst and measures when each instance is first seen
+ *
+ * - by long-polling subscribers of {@code /registry/deltas}, for UP
+ *   registrations and DOWN changes (fast path) and STARTING registrations
+ *   (batched);
+ * - by clients fetching {@code /eureka/apps} on the usual fixed interval, each
+ *   starting at a random phase, as Eureka clients do.
+ *
+ * Not a unit test; run it from the IDE or with the test classpath:
+ *
+ * <pre>
+ * java -cp target/classes:target/test-classes:... com.hospital.eureka_server.registry.RegistryPushBenchmark [fleet sizes] [fetch interval s]
+ * </pre>
+ *
+ * Defaults are fleets of 100, 300 and 500 and a 30s fetch interval, which
+ * also bounds the run time of the polling part.
+ */
+public class RegistryPushBenchmark {
+
+	private static final int SUBSCRIBERS = 4;
+	private static final int POLLERS = 8;
+	private static final int APPS = 4;
+	private static final int REGISTER_THREADS = 16;
+
+	private static final ObjectMapper mapper = new ObjectMapper();
+	private static final HttpClient http = HttpClient.newHttpClient();
+	/** Eureka keeps the registered copy of an instance unless the new one is dirtier */
+	private static final AtomicLong dirtyClock = new AtomicLong(System.currentTimeMillis());
+
+	public static void main(String[] args) throws Exception {
+		int[] fleets = args.length > 0
+			? Arrays.stream(args[0].split(",")).mapToInt(Integer::parseInt).toArray()
+			: new int[] { 100, 300, 500 };
+		long fetchIntervalMillis = TimeUnit.SECONDS.toMillis(args.length > 1 ? Long.parseLong(args[1]) : 30);
+
+		int port;
+		try (ServerSocket socket = new ServerSocket(0)) {
+			port = socket.getLocalPort();
+		}
+		String base = "http://localhost:" + port;
+		// Devtools would restart the application in a new thread, running this benchmark twice
+		System.setProperty("spring.devtools.restart.enabled", "false");
+		// The server is its own only peer, so it does not try to replicate to a missing one
+		ConfigurableApplicationContext context = new SpringApplicationBuilder(EurekaServerApplication.class)
+			.run("--server.port=" + port, "--eureka.instance.hostname=localhost",
+				"--eureka.client.service-url.defaultZone=" + base + "/eureka/", "--logging.level.root=WARN");
+		try {
+			System.out.printf("%-6s %-18s %10s %10s %10s%n", "fleet", "path", "p50 ms", "p99 ms", "max ms");
+			int round = 0;
+			for (int fleet : fleets) {
+				String prefix = "r" + round++ + "-";
+				run(base, fleet, prefix, fetchIntervalMillis);
+			}
+		} finally {
+			context.close();
+		}
+	}
+
+	private static void run(String base, int fleet, String prefix, long fetchIntervalMillis) throws Exception {
+		Map<String, Long> registeredAt = new ConcurrentHashMap<>();
+		List<Map<String, Long>> pushedUp = new ArrayList<>();
+		List<Map<String, Long>> pushedStarting = new ArrayList<>();
+		List<Map<String, Long>> pushedDown = new ArrayList<>();
+		List<Map<String, Long>> fetched = new ArrayList<>();
+		ExecutorService watchers = Executors.newVirtualThreadPerTaskExecutor();
+		long stopAt = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(fetchIntervalMillis) * 3
+			+ TimeUnit.SECONDS.toNanos(30);
+
+		for (int i = 0; i < SUBSCRIBERS; i++) {
+			Map<String, Long> up = new ConcurrentHashMap<>();
+			Map<String, Long> starting = new ConcurrentHashMap<>();
+			Map<String, Long> down = new ConcurrentHashMap<>();
+			pushedUp.add(up);
+			pushedStarting.add(starting);
+			pushedDown.add(down);
+			watchers.submit(() -> subscribe(base, prefix, up, starting, down, stopAt));
+		}
+		for (int i = 0; i < POLLERS; i++) {
+			Map<String, Long> seen = new ConcurrentHashMap<>();
+			fetched.add(seen);
+			watchers.submit(() -> fetchPeriodically(base, prefix, seen, fetchIntervalMillis, stopAt));
+		}
+		// Let the subscribers take their initial snapshot first
+		Thread.sleep(500);
+
+		registerAll(base, fleet, prefix, "UP", registeredAt);
+		awaitSeen(pushedUp, fleet, TimeUnit.SECONDS.toNanos(10));
+		print(fleet, "push UP", registeredAt, pushedUp);
+		// Fetching clients must see the instances UP before they are taken DOWN below
+		awaitSeen(fetched, fleet, stopAt - System.nanoTime());
+		print(fleet, "fetch UP", registeredAt, fetched);
+
+		Map<String, Long> startingAt = new ConcurrentHashMap<>();
+		registerAll(base, fleet, prefix + "s-", "STARTING", startingAt);
+		awaitSeen(pushedStarting, fleet, TimeUnit.SECONDS.toNanos(10));
+		print(fleet, "push STARTING", startingAt, pushedStarting);
+
+		Map<String, Long> downAt = new ConcurrentHashMap<>();
+		registerAll(base, fleet, prefix, "DOWN", downAt);
+		awaitSeen(pushedDown, fleet, TimeUnit.SECONDS.toNanos(10));
+		print(fleet, "push DOWN", downAt, pushedDown);
+
+		watchers.shutdownNow();
+		watchers.awaitTermination(5, TimeUnit.SECONDS);
+	}
+
+	/**
+	 * Register {@code fleet} instances spread over a few apps, recording when each request was sent
+	 */
+	private static void registerAll(String base, int fleet, String prefix, String status, Map<String, Long> sentAt)
+			throws Exception {
+		List<Future<Void>> sent = new ArrayList<>();
+		try (ExecutorService pool = Executors.newFixedThreadPool(REGISTER_THREADS)) {
+			for (int i = 0; i < fleet; i++) {
+				int n = i;
+				sent.add(pool.submit(() -> {
+					String app = "BENCH-" + (n % APPS);
+					String id = prefix + n;
+					String body = mapper.writeValueAsString(Map.of("instance", instance(app, id, n, status)));
+					HttpRequest request = HttpRequest.newBuilder(URI.create(base + "/eureka/apps/" + app))
+						.header("Content-Type", "application/json")
+						.POST(HttpRequest.BodyPublishers.ofString(body))
+						.build();
+					sentAt.put(id, System.nanoTime());
+					HttpResponse<Void> response = http.send(request, HttpResponse.BodyHandlers.discarding());
+					if (response.statusCode() != 204) {
+						throw new IllegalStateException("Registration answered " + response.statusCode());
+					}
+					return null;
+				}));
+			}
+		}
+		for (Future<Void> registration : sent) {
+			registration.get();
+		}
+	}
+
+	private static Map<String, Object> instance(String app, String id, int n, String status) {
+		String ip = "10.0." + (n / 250) + "." + (n % 250 + 1);
+		String dirty = Long.toString(dirtyClock.incrementAndGet());
+		return Map.ofEntries(
+			Map.entry("instanceId", id),
+			Map.entry("hostName", ip),
+			Map.entry("app", app),
+			Map.entry("ipAddr", ip),
+			Map.entry("status", status),
+			Map.entry("overriddenStatus", "UNKNOWN"),
+			Map.entry("port", Map.of("$", 8080, "@enabled", "true")),
+			Map.entry("securePort", Map.of("$", 443, "@enabled", "false")),
+			Map.entry("countryId", 1),
+			Map.entry("dataCenterInfo", Map.of("@class", "com.netflix.appinfo.InstanceInfo$DefaultDataCenterInfo",
+				"name", "MyOwn")),
+			// Long leases, so nothing expires mid-run without heartbeats
+			Map.entry("leaseInfo", Map.of("renewalIntervalInSecs", 30, "durationInSecs", 3600)),
+			Map.entry("vipAddress", app.toLowerCase()),
+			Map.entry("secureVipAddress", app.toLowerCase()),
+			Map.entry("lastUpdatedTimestamp", dirty),
+			Map.entry("lastDirtyTimestamp", dirty));
+	}
+
+	private static Void subscribe(String base, String prefix, Map<String, Long> up, Map<String, Long> starting,
+			Map<String, Long> down, long stopAt) throws Exception {
+		String epoch = null;
+		long version = 0;
+		while (System.nanoTime() < stopAt && !Thread.currentThread().isInterrupted()) {
+			String uri = base + "/registry/deltas?since=" + version + "&waitMs=5000"
+				+ (epoch == null ? "" : "&epoch=" + epoch);
+			HttpResponse<String> response = http.send(HttpRequest.newBuilder(URI.create(uri)).build(),
+				HttpResponse.BodyHandlers.ofString());
+			long now = System.nanoTime();
+			JsonNode batch = mapper.readTree(response.body());
+			epoch = batch.get("epoch").asText();
+			version = batch.get("version").asLong();
+			for (JsonNode delta : batch.get("deltas")) {
+				String id = delta.get("instanceId").asText();
+				if (!id.startsWith(prefix)) {
+					continue;
+				}
+				String status = delta.path("status").asText();
+				Map<String, Long> target = "UP".equals(status) ? up : "STARTING".equals(status) ? starting
+					: "DOWN".equals(status) ? down : null;
+				if (target != null) {
+					target.putIfAbsent(id, now);
+				}
+			}
+		}
+		return null;
+	}
+
+	private static Void fetchPeriodically(String base, String prefix, Map<String, Long> seen, long intervalMillis,
+			long stopAt) throws Exception {
+		Thread.sleep(ThreadLocalRandom.current().nextLong(intervalMillis));
+		while (System.nanoTime() < stopAt && !Thread.currentThread().isInterrupted()) {
+			HttpRequest request = HttpRequest.newBuilder(URI.create(base + "/eureka/apps"))
+				.header("Accept", "application/json")
+				.build();
+			HttpResponse<String> response = http.send(request, HttpResponse.BodyHandlers.ofString());
+			long now = System.nanoTime();
+			for (JsonNode app : mapper.readTree(response.body()).path("applications").path("application")) {
+				for (JsonNode instance : app.path("instance")) {
+					String id = instance.path("instanceId").asText();
+					if (id.startsWith(prefix) && "UP".equals(instance.path("status").asText())) {
+						seen.putIfAbsent(id, now);
+					}
+				}
+			}
+			Thread.sleep(intervalMillis);
+		}
+		return null;
+	}
+
+	private static void awaitSeen(List<Map<String, Long>> watchers, int fleet, long timeoutNanos)
+			throws InterruptedException {
+		long deadline = System.nanoTime() + timeoutNanos;
+		while (System.nanoTime() < deadline && watchers.stream().anyMatch(seen -> seen.size() < fleet)) {
+			Thread.sleep(20);
+		}
+	}
+
+	private static void print(int fleet, String path, Map<String, Long> sentAt, List<Map<String, Long>> watchers) {
+		List<Long> latencies = new ArrayList<>();
+		int missing = 0;
+		for (Map<String, Long> seen : watchers) {
+			for (Map.Entry<String, Long> sent : sentAt.entrySet()) {
+				Long at = seen.get(sent.getKey());
+				if (at == null) {
+					missing++;
+				} else {
+					latencies.add(Math.max(0, at - sent.getValue()));
+				}
+			}
+		}
+		latencies.sort(null);
+		if (latencies.isEmpty()) {
+			System.out.printf("%-6d %-18s %32s%n", fleet, path, "never seen");
+			return;
+		}
+		System.out.printf("%-6d %-18s %10.1f %10.1f %10.1f%s%n", fleet, path, millis(latencies, 0.50),
+			millis(latencies, 0.99), latencies.get(latencies.size() - 1) / 1e6,
+			missing > 0 ? "  (" + missing + " not seen)" : "");
+	}
+
+	private static double millis(List<Long> sorted, double quantile) {
+		return sorted.get((int) Math.min(sorted.size() - 1, Math.floor(quantile * sorted.size()))) / 1e6;
+	}
+}
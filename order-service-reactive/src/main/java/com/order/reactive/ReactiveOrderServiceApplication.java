@@ -0,0 +1,17 @@
+package com.order.reactive;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.cloud.client.discovery.EnableDiscoveryClient;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+@SpringBootApplication
+@EnableScheduling
+@EnableDiscoveryClient
+public class ReactiveOrderServiceApplication {
+
+	public static void main(String[] args) {
+		SpringApplication.run(ReactiveOrderServiceApplication.class, args);
+	}
+
+}
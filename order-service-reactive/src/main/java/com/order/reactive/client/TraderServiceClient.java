@@ -0,0 +1,171 @@
+package com.order.reactive.client;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import com.beemo.common.client.DependencyUnavailableException;
+import com.beemo.common.client.ReactiveResilientCaller;
+import com.beemo.common.client.VersionedCache;
+import com.beemo.common.order.dto.OrderLineRequest;
+import com.beemo.common.order.dto.ProductDto;
+import com.beemo.common.order.dto.StockReservationBatchDto;
+import com.beemo.common.order.exceptions.InsufficientStockException;
+import com.beemo.common.order.exceptions.ProductNotFoundException;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Non-blocking client for trader-service
+ * 
+ * Same calls, catalog cache and error translation as order-service's
+ * client, made with the load-balanced WebClient.
+ */
+@Component
+public class TraderServiceClient {
+    
+    private final WebClient webClient;
+    private final ReactiveResilientCaller caller;
+    private final String traderServiceUrl = "http://trader-service";
+    private final VersionedCache<Long, ProductDto> productCache;
+    
+    public TraderServiceClient(WebClient.Builder webClientBuilder,
+                               @Qualifier("traderServiceCaller") ReactiveResilientCaller caller,
+                               @Value("${order.product-cache.ttl-ms:300000}") long ttlMs,
+                               @Value("${order.product-cache.max-size:10000}") int maxSize) {
+        this.webClient = webClientBuilder.build();
+        this.caller = caller;
+        this.productCache = new VersionedCache<>(Duration.ofMillis(ttlMs), maxSize);
+    }
+    
+    /**
+     * Fetch several products, going to trader-service in one round trip for the uncached ones
+     * The returned products never carry a stock level
+     * 
+     * @param productIds The IDs of the products to fetch
+     * @return Products keyed by ID; missing products are absent from the map
+     */
+    public Mono<Map<Long, ProductDto>> getProducts(Collection<Long> productIds) {
+        Map<Long, ProductDto> found = new HashMap<>();
+        List<Long> misses = new ArrayList<>();
+        for (Long productId : productIds) {
+            ProductDto cached = productCache.get(productId);
+            if (cached != null) {
+                found.put(productId, cached);
+            } else {
+                misses.add(productId);
+            }
+        }
+        if (misses.isEmpty()) {
+            return Mono.just(found);
+        }
+        String ids = misses.stream().map(String::valueOf).collect(Collectors.joining(","));
+        String url = traderServiceUrl + "/products/batch?ids=" + ids;
+        return caller.idempotent("getProducts", () -> webClient.get().uri(url).retrieve().bodyToMono(ProductDto[].class))
+            .map(products -> {
+                for (ProductDto product : products) {
+                    found.put(product.getId(), cache(product));
+                }
+                return found;
+            })
+            .defaultIfEmpty(found)
+            .onErrorMap(e -> !(e instanceof DependencyUnavailableException),
+                e -> new RuntimeException("Error communicating with trader-service: " + e.getMessage(), e));
+    }
+    
+    /**
+     * Apply a catalog invalidation published by trader-service
+     * 
+     * @param productId The ID of the product that changed
+     * @param version The product's catalog version after the change
+     */
+    public void invalidateProduct(Long productId, long version) {
+        productCache.invalidate(productId, version);
+    }
+    
+    private ProductDto cache(ProductDto product) {
+        ProductDto catalogData = product.withoutStock();
+        if (catalogData.getVersion() != null) {
+            productCache.put(catalogData.getId(), catalogData, catalogData.getVersion());
+        }
+        return catalogData;
+    }
+    
+    /**
+     * Atomically reserve stock for all lines of an order in one round trip
+     * Either every line is reserved or none is; the reservation expires unless claimed
+     * 
+     * @param lines The products and quantities to reserve
+     * @return The reservation ID and one result per distinct product; fails with
+     *         {@link InsufficientStockException} if not enough stock is available for any line, or
+     *         {@link ProductNotFoundException} if any product doesn't exist
+     */
+    public Mono<StockReservationBatchDto> reserveStock(List<OrderLineRequest> lines) {
+        String url = traderServiceUrl + "/products/reservations";
+        return caller.once("reserveStock",
+                () -> webClient.post().uri(url).bodyValue(lines).retrieve().bodyToMono(StockReservationBatchDto.class))
+            .filter(reservation -> reservation.getReservationId() != null)
+            .switchIfEmpty(Mono.error(() -> new RuntimeException("Empty reservation response from trader-service")))
+            .onErrorMap(e -> !(e instanceof DependencyUnavailableException), e -> {
+                if (e instanceof WebClientResponseException.NotFound notFound) {
+                    return new ProductNotFoundException(errorMessage(notFound), e);
+                }
+                if (e instanceof WebClientResponseException.BadRequest badRequest) {
+                    return new InsufficientStockException(errorMessage(badRequest), e);
+                }
+                return new RuntimeException("Error reserving stock with trader-service: " + e.getMessage(), e);
+            });
+    }
+    
+    /**
+     * Keep the stock reserved by {@link #reserveStock(List)} for an order that was stored
+     * Retried, since trader-service claims each reservation at most once
+     * 
+     * @param reservationId The ID returned with the reservation
+     * @return Completes once claimed; fails with {@link InsufficientStockException} if the reservation
+     *         expired or was released, so its stock is gone
+     */
+    public Mono<Void> claimStock(String reservationId) {
+        String url = traderServiceUrl + "/products/reservations/" + reservationId + "/claim";
+        return caller.idempotent("claimStock",
+                () -> webClient.post().uri(url).retrieve().toBodilessEntity())
+            .then()
+            .onErrorMap(e -> !(e instanceof DependencyUnavailableException), e -> {
+                if (e instanceof WebClientResponseException.BadRequest
+                        || e instanceof WebClientResponseException.NotFound) {
+                    return new InsufficientStockException(errorMessage((WebClientResponseException) e), e);
+                }
+                return new RuntimeException("Error claiming stock with trader-service: " + e.getMessage(), e);
+            });
+    }
+    
+    /**
+     * Give back stock reserved by {@link #reserveStock(List)} for an order that was not stored
+     * Retried, since trader-service releases each reservation at most once
+     * 
+     * @param reservationId The ID returned with the reservation
+     */
+    public Mono<Void> releaseStock(String reservationId) {
+        String url = traderServiceUrl + "/products/reservations/" + reservationId + "/release";
+        return caller.idempotent("releaseStock",
+                () -> webClient.post().uri(url).retrieve().toBodilessEntity())
+            .then()
+            .onErrorMap(e -> !(e instanceof DependencyUnavailableException),
+                e -> new RuntimeException("Error releasing stock with trader-service: " + e.getMessage(), e));
+    }
+    
+    private String errorMessage(WebClientResponseException e) {
+        Map<?, ?> body = e.getResponseBodyAs(Map.class);
+        return body != null && body.get("message") != null ? body.get("message").toString() : e.getMessage();
+    }
+}
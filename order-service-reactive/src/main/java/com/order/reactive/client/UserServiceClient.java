@@ -0,0 +1,84 @@
+package com.order.reactive.client;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import com.beemo.common.client.DependencyUnavailableException;
+import com.beemo.common.client.ExistenceCache;
+import com.beemo.common.client.ReactiveResilientCaller;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Non-blocking client for user-service
+ * 
+ * User existence answers are cached as in order-service (see
+ * {@link ExistenceCache}); misses go to {@code POST /validate} on
+ * user-service without blocking the calling thread. Concurrent misses for
+ * the same user share one call, which keeps running if one of the callers
+ * gives up on it.
+ */
+@Component
+public class UserServiceClient {
+    
+    private final WebClient webClient;
+    private final ReactiveResilientCaller caller;
+    private final String userServiceUrl = "http://user-service";
+    private final ExistenceCache<Long> knownUsers;
+    private final Map<Long, Mono<Boolean>> inFlight = new ConcurrentHashMap<>();
+    
+    public UserServiceClient(WebClient.Builder webClientBuilder,
+                             @Qualifier("userServiceCaller") ReactiveResilientCaller caller,
+                             @Value("${order.user-cache.positive-ttl-ms:300000}") long positiveTtlMs,
+                             @Value("${order.user-cache.negative-ttl-ms:30000}") long negativeTtlMs,
+                             @Value("${order.user-cache.max-size:10000}") int maxSize) {
+        this.webClient = webClientBuilder.build();
+        this.caller = caller;
+        this.knownUsers = new ExistenceCache<>(Duration.ofMillis(positiveTtlMs), Duration.ofMillis(negativeTtlMs),
+            maxSize);
+    }
+    
+    /**
+     * Validate if user exists
+     * 
+     * @param userId The ID of the user to validate
+     * @return true if user exists, false otherwise
+     */
+    public Mono<Boolean> validateUser(Long userId) {
+        Boolean cached = knownUsers.cached(userId);
+        if (cached != null) {
+            return Mono.just(cached);
+        }
+        return inFlight.computeIfAbsent(userId, id -> {
+            List<Long> userIds = List.of(id);
+            return fetchExistingUsers(userIds)
+                .doOnNext(existing -> knownUsers.record(userIds, existing))
+                .map(existing -> existing.contains(id))
+                .onErrorMap(e -> !(e instanceof DependencyUnavailableException),
+                    e -> new RuntimeException("Error communicating with user-service: " + e.getMessage(), e))
+                .doFinally(signal -> inFlight.remove(id))
+                .cache();
+        });
+    }
+    
+    /**
+     * A read despite being a POST, so it is retried like a GET
+     */
+    private Mono<Set<Long>> fetchExistingUsers(List<Long> userIds) {
+        String url = userServiceUrl + "/validate";
+        return caller.idempotent("validateUsers",
+                () -> webClient.post().uri(url).bodyValue(userIds).retrieve().bodyToMono(Long[].class))
+            .<Set<Long>>map(existing -> new HashSet<>(Arrays.asList(existing)))
+            .defaultIfEmpty(Set.of());
+    }
+}
@@ -0,0 +1,116 @@
+package com.order.reactive.config;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.web.reactive.function.client.WebClientCustomizer;
+import org.springframework.cloud.client.loadbalancer.LoadBalanced;
+import org.springframework.cloud.loadbalancer.annotation.LoadBalancerClients;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import com.beemo.common.client.ClientPolicy;
+import com.beemo.common.client.HttpClientSettings;
+import com.beemo.common.client.ReactiveResilientCaller;
+import com.beemo.common.client.RegistryPushLoadBalancerConfiguration;
+import com.beemo.common.client.RegistryPushSettings;
+import com.beemo.common.client.RegistrySubscriber;
+import com.beemo.common.security.IdentityHeader;
+import com.beemo.common.security.ServiceIdentity;
+
+import io.netty.channel.ChannelOption;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+@Configuration
+@LoadBalancerClients(defaultConfiguration = RegistryPushLoadBalancerConfiguration.class)
+public class AppConfig {
+    
+    /**
+     * WebClient builder with load balancing support for inter-service communication
+     * Service IDs in request URLs are resolved through Eureka; Boot's codec customizers still apply
+     * Every request carries this service's signed identity
+     */
+    @Bean
+    @LoadBalanced
+    public WebClient.Builder webClientBuilder(ConnectionProvider connectionProvider, HttpClientSettings httpClientSettings,
+                                              ServiceIdentity serviceIdentity, ObjectProvider<WebClientCustomizer> customizers) {
+        HttpClient httpClient = HttpClient.create(connectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) httpClientSettings.getConnectTimeout().toMillis())
+                .responseTimeout(httpClientSettings.getReadTimeout());
+        if (httpClientSettings.getProtocol() == HttpClientSettings.Protocol.HTTP_2) {
+            httpClient = httpClient.protocol(HttpProtocol.H2C, HttpProtocol.HTTP11);
+        }
+        WebClient.Builder builder = WebClient.builder()
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .filter((request, next) -> next.exchange(ClientRequest.from(request)
+                        .header(IdentityHeader.NAME, serviceIdentity.value())
+                        .build()));
+        customizers.orderedStream().forEach(customizer -> customizer.customize(builder));
+        return builder;
+    }
+    
+    @Bean
+    @ConfigurationProperties(prefix = "order.clients.http")
+    public HttpClientSettings httpClientSettings() {
+        return new HttpClientSettings();
+    }
+    
+    /**
+     * Keep-alive connections shared by every call to other services, limited per host and closed on shutdown
+     */
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider connectionProvider(HttpClientSettings httpClientSettings) {
+        return ConnectionProvider.builder("order-clients")
+                .maxConnections(httpClientSettings.getMaxPerRoute())
+                .pendingAcquireTimeout(httpClientSettings.getPoolWait())
+                .maxIdleTime(httpClientSettings.getKeepAlive())
+                .build();
+    }
+    
+    @Bean
+    @ConfigurationProperties(prefix = "order.clients.registry-push")
+    public RegistryPushSettings registryPushSettings() {
+        return new RegistryPushSettings();
+    }
+    
+    /**
+     * Long-polls eureka-server for instance changes, so new replicas are called without waiting for the next registry fetch
+     */
+    @Bean
+    public RegistrySubscriber registrySubscriber(RegistryPushSettings registryPushSettings) {
+        return new RegistrySubscriber(registryPushSettings);
+    }
+    
+    @Bean
+    @ConfigurationProperties(prefix = "order.clients.trader-service")
+    public ClientPolicy traderServicePolicy() {
+        return new ClientPolicy();
+    }
+    
+    @Bean
+    @ConfigurationProperties(prefix = "order.clients.user-service")
+    public ClientPolicy userServicePolicy() {
+        return new ClientPolicy();
+    }
+    
+    /**
+     * Bulkhead, circuit breaker and retries for calls to trader-service
+     */
+    @Bean
+    public ReactiveResilientCaller traderServiceCaller(@Qualifier("traderServicePolicy") ClientPolicy policy) {
+        return new ReactiveResilientCaller("trader-service", policy);
+    }
+    
+    /**
+     * Bulkhead, circuit breaker and retries for calls to user-service
+     */
+    @Bean
+    public ReactiveResilientCaller userServiceCaller(@Qualifier("userServicePolicy") ClientPolicy policy) {
+        return new ReactiveResilientCaller("user-service", policy);
+    }
+}
@@ -0,0 +1,56 @@
+package com.order.reactive.config;
+
+import java.nio.charset.StandardCharsets;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.config.annotation.web.reactive.EnableWebFluxSecurity;
+import org.springframework.security.config.web.server.SecurityWebFiltersOrder;
+import org.springframework.security.config.web.server.ServerHttpSecurity;
+import org.springframework.security.web.server.SecurityWebFilterChain;
+import org.springframework.security.web.server.authentication.HttpStatusServerEntryPoint;
+import org.springframework.security.web.server.context.NoOpServerSecurityContextRepository;
+
+import com.beemo.common.security.IdentityHeader;
+import com.beemo.common.security.IdentityHeaderWebFilter;
+import com.beemo.common.security.ServiceIdentity;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+@Configuration
+@EnableWebFluxSecurity
+public class SecurityConfig {
+
+    @Bean
+    public IdentityHeader identityHeader(@Value("${beemo.security.identity.secret}") String identitySecret,
+                                         @Value("${beemo.security.identity.cache-size:10000}") int cacheSize) {
+        return new IdentityHeader(identitySecret.getBytes(StandardCharsets.UTF_8), cacheSize);
+    }
+
+    /**
+     * Identity sent on this service's calls to trader-service and user-service
+     */
+    @Bean
+    public ServiceIdentity serviceIdentity(IdentityHeader identityHeader,
+                                           @Value("${spring.application.name}") String serviceName) {
+        return new ServiceIdentity(identityHeader, serviceName);
+    }
+
+    @Bean
+    public SecurityWebFilterChain filterChain(ServerHttpSecurity http, IdentityHeader identityHeader,
+                                              ObjectMapper objectMapper) {
+        http
+            .csrf(csrf -> csrf.disable())
+            .securityContextRepository(NoOpServerSecurityContextRepository.getInstance())
+            .exceptionHandling(exceptions -> exceptions.authenticationEntryPoint(new HttpStatusServerEntryPoint(HttpStatus.UNAUTHORIZED)))
+            .addFilterAt(new IdentityHeaderWebFilter(identityHeader, objectMapper), SecurityWebFiltersOrder.AUTHENTICATION)
+            .authorizeExchange(exchange -> exchange
+                // Sent by payment-service's outbox relay and trader-service's catalog publisher
+                .pathMatchers("/status-events", "/product-invalidations").hasRole("SERVICE")
+                .anyExchange().authenticated()
+            );
+        
+        return http.build();
+    }
+}
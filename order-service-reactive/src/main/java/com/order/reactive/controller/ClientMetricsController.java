@@ -0,0 +1,37 @@
+package com.order.reactive.controller;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.beemo.common.client.ReactiveResilientCaller;
+import com.beemo.common.client.RegistrySubscriber;
+
+@RestController
+public class ClientMetricsController {
+    
+    private final List<ReactiveResilientCaller> callers;
+    private final RegistrySubscriber registrySubscriber;
+    
+    public ClientMetricsController(List<ReactiveResilientCaller> callers, RegistrySubscriber registrySubscriber) {
+        this.callers = callers;
+        this.registrySubscriber = registrySubscriber;
+    }
+    
+    /**
+     * Circuit breaker state, bulkhead headroom and per-method call metrics for each downstream service,
+     * plus registry push state
+     */
+    @GetMapping("/client-metrics")
+    public Map<String, Object> getClientMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        for (ReactiveResilientCaller caller : callers) {
+            metrics.put(caller.getDependency(), caller.metrics());
+        }
+        metrics.put("registryPush", registrySubscriber.metrics());
+        return metrics;
+    }
+}
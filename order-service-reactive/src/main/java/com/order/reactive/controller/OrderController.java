@@ -0,0 +1,140 @@
+package com.order.reactive.controller;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.beemo.common.order.dto.OrderPage;
+import com.beemo.common.order.dto.OrderRequest;
+import com.beemo.common.order.dto.OrderStatusEvent;
+import com.order.reactive.model.Order;
+import com.order.reactive.service.OrderService;
+import com.order.reactive.service.OrderStatusEventService;
+
+import jakarta.validation.Valid;
+import reactor.core.publisher.Mono;
+
+/**
+ * Same endpoints, request and response bodies as order-service's OrderController
+ */
+@RestController
+public class OrderController {
+    
+    private final OrderService orderService;
+    private final OrderStatusEventService orderStatusEventService;
+    
+    public OrderController(OrderService orderService, OrderStatusEventService orderStatusEventService) {
+        this.orderService = orderService;
+        this.orderStatusEventService = orderStatusEventService;
+    }
+    
+    /**
+     * Create a new order
+     * This endpoint validates the user, checks product availability,
+     * reserves stock for every line, and creates the order if all conditions are met
+     */
+    @PostMapping
+    public Mono<ResponseEntity<Order>> createOrder(@Valid @RequestBody OrderRequest orderRequest) {
+        return orderService.createOrder(orderRequest)
+            .map(createdOrder -> ResponseEntity.status(HttpStatus.CREATED).body(createdOrder));
+    }
+    
+    /**
+     * Get a user's orders, newest first, one page at a time
+     * Pass the returned nextCursor back as {@code cursor} to get the following page
+     */
+    @GetMapping("/user/{userId}")
+    public Mono<ResponseEntity<OrderPage>> getOrdersByUserId(@PathVariable Long userId,
+                                                             @RequestParam(required = false) String cursor,
+                                                             @RequestParam(defaultValue = "20") int limit) {
+        return orderService.getOrdersByUserId(userId, cursor, limit).map(ResponseEntity::ok);
+    }
+    
+    /**
+     * Get order by ID
+     */
+    @GetMapping("/{orderId}")
+    public Mono<ResponseEntity<Order>> getOrderById(@PathVariable Long orderId) {
+        return orderService.getOrderById(orderId)
+            .map(ResponseEntity::ok)
+            .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+    
+    /**
+     * Get all orders, newest first, one page at a time (admin functionality)
+     */
+    @GetMapping
+    public Mono<ResponseEntity<OrderPage>> getAllOrders(@RequestParam(required = false) String status,
+                                                        @RequestParam(required = false) String cursor,
+                                                        @RequestParam(defaultValue = "20") int limit) {
+        return orderService.getAllOrders(status, cursor, limit).map(ResponseEntity::ok);
+    }
+    
+    /**
+     * Cancel an order
+     */
+    @PutMapping("/{orderId}/cancel")
+    public Mono<ResponseEntity<Order>> cancelOrder(@PathVariable Long orderId) {
+        return orderService.cancelOrder(orderId).map(ResponseEntity::ok);
+    }
+    
+    /**
+     * Get order status by ID
+     */
+    @GetMapping("/{orderId}/status")
+    public Mono<ResponseEntity<Map<String, Object>>> getOrderStatus(@PathVariable Long orderId) {
+        return orderService.getOrderById(orderId)
+            .map(order -> {
+                // productId is null for multi-line orders, which Map.of does not allow
+                Map<String, Object> status = new LinkedHashMap<>();
+                status.put("orderId", orderId);
+                status.put("status", order.getStatus());
+                status.put("userId", order.getUserId());
+                status.put("productId", order.getProductId());
+                status.put("quantity", order.getQuantity());
+                status.put("itemCount", order.getLines().size());
+                status.put("totalPrice", order.getTotalPrice());
+                status.put("orderDate", order.getOrderDate().toString());
+                return status;
+            })
+            .defaultIfEmpty(Map.of(
+                "orderId", orderId,
+                "status", "NOT_FOUND"
+            ))
+            .onErrorResume(e -> Mono.just(Map.of(
+                "orderId", orderId,
+                "status", "ERROR",
+                "message", String.valueOf(e.getMessage())
+            )))
+            .map(ResponseEntity::ok);
+    }
+    
+    /**
+     * Update order status
+     */
+    @PutMapping("/{orderId}/status")
+    public Mono<ResponseEntity<Order>> updateOrderStatus(@PathVariable Long orderId, @RequestParam String status) {
+        return orderService.updateOrderStatus(orderId, status).map(ResponseEntity::ok);
+    }
+    
+    /**
+     * Receive a batch of order status events from payment-service
+     * Events already applied are ignored, so the sender may safely retry
+     */
+    @PostMapping("/status-events")
+    public Mono<ResponseEntity<Map<String, Object>>> receiveStatusEvents(
+            @RequestBody List<@Valid OrderStatusEvent> events) {
+        return orderStatusEventService.applyEvents(events)
+            .map(applied -> ResponseEntity.ok(Map.<String, Object>of("received", events.size(), "applied", applied)));
+    }
+}
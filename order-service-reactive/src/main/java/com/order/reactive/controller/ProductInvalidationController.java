@@ -0,0 +1,31 @@
+package com.order.reactive.controller;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.beemo.common.order.dto.ProductInvalidation;
+import com.order.reactive.client.TraderServiceClient;
+
+import jakarta.validation.Valid;
+
+@RestController
+public class ProductInvalidationController {
+    
+    private final TraderServiceClient traderServiceClient;
+    
+    public ProductInvalidationController(TraderServiceClient traderServiceClient) {
+        this.traderServiceClient = traderServiceClient;
+    }
+    
+    /**
+     * Drop a product from the local catalog cache
+     * Called by trader-service on every instance when a product is updated or deleted
+     */
+    @PostMapping("/product-invalidations")
+    public ResponseEntity<Void> invalidateProduct(@Valid @RequestBody ProductInvalidation invalidation) {
+        traderServiceClient.invalidateProduct(invalidation.getProductId(), invalidation.getVersion());
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -0,0 +1,134 @@
+package com.order.reactive.model;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Transient;
+import org.springframework.data.relational.core.mapping.Table;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+/**
+ * Row of the {@code orders} table, whose schema and indexes are managed by order-service
+ */
+@Table("orders")
+public class Order {
+    
+    @Id
+    private Long id;
+    
+    private Long userId;
+    
+    /**
+     * Product of a single-line order; null for multi-line orders
+     */
+    private Long productId;
+    
+    /**
+     * Total number of units across all lines
+     */
+    private Integer quantity;
+    
+    private Double totalPrice;
+    
+    private LocalDateTime orderDate;
+    
+    private String status = "PENDING";
+    
+    /**
+     * Stock reservation in trader-service; the order is PENDING until it is claimed
+     */
+    @JsonIgnore
+    private String reservationId;
+    
+    /**
+     * Line items, written in bulk by OrderLineRepository and loaded separately
+     */
+    @Transient
+    private List<OrderLine> lines = new ArrayList<>();
+    
+    public Order() {
+    }
+    
+    public Order(Long userId, Long productId, Integer quantity, Double totalPrice) {
+        this.userId = userId;
+        this.productId = productId;
+        this.quantity = quantity;
+        this.totalPrice = totalPrice;
+        this.orderDate = LocalDateTime.now();
+    }
+    
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public Long getUserId() {
+        return userId;
+    }
+    
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+    
+    public Long getProductId() {
+        return productId;
+    }
+    
+    public void setProductId(Long productId) {
+        this.productId = productId;
+    }
+    
+    public Integer getQuantity() {
+        return quantity;
+    }
+    
+    public void setQuantity(Integer quantity) {
+        this.quantity = quantity;
+    }
+    
+    public Double getTotalPrice() {
+        return totalPrice;
+    }
+    
+    public void setTotalPrice(Double totalPrice) {
+        this.totalPrice = totalPrice;
+    }
+    
+    public LocalDateTime getOrderDate() {
+        return orderDate;
+    }
+    
+    public void setOrderDate(LocalDateTime orderDate) {
+        this.orderDate = orderDate;
+    }
+    
+    public String getStatus() {
+        return status;
+    }
+    
+    public void setStatus(String status) {
+        this.status = status;
+    }
+    
+    public String getReservationId() {
+        return reservationId;
+    }
+    
+    public void setReservationId(String reservationId) {
+        this.reservationId = reservationId;
+    }
+    
+    public List<OrderLine> getLines() {
+        return lines;
+    }
+    
+    public void setLines(List<OrderLine> lines) {
+        this.lines = lines;
+    }
+}
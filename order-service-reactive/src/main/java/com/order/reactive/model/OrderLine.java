@@ -0,0 +1,80 @@
+package com.order.reactive.model;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Table;
+
+@Table("order_lines")
+public class OrderLine {
+    
+    @Id
+    private Long id;
+    
+    private Long orderId;
+    
+    private Long productId;
+    
+    private Integer quantity;
+    
+    private Double unitPrice;
+    
+    private Double lineTotal;
+    
+    public OrderLine() {
+    }
+    
+    public OrderLine(Long orderId, Long productId, Integer quantity, Double unitPrice) {
+        this.orderId = orderId;
+        this.productId = productId;
+        this.quantity = quantity;
+        this.unitPrice = unitPrice;
+        this.lineTotal = unitPrice * quantity;
+    }
+    
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public Long getOrderId() {
+        return orderId;
+    }
+    
+    public void setOrderId(Long orderId) {
+        this.orderId = orderId;
+    }
+    
+    public Long getProductId() {
+        return productId;
+    }
+    
+    public void setProductId(Long productId) {
+        this.productId = productId;
+    }
+    
+    public Integer getQuantity() {
+        return quantity;
+    }
+    
+    public void setQuantity(Integer quantity) {
+        this.quantity = quantity;
+    }
+    
+    public Double getUnitPrice() {
+        return unitPrice;
+    }
+    
+    public void setUnitPrice(Double unitPrice) {
+        this.unitPrice = unitPrice;
+    }
+    
+    public Double getLineTotal() {
+        return lineTotal;
+    }
+    
+    public void setLineTotal(Double lineTotal) {
+        this.lineTotal = lineTotal;
+    }
+}
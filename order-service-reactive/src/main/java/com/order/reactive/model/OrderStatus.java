@@ -0,0 +1,55 @@
+package com.order.reactive.model;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Order lifecycle and the status changes allowed from each status
+ * 
+ * Status events from payment-service and the status endpoints both go through
+ * {@link #canMove}, so a late or replayed event cannot move an order back out
+ * of a later state (e.g. PAID arriving after CANCELLED).
+ * 
+ * Payment events are not ordered, so REFUNDED is allowed straight from
+ * PENDING and CONFIRMED: a refund that overtakes its PAID event is applied,
+ * and the late PAID is then dropped because REFUNDED is final.
+ */
+public enum OrderStatus {
+    PENDING,
+    CONFIRMED,
+    PAID,
+    SHIPPED,
+    DELIVERED,
+    CANCELLED,
+    REFUNDED;
+    
+    private Set<OrderStatus> next() {
+        return switch (this) {
+            case PENDING -> EnumSet.of(CONFIRMED, PAID, CANCELLED, REFUNDED);
+            case CONFIRMED -> EnumSet.of(PAID, CANCELLED, REFUNDED);
+            case PAID -> EnumSet.of(SHIPPED, CANCELLED, REFUNDED);
+            case SHIPPED -> EnumSet.of(DELIVERED, CANCELLED, REFUNDED);
+            case DELIVERED, CANCELLED -> EnumSet.of(REFUNDED);
+            case REFUNDED -> EnumSet.noneOf(OrderStatus.class);
+        };
+    }
+    
+    /**
+     * Whether an order may move from one status to another
+     * Unknown statuses on either side are never allowed
+     */
+    public static boolean canMove(String from, String to) {
+        OrderStatus current = parse(from);
+        OrderStatus target = parse(to);
+        return current != null && target != null && current.next().contains(target);
+    }
+    
+    private static OrderStatus parse(String status) {
+        for (OrderStatus value : values()) {
+            if (value.name().equals(status)) {
+                return value;
+            }
+        }
+        return null;
+    }
+}
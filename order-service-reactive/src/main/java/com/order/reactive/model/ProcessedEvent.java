@@ -0,0 +1,36 @@
+package com.order.reactive.model;
+
+import java.time.LocalDateTime;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Table;
+
+/**
+ * ID of an inbound event that has already been applied
+ * Lets event consumers drop redeliveries. The ID is assigned, so rows are
+ * written with {@code R2dbcEntityTemplate.insert} rather than {@code save}.
+ */
+@Table("processed_events")
+public class ProcessedEvent {
+    
+    @Id
+    private String eventId;
+    
+    private LocalDateTime processedAt;
+    
+    public ProcessedEvent() {
+    }
+    
+    public ProcessedEvent(String eventId) {
+        this.eventId = eventId;
+        this.processedAt = LocalDateTime.now();
+    }
+    
+    public String getEventId() {
+        return eventId;
+    }
+    
+    public LocalDateTime getProcessedAt() {
+        return processedAt;
+    }
+}
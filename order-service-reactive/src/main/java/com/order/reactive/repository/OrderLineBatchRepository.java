@@ -0,0 +1,21 @@
+package com.order.reactive.repository;
+
+import java.util.List;
+
+import com.order.reactive.model.OrderLine;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Bulk write operations for order lines
+ */
+public interface OrderLineBatchRepository {
+    
+    /**
+     * Insert all lines with one statement execution and populate their generated IDs
+     * 
+     * @param lines The lines to insert
+     * @return Completes once every line is written
+     */
+    Mono<Void> insertAll(List<OrderLine> lines);
+}
@@ -0,0 +1,56 @@
+package com.order.reactive.repository;
+
+import java.util.List;
+
+import org.springframework.r2dbc.core.DatabaseClient;
+
+import com.order.reactive.model.OrderLine;
+
+import io.r2dbc.spi.Statement;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * R2DBC implementation of {@link OrderLineBatchRepository}
+ * 
+ * Every line is bound to one statement, so the driver sends them together
+ * instead of {@code saveAll} issuing one insert per line in turn. Runs in
+ * the caller's reactive transaction.
+ */
+public class OrderLineBatchRepositoryImpl implements OrderLineBatchRepository {
+    
+    private static final String INSERT_SQL =
+        "INSERT INTO order_lines (order_id, product_id, quantity, unit_price, line_total) VALUES (?, ?, ?, ?, ?)";
+    
+    private final DatabaseClient databaseClient;
+    
+    public OrderLineBatchRepositoryImpl(DatabaseClient databaseClient) {
+        this.databaseClient = databaseClient;
+    }
+    
+    @Override
+    public Mono<Void> insertAll(List<OrderLine> lines) {
+        if (lines.isEmpty()) {
+            return Mono.empty();
+        }
+        return databaseClient.inConnectionMany(connection -> {
+                Statement statement = connection.createStatement(INSERT_SQL).returnGeneratedValues("id");
+                for (int i = 0; i < lines.size(); i++) {
+                    if (i > 0) {
+                        statement.add();
+                    }
+                    OrderLine line = lines.get(i);
+                    statement.bind(0, line.getOrderId())
+                        .bind(1, line.getProductId())
+                        .bind(2, line.getQuantity())
+                        .bind(3, line.getUnitPrice())
+                        .bind(4, line.getLineTotal());
+                }
+                return Flux.from(statement.execute())
+                    .concatMap(result -> result.map((row, metadata) -> row.get(0, Long.class)));
+            })
+            .index()
+            .doOnNext(key -> lines.get(key.getT1().intValue()).setId(key.getT2()))
+            .then();
+    }
+}
@@ -0,0 +1,20 @@
+package com.order.reactive.repository;
+
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import org.springframework.stereotype.Repository;
+
+import com.order.reactive.model.OrderLine;
+
+import reactor.core.publisher.Flux;
+
+@Repository
+public interface OrderLineRepository extends R2dbcRepository<OrderLine, Long>, OrderLineBatchRepository {
+    
+    /**
+     * Find all lines of an order
+     * 
+     * @param orderId The ID of the order
+     * @return The lines of the order
+     */
+    Flux<OrderLine> findByOrderId(Long orderId);
+}
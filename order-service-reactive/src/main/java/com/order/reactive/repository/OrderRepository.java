@@ -0,0 +1,73 @@
+package com.order.reactive.repository;
+
+import java.time.LocalDateTime;
+
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.beemo.common.order.dto.OrderSummary;
+import com.order.reactive.model.Order;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@Repository
+public interface OrderRepository extends R2dbcRepository<Order, Long> {
+    
+    String SUMMARY_SELECT = "SELECT id, user_id, status, quantity, total_price, order_date FROM orders ";
+    
+    String BEFORE_POSITION = "(order_date < :beforeDate OR (order_date = :beforeDate AND id < :beforeId)) ";
+    
+    String SUMMARY_ORDER = "ORDER BY order_date DESC, id DESC LIMIT :limit";
+    
+    /**
+     * Page through all orders, newest first, starting after a keyset position
+     * 
+     * @param beforeDate Order date of the last row already returned
+     * @param beforeId ID of the last row already returned
+     * @param limit Maximum number of rows
+     * @return Order summaries older than the position
+     */
+    @Query(SUMMARY_SELECT + "WHERE " + BEFORE_POSITION + SUMMARY_ORDER)
+    Flux<OrderSummary> findSummariesBefore(@Param("beforeDate") LocalDateTime beforeDate,
+                                           @Param("beforeId") Long beforeId, @Param("limit") int limit);
+    
+    /**
+     * Page through a user's orders, newest first, starting after a keyset position
+     * Served by the (user_id, order_date, id) index
+     */
+    @Query(SUMMARY_SELECT + "WHERE user_id = :userId AND " + BEFORE_POSITION + SUMMARY_ORDER)
+    Flux<OrderSummary> findSummariesByUserIdBefore(@Param("userId") Long userId,
+                                                   @Param("beforeDate") LocalDateTime beforeDate,
+                                                   @Param("beforeId") Long beforeId, @Param("limit") int limit);
+    
+    /**
+     * Page through orders in one status, newest first, starting after a keyset position
+     * Served by the (status, order_date, id) index
+     */
+    @Query(SUMMARY_SELECT + "WHERE status = :status AND " + BEFORE_POSITION + SUMMARY_ORDER)
+    Flux<OrderSummary> findSummariesByStatusBefore(@Param("status") String status,
+                                                   @Param("beforeDate") LocalDateTime beforeDate,
+                                                   @Param("beforeId") Long beforeId, @Param("limit") int limit);
+    
+    /**
+     * Find PENDING orders whose stock reservation has not been claimed yet, oldest first
+     * Served by the (status, order_date, id) index
+     */
+    @Query("SELECT * FROM orders WHERE status = 'PENDING' AND reservation_id IS NOT NULL "
+        + "ORDER BY order_date, id LIMIT :limit")
+    Flux<Order> findUnclaimed(@Param("limit") int limit);
+    
+    /**
+     * Move an order from one status to another, only if it is still in the first one
+     * The reservation is cleared, since the order no longer waits for it
+     * 
+     * @return 1 if the order moved, 0 if its status had changed meanwhile
+     */
+    @Modifying
+    @Query("UPDATE orders SET status = :to, reservation_id = NULL WHERE id = :id AND status = :from")
+    Mono<Integer> settleReservation(@Param("id") Long id, @Param("from") String from, @Param("to") String to);
+}
@@ -0,0 +1,25 @@
+package com.order.reactive.repository;
+
+import java.util.Collection;
+
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.order.reactive.model.ProcessedEvent;
+
+import reactor.core.publisher.Flux;
+
+@Repository
+public interface ProcessedEventRepository extends R2dbcRepository<ProcessedEvent, String> {
+    
+    /**
+     * Find which of the given event IDs have already been applied
+     * 
+     * @param eventIds The event IDs to check
+     * @return The subset that has been processed
+     */
+    @Query("SELECT event_id FROM processed_events WHERE event_id IN (:eventIds)")
+    Flux<String> findProcessedIds(@Param("eventIds") Collection<String> eventIds);
+}
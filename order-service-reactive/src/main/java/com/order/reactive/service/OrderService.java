@@ -0,0 +1,342 @@
+package com.order.reactive.service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+
+import com.beemo.common.order.dto.OrderLineRequest;
+import com.beemo.common.order.dto.OrderPage;
+import com.beemo.common.order.dto.OrderRequest;
+import com.beemo.common.order.dto.OrderSummary;
+import com.beemo.common.order.dto.StockReservationDto;
+import com.beemo.common.order.exceptions.InsufficientStockException;
+import com.beemo.common.order.exceptions.InvalidPageRequestException;
+import com.beemo.common.order.exceptions.InvalidStatusTransitionException;
+import com.beemo.common.order.exceptions.ProductNotFoundException;
+import com.beemo.common.order.exceptions.UserNotFoundException;
+import com.order.reactive.client.TraderServiceClient;
+import com.order.reactive.model.Order;
+import com.order.reactive.model.OrderLine;
+import com.order.reactive.model.OrderStatus;
+import com.order.reactive.repository.OrderLineRepository;
+import com.order.reactive.repository.OrderRepository;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Order pipeline of order-service, composed as a non-blocking chain
+ * 
+ * Remote calls go through WebClient and persistence through R2DBC, so no
+ * thread waits on either and an event-loop thread can carry many orders in
+ * flight at once. Steps, transactions and errors match order-service.
+ */
+@Service
+public class OrderService {
+    
+    private static final Logger logger = LoggerFactory.getLogger(OrderService.class);
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int CLAIM_RETRY_BATCH = 100;
+    
+    private final OrderRepository orderRepository;
+    private final OrderLineRepository orderLineRepository;
+    private final OrderValidationService orderValidationService;
+    private final TraderServiceClient traderServiceClient;
+    private final TransactionalOperator transactionalOperator;
+    
+    public OrderService(OrderRepository orderRepository, 
+                        OrderLineRepository orderLineRepository,
+                        OrderValidationService orderValidationService, 
+                        TraderServiceClient traderServiceClient,
+                        TransactionalOperator transactionalOperator) {
+        this.orderRepository = orderRepository;
+        this.orderLineRepository = orderLineRepository;
+        this.orderValidationService = orderValidationService;
+        this.traderServiceClient = traderServiceClient;
+        this.transactionalOperator = transactionalOperator;
+    }
+    
+    /**
+     * Create a new order with comprehensive validation
+     * 
+     * Remote validation and the stock reservation complete before any
+     * transaction is opened, so a database connection is only held for the
+     * insert and the line statement. The order is stored PENDING with its
+     * reservation and only moves to CONFIRMED once the reservation is
+     * claimed; if storing it fails, or the caller cancels first, the
+     * reservation is released again. A claim that cannot get through leaves
+     * the order PENDING for {@link #retryUnclaimedReservations}.
+     * 
+     * @param orderRequest The order request containing the user ID and the lines to order
+     * @return The created order, CONFIRMED or PENDING; fails with {@link UserNotFoundException},
+     *         {@link ProductNotFoundException} or {@link InsufficientStockException} like order-service
+     */
+    public Mono<Order> createOrder(OrderRequest orderRequest) {
+        List<OrderLineRequest> lineRequests = orderRequest.toLines();
+        
+        // Step 1: Validate user and products
+        return orderValidationService.validate(orderRequest)
+            // Step 2: Check-and-decrement for every line, atomically in trader-service
+            .then(Mono.defer(() -> traderServiceClient.reserveStock(lineRequests)))
+            .flatMap(reservation -> {
+                Map<Long, Double> reservedPrices = reservation.getLines().stream()
+                    .collect(Collectors.toMap(StockReservationDto::getProductId, StockReservationDto::getPrice));
+                
+                // Step 3: Price the order at the reserved prices
+                List<OrderLine> lines = new ArrayList<>(lineRequests.size());
+                double totalPrice = 0;
+                int totalQuantity = 0;
+                for (OrderLineRequest lineRequest : lineRequests) {
+                    OrderLine line = new OrderLine(null, lineRequest.getProductId(), lineRequest.getQuantity(),
+                        reservedPrices.get(lineRequest.getProductId()));
+                    lines.add(line);
+                    totalPrice += line.getLineTotal();
+                    totalQuantity += lineRequest.getQuantity();
+                }
+                Long singleProductId = lineRequests.size() == 1 ? lineRequests.get(0).getProductId() : null;
+                Order order = new Order(orderRequest.getUserId(), singleProductId, totalQuantity, totalPrice);
+                order.setStatus(OrderStatus.PENDING.name());
+                order.setReservationId(reservation.getReservationId());
+                
+                // Step 4: Insert the order and its lines, then claim the stock
+                Mono<Order> persist = orderRepository.save(order).flatMap(inserted -> {
+                    lines.forEach(line -> line.setOrderId(inserted.getId()));
+                    return orderLineRepository.insertAll(lines).thenReturn(inserted);
+                });
+                String reservationId = reservation.getReservationId();
+                AtomicBoolean stored = new AtomicBoolean();
+                return transactionalOperator.transactional(persist)
+                    .doOnNext(savedOrder -> stored.set(true))
+                    .onErrorResume(e -> releaseReservation(reservationId, e))
+                    .flatMap(this::claimReservation)
+                    .doOnNext(savedOrder -> savedOrder.setLines(lines))
+                    .doOnCancel(() -> settleCancelled(reservationId, stored.get()));
+            });
+    }
+    
+    /**
+     * Settle the reservation of an order whose caller went away after stock was reserved
+     * 
+     * A cancelled transaction rolls back, so the stock is released unless the
+     * order was already committed, in which case it is claimed and the order
+     * is confirmed by {@link #retryUnclaimedReservations}. Both calls are
+     * idempotent, so repeating one that was in flight when the cancel came is
+     * harmless. A cancel during the reserve call itself leaves no ID to settle;
+     * that reservation is given back when it expires.
+     */
+    private void settleCancelled(String reservationId, boolean stored) {
+        Mono<Void> settle = stored ? traderServiceClient.claimStock(reservationId)
+            : traderServiceClient.releaseStock(reservationId);
+        settle.subscribe(null, e -> logger.warn("Could not {} stock reservation {} of a cancelled order: {}",
+            stored ? "claim" : "release", reservationId, e.getMessage()));
+    }
+    
+    /**
+     * Compensate a reservation whose order could not be stored, then fail with the original error
+     */
+    private Mono<Order> releaseReservation(String reservationId, Throwable cause) {
+        return traderServiceClient.releaseStock(reservationId)
+            .onErrorResume(e -> {
+                // The reservation expires in trader-service; keep the original failure as the one reported
+                cause.addSuppressed(e);
+                return Mono.empty();
+            })
+            .then(Mono.error(cause));
+    }
+    
+    /**
+     * Claim the reservation of a PENDING order and confirm the order
+     * 
+     * @return The order, CONFIRMED, or still PENDING if the claim could not get through and is retried
+     *         later; fails with {@link InsufficientStockException} if the reservation expired or was
+     *         released, after cancelling the order
+     */
+    private Mono<Order> claimReservation(Order order) {
+        return traderServiceClient.claimStock(order.getReservationId())
+            .then(Mono.defer(() -> settleReservation(order, OrderStatus.CONFIRMED)))
+            .onErrorResume(InsufficientStockException.class, e -> settleReservation(order, OrderStatus.CANCELLED)
+                .doOnNext(cancelled -> logger.warn("Cancelled order {}: stock reservation was no longer held",
+                    cancelled.getId()))
+                .then(Mono.error(e)))
+            .onErrorResume(e -> !(e instanceof InsufficientStockException), e -> {
+                logger.warn("Could not claim stock reservation {} for order {}, retrying later: {}",
+                    order.getReservationId(), order.getId(), e.getMessage());
+                return Mono.just(order);
+            });
+    }
+    
+    private Mono<Order> settleReservation(Order order, OrderStatus status) {
+        return orderRepository.settleReservation(order.getId(), OrderStatus.PENDING.name(), status.name())
+            .map(moved -> {
+                order.setStatus(status.name());
+                order.setReservationId(null);
+                return order;
+            });
+    }
+    
+    /**
+     * Claim the reservations of orders left PENDING by a failed claim
+     * 
+     * Runs well within trader-service's reservation TTL, so a claim that failed
+     * because trader-service was briefly unreachable is retried before the
+     * reservation expires. Orders whose reservation expired anyway are
+     * cancelled. A run stops at the first claim that still cannot get through.
+     */
+    @Scheduled(fixedDelayString = "${order.reservations.claim-retry-interval-ms:10000}")
+    public Mono<Void> retryUnclaimedReservations() {
+        return orderRepository.findUnclaimed(CLAIM_RETRY_BATCH)
+            .concatMap(order -> claimReservation(order)
+                .onErrorResume(InsufficientStockException.class, e -> Mono.just(order)))
+            .takeWhile(order -> !OrderStatus.PENDING.name().equals(order.getStatus()))
+            .count()
+            .flatMap(settled -> settled == CLAIM_RETRY_BATCH ? retryUnclaimedReservations() : Mono.empty());
+    }
+    
+    /**
+     * Get one page of a user's orders, newest first
+     * 
+     * @param userId The ID of the user
+     * @param cursor The cursor returned with the previous page, or null for the first page
+     * @param limit The page size, between 1 and 100
+     * @return The page and, if more orders follow, the cursor for the next one
+     */
+    public Mono<OrderPage> getOrdersByUserId(Long userId, String cursor, int limit) {
+        return Mono.defer(() -> {
+            checkLimit(limit);
+            OrderCursor position = OrderCursor.decode(cursor);
+            return orderRepository.findSummariesByUserIdBefore(userId, position.orderDate(), position.id(), limit + 1)
+                .collectList()
+                .map(rows -> toPage(rows, limit));
+        });
+    }
+    
+    /**
+     * Get order by ID, with its lines
+     * 
+     * @param orderId The ID of the order
+     * @return The order, or empty if not found
+     */
+    public Mono<Order> getOrderById(Long orderId) {
+        return orderRepository.findById(orderId).flatMap(this::withLines);
+    }
+    
+    /**
+     * Get one page of all orders, newest first (admin functionality)
+     * 
+     * @param status Only return orders in this status, or null for every status
+     * @param cursor The cursor returned with the previous page, or null for the first page
+     * @param limit The page size, between 1 and 100
+     * @return The page and, if more orders follow, the cursor for the next one
+     */
+    public Mono<OrderPage> getAllOrders(String status, String cursor, int limit) {
+        return Mono.defer(() -> {
+            checkLimit(limit);
+            OrderCursor position = OrderCursor.decode(cursor);
+            return (status == null
+                    ? orderRepository.findSummariesBefore(position.orderDate(), position.id(), limit + 1)
+                    : orderRepository.findSummariesByStatusBefore(status, position.orderDate(), position.id(),
+                        limit + 1))
+                .collectList()
+                .map(rows -> toPage(rows, limit));
+        });
+    }
+    
+    /**
+     * Cancel an order (not once it is delivered, cancelled or refunded)
+     * 
+     * @param orderId The ID of the order to cancel
+     * @return The cancelled order
+     */
+    public Mono<Order> cancelOrder(Long orderId) {
+        return updateOrderStatus(orderId, OrderStatus.CANCELLED.name());
+    }
+    
+    /**
+     * Update order status
+     * 
+     * @param orderId The ID of the order
+     * @param status The new status to set
+     * @return The updated order
+     */
+    public Mono<Order> updateOrderStatus(Long orderId, String status) {
+        Mono<Order> update = findExisting(orderId).flatMap(order -> {
+            if (!OrderStatus.canMove(order.getStatus(), status)) {
+                return Mono.error(new InvalidStatusTransitionException(
+                    "Cannot change order " + orderId + " from " + order.getStatus() + " to " + status));
+            }
+            order.setStatus(status);
+            return orderRepository.save(order);
+        });
+        return transactionalOperator.transactional(update).flatMap(this::withLines);
+    }
+    
+    private Mono<Order> findExisting(Long orderId) {
+        return orderRepository.findById(orderId)
+            .switchIfEmpty(Mono.error(() -> new RuntimeException("Order with ID " + orderId + " not found")));
+    }
+    
+    private Mono<Order> withLines(Order order) {
+        return orderLineRepository.findByOrderId(order.getId()).collectList().map(lines -> {
+            order.setLines(lines);
+            return order;
+        });
+    }
+    
+    private static void checkLimit(int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new InvalidPageRequestException("Limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+    }
+    
+    /**
+     * One row past the limit was fetched; its presence means another page follows
+     */
+    private static OrderPage toPage(List<OrderSummary> rows, int limit) {
+        if (rows.size() <= limit) {
+            return new OrderPage(rows, null);
+        }
+        List<OrderSummary> items = rows.subList(0, limit);
+        OrderSummary last = items.get(limit - 1);
+        return new OrderPage(new ArrayList<>(items), new OrderCursor(last.getOrderDate(), last.getId()).encode());
+    }
+    
+    /**
+     * Keyset position in (orderDate, id) descending order
+     * Same opaque base64url token as order-service, so cursors work against either variant
+     */
+    private record OrderCursor(LocalDateTime orderDate, Long id) {
+        
+        /** Sorts before every real order, so the first page starts from the top */
+        static final OrderCursor START = new OrderCursor(LocalDateTime.of(9999, 12, 31, 23, 59, 59), Long.MAX_VALUE);
+        
+        String encode() {
+            String position = orderDate + "~" + id;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(StandardCharsets.UTF_8));
+        }
+        
+        static OrderCursor decode(String cursor) {
+            if (cursor == null || cursor.isEmpty()) {
+                return START;
+            }
+            try {
+                String position = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+                int separator = position.indexOf('~');
+                return new OrderCursor(LocalDateTime.parse(position.substring(0, separator)),
+                    Long.valueOf(position.substring(separator + 1)));
+            } catch (IllegalArgumentException | DateTimeParseException | StringIndexOutOfBoundsException e) {
+                throw new InvalidPageRequestException("Invalid cursor");
+            }
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.order.reactive.service;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+
+import com.beemo.common.order.dto.OrderStatusEvent;
+import com.order.reactive.model.Order;
+import com.order.reactive.model.OrderStatus;
+import com.order.reactive.model.ProcessedEvent;
+import com.order.reactive.repository.OrderRepository;
+import com.order.reactive.repository.ProcessedEventRepository;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Applies order status events relayed from payment-service
+ * 
+ * Delivery is at least once, so every event ID is recorded in the same
+ * transaction as the status change and redelivered events are skipped.
+ * Events that would make a transition {@link OrderStatus} does not allow,
+ * such as PAID arriving after the order was cancelled, are recorded and dropped.
+ */
+@Service
+public class OrderStatusEventService {
+    
+    private static final Logger logger = LoggerFactory.getLogger(OrderStatusEventService.class);
+    
+    private final OrderRepository orderRepository;
+    private final ProcessedEventRepository processedEventRepository;
+    private final R2dbcEntityTemplate entityTemplate;
+    private final TransactionalOperator transactionalOperator;
+    
+    public OrderStatusEventService(OrderRepository orderRepository,
+                                   ProcessedEventRepository processedEventRepository,
+                                   R2dbcEntityTemplate entityTemplate,
+                                   TransactionalOperator transactionalOperator) {
+        this.orderRepository = orderRepository;
+        this.processedEventRepository = processedEventRepository;
+        this.entityTemplate = entityTemplate;
+        this.transactionalOperator = transactionalOperator;
+    }
+    
+    /**
+     * Apply a batch of status events in order
+     * 
+     * @param events The events, oldest first
+     * @return The number of events applied, excluding duplicates and disallowed transitions
+     */
+    public Mono<Integer> applyEvents(List<OrderStatusEvent> events) {
+        if (events.isEmpty()) {
+            return Mono.just(0);
+        }
+        Mono<Integer> apply = Mono.zip(
+                processedEventRepository.findProcessedIds(events.stream().map(OrderStatusEvent::getEventId).toList())
+                    .collectList(),
+                orderRepository.findAllById(events.stream().map(OrderStatusEvent::getOrderId).distinct().toList())
+                    .collectMap(Order::getId))
+            .flatMap(found -> {
+                Set<String> seen = new HashSet<>(found.getT1());
+                Map<Long, Order> orders = found.getT2();
+                Map<Long, Order> changed = new LinkedHashMap<>();
+                List<ProcessedEvent> processed = new ArrayList<>();
+                
+                int applied = 0;
+                for (OrderStatusEvent event : events) {
+                    if (!seen.add(event.getEventId())) {
+                        continue;
+                    }
+                    Order order = orders.get(event.getOrderId());
+                    if (order == null) {
+                        logger.warn("Dropping status event {} for unknown order {}", event.getEventId(), event.getOrderId());
+                    } else if (!OrderStatus.canMove(order.getStatus(), event.getStatus())) {
+                        logger.warn("Dropping status event {}: order {} cannot move from {} to {}",
+                                    event.getEventId(), order.getId(), order.getStatus(), event.getStatus());
+                    } else {
+                        order.setStatus(event.getStatus());
+                        changed.put(order.getId(), order);
+                        applied++;
+                    }
+                    processed.add(new ProcessedEvent(event.getEventId()));
+                }
+                return orderRepository.saveAll(changed.values())
+                    .thenMany(Flux.fromIterable(processed).concatMap(entityTemplate::insert))
+                    .then(Mono.just(applied));
+            });
+        return transactionalOperator.transactional(apply);
+    }
+}
@@ -0,0 +1,93 @@
+package com.order.reactive.service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.beemo.common.client.DependencyUnavailableException;
+import com.beemo.common.order.dto.OrderLineRequest;
+import com.beemo.common.order.dto.OrderRequest;
+import com.beemo.common.order.dto.ProductDto;
+import com.beemo.common.order.exceptions.ProductNotFoundException;
+import com.beemo.common.order.exceptions.UserNotFoundException;
+import com.order.reactive.client.TraderServiceClient;
+import com.order.reactive.client.UserServiceClient;
+
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Signal;
+
+/**
+ * Runs the remote checks that must pass before an order is persisted.
+ *
+ * The user check and the bulk product lookup are both in flight at once,
+ * each bounded by its own deadline, without a thread waiting on either.
+ * Failures are reported in the same order as order-service reports them.
+ * Stock is not checked here: it is reserved atomically when the order is
+ * persisted.
+ */
+@Service
+public class OrderValidationService {
+
+    private final UserServiceClient userServiceClient;
+    private final TraderServiceClient traderServiceClient;
+    private final Duration callTimeout;
+
+    public OrderValidationService(UserServiceClient userServiceClient,
+                                  TraderServiceClient traderServiceClient,
+                                  @Value("${order.validation.call-timeout-ms:2000}") long callTimeoutMs) {
+        this.userServiceClient = userServiceClient;
+        this.traderServiceClient = traderServiceClient;
+        this.callTimeout = Duration.ofMillis(callTimeoutMs);
+    }
+
+    /**
+     * Validate the user and every product of an order request
+     *
+     * @param orderRequest The order request to validate
+     * @return The products being ordered, keyed by ID; fails with {@link UserNotFoundException} if the
+     *         user doesn't exist, {@link ProductNotFoundException} if a product doesn't exist or
+     *         {@link DependencyUnavailableException} if a call misses its deadline
+     */
+    public Mono<Map<Long, ProductDto>> validate(OrderRequest orderRequest) {
+        List<OrderLineRequest> lines = orderRequest.toLines();
+        Mono<Boolean> userCheck = call("user-service", userServiceClient.validateUser(orderRequest.getUserId()));
+        Mono<Map<Long, ProductDto>> productLookup = call("trader-service",
+            traderServiceClient.getProducts(productIds(lines)));
+
+        return Mono.zip(userCheck.materialize(), productLookup.materialize()).flatMap(results -> {
+            Signal<Boolean> user = results.getT1();
+            Signal<Map<Long, ProductDto>> products = results.getT2();
+            if (user.isOnError()) {
+                return Mono.error(user.getThrowable());
+            }
+            if (products.isOnError()) {
+                return Mono.error(products.getThrowable());
+            }
+            if (!Boolean.TRUE.equals(user.get())) {
+                return Mono.error(new UserNotFoundException("User with ID " + orderRequest.getUserId() + " not found"));
+            }
+            return checkProducts(lines, products.get());
+        });
+    }
+
+    private <T> Mono<T> call(String dependency, Mono<T> remoteCall) {
+        return remoteCall.timeout(callTimeout, Mono.error(() -> new DependencyUnavailableException(
+            "Timed out after " + callTimeout.toMillis() + "ms waiting for " + dependency)));
+    }
+
+    private Mono<Map<Long, ProductDto>> checkProducts(List<OrderLineRequest> lines, Map<Long, ProductDto> products) {
+        for (OrderLineRequest line : lines) {
+            if (products == null || !products.containsKey(line.getProductId())) {
+                return Mono.error(new ProductNotFoundException("Product with ID " + line.getProductId() + " not found"));
+            }
+        }
+        return Mono.just(products);
+    }
+
+    private static List<Long> productIds(List<OrderLineRequest> lines) {
+        return lines.stream().map(OrderLineRequest::getProductId).distinct().toList();
+    }
+}
@@ -0,0 +1,226 @@
+package com.order.reactive;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.beemo.common.security.IdentityHeader;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.netty.handler.codec.http.QueryStringDecoder;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.http.server.HttpServerResponse;
+
+/**
+ * Load test comparing order-service with order-service-reactive on {@code POST /orders}
+ *
+ * Two parts, run as separate processes:
+ *
+ * <pre>
+ * stub [port] [delay ms]
+ *     Serves the user-service and trader-service calls an order makes
+ *     (/validate, /products/batch, /products/reservations and its claim and release), each answered
+ *     after the delay without holding a thread, so the downstream is never
+ *     the bottleneck.
+ *
+ * load name=baseUrl [name=baseUrl ...] [levels=100,500,1000] [seconds=10] [products=100]
+ *      [identity-secret=...]
+ *     Posts single-line orders from the given number of concurrent callers
+ *     to each variant and prints throughput and latency per level. Orders
+ *     carry an identity signed with the services' identity secret, as the
+ *     gateway would add.
+ * </pre>
+ *
+ * Start both variants against the stub instead of Eureka, e.g. with
+ * {@code --eureka.client.enabled=false --order.clients.registry-push.enabled=false
+ * --spring.cloud.discovery.client.simple.instances.trader-service[0].uri=http://localhost:9106
+ * --spring.cloud.discovery.client.simple.instances.user-service[0].uri=http://localhost:9106}.
+ * Give both the same number of database connections (Hikari's
+ * {@code maximum-pool-size} and {@code spring.r2dbc.pool.max-size}).
+ *
+ * Not a unit test; run it from the IDE or with the test classpath.
+ */
+public class OrderLoadComparison {
+
+    private static final ObjectMapper mapper = new ObjectMapper();
+
+    public static void main(String[] args) throws Exception {
+        if (args.length > 0 && args[0].equals("stub")) {
+            stub(args.length > 1 ? Integer.parseInt(args[1]) : 9106, args.length > 2 ? Long.parseLong(args[2]) : 50);
+        } else if (args.length > 1 && args[0].equals("load")) {
+            load(Arrays.copyOfRange(args, 1, args.length));
+        } else {
+            System.err.println("Usage: stub [port] [delay ms] | load name=baseUrl ... [levels=..] [seconds=..] [products=..]");
+        }
+    }
+
+    private static void stub(int port, long delayMs) {
+        Duration delay = Duration.ofMillis(delayMs);
+        DisposableServer server = HttpServer.create().port(port).route(routes -> routes
+            // user-service: every user exists
+            .post("/validate", (request, response) -> json(response, delay, request.receive().aggregate().asString()))
+            // trader-service: catalog data for every requested ID, at version 1 so order-service caches it
+            .get("/products/batch", (request, response) -> {
+                List<Map<String, Object>> products = new ArrayList<>();
+                for (String id : new QueryStringDecoder(request.uri()).parameters().get("ids").get(0).split(",")) {
+                    products.add(product(Long.parseLong(id)));
+                }
+                return json(response, delay, Mono.fromCallable(() -> mapper.writeValueAsString(products)));
+            })
+            // trader-service: every reservation succeeds
+            .post("/products/reservations", (request, response) -> json(response, delay,
+                request.receive().aggregate().asString().map(body -> {
+                    try {
+                        List<Map<String, Object>> lines = new ArrayList<>();
+                        for (JsonNode line : mapper.readTree(body)) {
+                            Map<String, Object> reserved = new LinkedHashMap<>();
+                            reserved.put("productId", line.get("productId").asLong());
+                            reserved.put("price", 10.0);
+                            reserved.put("reserved", line.get("quantity").asInt());
+                            reserved.put("remainingStock", 1_000_000);
+                            lines.add(reserved);
+                        }
+                        return mapper.writeValueAsString(Map.of("reservationId", UUID.randomUUID().toString(),
+                            "lines", lines));
+                    } catch (Exception e) {
+                        throw new IllegalArgumentException(e);
+                    }
+                })))
+            // trader-service: claims after each stored order, releases after a failed insert
+            .post("/products/reservations/{id}/{action}", (request, response) -> request.receive().then()
+                .then(Mono.delay(delay))
+                .then(response.status(204).send())))
+            .bindNow();
+        System.out.println("Stub user-service and trader-service on port " + server.port() + ", answering after " + delayMs + "ms");
+        server.onDispose().block();
+    }
+
+    private static Map<String, Object> product(long id) {
+        Map<String, Object> product = new LinkedHashMap<>();
+        product.put("id", id);
+        product.put("name", "Product " + id);
+        product.put("description", "Load test product");
+        product.put("price", 10.0);
+        product.put("stock", 1_000_000);
+        product.put("version", 1);
+        return product;
+    }
+
+    private static Mono<Void> json(HttpServerResponse response, Duration delay, Mono<String> body) {
+        return response.header("Content-Type", "application/json")
+            .sendString(Mono.delay(delay).then(body))
+            .then();
+    }
+
+    private static void load(String[] args) throws Exception {
+        Map<String, URI> targets = new LinkedHashMap<>();
+        int[] levels = { 100, 500, 1000 };
+        int seconds = 10;
+        int products = 100;
+        String identitySecret = "beemo_identity_secret_shared_by_gateway_and_backends";
+        for (String arg : args) {
+            String[] pair = arg.split("=", 2);
+            switch (pair[0]) {
+                case "levels" -> levels = Arrays.stream(pair[1].split(",")).mapToInt(Integer::parseInt).toArray();
+                case "seconds" -> seconds = Integer.parseInt(pair[1]);
+                case "products" -> products = Integer.parseInt(pair[1]);
+                case "identity-secret" -> identitySecret = pair[1];
+                default -> targets.put(pair[0], URI.create(pair[1]));
+            }
+        }
+
+        HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        String identity = new IdentityHeader(identitySecret.getBytes(StandardCharsets.UTF_8), 1)
+            .sign("load-test", Instant.now().plus(Duration.ofHours(1)));
+        System.out.printf("%-12s %11s %10s %10s %10s %8s%n", "variant", "concurrency", "orders/s", "p50 ms", "p99 ms", "errors");
+        for (Map.Entry<String, URI> target : targets.entrySet()) {
+            // Warm up connections, JIT and the services' user and product caches
+            run(client, target.getValue(), identity, levels[0], 3, products);
+            for (int level : levels) {
+                Result result = run(client, target.getValue(), identity, level, seconds, products);
+                System.out.printf("%-12s %11d %10.0f %10.1f %10.1f %8d%n", target.getKey(), level, result.throughput(),
+                    result.percentile(0.50), result.percentile(0.99), result.errors());
+            }
+        }
+        client.shutdownNow();
+    }
+
+    private static Result run(HttpClient client, URI baseUrl, String identity, int concurrency, int seconds, int products)
+            throws Exception {
+        URI uri = baseUrl.resolve("/");
+        long started = System.nanoTime();
+        long deadline = started + Duration.ofSeconds(seconds).toNanos();
+        AtomicInteger errors = new AtomicInteger();
+        List<Future<List<Long>>> workers = new ArrayList<>();
+        // Virtual threads, so thousands of callers can wait on responses at once
+        try (ExecutorService pool = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < concurrency; i++) {
+                workers.add(pool.submit(() -> {
+                    List<Long> latencies = new ArrayList<>();
+                    while (System.nanoTime() < deadline) {
+                        long productId = 1 + ThreadLocalRandom.current().nextInt(products);
+                        HttpRequest request = HttpRequest.newBuilder(uri)
+                            .timeout(Duration.ofSeconds(30))
+                            .header("Content-Type", "application/json")
+                            .header(IdentityHeader.NAME, identity)
+                            .POST(HttpRequest.BodyPublishers.ofString(
+                                "{\"userId\":1,\"productId\":" + productId + ",\"quantity\":1}"))
+                            .build();
+                        long sent = System.nanoTime();
+                        try {
+                            HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                            if (response.statusCode() == 201) {
+                                latencies.add(System.nanoTime() - sent);
+                            } else {
+                                errors.incrementAndGet();
+                            }
+                        } catch (Exception e) {
+                            errors.incrementAndGet();
+                        }
+                    }
+                    return latencies;
+                }));
+            }
+        }
+        // Requests still in flight at the deadline finish late, so measure the whole run
+        long elapsed = System.nanoTime() - started;
+        List<Long> latencies = new ArrayList<>();
+        for (Future<List<Long>> worker : workers) {
+            latencies.addAll(worker.get());
+        }
+        latencies.sort(null);
+        return new Result(latencies, errors.get(), elapsed);
+    }
+
+    private record Result(List<Long> latencies, int errors, long elapsedNanos) {
+
+        double throughput() {
+            return latencies.size() / (elapsedNanos / 1e9);
+        }
+
+        double percentile(double quantile) {
+            if (latencies.isEmpty()) {
+                return Double.NaN;
+            }
+            return latencies.get((int) Math.min(latencies.size() - 1, Math.floor(quantile * latencies.size()))) / 1e6;
+        }
+    }
+}
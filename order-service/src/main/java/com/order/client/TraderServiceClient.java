@@ -1,69 +1,194 @@
 package com.order.client;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.RestTemplate;
 
-import com.order.dto.ProductDto;
+import com.beemo.common.client.DependencyUnavailableException;
+import com.beemo.common.client.ResilientCaller;
+import com.beemo.common.client.VersionedCache;
+import com.beemo.common.order.dto.OrderLineRequest;
+import com.beemo.common.order.dto.ProductDto;
+import com.beemo.common.order.dto.StockReservationBatchDto;
+import com.beemo.common.order.exceptions.InsufficientStockException;
+import com.beemo.common.order.exceptions.ProductNotFoundException;
 
 @Component
 public class TraderServiceClient {
     
     private final RestTemplate restTemplate;
-    private final String traderServiceUrl = "http://localhost:9006";
+    private final ResilientCaller caller;
+    private final String traderServiceUrl = "http://trader-service";
+    private final VersionedCache<Long, ProductDto> productCache;
     
-    public TraderServiceClient(RestTemplate restTemplate) {
+    public TraderServiceClient(RestTemplate restTemplate,
+                               @Qualifier("traderServiceCaller") ResilientCaller caller,
+                               @Value("${order.product-cache.ttl-ms:300000}") long ttlMs,
+                               @Value("${order.product-cache.max-size:10000}") int maxSize) {
         this.restTemplate = restTemplate;
+        this.caller = caller;
+        this.productCache = new VersionedCache<>(Duration.ofMillis(ttlMs), maxSize);
     }
     
     /**
-     * Fetch product details from trader-service
+     * Fetch product details, from the local catalog cache when possible
+     * The returned product never carries a stock level
      * 
      * @param productId The ID of the product to fetch
      * @return Product details or null if not found
      */
     public ProductDto getProduct(Long productId) {
+        ProductDto cached = productCache.get(productId);
+        if (cached != null) {
+            return cached;
+        }
         try {
             String url = traderServiceUrl + "/products/" + productId;
-            return restTemplate.getForObject(url, ProductDto.class);
+            ProductDto product = caller.idempotent("getProduct", () -> restTemplate.getForObject(url, ProductDto.class));
+            return product != null ? cache(product) : null;
         } catch (HttpClientErrorException.NotFound e) {
             return null;
+        } catch (DependencyUnavailableException e) {
+            throw e;
         } catch (Exception e) {
             throw new RuntimeException("Error communicating with trader-service: " + e.getMessage(), e);
         }
     }
     
     /**
-     * Check if product has sufficient stock
+     * Fetch several products, going to trader-service in one round trip for the uncached ones
+     * The returned products never carry a stock level
      * 
-     * @param productId The ID of the product
-     * @param quantity The requested quantity
-     * @return true if sufficient stock available
+     * @param productIds The IDs of the products to fetch
+     * @return Products keyed by ID; missing products are absent from the map
      */
-    public boolean checkStock(Long productId, int quantity) {
+    public Map<Long, ProductDto> getProducts(Collection<Long> productIds) {
+        Map<Long, ProductDto> found = new HashMap<>();
+        List<Long> misses = new ArrayList<>();
+        for (Long productId : productIds) {
+            ProductDto cached = productCache.get(productId);
+            if (cached != null) {
+                found.put(productId, cached);
+            } else {
+                misses.add(productId);
+            }
+        }
+        if (misses.isEmpty()) {
+            return found;
+        }
         try {
-            String url = traderServiceUrl + "/products/" + productId + "/stock?quantity=" + quantity;
-            Boolean hasStock = restTemplate.getForObject(url, Boolean.class);
-            return hasStock != null && hasStock;
+            String ids = misses.stream().map(String::valueOf).collect(Collectors.joining(","));
+            String url = traderServiceUrl + "/products/batch?ids=" + ids;
+            ProductDto[] products = caller.idempotent("getProducts", () -> restTemplate.getForObject(url, ProductDto[].class));
+            if (products != null) {
+                for (ProductDto product : products) {
+                    found.put(product.getId(), cache(product));
+                }
+            }
+            return found;
+        } catch (DependencyUnavailableException e) {
+            throw e;
         } catch (Exception e) {
-            throw new RuntimeException("Error checking stock with trader-service: " + e.getMessage(), e);
+            throw new RuntimeException("Error communicating with trader-service: " + e.getMessage(), e);
+        }
+    }
+    
+    /**
+     * Apply a catalog invalidation published by trader-service
+     * 
+     * @param productId The ID of the product that changed
+     * @param version The product's catalog version after the change
+     */
+    public void invalidateProduct(Long productId, long version) {
+        productCache.invalidate(productId, version);
+    }
+    
+    private ProductDto cache(ProductDto product) {
+        ProductDto catalogData = product.withoutStock();
+        if (catalogData.getVersion() != null) {
+            productCache.put(catalogData.getId(), catalogData, catalogData.getVersion());
         }
+        return catalogData;
     }
     
     /**
-     * Update product stock after successful order
+     * Atomically reserve stock for all lines of an order in one round trip
+     * Either every line is reserved or none is; the reservation expires unless claimed
      * 
-     * @param productId The ID of the product
-     * @param quantity The quantity to reduce
-     * @return true if stock update successful
+     * @param lines The products and quantities to reserve
+     * @return The reservation ID and one result per distinct product
+     * @throws InsufficientStockException if not enough stock available for any line
+     * @throws ProductNotFoundException if any product doesn't exist
      */
-    public boolean updateStock(Long productId, int quantity) {
+    public StockReservationBatchDto reserveStock(List<OrderLineRequest> lines) {
         try {
-            String url = traderServiceUrl + "/products/" + productId + "/stock?quantity=" + quantity;
-            restTemplate.put(url, null);
-            return true;
-        } catch (Exception e) {
-            throw new RuntimeException("Error updating stock with trader-service: " + e.getMessage(), e);
+            String url = traderServiceUrl + "/products/reservations";
+            StockReservationBatchDto reservation = caller.once("reserveStock",
+                    () -> restTemplate.postForObject(url, lines, StockReservationBatchDto.class));
+            if (reservation == null || reservation.getReservationId() == null) {
+                throw new RuntimeException("Empty reservation response from trader-service");
+            }
+            return reservation;
+        } catch (HttpClientErrorException.NotFound e) {
+            throw new ProductNotFoundException(errorMessage(e), e);
+        } catch (HttpClientErrorException.BadRequest e) {
+            throw new InsufficientStockException(errorMessage(e), e);
+        } catch (DependencyUnavailableException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            throw new RuntimeException("Error reserving stock with trader-service: " + e.getMessage(), e);
         }
     }
+    
+    /**
+     * Keep the stock reserved by {@link #reserveStock(List)} for an order that was stored
+     * Retried, since trader-service claims each reservation at most once
+     * 
+     * @param reservationId The ID returned with the reservation
+     * @throws InsufficientStockException if the reservation expired or was released, so its stock is gone
+     */
+    public void claimStock(String reservationId) {
+        try {
+            String url = traderServiceUrl + "/products/reservations/" + reservationId + "/claim";
+            caller.idempotent("claimStock", () -> restTemplate.postForLocation(url, null));
+        } catch (HttpClientErrorException.BadRequest | HttpClientErrorException.NotFound e) {
+            throw new InsufficientStockException(errorMessage(e), e);
+        } catch (DependencyUnavailableException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            throw new RuntimeException("Error claiming stock with trader-service: " + e.getMessage(), e);
+        }
+    }
+    
+    /**
+     * Give back stock reserved by {@link #reserveStock(List)} for an order that was not stored
+     * Retried, since trader-service releases each reservation at most once
+     * 
+     * @param reservationId The ID returned with the reservation
+     */
+    public void releaseStock(String reservationId) {
+        try {
+            String url = traderServiceUrl + "/products/reservations/" + reservationId + "/release";
+            caller.idempotent("releaseStock", () -> restTemplate.postForLocation(url, null));
+        } catch (DependencyUnavailableException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            throw new RuntimeException("Error releasing stock with trader-service: " + e.getMessage(), e);
+        }
+    }
+    
+    private String errorMessage(HttpClientErrorException e) {
+        Map<?, ?> body = e.getResponseBodyAs(Map.class);
+        return body != null && body.get("message") != null ? body.get("message").toString() : e.getMessage();
+    }
 }
@@ -1,17 +1,44 @@
 package com.order.client;
 
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
-import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.RestTemplate;
 
+import com.beemo.common.client.DependencyUnavailableException;
+import com.beemo.common.client.ExistenceCache;
+import com.beemo.common.client.ResilientCaller;
+
+/**
+ * Client for user-service
+ * 
+ * User existence answers are cached (see {@link ExistenceCache}), so most
+ * validations are served locally and cache misses are batched into
+ * {@code POST /validate} on user-service.
+ */
 @Component
 public class UserServiceClient {
     
     private final RestTemplate restTemplate;
-    private final String userServiceUrl = "http://localhost:9001/";
+    private final ResilientCaller caller;
+    private final String userServiceUrl = "http://user-service";
+    private final ExistenceCache<Long> knownUsers;
     
-    public UserServiceClient(RestTemplate restTemplate) {
+    public UserServiceClient(RestTemplate restTemplate,
+                             @Qualifier("userServiceCaller") ResilientCaller caller,
+                             @Value("${order.user-cache.positive-ttl-ms:300000}") long positiveTtlMs,
+                             @Value("${order.user-cache.negative-ttl-ms:30000}") long negativeTtlMs,
+                             @Value("${order.user-cache.max-size:10000}") int maxSize) {
         this.restTemplate = restTemplate;
+        this.caller = caller;
+        this.knownUsers = new ExistenceCache<>(this::fetchExistingUsers,
+            Duration.ofMillis(positiveTtlMs), Duration.ofMillis(negativeTtlMs), maxSize);
     }
     
     /**
@@ -22,13 +49,36 @@ public class UserServiceClient {
      */
     public boolean validateUser(Long userId) {
         try {
-            String url = userServiceUrl + "/users/" + userId + "/validate";
-            Boolean isValid = restTemplate.getForObject(url, Boolean.class);
-            return isValid != null && isValid;
-        } catch (HttpClientErrorException.NotFound e) {
-            return false;
+            return knownUsers.exists(userId);
+        } catch (DependencyUnavailableException e) {
+            throw e;
         } catch (Exception e) {
             throw new RuntimeException("Error communicating with user-service: " + e.getMessage(), e);
         }
     }
+    
+    /**
+     * Find which of several users exist, with one remote call for all uncached IDs
+     * 
+     * @param userIds The IDs of the users to check
+     * @return The subset of the IDs that belong to existing users
+     */
+    public Set<Long> findExistingUsers(Collection<Long> userIds) {
+        try {
+            return knownUsers.existing(userIds);
+        } catch (DependencyUnavailableException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new RuntimeException("Error communicating with user-service: " + e.getMessage(), e);
+        }
+    }
+    
+    /**
+     * A read despite being a POST, so it is retried like a GET
+     */
+    private Set<Long> fetchExistingUsers(Collection<Long> userIds) {
+        String url = userServiceUrl + "/validate";
+        Long[] existing = caller.idempotent("validateUsers", () -> restTemplate.postForObject(url, userIds, Long[].class));
+        return existing == null ? Set.of() : new HashSet<>(Arrays.asList(existing));
+    }
 }
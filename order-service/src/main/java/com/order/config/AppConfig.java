@@ -1,20 +1,121 @@
 package com.order.config;
 
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadPoolExecutor;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.cloud.client.loadbalancer.LoadBalanced;
+import org.springframework.cloud.loadbalancer.annotation.LoadBalancerClients;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.web.client.RestTemplate;
 
+import com.beemo.common.client.ClientPolicy;
+import com.beemo.common.client.HttpClientSettings;
+import com.beemo.common.client.PooledHttpClientFactory;
+import com.beemo.common.client.RegistryPushLoadBalancerConfiguration;
+import com.beemo.common.client.RegistryPushSettings;
+import com.beemo.common.client.RegistrySubscriber;
+import com.beemo.common.client.ResilientCaller;
+import com.beemo.common.security.ServiceIdentity;
+
 @Configuration
+@LoadBalancerClients(defaultConfiguration = RegistryPushLoadBalancerConfiguration.class)
 public class AppConfig {
     
     /**
      * RestTemplate bean with load balancing support for inter-service communication
      * The @LoadBalanced annotation enables service discovery via Eureka
+     * Requests reuse pooled keep-alive connections; {@link ResilientCaller} bounds the whole call
+     * Every request carries this service's signed identity
      */
     @Bean
     @LoadBalanced
-    public RestTemplate restTemplate() {
-        return new RestTemplate();
+    public RestTemplate restTemplate(RestTemplateBuilder restTemplateBuilder, PooledHttpClientFactory httpClientFactory,
+                                     ServiceIdentity serviceIdentity) {
+        return restTemplateBuilder
+                .requestFactory(() -> httpClientFactory)
+                .additionalInterceptors(serviceIdentity)
+                .build();
+    }
+    
+    @Bean
+    @ConfigurationProperties(prefix = "order.clients.http")
+    public HttpClientSettings httpClientSettings() {
+        return new HttpClientSettings();
+    }
+    
+    /**
+     * Connection pool shared by every call to other services, closed on shutdown
+     */
+    @Bean
+    public PooledHttpClientFactory httpClientFactory(HttpClientSettings httpClientSettings) {
+        return new PooledHttpClientFactory(httpClientSettings);
+    }
+    
+    @Bean
+    @ConfigurationProperties(prefix = "order.clients.registry-push")
+    public RegistryPushSettings registryPushSettings() {
+        return new RegistryPushSettings();
+    }
+    
+    /**
+     * Long-polls eureka-server for instance changes, so new replicas are called without waiting for the next registry fetch
+     */
+    @Bean
+    public RegistrySubscriber registrySubscriber(RegistryPushSettings registryPushSettings) {
+        return new RegistrySubscriber(registryPushSettings);
+    }
+    
+    @Bean
+    @ConfigurationProperties(prefix = "order.clients.trader-service")
+    public ClientPolicy traderServicePolicy() {
+        return new ClientPolicy();
+    }
+    
+    @Bean
+    @ConfigurationProperties(prefix = "order.clients.user-service")
+    public ClientPolicy userServicePolicy() {
+        return new ClientPolicy();
+    }
+    
+    /**
+     * Bulkhead, circuit breaker and retries for calls to trader-service
+     */
+    @Bean
+    public ResilientCaller traderServiceCaller(@Qualifier("traderServicePolicy") ClientPolicy policy) {
+        return new ResilientCaller("trader-service", policy);
+    }
+    
+    /**
+     * Bulkhead, circuit breaker and retries for calls to user-service
+     */
+    @Bean
+    public ResilientCaller userServiceCaller(@Qualifier("userServicePolicy") ClientPolicy policy) {
+        return new ResilientCaller("user-service", policy);
+    }
+    
+    /**
+     * Bounded executor used to fan out the remote order validation calls
+     * Requests beyond the queue capacity are rejected (503) rather than run on the request thread
+     * With virtual threads enabled the workers are virtual; the pool size still caps concurrent checks
+     */
+    @Bean(name = "orderValidationExecutor")
+    public Executor orderValidationExecutor(@Value("${order.validation.pool-size:32}") int poolSize,
+                                            @Value("${order.validation.queue-capacity:256}") int queueCapacity,
+                                            @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setVirtualThreads(virtualThreads);
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("order-validation-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.initialize();
+        return executor;
     }
 }
@@ -1,21 +1,55 @@
 package com.order.config;
 
+import java.nio.charset.StandardCharsets;
+
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpStatus;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
+import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.AnonymousAuthenticationFilter;
+import org.springframework.security.web.authentication.HttpStatusEntryPoint;
+
+import com.beemo.common.security.IdentityHeader;
+import com.beemo.common.security.IdentityHeaderFilter;
+import com.beemo.common.security.ServiceIdentity;
+import com.fasterxml.jackson.databind.ObjectMapper;
 
 @Configuration
 @EnableWebSecurity
 public class SecurityConfig {
 
     @Bean
-    public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
+    public IdentityHeader identityHeader(@Value("${beemo.security.identity.secret}") String identitySecret,
+                                         @Value("${beemo.security.identity.cache-size:10000}") int cacheSize) {
+        return new IdentityHeader(identitySecret.getBytes(StandardCharsets.UTF_8), cacheSize);
+    }
+
+    /**
+     * Identity sent on this service's calls to trader-service and user-service
+     */
+    @Bean
+    public ServiceIdentity serviceIdentity(IdentityHeader identityHeader,
+                                           @Value("${spring.application.name}") String serviceName) {
+        return new ServiceIdentity(identityHeader, serviceName);
+    }
+
+    @Bean
+    public SecurityFilterChain filterChain(HttpSecurity http, IdentityHeader identityHeader,
+                                           ObjectMapper objectMapper) throws Exception {
         http
             .csrf(csrf -> csrf.disable())
+            .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+            .exceptionHandling(exceptions -> exceptions.authenticationEntryPoint(new HttpStatusEntryPoint(HttpStatus.UNAUTHORIZED)))
+            .addFilterBefore(new IdentityHeaderFilter(identityHeader, objectMapper), AnonymousAuthenticationFilter.class)
             .authorizeHttpRequests(auth -> auth
-                .requestMatchers("/orders/**","/**").permitAll()
+                // Error pages are dispatched without the identity filter, so they must stay reachable
+                .requestMatchers("/error").permitAll()
+                // Sent by payment-service's outbox relay and trader-service's catalog publisher
+                .requestMatchers("/status-events", "/product-invalidations").hasRole("SERVICE")
                 .anyRequest().authenticated()
             );
         
@@ -0,0 +1,42 @@
+package com.order.controller;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.beemo.common.client.PooledHttpClientFactory;
+import com.beemo.common.client.RegistrySubscriber;
+import com.beemo.common.client.ResilientCaller;
+
+@RestController
+public class ClientMetricsController {
+    
+    private final List<ResilientCaller> callers;
+    private final PooledHttpClientFactory httpClientFactory;
+    private final RegistrySubscriber registrySubscriber;
+    
+    public ClientMetricsController(List<ResilientCaller> callers, PooledHttpClientFactory httpClientFactory,
+                                   RegistrySubscriber registrySubscriber) {
+        this.callers = callers;
+        this.httpClientFactory = httpClientFactory;
+        this.registrySubscriber = registrySubscriber;
+    }
+    
+    /**
+     * Circuit breaker state, bulkhead headroom and per-method call metrics for each downstream service,
+     * plus connection pool usage and registry push state
+     */
+    @GetMapping("/client-metrics")
+    public Map<String, Object> getClientMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        for (ResilientCaller caller : callers) {
+            metrics.put(caller.getDependency(), caller.metrics());
+        }
+        metrics.put("connectionPool", httpClientFactory.metrics());
+        metrics.put("registryPush", registrySubscriber.metrics());
+        return metrics;
+    }
+}
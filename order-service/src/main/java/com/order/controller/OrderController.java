@@ -1,5 +1,6 @@
 package com.order.controller;
 
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -13,9 +14,12 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
-import com.order.dto.OrderRequest;
+import com.beemo.common.order.dto.OrderPage;
+import com.beemo.common.order.dto.OrderRequest;
+import com.beemo.common.order.dto.OrderStatusEvent;
 import com.order.model.Order;
 import com.order.service.OrderService;
+import com.order.service.OrderStatusEventService;
 
 import jakarta.validation.Valid;
 
@@ -23,15 +27,17 @@ import jakarta.validation.Valid;
 public class OrderController {
     
     private final OrderService orderService;
+    private final OrderStatusEventService orderStatusEventService;
     
-    public OrderController(OrderService orderService) {
+    public OrderController(OrderService orderService, OrderStatusEventService orderStatusEventService) {
         this.orderService = orderService;
+        this.orderStatusEventService = orderStatusEventService;
     }
     
     /**
      * Create a new order
      * This endpoint validates the user, checks product availability,
-     * verifies stock, and creates the order if all conditions are met
+     * reserves stock for every line, and creates the order if all conditions are met
      */
     @PostMapping
     public ResponseEntity<Order> createOrder(@Valid @RequestBody OrderRequest orderRequest) {
@@ -40,12 +46,14 @@ public class OrderController {
     }
     
     /**
-     * Get all orders for a specific user
+     * Get a user's orders, newest first, one page at a time
+     * Pass the returned nextCursor back as {@code cursor} to get the following page
      */
     @GetMapping("/user/{userId}")
-    public ResponseEntity<List<Order>> getOrdersByUserId(@PathVariable Long userId) {
-        List<Order> orders = orderService.getOrdersByUserId(userId);
-        return ResponseEntity.ok(orders);
+    public ResponseEntity<OrderPage> getOrdersByUserId(@PathVariable Long userId,
+                                                       @RequestParam(required = false) String cursor,
+                                                       @RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(orderService.getOrdersByUserId(userId, cursor, limit));
     }
     
     /**
@@ -58,12 +66,13 @@ public class OrderController {
     }
     
     /**
-     * Get all orders (admin functionality)
+     * Get all orders, newest first, one page at a time (admin functionality)
      */
     @GetMapping
-    public ResponseEntity<List<Order>> getAllOrders() {
-        List<Order> orders = orderService.getAllOrders();
-        return ResponseEntity.ok(orders);
+    public ResponseEntity<OrderPage> getAllOrders(@RequestParam(required = false) String status,
+                                                  @RequestParam(required = false) String cursor,
+                                                  @RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(orderService.getAllOrders(status, cursor, limit));
     }
     
     /**
@@ -89,15 +98,17 @@ public class OrderController {
                 ));
             }
             
-            return ResponseEntity.ok(Map.of(
-                "orderId", orderId,
-                "status", order.getStatus(),
-                "userId", order.getUserId(),
-                "productId", order.getProductId(),
-                "quantity", order.getQuantity(),
-                "totalPrice", order.getTotalPrice(),
-                "orderDate", order.getOrderDate().toString()
-            ));
+            // productId is null for multi-line orders, which Map.of does not allow
+            Map<String, Object> status = new LinkedHashMap<>();
+            status.put("orderId", orderId);
+            status.put("status", order.getStatus());
+            status.put("userId", order.getUserId());
+            status.put("productId", order.getProductId());
+            status.put("quantity", order.getQuantity());
+            status.put("itemCount", order.getLines().size());
+            status.put("totalPrice", order.getTotalPrice());
+            status.put("orderDate", order.getOrderDate().toString());
+            return ResponseEntity.ok(status);
         } catch (Exception e) {
             return ResponseEntity.ok(Map.of(
                 "orderId", orderId,
@@ -115,4 +126,14 @@ public class OrderController {
         Order updatedOrder = orderService.updateOrderStatus(orderId, status);
         return ResponseEntity.ok(updatedOrder);
     }
+    
+    /**
+     * Receive a batch of order status events from payment-service
+     * Events already applied are ignored, so the sender may safely retry
+     */
+    @PostMapping("/status-events")
+    public ResponseEntity<Map<String, Object>> receiveStatusEvents(@RequestBody List<@Valid OrderStatusEvent> events) {
+        int applied = orderStatusEventService.applyEvents(events);
+        return ResponseEntity.ok(Map.of("received", events.size(), "applied", applied));
+    }
 }
@@ -7,6 +7,13 @@ import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 
+import com.beemo.common.client.DependencyUnavailableException;
+import com.beemo.common.order.exceptions.InsufficientStockException;
+import com.beemo.common.order.exceptions.InvalidPageRequestException;
+import com.beemo.common.order.exceptions.InvalidStatusTransitionException;
+import com.beemo.common.order.exceptions.ProductNotFoundException;
+import com.beemo.common.order.exceptions.UserNotFoundException;
+
 import java.util.HashMap;
 import java.util.Map;
 
@@ -37,6 +44,30 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
     }
 
+    @ExceptionHandler(InvalidPageRequestException.class)
+    public ResponseEntity<Map<String, String>> handleInvalidPageRequestException(InvalidPageRequestException ex) {
+        Map<String, String> error = new HashMap<>();
+        error.put("error", "Invalid Page Request");
+        error.put("message", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+    }
+
+    @ExceptionHandler(InvalidStatusTransitionException.class)
+    public ResponseEntity<Map<String, String>> handleInvalidStatusTransitionException(InvalidStatusTransitionException ex) {
+        Map<String, String> error = new HashMap<>();
+        error.put("error", "Invalid Status Transition");
+        error.put("message", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(error);
+    }
+
+    @ExceptionHandler(DependencyUnavailableException.class)
+    public ResponseEntity<Map<String, String>> handleDependencyUnavailableException(DependencyUnavailableException ex) {
+        Map<String, String> error = new HashMap<>();
+        error.put("error", "Service Unavailable");
+        error.put("message", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(error);
+    }
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<Map<String, String>> handleValidationExceptions(MethodArgumentNotValidException ex) {
         Map<String, String> errors = new HashMap<>();
@@ -1,17 +1,29 @@
 package com.order.model;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
 
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.OneToMany;
 import jakarta.persistence.PrePersist;
 import jakarta.persistence.Table;
 
 @Entity
-@Table(name = "orders")
+@Table(name = "orders", indexes = {
+    @Index(name = "idx_orders_user_date", columnList = "user_id, order_date, id"),
+    @Index(name = "idx_orders_status_date", columnList = "status, order_date, id"),
+    @Index(name = "idx_orders_date", columnList = "order_date, id")
+})
 public class Order {
     
     @Id
@@ -21,9 +33,15 @@ public class Order {
     @Column(nullable = false)
     private Long userId;
     
-    @Column(nullable = false)
+    /**
+     * Product of a single-line order; null for multi-line orders
+     */
+    @Column
     private Long productId;
     
+    /**
+     * Total number of units across all lines
+     */
     @Column(nullable = false)
     private Integer quantity;
     
@@ -36,6 +54,20 @@ public class Order {
     @Column(nullable = false)
     private String status = "PENDING";
     
+    /**
+     * Stock reservation in trader-service; the order is PENDING until it is claimed
+     */
+    @JsonIgnore
+    @Column
+    private String reservationId;
+    
+    /**
+     * Line items, written in bulk by OrderLineRepository rather than cascaded
+     */
+    @OneToMany(fetch = FetchType.LAZY)
+    @JoinColumn(name = "order_id", insertable = false, updatable = false)
+    private List<OrderLine> lines = new ArrayList<>();
+    
     public Order() {
     }
     
@@ -106,4 +138,20 @@ public class Order {
     public void setStatus(String status) {
         this.status = status;
     }
+    
+    public String getReservationId() {
+        return reservationId;
+    }
+    
+    public void setReservationId(String reservationId) {
+        this.reservationId = reservationId;
+    }
+    
+    public List<OrderLine> getLines() {
+        return lines;
+    }
+    
+    public void setLines(List<OrderLine> lines) {
+        this.lines = lines;
+    }
 }
@@ -0,0 +1,40 @@
+package com.order.model;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+/**
+ * ID of an inbound event that has already been applied
+ * Lets event consumers drop redeliveries
+ */
+@Entity
+@Table(name = "processed_events")
+public class ProcessedEvent {
+    
+    @Id
+    @Column(length = 36)
+    private String eventId;
+    
+    @Column(nullable = false)
+    private LocalDateTime processedAt;
+    
+    public ProcessedEvent() {
+    }
+    
+    public ProcessedEvent(String eventId) {
+        this.eventId = eventId;
+        this.processedAt = LocalDateTime.now();
+    }
+    
+    public String getEventId() {
+        return eventId;
+    }
+    
+    public LocalDateTime getProcessedAt() {
+        return processedAt;
+    }
+}
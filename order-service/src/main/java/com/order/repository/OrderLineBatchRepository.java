@@ -0,0 +1,18 @@
+package com.order.repository;
+
+import java.util.List;
+
+import com.order.model.OrderLine;
+
+/**
+ * Bulk write operations for order lines that bypass the JPA persistence context
+ */
+public interface OrderLineBatchRepository {
+    
+    /**
+     * Insert all lines with a single JDBC batch and populate their generated IDs
+     * 
+     * @param lines The lines to insert
+     */
+    void insertAll(List<OrderLine> lines);
+}
@@ -0,0 +1,68 @@
+package com.order.repository;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+
+import com.order.model.OrderLine;
+
+/**
+ * JDBC batch implementation of {@link OrderLineBatchRepository}
+ * 
+ * IDENTITY keys stop Hibernate from batching inserts, so lines are written
+ * with one JDBC batch instead (rewritten into a multi-row INSERT by the
+ * MySQL driver when rewriteBatchedStatements is enabled).
+ */
+public class OrderLineBatchRepositoryImpl implements OrderLineBatchRepository {
+    
+    private static final String INSERT_SQL =
+        "INSERT INTO order_lines (order_id, product_id, quantity, unit_price, line_total) VALUES (?, ?, ?, ?, ?)";
+    
+    private final JdbcTemplate jdbcTemplate;
+    
+    public OrderLineBatchRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+    
+    @Override
+    public void insertAll(List<OrderLine> lines) {
+        if (lines.isEmpty()) {
+            return;
+        }
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(
+            connection -> connection.prepareStatement(INSERT_SQL, Statement.RETURN_GENERATED_KEYS),
+            new BatchPreparedStatementSetter() {
+                @Override
+                public void setValues(PreparedStatement ps, int i) throws SQLException {
+                    OrderLine line = lines.get(i);
+                    ps.setLong(1, line.getOrderId());
+                    ps.setLong(2, line.getProductId());
+                    ps.setInt(3, line.getQuantity());
+                    ps.setDouble(4, line.getUnitPrice());
+                    ps.setDouble(5, line.getLineTotal());
+                }
+                
+                @Override
+                public int getBatchSize() {
+                    return lines.size();
+                }
+            },
+            keyHolder);
+        
+        List<Map<String, Object>> keys = keyHolder.getKeyList();
+        for (int i = 0; i < keys.size() && i < lines.size(); i++) {
+            Object key = keys.get(i).values().stream().findFirst().orElse(null);
+            if (key instanceof Number id) {
+                lines.get(i).setId(id.longValue());
+            }
+        }
+    }
+}
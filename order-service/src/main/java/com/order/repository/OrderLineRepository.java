@@ -0,0 +1,20 @@
+package com.order.repository;
+
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import com.order.model.OrderLine;
+
+@Repository
+public interface OrderLineRepository extends JpaRepository<OrderLine, Long>, OrderLineBatchRepository {
+    
+    /**
+     * Find all lines of an order
+     * 
+     * @param orderId The ID of the order
+     * @return List of lines for the order
+     */
+    List<OrderLine> findByOrderId(Long orderId);
+}
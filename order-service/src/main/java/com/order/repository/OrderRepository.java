@@ -1,15 +1,28 @@
 package com.order.repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import com.beemo.common.order.dto.OrderSummary;
 import com.order.model.Order;
 
 @Repository
 public interface OrderRepository extends JpaRepository<Order, Long> {
     
+    String SUMMARY_SELECT = "SELECT new com.beemo.common.order.dto.OrderSummary(o.id, o.userId, o.status, o.quantity, "
+        + "o.totalPrice, o.orderDate) FROM Order o ";
+    
+    String BEFORE_POSITION = "(o.orderDate < :beforeDate OR (o.orderDate = :beforeDate AND o.id < :beforeId)) ";
+    
+    String SUMMARY_ORDER = "ORDER BY o.orderDate DESC, o.id DESC";
+    
     /**
      * Find all orders for a specific user
      * 
@@ -33,4 +46,52 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
      * @return List of orders with the given status
      */
     List<Order> findByStatus(String status);
+    
+    /**
+     * Page through all orders, newest first, starting after a keyset position
+     * 
+     * @param beforeDate Order date of the last row already returned
+     * @param beforeId ID of the last row already returned
+     * @param limit Maximum number of rows
+     * @return Order summaries older than the position
+     */
+    @Query(SUMMARY_SELECT + "WHERE " + BEFORE_POSITION + SUMMARY_ORDER)
+    List<OrderSummary> findSummariesBefore(@Param("beforeDate") LocalDateTime beforeDate,
+                                           @Param("beforeId") Long beforeId, Limit limit);
+    
+    /**
+     * Page through a user's orders, newest first, starting after a keyset position
+     * Served by the (user_id, order_date, id) index
+     */
+    @Query(SUMMARY_SELECT + "WHERE o.userId = :userId AND " + BEFORE_POSITION + SUMMARY_ORDER)
+    List<OrderSummary> findSummariesByUserIdBefore(@Param("userId") Long userId,
+                                                   @Param("beforeDate") LocalDateTime beforeDate,
+                                                   @Param("beforeId") Long beforeId, Limit limit);
+    
+    /**
+     * Page through orders in one status, newest first, starting after a keyset position
+     * Served by the (status, order_date, id) index
+     */
+    @Query(SUMMARY_SELECT + "WHERE o.status = :status AND " + BEFORE_POSITION + SUMMARY_ORDER)
+    List<OrderSummary> findSummariesByStatusBefore(@Param("status") String status,
+                                                   @Param("beforeDate") LocalDateTime beforeDate,
+                                                   @Param("beforeId") Long beforeId, Limit limit);
+    
+    /**
+     * Find PENDING orders whose stock reservation has not been claimed yet, oldest first
+     * Served by the (status, order_date, id) index
+     */
+    @Query("SELECT o FROM Order o WHERE o.status = 'PENDING' AND o.reservationId IS NOT NULL "
+        + "ORDER BY o.orderDate, o.id")
+    List<Order> findUnclaimed(Limit limit);
+    
+    /**
+     * Move an order from one status to another, only if it is still in the first one
+     * The reservation is cleared, since the order no longer waits for it
+     * 
+     * @return 1 if the order moved, 0 if its status had changed meanwhile
+     */
+    @Modifying
+    @Query("UPDATE Order o SET o.status = :to, o.reservationId = NULL WHERE o.id = :id AND o.status = :from")
+    int settleReservation(@Param("id") Long id, @Param("from") String from, @Param("to") String to);
 }
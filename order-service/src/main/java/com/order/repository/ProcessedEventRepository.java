@@ -0,0 +1,24 @@
+package com.order.repository;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.order.model.ProcessedEvent;
+
+@Repository
+public interface ProcessedEventRepository extends JpaRepository<ProcessedEvent, String> {
+    
+    /**
+     * Find which of the given event IDs have already been applied
+     * 
+     * @param eventIds The event IDs to check
+     * @return The subset that has been processed
+     */
+    @Query("SELECT e.eventId FROM ProcessedEvent e WHERE e.eventId IN :eventIds")
+    List<String> findProcessedIds(@Param("eventIds") Collection<String> eventIds);
+}
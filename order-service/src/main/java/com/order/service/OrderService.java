@@ -1,100 +1,217 @@
 package com.order.service;
 
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Base64;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import com.beemo.common.order.dto.OrderLineRequest;
+import com.beemo.common.order.dto.OrderPage;
+import com.beemo.common.order.dto.OrderRequest;
+import com.beemo.common.order.dto.OrderSummary;
+import com.beemo.common.order.dto.StockReservationBatchDto;
+import com.beemo.common.order.dto.StockReservationDto;
+import com.beemo.common.order.exceptions.InsufficientStockException;
+import com.beemo.common.order.exceptions.InvalidPageRequestException;
+import com.beemo.common.order.exceptions.InvalidStatusTransitionException;
+import com.beemo.common.order.exceptions.ProductNotFoundException;
+import com.beemo.common.order.exceptions.UserNotFoundException;
 import com.order.client.TraderServiceClient;
-import com.order.client.UserServiceClient;
-import com.order.dto.OrderRequest;
-import com.order.dto.ProductDto;
-import com.order.exceptions.InsufficientStockException;
-import com.order.exceptions.ProductNotFoundException;
-import com.order.exceptions.UserNotFoundException;
 import com.order.model.Order;
+import com.order.model.OrderLine;
+import com.order.model.OrderStatus;
+import com.order.repository.OrderLineRepository;
 import com.order.repository.OrderRepository;
 
 @Service
 @Transactional
 public class OrderService {
     
+    private static final Logger logger = LoggerFactory.getLogger(OrderService.class);
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int CLAIM_RETRY_BATCH = 100;
+    
     private final OrderRepository orderRepository;
-    private final UserServiceClient userServiceClient;
+    private final OrderLineRepository orderLineRepository;
+    private final OrderValidationService orderValidationService;
     private final TraderServiceClient traderServiceClient;
+    private final TransactionTemplate transactionTemplate;
     
     public OrderService(OrderRepository orderRepository, 
-                        UserServiceClient userServiceClient, 
-                        TraderServiceClient traderServiceClient) {
+                        OrderLineRepository orderLineRepository,
+                        OrderValidationService orderValidationService, 
+                        TraderServiceClient traderServiceClient,
+                        TransactionTemplate transactionTemplate) {
         this.orderRepository = orderRepository;
-        this.userServiceClient = userServiceClient;
+        this.orderLineRepository = orderLineRepository;
+        this.orderValidationService = orderValidationService;
         this.traderServiceClient = traderServiceClient;
+        this.transactionTemplate = transactionTemplate;
     }
     
     /**
      * Create a new order with comprehensive validation
      * 
-     * @param orderRequest The order request containing user ID, product ID, and quantity
-     * @return The created order
+     * Remote validation and the stock reservation run before any transaction
+     * is opened, so the database connection is only held for the insert and
+     * the line batch. The order is stored PENDING with its reservation, and
+     * only moves to CONFIRMED once the reservation is claimed; if storing it
+     * fails, the reservation is released again. If the claim cannot get
+     * through, the order stays PENDING and {@link #retryUnclaimedReservations}
+     * claims it later, so an order is never CONFIRMED on stock that its
+     * expired reservation gave back.
+     * 
+     * @param orderRequest The order request containing the user ID and the lines to order
+     * @return The created order, CONFIRMED or, if the claim is still being retried, PENDING
      * @throws UserNotFoundException if user doesn't exist
-     * @throws ProductNotFoundException if product doesn't exist
-     * @throws InsufficientStockException if not enough stock available
+     * @throws ProductNotFoundException if a product doesn't exist
+     * @throws InsufficientStockException if not enough stock available for a line, or the
+     *         reservation expired before it could be claimed (the order is then CANCELLED)
      */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public Order createOrder(OrderRequest orderRequest) {
-        // Step 1: Validate user exists
-        if (!userServiceClient.validateUser(orderRequest.getUserId())) {
-            throw new UserNotFoundException("User with ID " + orderRequest.getUserId() + " not found");
-        }
-        
-        // Step 2: Fetch product details
-        ProductDto product = traderServiceClient.getProduct(orderRequest.getProductId());
-        if (product == null) {
-            throw new ProductNotFoundException("Product with ID " + orderRequest.getProductId() + " not found");
-        }
-        
-        // Step 3: Check stock availability
-        if (!traderServiceClient.checkStock(orderRequest.getProductId(), orderRequest.getQuantity())) {
-            throw new InsufficientStockException("Insufficient stock for product " + product.getName() + 
-                ". Requested: " + orderRequest.getQuantity() + ", Available: " + product.getStock());
-        }
+        List<OrderLineRequest> lineRequests = orderRequest.toLines();
         
-        // Step 4: Calculate total price
-        double totalPrice = product.getPrice() * orderRequest.getQuantity();
+        // Step 1: Validate user and products
+        orderValidationService.validate(orderRequest);
         
-        // Step 5: Create order
-        Order order = new Order(
-            orderRequest.getUserId(),
-            orderRequest.getProductId(),
-            orderRequest.getQuantity(),
-            totalPrice
-        );
+        // Step 2: Check-and-decrement for every line, atomically in trader-service
+        StockReservationBatchDto reservation = traderServiceClient.reserveStock(lineRequests);
+        Map<Long, Double> reservedPrices = reservation.getLines().stream()
+            .collect(Collectors.toMap(StockReservationDto::getProductId, StockReservationDto::getPrice));
         
-        // Step 6: Save order
-        Order savedOrder = orderRepository.save(order);
-        
-        // Step 7: Update product stock
-        boolean stockUpdated = traderServiceClient.updateStock(
-            orderRequest.getProductId(), 
-            orderRequest.getQuantity()
-        );
+        // Step 3: Price the order at the reserved prices
+        List<OrderLine> lines = new ArrayList<>(lineRequests.size());
+        double totalPrice = 0;
+        int totalQuantity = 0;
+        for (OrderLineRequest lineRequest : lineRequests) {
+            OrderLine line = new OrderLine(null, lineRequest.getProductId(), lineRequest.getQuantity(),
+                reservedPrices.get(lineRequest.getProductId()));
+            lines.add(line);
+            totalPrice += line.getLineTotal();
+            totalQuantity += lineRequest.getQuantity();
+        }
+        Long singleProductId = lineRequests.size() == 1 ? lineRequests.get(0).getProductId() : null;
+        Order order = new Order(orderRequest.getUserId(), singleProductId, totalQuantity, totalPrice);
+        order.setStatus(OrderStatus.PENDING.name());
+        order.setReservationId(reservation.getReservationId());
         
-        if (!stockUpdated) {
-            throw new RuntimeException("Failed to update product stock");
+        // Step 4: Insert the order and its lines, then claim the stock
+        Order savedOrder;
+        try {
+            savedOrder = transactionTemplate.execute(status -> {
+                Order inserted = orderRepository.save(order);
+                lines.forEach(line -> line.setOrderId(inserted.getId()));
+                orderLineRepository.insertAll(lines);
+                return inserted;
+            });
+        } catch (RuntimeException e) {
+            releaseReservation(reservation.getReservationId(), e);
+            throw e;
+        }
+        if (claimReservation(savedOrder)) {
+            savedOrder.setStatus(OrderStatus.CONFIRMED.name());
+            savedOrder.setReservationId(null);
         }
         
-        // Step 8: Update order status to confirmed
-        savedOrder.setStatus("CONFIRMED");
-        return orderRepository.save(savedOrder);
+        // Attach the lines once the order is detached so Hibernate never flushes them
+        savedOrder.setLines(lines);
+        return savedOrder;
+    }
+    
+    /**
+     * Compensate a reservation whose order could not be stored
+     */
+    private void releaseReservation(String reservationId, RuntimeException cause) {
+        try {
+            traderServiceClient.releaseStock(reservationId);
+        } catch (RuntimeException e) {
+            // The reservation expires in trader-service; keep the original failure as the one reported
+            cause.addSuppressed(e);
+        }
+    }
+    
+    /**
+     * Claim the reservation of a PENDING order and confirm the order
+     * 
+     * @return true if the order was confirmed, false if the claim could not get through and is retried later
+     * @throws InsufficientStockException if the reservation expired or was released; the order is cancelled
+     */
+    private boolean claimReservation(Order order) {
+        try {
+            traderServiceClient.claimStock(order.getReservationId());
+        } catch (InsufficientStockException e) {
+            settleReservation(order, OrderStatus.CANCELLED);
+            logger.warn("Cancelled order {}: stock reservation {} was no longer held", order.getId(),
+                order.getReservationId());
+            throw e;
+        } catch (RuntimeException e) {
+            logger.warn("Could not claim stock reservation {} for order {}, retrying later: {}",
+                order.getReservationId(), order.getId(), e.getMessage());
+            return false;
+        }
+        settleReservation(order, OrderStatus.CONFIRMED);
+        return true;
+    }
+    
+    private void settleReservation(Order order, OrderStatus status) {
+        transactionTemplate.execute(tx -> orderRepository.settleReservation(order.getId(),
+            OrderStatus.PENDING.name(), status.name()));
+    }
+    
+    /**
+     * Claim the reservations of orders left PENDING by a failed claim
+     * 
+     * Runs well within trader-service's reservation TTL, so a claim that failed
+     * because trader-service was briefly unreachable is retried before the
+     * reservation expires. Orders whose reservation expired anyway are
+     * cancelled. A run stops at the first claim that still cannot get through.
+     */
+    @Scheduled(fixedDelayString = "${order.reservations.claim-retry-interval-ms:10000}")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void retryUnclaimedReservations() {
+        List<Order> unclaimed;
+        do {
+            unclaimed = orderRepository.findUnclaimed(Limit.of(CLAIM_RETRY_BATCH));
+            for (Order order : unclaimed) {
+                try {
+                    if (!claimReservation(order)) {
+                        return;
+                    }
+                } catch (InsufficientStockException e) {
+                    // Cancelled; carry on with the next order
+                }
+            }
+        } while (unclaimed.size() == CLAIM_RETRY_BATCH);
     }
     
     /**
-     * Get all orders for a specific user
+     * Get one page of a user's orders, newest first
      * 
      * @param userId The ID of the user
-     * @return List of orders for the user
+     * @param cursor The cursor returned with the previous page, or null for the first page
+     * @param limit The page size, between 1 and 100
+     * @return The page and, if more orders follow, the cursor for the next one
      */
-    public List<Order> getOrdersByUserId(Long userId) {
-        return orderRepository.findByUserId(userId);
+    @Transactional(readOnly = true)
+    public OrderPage getOrdersByUserId(Long userId, String cursor, int limit) {
+        checkLimit(limit);
+        OrderCursor position = OrderCursor.decode(cursor);
+        return toPage(orderRepository.findSummariesByUserIdBefore(userId, position.orderDate(), position.id(),
+            Limit.of(limit + 1)), limit);
     }
     
     /**
@@ -108,16 +225,26 @@ public class OrderService {
     }
     
     /**
-     * Get all orders
+     * Get one page of all orders, newest first (admin functionality)
      * 
-     * @return List of all orders
+     * @param status Only return orders in this status, or null for every status
+     * @param cursor The cursor returned with the previous page, or null for the first page
+     * @param limit The page size, between 1 and 100
+     * @return The page and, if more orders follow, the cursor for the next one
      */
-    public List<Order> getAllOrders() {
-        return orderRepository.findAll();
+    @Transactional(readOnly = true)
+    public OrderPage getAllOrders(String status, String cursor, int limit) {
+        checkLimit(limit);
+        OrderCursor position = OrderCursor.decode(cursor);
+        List<OrderSummary> rows = status == null
+            ? orderRepository.findSummariesBefore(position.orderDate(), position.id(), Limit.of(limit + 1))
+            : orderRepository.findSummariesByStatusBefore(status, position.orderDate(), position.id(),
+                Limit.of(limit + 1));
+        return toPage(rows, limit);
     }
     
     /**
-     * Cancel an order (only if status is PENDING or CONFIRMED)
+     * Cancel an order (not once it is delivered, cancelled or refunded)
      * 
      * @param orderId The ID of the order to cancel
      * @return The cancelled order
@@ -128,11 +255,7 @@ public class OrderService {
             throw new RuntimeException("Order with ID " + orderId + " not found");
         }
         
-        if ("CANCELLED".equals(order.getStatus()) || "DELIVERED".equals(order.getStatus())) {
-            throw new RuntimeException("Cannot cancel order with status: " + order.getStatus());
-        }
-        
-        order.setStatus("CANCELLED");
+        moveTo(order, OrderStatus.CANCELLED.name());
         return orderRepository.save(order);
     }
     
@@ -149,7 +272,7 @@ public class OrderService {
             throw new RuntimeException("Order with ID " + orderId + " not found");
         }
         
-        order.setStatus(status);
+        moveTo(order, status);
         return orderRepository.save(order);
     }
     
@@ -166,4 +289,59 @@ public class OrderService {
         }
         return order.getStatus();
     }
+    
+    private static void moveTo(Order order, String status) {
+        if (!OrderStatus.canMove(order.getStatus(), status)) {
+            throw new InvalidStatusTransitionException(
+                "Cannot change order " + order.getId() + " from " + order.getStatus() + " to " + status);
+        }
+        order.setStatus(status);
+    }
+    
+    private static void checkLimit(int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new InvalidPageRequestException("Limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+    }
+    
+    /**
+     * One row past the limit was fetched; its presence means another page follows
+     */
+    private static OrderPage toPage(List<OrderSummary> rows, int limit) {
+        if (rows.size() <= limit) {
+            return new OrderPage(rows, null);
+        }
+        List<OrderSummary> items = rows.subList(0, limit);
+        OrderSummary last = items.get(limit - 1);
+        return new OrderPage(new ArrayList<>(items), new OrderCursor(last.getOrderDate(), last.getId()).encode());
+    }
+    
+    /**
+     * Keyset position in (orderDate, id) descending order
+     * Clients see it as an opaque base64url token
+     */
+    private record OrderCursor(LocalDateTime orderDate, Long id) {
+        
+        /** Sorts before every real order, so the first page starts from the top */
+        static final OrderCursor START = new OrderCursor(LocalDateTime.of(9999, 12, 31, 23, 59, 59), Long.MAX_VALUE);
+        
+        String encode() {
+            String position = orderDate + "~" + id;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(StandardCharsets.UTF_8));
+        }
+        
+        static OrderCursor decode(String cursor) {
+            if (cursor == null || cursor.isEmpty()) {
+                return START;
+            }
+            try {
+                String position = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+                int separator = position.indexOf('~');
+                return new OrderCursor(LocalDateTime.parse(position.substring(0, separator)),
+                    Long.valueOf(position.substring(separator + 1)));
+            } catch (IllegalArgumentException | DateTimeParseException | StringIndexOutOfBoundsException e) {
+                throw new InvalidPageRequestException("Invalid cursor");
+            }
+        }
+    }
 }
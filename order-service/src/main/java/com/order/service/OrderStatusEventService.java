@@ -0,0 +1,77 @@
+package com.order.service;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.beemo.common.order.dto.OrderStatusEvent;
+import com.order.model.Order;
+import com.order.model.OrderStatus;
+import com.order.model.ProcessedEvent;
+import com.order.repository.OrderRepository;
+import com.order.repository.ProcessedEventRepository;
+
+/**
+ * Applies order status events relayed from payment-service
+ * 
+ * Delivery is at least once, so every event ID is recorded in the same
+ * transaction as the status change and redelivered events are skipped.
+ * Events that would make a transition {@link OrderStatus} does not allow,
+ * such as PAID arriving after the order was cancelled, are recorded and dropped.
+ */
+@Service
+public class OrderStatusEventService {
+    
+    private static final Logger logger = LoggerFactory.getLogger(OrderStatusEventService.class);
+    
+    private final OrderRepository orderRepository;
+    private final ProcessedEventRepository processedEventRepository;
+    
+    public OrderStatusEventService(OrderRepository orderRepository,
+                                   ProcessedEventRepository processedEventRepository) {
+        this.orderRepository = orderRepository;
+        this.processedEventRepository = processedEventRepository;
+    }
+    
+    /**
+     * Apply a batch of status events in order
+     * 
+     * @param events The events, oldest first
+     * @return The number of events applied, excluding duplicates and disallowed transitions
+     */
+    @Transactional
+    public int applyEvents(List<OrderStatusEvent> events) {
+        Set<String> seen = new HashSet<>(processedEventRepository.findProcessedIds(
+            events.stream().map(OrderStatusEvent::getEventId).toList()));
+        Map<Long, Order> orders = orderRepository.findAllById(
+                events.stream().map(OrderStatusEvent::getOrderId).distinct().toList()).stream()
+            .collect(Collectors.toMap(Order::getId, Function.identity()));
+        
+        int applied = 0;
+        for (OrderStatusEvent event : events) {
+            if (!seen.add(event.getEventId())) {
+                continue;
+            }
+            Order order = orders.get(event.getOrderId());
+            if (order == null) {
+                logger.warn("Dropping status event {} for unknown order {}", event.getEventId(), event.getOrderId());
+            } else if (!OrderStatus.canMove(order.getStatus(), event.getStatus())) {
+                logger.warn("Dropping status event {}: order {} cannot move from {} to {}",
+                            event.getEventId(), order.getId(), order.getStatus(), event.getStatus());
+            } else {
+                order.setStatus(event.getStatus());
+                applied++;
+            }
+            processedEventRepository.save(new ProcessedEvent(event.getEventId()));
+        }
+        return applied;
+    }
+}
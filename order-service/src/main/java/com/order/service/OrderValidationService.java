@@ -0,0 +1,169 @@
+package com.order.service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.beemo.common.client.DependencyUnavailableException;
+import com.beemo.common.order.dto.OrderLineRequest;
+import com.beemo.common.order.dto.OrderRequest;
+import com.beemo.common.order.dto.ProductDto;
+import com.beemo.common.order.exceptions.ProductNotFoundException;
+import com.beemo.common.order.exceptions.UserNotFoundException;
+import com.order.client.TraderServiceClient;
+import com.order.client.UserServiceClient;
+
+/**
+ * Runs the remote checks that must pass before an order is persisted.
+ *
+ * In concurrent mode the user check and the bulk product lookup are fanned
+ * out in parallel, so validation takes as long as the slowest dependency
+ * instead of the sum of all of them. The request waits at most
+ * {@code order.validation.call-timeout-ms} for each call and then answers
+ * 503; the call itself is ended by the HTTP client's read timeout and its
+ * caller's retry deadline, which free its worker. When every worker is busy
+ * and the queue is full, the order is rejected instead of validated on the
+ * request thread.
+ * Sequential mode keeps the original one-call-at-a-time behaviour.
+ * Stock is not checked here: it is reserved atomically when the order is
+ * persisted. No database transaction is open while this runs.
+ */
+@Service
+public class OrderValidationService {
+
+    private final UserServiceClient userServiceClient;
+    private final TraderServiceClient traderServiceClient;
+    private final Executor validationExecutor;
+    private final boolean concurrent;
+    private final long callTimeoutMs;
+
+    public OrderValidationService(UserServiceClient userServiceClient,
+                                  TraderServiceClient traderServiceClient,
+                                  @Qualifier("orderValidationExecutor") Executor validationExecutor,
+                                  @Value("${order.validation.concurrent:true}") boolean concurrent,
+                                  @Value("${order.validation.call-timeout-ms:2000}") long callTimeoutMs) {
+        this.userServiceClient = userServiceClient;
+        this.traderServiceClient = traderServiceClient;
+        this.validationExecutor = validationExecutor;
+        this.concurrent = concurrent;
+        this.callTimeoutMs = callTimeoutMs;
+    }
+
+    /**
+     * Validate the user and every product of an order request
+     *
+     * @param orderRequest The order request to validate
+     * @return The products being ordered, keyed by ID
+     * @throws UserNotFoundException if user doesn't exist
+     * @throws ProductNotFoundException if product doesn't exist
+     * @throws DependencyUnavailableException if the validation pool is saturated or a call misses its deadline
+     */
+    public Map<Long, ProductDto> validate(OrderRequest orderRequest) {
+        return concurrent ? validateConcurrently(orderRequest) : validateSequentially(orderRequest);
+    }
+
+    private Map<Long, ProductDto> validateSequentially(OrderRequest orderRequest) {
+        List<OrderLineRequest> lines = orderRequest.toLines();
+        checkUser(orderRequest, userServiceClient.validateUser(orderRequest.getUserId()));
+        return checkProducts(lines, traderServiceClient.getProducts(productIds(lines)));
+    }
+
+    private Map<Long, ProductDto> validateConcurrently(OrderRequest orderRequest) {
+        List<OrderLineRequest> lines = orderRequest.toLines();
+        CompletableFuture<Boolean> userCall = submit("user-service",
+            () -> userServiceClient.validateUser(orderRequest.getUserId()));
+        CompletableFuture<Map<Long, ProductDto>> productCall;
+        try {
+            productCall = submit("trader-service", () -> traderServiceClient.getProducts(productIds(lines)));
+        } catch (DependencyUnavailableException e) {
+            // Keep the user check from running for an order that is already rejected
+            userCall.cancel(false);
+            throw e;
+        }
+        CompletableFuture<Boolean> userCheck = withDeadline("user-service", userCall);
+        CompletableFuture<Map<Long, ProductDto>> productLookup = withDeadline("trader-service", productCall);
+
+        try {
+            CompletableFuture.allOf(userCheck, productLookup).join();
+        } catch (CompletionException e) {
+            // Report failures in the same order the sequential pipeline would
+            rethrowIfFailed(userCheck);
+            rethrowIfFailed(productLookup);
+            throw unwrap(e);
+        }
+
+        checkUser(orderRequest, userCheck.join());
+        return checkProducts(lines, productLookup.join());
+    }
+
+    private <T> CompletableFuture<T> submit(String dependency, Supplier<T> remoteCall) {
+        try {
+            return CompletableFuture.supplyAsync(remoteCall, validationExecutor);
+        } catch (RejectedExecutionException e) {
+            throw new DependencyUnavailableException("Too many orders in validation to call " + dependency);
+        }
+    }
+
+    private <T> CompletableFuture<T> withDeadline(String dependency, CompletableFuture<T> call) {
+        return call.orTimeout(callTimeoutMs, TimeUnit.MILLISECONDS)
+            .exceptionally(e -> {
+                if (rootCause(e) instanceof TimeoutException) {
+                    throw new DependencyUnavailableException(
+                        "Timed out after " + callTimeoutMs + "ms waiting for " + dependency);
+                }
+                throw unwrap(e);
+            });
+    }
+
+    private void rethrowIfFailed(CompletableFuture<?> future) {
+        if (future.isCompletedExceptionally()) {
+            try {
+                future.join();
+            } catch (CompletionException e) {
+                throw unwrap(e);
+            }
+        }
+    }
+
+    private static Throwable rootCause(Throwable e) {
+        Throwable cause = e;
+        while (cause instanceof CompletionException && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        return cause;
+    }
+
+    private static RuntimeException unwrap(Throwable e) {
+        Throwable cause = rootCause(e);
+        return cause instanceof RuntimeException runtime ? runtime : new RuntimeException(cause);
+    }
+
+    private void checkUser(OrderRequest orderRequest, boolean userExists) {
+        if (!userExists) {
+            throw new UserNotFoundException("User with ID " + orderRequest.getUserId() + " not found");
+        }
+    }
+
+    private Map<Long, ProductDto> checkProducts(List<OrderLineRequest> lines, Map<Long, ProductDto> products) {
+        for (OrderLineRequest line : lines) {
+            if (!products.containsKey(line.getProductId())) {
+                throw new ProductNotFoundException("Product with ID " + line.getProductId() + " not found");
+            }
+        }
+        return products;
+    }
+
+    private static List<Long> productIds(List<OrderLineRequest> lines) {
+        return lines.stream().map(OrderLineRequest::getProductId).distinct().toList();
+    }
+}
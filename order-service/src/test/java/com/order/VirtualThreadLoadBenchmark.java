@@ -0,0 +1,196 @@
+package com.order;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.catalina.connector.Connector;
+import org.apache.coyote.AbstractProtocol;
+import org.apache.tomcat.util.threads.VirtualThreadExecutor;
+import org.springframework.boot.web.embedded.tomcat.TomcatServletWebServerFactory;
+import org.springframework.boot.web.server.WebServer;
+
+import com.beemo.common.runtime.VirtualThreadPinningMonitor;
+
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Load test comparing Tomcat on its platform thread pool with Tomcat on virtual threads
+ *
+ * Each request waits {@code workMs}, standing in for the RestTemplate and
+ * JDBC calls order-service requests spend most of their time in. With the
+ * default 200 platform threads, throughput stops growing at 200 concurrent
+ * requests and latency grows instead; on virtual threads it keeps scaling
+ * with concurrency. A third run waits inside {@code synchronized}, which pins
+ * each virtual thread to a carrier and brings the ceiling back down to the
+ * carrier count; {@link VirtualThreadPinningMonitor} reports the site.
+ *
+ * Not a unit test; run it from the IDE or with the test classpath:
+ *
+ * <pre>
+ * java -cp target/classes:target/test-classes:... com.order.VirtualThreadLoadBenchmark [concurrency levels] [work ms] [seconds per level]
+ * </pre>
+ */
+public class VirtualThreadLoadBenchmark {
+
+    private static final int PLATFORM_MAX_THREADS = 200;
+
+    enum Mode {
+        PLATFORM, VIRTUAL, VIRTUAL_PINNED
+    }
+
+    public static void main(String[] args) throws Exception {
+        int[] levels = args.length > 0
+                ? Arrays.stream(args[0].split(",")).mapToInt(Integer::parseInt).toArray()
+                : new int[] { 100, 200, 400, 800 };
+        long workMs = args.length > 1 ? Long.parseLong(args[1]) : 200;
+        int seconds = args.length > 2 ? Integer.parseInt(args[2]) : 5;
+
+        VirtualThreadPinningMonitor monitor = new VirtualThreadPinningMonitor(Duration.ofMillis(20));
+        monitor.afterPropertiesSet();
+        HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        try {
+            System.out.printf("%-15s %11s %10s %10s %10s %8s%n", "mode", "concurrency", "req/s", "p50 ms", "p99 ms", "errors");
+            for (Mode mode : Mode.values()) {
+                WebServer server = start(mode, workMs);
+                try {
+                    URI uri = URI.create("http://localhost:" + server.getPort() + "/work");
+                    // Open connections and warm up before measuring
+                    run(client, uri, levels[0], 1);
+                    for (int level : levels) {
+                        Result result = run(client, uri, level, seconds);
+                        System.out.printf("%-15s %11d %10.0f %10.1f %10.1f %8d%n", mode, level, result.throughput(),
+                                result.percentile(0.50), result.percentile(0.99), result.errors());
+                    }
+                } finally {
+                    server.stop();
+                }
+            }
+            Map<String, Long> pinned = monitor.counts();
+            System.out.println("Pinned sites reported: " + (pinned.isEmpty() ? "none" : pinned));
+        } finally {
+            client.shutdownNow();
+            monitor.destroy();
+        }
+        // Requests queued behind the pinned carriers would otherwise keep the JVM up for minutes
+        System.exit(0);
+    }
+
+    private static WebServer start(Mode mode, long workMs) {
+        TomcatServletWebServerFactory factory = new TomcatServletWebServerFactory(0);
+        if (mode == Mode.PLATFORM) {
+            factory.addConnectorCustomizers((Connector connector) ->
+                    ((AbstractProtocol<?>) connector.getProtocolHandler()).setMaxThreads(PLATFORM_MAX_THREADS));
+        } else {
+            // What spring.threads.virtual.enabled does to Tomcat
+            factory.addProtocolHandlerCustomizers(handler -> handler.setExecutor(new VirtualThreadExecutor("tomcat-handler-")));
+        }
+        WorkServlet servlet = new WorkServlet(workMs, mode == Mode.VIRTUAL_PINNED);
+        WebServer server = factory.getWebServer(context -> context.addServlet("work", servlet).addMapping("/work"));
+        server.start();
+        return server;
+    }
+
+    private static Result run(HttpClient client, URI uri, int concurrency, int seconds) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(uri).timeout(Duration.ofSeconds(10)).build();
+        long started = System.nanoTime();
+        long deadline = started + Duration.ofSeconds(seconds).toNanos();
+        AtomicInteger errors = new AtomicInteger();
+        List<Future<List<Long>>> workers = new ArrayList<>();
+        // Platform threads, so the load generator does not compete with the server for carrier threads
+        try (ExecutorService pool = Executors.newThreadPerTaskExecutor(Thread.ofPlatform().daemon().factory())) {
+            for (int i = 0; i < concurrency; i++) {
+                workers.add(pool.submit(() -> {
+                    List<Long> latencies = new ArrayList<>();
+                    while (System.nanoTime() < deadline) {
+                        long sent = System.nanoTime();
+                        try {
+                            HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                            if (response.statusCode() == 200) {
+                                latencies.add(System.nanoTime() - sent);
+                            } else {
+                                errors.incrementAndGet();
+                            }
+                        } catch (IOException e) {
+                            // Includes requests timed out behind pinned carriers
+                            errors.incrementAndGet();
+                        }
+                    }
+                    return latencies;
+                }));
+            }
+        }
+        // Requests still in flight at the deadline finish late, so measure the whole run
+        long elapsed = System.nanoTime() - started;
+        List<Long> latencies = new ArrayList<>();
+        for (Future<List<Long>> worker : workers) {
+            latencies.addAll(worker.get());
+        }
+        latencies.sort(null);
+        return new Result(latencies, errors.get(), elapsed);
+    }
+
+    private record Result(List<Long> latencies, int errors, long elapsedNanos) {
+
+        double throughput() {
+            return latencies.size() / (elapsedNanos / 1e9);
+        }
+
+        double percentile(double quantile) {
+            if (latencies.isEmpty()) {
+                return Double.NaN;
+            }
+            return latencies.get((int) Math.min(latencies.size() - 1, Math.floor(quantile * latencies.size()))) / 1e6;
+        }
+    }
+
+    /**
+     * Waits as a request waiting on a downstream call would, optionally while holding a monitor
+     */
+    private static final class WorkServlet extends HttpServlet {
+
+        private final long workMs;
+        private final boolean pinned;
+        /** Spread over many monitors so requests pin their carriers without contending with each other */
+        private final Object[] monitors = new Object[4096];
+        private final AtomicInteger next = new AtomicInteger();
+
+        WorkServlet(long workMs, boolean pinned) {
+            this.workMs = workMs;
+            this.pinned = pinned;
+            for (int i = 0; i < monitors.length; i++) {
+                monitors[i] = new Object();
+            }
+        }
+
+        @Override
+        protected void doGet(HttpServletRequest request, HttpServletResponse response) throws IOException {
+            try {
+                if (pinned) {
+                    synchronized (monitors[Math.floorMod(next.getAndIncrement(), monitors.length)]) {
+                        Thread.sleep(workMs);
+                    }
+                } else {
+                    Thread.sleep(workMs);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            response.setContentType("text/plain");
+            response.getWriter().write("ok");
+        }
+    }
+}
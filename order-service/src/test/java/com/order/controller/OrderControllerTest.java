@@ -0,0 +1,128 @@
+package com.order.controller;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+
+import com.jayway.jsonpath.JsonPath;
+
+import com.beemo.common.client.ClientPolicy;
+import com.beemo.common.client.ResilientCaller;
+import com.beemo.common.order.dto.OrderSummary;
+import com.beemo.common.order.dto.StockReservationBatchDto;
+import com.order.client.TraderServiceClient;
+import com.order.exceptions.GlobalExceptionHandler;
+import com.order.repository.OrderLineRepository;
+import com.order.repository.OrderRepository;
+import com.order.service.OrderService;
+import com.order.service.OrderStatusEventService;
+import com.order.service.OrderValidationService;
+
+class OrderControllerTest {
+    
+    private static final String ORDER = "{\"userId\":1,\"productId\":7,\"quantity\":2}";
+    
+    private static final LocalDateTime NOW = LocalDateTime.of(2024, 5, 1, 12, 0);
+    
+    private final RestTemplate restTemplate = mock(RestTemplate.class);
+    private final OrderRepository orderRepository = mock(OrderRepository.class);
+    private MockMvc mockMvc;
+    
+    @BeforeEach
+    void setUp() {
+        TraderServiceClient traderServiceClient =
+            new TraderServiceClient(restTemplate, new ResilientCaller("trader-service", policy()), 60_000, 100);
+        OrderService orderService = new OrderService(orderRepository, mock(OrderLineRepository.class),
+            mock(OrderValidationService.class), traderServiceClient, mock(TransactionTemplate.class));
+        mockMvc = MockMvcBuilders
+            .standaloneSetup(new OrderController(orderService, mock(OrderStatusEventService.class)))
+            .setControllerAdvice(new GlobalExceptionHandler())
+            .build();
+    }
+    
+    @Test
+    void openTraderBreakerIsReportedAsServiceUnavailable() throws Exception {
+        when(restTemplate.postForObject(anyString(), any(), eq(StockReservationBatchDto.class)))
+            .thenThrow(new ResourceAccessException("connection refused"));
+        
+        // Two failed reservations open the breaker
+        for (int i = 0; i < 2; i++) {
+            mockMvc.perform(post("/").contentType(MediaType.APPLICATION_JSON).content(ORDER))
+                .andExpect(status().isInternalServerError());
+        }
+        mockMvc.perform(post("/").contentType(MediaType.APPLICATION_JSON).content(ORDER))
+            .andExpect(status().isServiceUnavailable())
+            .andExpect(jsonPath("$.error").value("Service Unavailable"));
+        
+        verify(restTemplate, times(2)).postForObject(anyString(), any(), eq(StockReservationBatchDto.class));
+    }
+    
+    @Test
+    void nextCursorFetchesThePageAfterTheLastItem() throws Exception {
+        // One row more than the limit means another page follows
+        when(orderRepository.findSummariesByUserIdBefore(eq(1L), any(), any(), eq(Limit.of(3))))
+            .thenReturn(List.of(summary(9L, NOW), summary(8L, NOW), summary(7L, NOW.minusDays(1))));
+        // Only matched if the cursor decodes back to the last item on the first page
+        when(orderRepository.findSummariesByUserIdBefore(1L, NOW, 8L, Limit.of(3))).thenReturn(List.of());
+        
+        String body = mockMvc.perform(get("/user/1").param("limit", "2"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.items.length()").value(2))
+            .andExpect(jsonPath("$.items[1].id").value(8))
+            .andExpect(jsonPath("$.hasMore").value(true))
+            .andReturn().getResponse().getContentAsString();
+        String cursor = JsonPath.read(body, "$.nextCursor");
+        
+        mockMvc.perform(get("/user/1").param("limit", "2").param("cursor", cursor))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.items.length()").value(0))
+            .andExpect(jsonPath("$.hasMore").value(false))
+            .andExpect(jsonPath("$.nextCursor").doesNotExist());
+    }
+    
+    @Test
+    void invalidCursorsAndLimitsAreBadRequests() throws Exception {
+        mockMvc.perform(get("/user/1").param("cursor", "not-a-cursor"))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.message").value("Invalid cursor"));
+        mockMvc.perform(get("/user/1").param("limit", "0"))
+            .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/").param("limit", "101"))
+            .andExpect(status().isBadRequest());
+    }
+    
+    private static OrderSummary summary(Long id, LocalDateTime orderDate) {
+        return new OrderSummary(id, 1L, "CONFIRMED", 1, 5.0, orderDate);
+    }
+    
+    private static ClientPolicy policy() {
+        ClientPolicy policy = new ClientPolicy();
+        policy.setSlidingWindowSize(2);
+        policy.setMinimumCalls(2);
+        policy.setFailureRateThreshold(50);
+        policy.setOpenDuration(Duration.ofMinutes(1));
+        return policy;
+    }
+}
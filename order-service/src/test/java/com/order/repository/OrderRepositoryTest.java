@@ -0,0 +1,92 @@
+package com.order.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.beemo.common.order.dto.OrderPage;
+import com.beemo.common.order.dto.OrderSummary;
+import com.order.client.TraderServiceClient;
+import com.order.model.Order;
+import com.order.service.OrderService;
+import com.order.service.OrderValidationService;
+
+/**
+ * Keyset paging against the real queries, with orders that share an order date so ties are broken by ID
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect")
+class OrderRepositoryTest {
+    
+    @Autowired
+    private OrderRepository orderRepository;
+    
+    @Autowired
+    private OrderLineRepository orderLineRepository;
+    
+    private OrderService orderService;
+    private final List<Long> newestFirst = new ArrayList<>();
+    
+    @BeforeEach
+    void setUp() {
+        orderService = new OrderService(orderRepository, orderLineRepository, mock(OrderValidationService.class),
+            mock(TraderServiceClient.class), mock(TransactionTemplate.class));
+        for (int i = 0; i < 5; i++) {
+            Order order = new Order(1L, 7L, 1, 5.0);
+            order.setStatus(i % 2 == 0 ? "CONFIRMED" : "PAID");
+            newestFirst.add(0, orderRepository.save(order).getId());
+        }
+        orderRepository.save(new Order(2L, 7L, 1, 5.0));
+        List<Order> saved = orderRepository.findAll();
+        // Same date for every order, so the position is decided by ID alone
+        saved.forEach(order -> order.setOrderDate(saved.get(0).getOrderDate()));
+        orderRepository.saveAllAndFlush(saved);
+    }
+    
+    @Test
+    void cursorWalksEveryOrderOnceNewestFirst() {
+        OrderPage first = orderService.getOrdersByUserId(1L, null, 2);
+        OrderPage second = orderService.getOrdersByUserId(1L, first.getNextCursor(), 2);
+        OrderPage last = orderService.getOrdersByUserId(1L, second.getNextCursor(), 2);
+        
+        assertTrue(first.isHasMore());
+        assertTrue(second.isHasMore());
+        assertFalse(last.isHasMore());
+        assertNull(last.getNextCursor());
+        List<Long> walked = new ArrayList<>();
+        for (OrderPage page : List.of(first, second, last)) {
+            page.getItems().stream().map(OrderSummary::getId).forEach(walked::add);
+        }
+        assertEquals(newestFirst, walked);
+    }
+    
+    @Test
+    void exactlyFullPageHasNoNextCursor() {
+        OrderPage page = orderService.getOrdersByUserId(1L, null, 5);
+        
+        assertEquals(5, page.getItems().size());
+        assertFalse(page.isHasMore());
+        assertNull(page.getNextCursor());
+    }
+    
+    @Test
+    void statusFilterPagesOnlyMatchingOrders() {
+        OrderPage first = orderService.getAllOrders("CONFIRMED", null, 2);
+        OrderPage rest = orderService.getAllOrders("CONFIRMED", first.getNextCursor(), 2);
+        
+        assertEquals(List.of(newestFirst.get(0), newestFirst.get(2)),
+            first.getItems().stream().map(OrderSummary::getId).toList());
+        assertEquals(List.of(newestFirst.get(4)), rest.getItems().stream().map(OrderSummary::getId).toList());
+        assertFalse(rest.isHasMore());
+    }
+}
@@ -0,0 +1,128 @@
+package com.order.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.beemo.common.order.dto.OrderRequest;
+import com.beemo.common.order.dto.StockReservationBatchDto;
+import com.beemo.common.order.dto.StockReservationDto;
+import com.beemo.common.order.exceptions.InsufficientStockException;
+import com.order.client.TraderServiceClient;
+import com.order.model.Order;
+import com.order.repository.OrderLineRepository;
+import com.order.repository.OrderRepository;
+
+class OrderServiceTest {
+    
+    private final OrderRepository orderRepository = mock(OrderRepository.class);
+    private final TraderServiceClient traderServiceClient = mock(TraderServiceClient.class);
+    private final TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+    private final OrderService orderService = new OrderService(orderRepository, mock(OrderLineRepository.class),
+        mock(OrderValidationService.class), traderServiceClient, transactionTemplate);
+    
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        when(transactionTemplate.execute(any()))
+            .thenAnswer(invocation -> ((TransactionCallback<Object>) invocation.getArgument(0)).doInTransaction(null));
+        when(orderRepository.save(any(Order.class))).thenAnswer(invocation -> {
+            Order order = invocation.getArgument(0);
+            order.setId(42L);
+            return order;
+        });
+        when(traderServiceClient.reserveStock(any())).thenReturn(reservation("r-1"));
+    }
+    
+    @Test
+    void orderIsStoredPendingAndConfirmedOnceClaimed() {
+        Order order = orderService.createOrder(new OrderRequest(1L, 7L, 2));
+        
+        assertEquals("CONFIRMED", order.getStatus());
+        assertNull(order.getReservationId());
+        assertEquals(10.0, order.getTotalPrice());
+        verify(traderServiceClient).claimStock("r-1");
+        verify(orderRepository).settleReservation(42L, "PENDING", "CONFIRMED");
+    }
+    
+    @Test
+    void failedClaimLeavesTheOrderPendingForTheRetry() {
+        doThrow(new RuntimeException("Error claiming stock with trader-service: timeout"))
+            .when(traderServiceClient).claimStock("r-1");
+        
+        Order order = orderService.createOrder(new OrderRequest(1L, 7L, 2));
+        
+        assertEquals("PENDING", order.getStatus());
+        assertEquals("r-1", order.getReservationId());
+        verify(orderRepository, never()).settleReservation(any(), any(), any());
+    }
+    
+    @Test
+    void expiredReservationCancelsTheOrder() {
+        doThrow(new InsufficientStockException("Reservation r-1 was already expired"))
+            .when(traderServiceClient).claimStock("r-1");
+        
+        assertThrows(InsufficientStockException.class,
+            () -> orderService.createOrder(new OrderRequest(1L, 7L, 2)));
+        
+        verify(orderRepository).settleReservation(42L, "PENDING", "CANCELLED");
+        verify(traderServiceClient, never()).releaseStock(any());
+    }
+    
+    @Test
+    void retryConfirmsClaimedOrdersAndCancelsExpiredOnes() {
+        when(orderRepository.findUnclaimed(any(Limit.class)))
+            .thenReturn(List.of(pending(1L, "r-1"), pending(2L, "r-2")));
+        doThrow(new InsufficientStockException("Reservation r-2 was already expired"))
+            .when(traderServiceClient).claimStock("r-2");
+        
+        orderService.retryUnclaimedReservations();
+        
+        verify(orderRepository).settleReservation(1L, "PENDING", "CONFIRMED");
+        verify(orderRepository).settleReservation(2L, "PENDING", "CANCELLED");
+    }
+    
+    @Test
+    void retryStopsAtTheFirstClaimThatStillFails() {
+        when(orderRepository.findUnclaimed(any(Limit.class)))
+            .thenReturn(List.of(pending(1L, "r-1"), pending(2L, "r-2")));
+        doThrow(new RuntimeException("trader-service unreachable")).when(traderServiceClient).claimStock("r-1");
+        
+        orderService.retryUnclaimedReservations();
+        
+        verify(traderServiceClient, never()).claimStock("r-2");
+        verify(orderRepository, never()).settleReservation(any(), any(), any());
+    }
+    
+    private static Order pending(Long id, String reservationId) {
+        Order order = new Order(1L, 7L, 2, 10.0);
+        order.setId(id);
+        order.setReservationId(reservationId);
+        return order;
+    }
+    
+    private static StockReservationBatchDto reservation(String reservationId) {
+        StockReservationDto line = new StockReservationDto();
+        line.setProductId(7L);
+        line.setPrice(5.0);
+        line.setReserved(2);
+        StockReservationBatchDto reservation = new StockReservationBatchDto();
+        reservation.setReservationId(reservationId);
+        reservation.setLines(List.of(line));
+        return reservation;
+    }
+}
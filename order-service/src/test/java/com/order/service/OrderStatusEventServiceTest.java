@@ -0,0 +1,83 @@
+package com.order.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.beemo.common.order.dto.OrderStatusEvent;
+import com.order.model.Order;
+import com.order.model.ProcessedEvent;
+import com.order.repository.OrderRepository;
+import com.order.repository.ProcessedEventRepository;
+
+class OrderStatusEventServiceTest {
+    
+    private final OrderRepository orderRepository = mock(OrderRepository.class);
+    private final ProcessedEventRepository processedEventRepository = mock(ProcessedEventRepository.class);
+    private final OrderStatusEventService service =
+        new OrderStatusEventService(orderRepository, processedEventRepository);
+    private final Order order = new Order(1L, 7L, 1, 5.0);
+    
+    @BeforeEach
+    void setUp() {
+        order.setId(42L);
+        order.setStatus("CONFIRMED");
+        when(orderRepository.findAllById(any())).thenReturn(List.of(order));
+        when(processedEventRepository.findProcessedIds(anyCollection())).thenReturn(List.of());
+    }
+    
+    @Test
+    void refundOvertakingItsPaymentIsAppliedAndTheLatePaymentDropped() {
+        int applied = service.applyEvents(List.of(event("e2", "REFUNDED"), event("e1", "PAID")));
+        
+        assertEquals(1, applied);
+        assertEquals("REFUNDED", order.getStatus());
+        // Both are recorded, so a redelivered PAID is skipped as a duplicate
+        verify(processedEventRepository, times(2)).save(any(ProcessedEvent.class));
+    }
+    
+    @Test
+    void eventsInOrderEndRefunded() {
+        int applied = service.applyEvents(List.of(event("e1", "PAID"), event("e2", "REFUNDED")));
+        
+        assertEquals(2, applied);
+        assertEquals("REFUNDED", order.getStatus());
+    }
+    
+    @Test
+    void duplicatesInTheBatchAreAppliedOnce() {
+        int applied = service.applyEvents(List.of(event("e1", "PAID"), event("e1", "PAID")));
+        
+        assertEquals(1, applied);
+        assertEquals("PAID", order.getStatus());
+        verify(processedEventRepository, times(1)).save(any(ProcessedEvent.class));
+    }
+    
+    @Test
+    void alreadyProcessedEventsAreSkipped() {
+        when(processedEventRepository.findProcessedIds(anyCollection())).thenReturn(List.of("e1"));
+        
+        int applied = service.applyEvents(List.of(event("e1", "PAID")));
+        
+        assertEquals(0, applied);
+        assertEquals("CONFIRMED", order.getStatus());
+        verify(processedEventRepository, times(0)).save(any(ProcessedEvent.class));
+    }
+    
+    private static OrderStatusEvent event(String eventId, String status) {
+        OrderStatusEvent event = new OrderStatusEvent();
+        event.setEventId(eventId);
+        event.setOrderId(42L);
+        event.setStatus(status);
+        return event;
+    }
+}
@@ -0,0 +1,91 @@
+package com.order.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import com.beemo.common.client.DependencyUnavailableException;
+import com.beemo.common.order.dto.OrderRequest;
+import com.beemo.common.order.dto.ProductDto;
+import com.beemo.common.order.exceptions.UserNotFoundException;
+import com.order.client.TraderServiceClient;
+import com.order.client.UserServiceClient;
+
+class OrderValidationServiceTest {
+    
+    private final UserServiceClient userServiceClient = mock(UserServiceClient.class);
+    private final TraderServiceClient traderServiceClient = mock(TraderServiceClient.class);
+    private final ExecutorService executor = Executors.newFixedThreadPool(2);
+    private final CountDownLatch release = new CountDownLatch(1);
+    
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        executor.shutdownNow();
+    }
+    
+    @Test
+    void checksRunConcurrentlyAndReportTheUserFirst() {
+        when(userServiceClient.validateUser(1L)).thenReturn(false);
+        when(traderServiceClient.getProducts(any())).thenReturn(Map.of());
+        
+        assertThrows(UserNotFoundException.class, () -> service(executor).validate(new OrderRequest(1L, 7L, 2)));
+    }
+    
+    @Test
+    void slowCallAnswersServiceUnavailableAtTheDeadline() {
+        when(userServiceClient.validateUser(1L)).thenAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return true;
+        });
+        when(traderServiceClient.getProducts(any())).thenReturn(Map.of(7L, new ProductDto()));
+        
+        long start = System.nanoTime();
+        DependencyUnavailableException e = assertThrows(DependencyUnavailableException.class,
+            () -> service(executor).validate(new OrderRequest(1L, 7L, 2)));
+        
+        assertEquals("Timed out after 50ms waiting for user-service", e.getMessage());
+        assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(2));
+    }
+    
+    @Test
+    void rejectedSecondCallCancelsTheFirst() {
+        List<Runnable> queued = new ArrayList<>();
+        Executor oneSlot = task -> {
+            if (!queued.isEmpty()) {
+                throw new RejectedExecutionException("full");
+            }
+            queued.add(task);
+        };
+        
+        assertThrows(DependencyUnavailableException.class,
+            () -> service(oneSlot).validate(new OrderRequest(1L, 7L, 2)));
+        
+        // The queued user check is skipped when a worker reaches it
+        queued.get(0).run();
+        verify(userServiceClient, never()).validateUser(anyLong());
+    }
+    
+    private OrderValidationService service(Executor validationExecutor) {
+        return new OrderValidationService(userServiceClient, traderServiceClient, validationExecutor, true, 50);
+    }
+}
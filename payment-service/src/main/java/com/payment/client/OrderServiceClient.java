@@ -1,19 +1,28 @@
 package com.payment.client;
 
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Component;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.web.client.HttpClientErrorException;
 
+import com.beemo.common.client.DependencyUnavailableException;
+import com.beemo.common.client.ResilientCaller;
 import com.payment.dto.OrderDto;
+import com.payment.dto.OrderStatusEvent;
 
 @Component
 public class OrderServiceClient {
     
     private final RestTemplate restTemplate;
-    private final String orderServiceUrl = "http://localhost:9001";
+    private final ResilientCaller caller;
+    private final String orderServiceUrl = "http://order-service";
     
-    public OrderServiceClient(RestTemplate restTemplate) {
+    public OrderServiceClient(RestTemplate restTemplate,
+                              @Qualifier("orderServiceCaller") ResilientCaller caller) {
         this.restTemplate = restTemplate;
+        this.caller = caller;
     }
     
     /**
@@ -21,10 +30,12 @@ public class OrderServiceClient {
      */
     public OrderDto getOrder(Long orderId) {
         try {
-            String url = orderServiceUrl + "/orders/" + orderId;
-            return restTemplate.getForObject(url, OrderDto.class);
+            String url = orderServiceUrl + "/" + orderId;
+            return caller.idempotent("getOrder", () -> restTemplate.getForObject(url, OrderDto.class));
         } catch (HttpClientErrorException.NotFound e) {
             return null;
+        } catch (DependencyUnavailableException e) {
+            throw e;
         } catch (Exception e) {
             throw new RuntimeException("Error communicating with order-service: " + e.getMessage(), e);
         }
@@ -42,11 +53,27 @@ public class OrderServiceClient {
      */
     public boolean updateOrderStatus(Long orderId, String status) {
         try {
-            String url = orderServiceUrl + "/orders/" + orderId + "/status?status=" + status;
-            restTemplate.put(url, null);
+            String url = orderServiceUrl + "/" + orderId + "/status?status=" + status;
+            // Setting a status is idempotent, so it is retried like a GET
+            caller.idempotent("updateOrderStatus", () -> {
+                restTemplate.put(url, null);
+                return null;
+            });
             return true;
+        } catch (DependencyUnavailableException e) {
+            throw e;
         } catch (Exception e) {
             throw new RuntimeException("Error updating order status: " + e.getMessage(), e);
         }
     }
+    
+    /**
+     * Deliver a batch of order status events in one request
+     * order-service ignores events it has already applied, so redelivery is safe
+     */
+    public void publishStatusEvents(List<OrderStatusEvent> events) {
+        String url = orderServiceUrl + "/status-events";
+        // Not retried here: the outbox relay redelivers the whole batch on its next run
+        caller.once("publishStatusEvents", () -> restTemplate.postForEntity(url, events, Void.class));
+    }
 }
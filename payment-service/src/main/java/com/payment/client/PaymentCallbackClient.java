@@ -0,0 +1,274 @@
+package com.payment.client;
+
+import java.io.IOException;
+import java.net.Inet4Address;
+import java.net.Inet6Address;
+import java.net.InetAddress;
+import java.net.URI;
+import java.net.UnknownHostException;
+import java.nio.charset.StandardCharsets;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.apache.hc.client5.http.SystemDefaultDnsResolver;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.Timeout;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.payment.exceptions.InvalidCallbackUrlException;
+import com.payment.model.Payment;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Notifies a client-supplied webhook when an async payment completes
+ * 
+ * Callback hosts must match {@code payment.callback.allowed-hosts}, and every
+ * address they resolve to must be public: the connection is made to the
+ * checked addresses, so a host cannot resolve to an internal service such as
+ * eureka or order-service. Redirects are not followed. The body is signed with
+ * HMAC-SHA256 over {@code timestamp + "." + body} in
+ * {@code X-Beemo-Signature}, so receivers can verify it came from here.
+ */
+@Component
+public class PaymentCallbackClient {
+    
+    private static final Logger logger = LoggerFactory.getLogger(PaymentCallbackClient.class);
+    
+    private final ObjectMapper objectMapper;
+    private final RestTemplate restTemplate;
+    private final CloseableHttpClient httpClient;
+    private final ScheduledExecutorService retryScheduler;
+    private final List<String> allowedHosts;
+    private final byte[] signingSecret;
+    private final int maxAttempts;
+    private final long retryDelayMs;
+    private final AtomicLong delivered = new AtomicLong();
+    private final AtomicLong retried = new AtomicLong();
+    private final AtomicLong gaveUp = new AtomicLong();
+    
+    public PaymentCallbackClient(ObjectMapper objectMapper,
+                                 @Value("${payment.callback.allowed-hosts:}") List<String> allowedHosts,
+                                 @Value("${payment.callback.signing-secret}") String signingSecret,
+                                 @Value("${payment.callback.timeout-ms:2000}") long timeoutMs,
+                                 @Value("${payment.callback.max-attempts:3}") int maxAttempts,
+                                 @Value("${payment.callback.retry-delay-ms:1000}") long retryDelayMs,
+                                 @Value("${payment.callback.retry-threads:2}") int retryThreads) {
+        this.objectMapper = objectMapper;
+        this.allowedHosts = allowedHosts.stream().map(host -> host.trim().toLowerCase(Locale.ROOT))
+                .filter(host -> !host.isEmpty()).toList();
+        this.signingSecret = signingSecret.getBytes(StandardCharsets.UTF_8);
+        this.maxAttempts = maxAttempts;
+        this.retryDelayMs = retryDelayMs;
+        Timeout timeout = Timeout.ofMilliseconds(timeoutMs);
+        this.httpClient = HttpClients.custom()
+                .setConnectionManager(PoolingHttpClientConnectionManagerBuilder.create()
+                        .setDnsResolver(new PublicAddressResolver())
+                        .setDefaultConnectionConfig(ConnectionConfig.custom()
+                                .setConnectTimeout(timeout)
+                                .setSocketTimeout(timeout)
+                                .build())
+                        .build())
+                .setDefaultRequestConfig(RequestConfig.custom().setResponseTimeout(timeout).build())
+                .disableRedirectHandling()
+                .disableAutomaticRetries()
+                .build();
+        this.restTemplate = new RestTemplate(new HttpComponentsClientHttpRequestFactory(httpClient));
+        // Own scheduler, so retries are never dropped by a saturated gateway executor
+        this.retryScheduler = Executors.newScheduledThreadPool(retryThreads,
+                Thread.ofPlatform().name("payment-callback-", 0).daemon().factory());
+    }
+    
+    /**
+     * Reject callback URLs that are not http(s) or whose host is not allowed
+     * 
+     * @throws InvalidCallbackUrlException if the URL may not be called back
+     */
+    public void checkCallbackUrl(String url) {
+        URI uri;
+        try {
+            uri = URI.create(url);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidCallbackUrlException("Callback URL is not a valid URI");
+        }
+        String scheme = uri.getScheme() == null ? "" : uri.getScheme().toLowerCase(Locale.ROOT);
+        if (!scheme.equals("https") && !scheme.equals("http")) {
+            throw new InvalidCallbackUrlException("Callback URL must be an http or https URL");
+        }
+        if (uri.getHost() == null || uri.getUserInfo() != null) {
+            throw new InvalidCallbackUrlException("Callback URL must name a host and no credentials");
+        }
+        if (!isAllowedHost(uri.getHost().toLowerCase(Locale.ROOT))) {
+            throw new InvalidCallbackUrlException("Callback host " + uri.getHost() + " is not allowed");
+        }
+    }
+    
+    /**
+     * POST the final state of a payment to its callback URL, if it has one
+     * Failed deliveries are retried with a growing delay on the callback scheduler
+     */
+    public void notifyCompletion(Payment payment) {
+        if (payment.getCallbackUrl() == null || payment.getCallbackUrl().isBlank()) {
+            return;
+        }
+        String body;
+        try {
+            body = objectMapper.writeValueAsString(payload(payment));
+        } catch (JsonProcessingException e) {
+            logger.error("Could not serialize callback for payment {}", payment.getId(), e);
+            return;
+        }
+        deliver(payment.getCallbackUrl(), body, payment.getId(), 1);
+    }
+    
+    /**
+     * Deliveries, retries and abandoned callbacks since startup
+     */
+    public Map<String, Object> metrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("delivered", delivered.get());
+        metrics.put("retried", retried.get());
+        metrics.put("gaveUp", gaveUp.get());
+        return metrics;
+    }
+    
+    @PreDestroy
+    public void close() throws IOException {
+        retryScheduler.shutdownNow();
+        httpClient.close();
+    }
+    
+    private void deliver(String url, String body, Long paymentId, int attempt) {
+        try {
+            // Re-checked in case the allowlist changed since the payment was accepted
+            checkCallbackUrl(url);
+            restTemplate.postForEntity(url, signed(body), Void.class);
+            delivered.incrementAndGet();
+            logger.info("Delivered callback for payment {} to {}", paymentId, url);
+        } catch (InvalidCallbackUrlException e) {
+            giveUp(url, paymentId, attempt, e);
+        } catch (Exception e) {
+            if (attempt >= maxAttempts) {
+                giveUp(url, paymentId, attempt, e);
+                return;
+            }
+            try {
+                retryScheduler.schedule(() -> deliver(url, body, paymentId, attempt + 1),
+                        retryDelayMs * attempt, TimeUnit.MILLISECONDS);
+                retried.incrementAndGet();
+            } catch (RejectedExecutionException rejected) {
+                giveUp(url, paymentId, attempt, rejected);
+            }
+        }
+    }
+    
+    private void giveUp(String url, Long paymentId, int attempt, Exception cause) {
+        gaveUp.incrementAndGet();
+        logger.warn("Giving up on callback for payment {} to {} after {} attempts: {}",
+                   paymentId, url, attempt, cause.getMessage());
+    }
+    
+    private HttpEntity<String> signed(String body) {
+        String timestamp = Long.toString(System.currentTimeMillis() / 1000);
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.set("X-Beemo-Timestamp", timestamp);
+        headers.set("X-Beemo-Signature", "sha256=" + hmac(timestamp + "." + body));
+        return new HttpEntity<>(body, headers);
+    }
+    
+    private String hmac(String content) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(signingSecret, "HmacSHA256"));
+            return HexFormat.of().formatHex(mac.doFinal(content.getBytes(StandardCharsets.UTF_8)));
+        } catch (Exception e) {
+            throw new IllegalStateException("HmacSHA256 unavailable", e);
+        }
+    }
+    
+    /**
+     * Exact host names, or {@code *.example.com} for its subdomains
+     */
+    private boolean isAllowedHost(String host) {
+        for (String allowed : allowedHosts) {
+            if (allowed.startsWith("*.") ? host.endsWith(allowed.substring(1)) : host.equals(allowed)) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    private static Map<String, Object> payload(Payment payment) {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("paymentId", payment.getId());
+        payload.put("orderId", payment.getOrderId());
+        payload.put("status", payment.getStatus().name());
+        payload.put("transactionId", payment.getTransactionId());
+        payload.put("failureReason", payment.getFailureReason());
+        return payload;
+    }
+    
+    /**
+     * Resolves callback hosts and refuses any that map to a non-public address
+     */
+    private static final class PublicAddressResolver extends SystemDefaultDnsResolver {
+        
+        @Override
+        public InetAddress[] resolve(String host) throws UnknownHostException {
+            InetAddress[] addresses = super.resolve(host);
+            for (InetAddress address : addresses) {
+                if (!isPublic(address)) {
+                    throw new UnknownHostException("Callback host " + host + " resolves to non-public address "
+                            + address.getHostAddress());
+                }
+            }
+            return addresses;
+        }
+        
+        private static boolean isPublic(InetAddress address) {
+            if (address.isAnyLocalAddress() || address.isLoopbackAddress() || address.isLinkLocalAddress()
+                    || address.isSiteLocalAddress() || address.isMulticastAddress()) {
+                return false;
+            }
+            byte[] bytes = address.getAddress();
+            if (address instanceof Inet4Address) {
+                int first = bytes[0] & 0xff;
+                int second = bytes[1] & 0xff;
+                // 0.0.0.0/8, 100.64.0.0/10 (carrier-grade NAT), 198.18.0.0/15 (benchmarking)
+                return first != 0 && !(first == 100 && second >= 64 && second < 128)
+                        && !(first == 198 && (second == 18 || second == 19));
+            }
+            if (address instanceof Inet6Address) {
+                // fc00::/7 unique local addresses
+                return (bytes[0] & 0xfe) != 0xfc;
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.payment.config;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.cloud.client.loadbalancer.LoadBalanced;
+import org.springframework.cloud.loadbalancer.annotation.LoadBalancerClients;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.client.RestTemplate;
+
+import com.beemo.common.client.ClientPolicy;
+import com.beemo.common.client.HttpClientSettings;
+import com.beemo.common.client.PooledHttpClientFactory;
+import com.beemo.common.client.RegistryPushLoadBalancerConfiguration;
+import com.beemo.common.client.RegistryPushSettings;
+import com.beemo.common.client.RegistrySubscriber;
+import com.beemo.common.client.ResilientCaller;
+import com.beemo.common.security.ServiceIdentity;
+
+@Configuration
+@LoadBalancerClients(defaultConfiguration = RegistryPushLoadBalancerConfiguration.class)
+public class ClientConfig {
+
+    /**
+     * Load-balanced RestTemplate for order-service and user-service
+     * Requests reuse pooled keep-alive connections; {@link ResilientCaller} bounds the whole call
+     * Every request carries this service's signed identity
+     */
+    @Bean
+    @LoadBalanced
+    public RestTemplate restTemplate(RestTemplateBuilder restTemplateBuilder, PooledHttpClientFactory httpClientFactory,
+                                     ServiceIdentity serviceIdentity) {
+        return restTemplateBuilder
+                .requestFactory(() -> httpClientFactory)
+                .additionalInterceptors(serviceIdentity)
+                .build();
+    }
+
+    @Bean
+    @ConfigurationProperties(prefix = "payment.clients.http")
+    public HttpClientSettings httpClientSettings() {
+        return new HttpClientSettings();
+    }
+
+    /**
+     * Connection pool shared by every call to other services, closed on shutdown
+     */
+    @Bean
+    public PooledHttpClientFactory httpClientFactory(HttpClientSettings httpClientSettings) {
+        return new PooledHttpClientFactory(httpClientSettings);
+    }
+
+    @Bean
+    @ConfigurationProperties(prefix = "payment.clients.registry-push")
+    public RegistryPushSettings registryPushSettings() {
+        return new RegistryPushSettings();
+    }
+
+    /**
+     * Long-polls eureka-server for instance changes, so new replicas are called without waiting for the next registry fetch
+     */
+    @Bean
+    public RegistrySubscriber registrySubscriber(RegistryPushSettings registryPushSettings) {
+        return new RegistrySubscriber(registryPushSettings);
+    }
+
+    @Bean
+    @ConfigurationProperties(prefix = "payment.clients.order-service")
+    public ClientPolicy orderServicePolicy() {
+        return new ClientPolicy();
+    }
+
+    @Bean
+    @ConfigurationProperties(prefix = "payment.clients.user-service")
+    public ClientPolicy userServicePolicy() {
+        return new ClientPolicy();
+    }
+
+    /**
+     * Bulkhead, circuit breaker and retries for calls to order-service
+     */
+    @Bean
+    public ResilientCaller orderServiceCaller(@Qualifier("orderServicePolicy") ClientPolicy policy) {
+        return new ResilientCaller("order-service", policy);
+    }
+
+    /**
+     * Bulkhead, circuit breaker and retries for calls to user-service
+     */
+    @Bean
+    public ResilientCaller userServiceCaller(@Qualifier("userServicePolicy") ClientPolicy policy) {
+        return new ResilientCaller("user-service", policy);
+    }
+}
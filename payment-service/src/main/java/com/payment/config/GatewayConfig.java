@@ -0,0 +1,65 @@
+package com.payment.config;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadPoolExecutor;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+public class GatewayConfig {
+
+    /**
+     * Executor that runs payment gateway calls off the request thread
+     * 
+     * Uses a virtual thread per call by default; set
+     * {@code payment.gateway.executor=bounded} for a fixed-size pool instead.
+     */
+    @Bean(name = "paymentGatewayExecutor")
+    public Executor paymentGatewayExecutor(@Value("${payment.gateway.executor:virtual}") String mode,
+                                           @Value("${payment.gateway.pool-size:64}") int poolSize,
+                                           @Value("${payment.gateway.queue-capacity:1000}") int queueCapacity,
+                                           @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        if ("virtual".equals(mode)) {
+            return Executors.newVirtualThreadPerTaskExecutor();
+        }
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setVirtualThreads(virtualThreads);
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("payment-gateway-");
+        // Reject rather than run on the caller: the caller may be a request thread
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Worker queue for payments submitted asynchronously
+     * 
+     * The pool size caps how many queued payments are at the gateway at once;
+     * submissions beyond the queue capacity are rejected with 503. With
+     * virtual threads enabled the workers are virtual but still this many.
+     */
+    @Bean(name = "paymentWorkerExecutor")
+    public Executor paymentWorkerExecutor(@Value("${payment.worker.pool-size:16}") int poolSize,
+                                          @Value("${payment.worker.queue-capacity:500}") int queueCapacity,
+                                          @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setVirtualThreads(virtualThreads);
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("payment-worker-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(10);
+        executor.initialize();
+        return executor;
+    }
+}
@@ -1,19 +1,34 @@
 package com.payment.controller;
 
+import com.beemo.common.client.PooledHttpClientFactory;
+import com.beemo.common.client.RegistrySubscriber;
+import com.beemo.common.client.ResilientCaller;
+import com.payment.client.PaymentCallbackClient;
 import com.payment.dto.PaymentRequest;
 import com.payment.model.Payment;
+import com.payment.service.PaymentExportService;
 import com.payment.service.PaymentService;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.math.BigDecimal;
+import java.net.URI;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.zip.GZIPOutputStream;
 
 @RestController
 @RequestMapping("/payments")
@@ -25,16 +40,50 @@ public class PaymentController {
     @Autowired
     private PaymentService paymentService;
     
+    @Autowired
+    private PaymentExportService paymentExportService;
+    
+    @Autowired
+    private List<ResilientCaller> clientCallers;
+    
+    @Autowired
+    private PooledHttpClientFactory httpClientFactory;
+    
+    @Autowired
+    private RegistrySubscriber registrySubscriber;
+    
+    @Autowired
+    private PaymentCallbackClient paymentCallbackClient;
+    
     /**
      * Process a new payment
+     * The request thread is released while the gateway call is in flight
      */
     @PostMapping
-    public ResponseEntity<Payment> processPayment(@Valid @RequestBody PaymentRequest paymentRequest) {
+    public CompletableFuture<ResponseEntity<Payment>> processPayment(@Valid @RequestBody PaymentRequest paymentRequest) {
         logger.info("Received payment request for order: {}", paymentRequest.getOrderId());
         
-        Payment payment = paymentService.processPayment(paymentRequest);
+        return paymentService.processPayment(paymentRequest)
+                .thenApply(payment -> ResponseEntity.status(HttpStatus.CREATED).body(payment));
+    }
+    
+    /**
+     * Submit a payment for background processing
+     * Returns 202 straight away; poll the Location or pass a callbackUrl
+     */
+    @PostMapping("/async")
+    public ResponseEntity<Map<String, Object>> submitPayment(@Valid @RequestBody PaymentRequest paymentRequest) {
+        logger.info("Received async payment request for order: {}", paymentRequest.getOrderId());
         
-        return ResponseEntity.status(HttpStatus.CREATED).body(payment);
+        Payment payment = paymentService.submitPayment(paymentRequest);
+        
+        return ResponseEntity.accepted()
+                .location(URI.create("/payments/" + payment.getId()))
+                .body(Map.of(
+                        "paymentId", payment.getId(),
+                        "status", payment.getStatus().name(),
+                        "statusUrl", "/payments/" + payment.getId()
+                ));
     }
     
     /**
@@ -110,7 +159,7 @@ public class PaymentController {
      * Process a refund
      */
     @PostMapping("/{paymentId}/refund")
-    public ResponseEntity<Payment> processRefund(
+    public CompletableFuture<ResponseEntity<Payment>> processRefund(
             @PathVariable Long paymentId,
             @RequestBody Map<String, Object> refundRequest) {
         logger.info("Processing refund for payment ID: {}", paymentId);
@@ -126,20 +175,52 @@ public class PaymentController {
             } else if (amountObj instanceof String stringAmount) {
                 refundAmount = new BigDecimal(stringAmount);
             } else {
-                return ResponseEntity.badRequest().build();
+                return CompletableFuture.completedFuture(ResponseEntity.badRequest().build());
             }
         } catch (Exception e) {
             logger.error("Invalid refund amount format", e);
-            return ResponseEntity.badRequest().build();
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest().build());
         }
         
         if (reason == null || reason.trim().isEmpty()) {
             reason = "Refund requested";
         }
         
-        Payment refundPayment = paymentService.processRefund(paymentId, refundAmount, reason);
+        return paymentService.processRefund(paymentId, refundAmount, reason)
+                .thenApply(ResponseEntity::ok);
+    }
+    
+    /**
+     * Export payments created in [from, to) for reconciliation
+     * Rows are streamed straight from the database to the response, gzip-compressed by default
+     */
+    @GetMapping("/export")
+    public void exportPayments(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(defaultValue = "true") boolean gzip,
+            HttpServletResponse response) throws IOException {
+        PaymentExportService.Format exportFormat = PaymentExportService.Format.parse(format);
+        paymentExportService.validateRange(from, to);
+        logger.info("Exporting payments from {} to {} as {}", from, to, exportFormat);
+        
+        String extension = exportFormat == PaymentExportService.Format.CSV ? "csv" : "ndjson";
+        String fileName = "payments-" + from.toLocalDate() + "-" + to.toLocalDate() + "." + extension + (gzip ? ".gz" : "");
+        response.setContentType(gzip ? "application/gzip"
+                : exportFormat == PaymentExportService.Format.CSV ? "text/csv;charset=UTF-8" : "application/x-ndjson");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"");
         
-        return ResponseEntity.ok(refundPayment);
+        OutputStream out = response.getOutputStream();
+        if (gzip) {
+            GZIPOutputStream gzipOut = new GZIPOutputStream(out, 64 * 1024);
+            long count = paymentExportService.export(from, to, exportFormat, gzipOut);
+            gzipOut.finish();
+            logger.info("Exported {} payments", count);
+        } else {
+            long count = paymentExportService.export(from, to, exportFormat, out);
+            logger.info("Exported {} payments", count);
+        }
     }
     
     /**
@@ -154,6 +235,22 @@ public class PaymentController {
         ));
     }
     
+    /**
+     * Circuit breaker state, bulkhead headroom and per-method call metrics for each downstream service,
+     * plus connection pool usage, registry push state and webhook deliveries
+     */
+    @GetMapping("/client-metrics")
+    public Map<String, Object> getClientMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        for (ResilientCaller caller : clientCallers) {
+            metrics.put(caller.getDependency(), caller.metrics());
+        }
+        metrics.put("connectionPool", httpClientFactory.metrics());
+        metrics.put("registryPush", registrySubscriber.metrics());
+        metrics.put("callbacks", paymentCallbackClient.metrics());
+        return metrics;
+    }
+    
     /**
      * Get payment status by order ID (simplified endpoint for order service)
      */
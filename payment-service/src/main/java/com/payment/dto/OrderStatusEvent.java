@@ -0,0 +1,46 @@
+package com.payment.dto;
+
+/**
+ * Order status change sent to order-service by the outbox relay
+ * 
+ * The event ID lets order-service drop redeliveries.
+ */
+public class OrderStatusEvent {
+    
+    private String eventId;
+    private Long orderId;
+    private String status;
+    
+    public OrderStatusEvent() {
+    }
+    
+    public OrderStatusEvent(String eventId, Long orderId, String status) {
+        this.eventId = eventId;
+        this.orderId = orderId;
+        this.status = status;
+    }
+    
+    public String getEventId() {
+        return eventId;
+    }
+    
+    public void setEventId(String eventId) {
+        this.eventId = eventId;
+    }
+    
+    public Long getOrderId() {
+        return orderId;
+    }
+    
+    public void setOrderId(Long orderId) {
+        this.orderId = orderId;
+    }
+    
+    public String getStatus() {
+        return status;
+    }
+    
+    public void setStatus(String status) {
+        this.status = status;
+    }
+}
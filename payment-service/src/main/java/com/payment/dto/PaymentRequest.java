@@ -45,6 +45,10 @@ public class PaymentRequest {
     private String routingNumber;
     private String bankName;
     
+    // Async submissions only: called with the final payment status; the host must be in payment.callback.allowed-hosts
+    @Pattern(regexp = "https?://.+", message = "Callback URL must be an http or https URL")
+    private String callbackUrl;
+    
     public PaymentRequest() {
     }
     
@@ -190,4 +194,12 @@ public class PaymentRequest {
     public void setBankName(String bankName) {
         this.bankName = bankName;
     }
+    
+    public String getCallbackUrl() {
+        return callbackUrl;
+    }
+    
+    public void setCallbackUrl(String callbackUrl) {
+        this.callbackUrl = callbackUrl;
+    }
 }
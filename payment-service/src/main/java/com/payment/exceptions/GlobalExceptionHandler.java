@@ -7,6 +7,8 @@ import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 
+import com.beemo.common.client.DependencyUnavailableException;
+
 import java.util.HashMap;
 import java.util.Map;
 
@@ -29,6 +31,22 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
     }
 
+    @ExceptionHandler(PaymentQueueFullException.class)
+    public ResponseEntity<Map<String, String>> handlePaymentQueueFullException(PaymentQueueFullException ex) {
+        Map<String, String> error = new HashMap<>();
+        error.put("error", "Service Busy");
+        error.put("message", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header("Retry-After", "1").body(error);
+    }
+
+    @ExceptionHandler(DependencyUnavailableException.class)
+    public ResponseEntity<Map<String, String>> handleDependencyUnavailableException(DependencyUnavailableException ex) {
+        Map<String, String> error = new HashMap<>();
+        error.put("error", "Service Unavailable");
+        error.put("message", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(error);
+    }
+
     @ExceptionHandler(InvalidPaymentMethodException.class)
     public ResponseEntity<Map<String, String>> handleInvalidPaymentMethodException(InvalidPaymentMethodException ex) {
         Map<String, String> error = new HashMap<>();
@@ -45,6 +63,22 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
     }
 
+    @ExceptionHandler(InvalidCallbackUrlException.class)
+    public ResponseEntity<Map<String, String>> handleInvalidCallbackUrlException(InvalidCallbackUrlException ex) {
+        Map<String, String> error = new HashMap<>();
+        error.put("error", "Invalid Callback URL");
+        error.put("message", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+    }
+
+    @ExceptionHandler(InvalidExportRequestException.class)
+    public ResponseEntity<Map<String, String>> handleInvalidExportRequestException(InvalidExportRequestException ex) {
+        Map<String, String> error = new HashMap<>();
+        error.put("error", "Invalid Export Request");
+        error.put("message", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+    }
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<Map<String, String>> handleValidationExceptions(MethodArgumentNotValidException ex) {
         Map<String, String> errors = new HashMap<>();
@@ -0,0 +1,7 @@
+package com.payment.exceptions;
+
+public class InvalidCallbackUrlException extends RuntimeException {
+    public InvalidCallbackUrlException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.payment.exceptions;
+
+public class PaymentQueueFullException extends RuntimeException {
+    public PaymentQueueFullException(String message) {
+        super(message);
+    }
+}
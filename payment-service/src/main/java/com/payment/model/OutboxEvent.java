@@ -0,0 +1,99 @@
+package com.payment.model;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+/**
+ * Order status change waiting to be relayed to order-service
+ * 
+ * Written in the same transaction as the payment that caused it, so the
+ * order is updated if and only if the payment change commits.
+ */
+@Entity
+@Table(name = "payment_outbox", indexes = @Index(name = "idx_payment_outbox_published", columnList = "published_at, id"))
+public class OutboxEvent {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(name = "event_id", nullable = false, unique = true, length = 36)
+    private String eventId;
+    
+    @Column(nullable = false)
+    private Long paymentId;
+    
+    @Column(nullable = false)
+    private Long orderId;
+    
+    @Column(nullable = false, length = 50)
+    private String orderStatus;
+    
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+    
+    @Column(name = "published_at")
+    private LocalDateTime publishedAt;
+    
+    /** Relay instance sending the event; the claim lapses after the relay's claim timeout */
+    @Column(name = "claimed_by", length = 36)
+    private String claimedBy;
+    
+    @Column(name = "claimed_at")
+    private LocalDateTime claimedAt;
+    
+    public OutboxEvent() {
+    }
+    
+    public OutboxEvent(Long paymentId, Long orderId, String orderStatus) {
+        this.eventId = UUID.randomUUID().toString();
+        this.paymentId = paymentId;
+        this.orderId = orderId;
+        this.orderStatus = orderStatus;
+        this.createdAt = LocalDateTime.now();
+    }
+    
+    public Long getId() {
+        return id;
+    }
+    
+    public String getEventId() {
+        return eventId;
+    }
+    
+    public Long getPaymentId() {
+        return paymentId;
+    }
+    
+    public Long getOrderId() {
+        return orderId;
+    }
+    
+    public String getOrderStatus() {
+        return orderStatus;
+    }
+    
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+    
+    public LocalDateTime getPublishedAt() {
+        return publishedAt;
+    }
+    
+    public String getClaimedBy() {
+        return claimedBy;
+    }
+    
+    public LocalDateTime getClaimedAt() {
+        return claimedAt;
+    }
+}
@@ -3,6 +3,8 @@ package com.payment.model;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
@@ -10,12 +12,13 @@ import jakarta.persistence.Enumerated;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.PrePersist;
 import jakarta.persistence.PreUpdate;
 import jakarta.persistence.Table;
 
 @Entity
-@Table(name = "payments")
+@Table(name = "payments", indexes = @Index(name = "idx_payments_created_at", columnList = "created_at, id"))
 public class Payment {
     
     public enum PaymentStatus {
@@ -68,6 +71,20 @@ public class Payment {
     @Column
     private LocalDateTime completedAt;
     
+    @JsonIgnore
+    @Column(length = 500)
+    private String callbackUrl;
+    
+    /** Instance working on the payment while it is PROCESSING */
+    @JsonIgnore
+    @Column(length = 36)
+    private String processingOwner;
+    
+    /** Renewed by the owner while it works; once past, the payment counts as abandoned */
+    @JsonIgnore
+    @Column
+    private LocalDateTime leaseExpiresAt;
+    
     public Payment() {
     }
     
@@ -196,4 +213,28 @@ public class Payment {
     public void setCompletedAt(LocalDateTime completedAt) {
         this.completedAt = completedAt;
     }
+    
+    public String getCallbackUrl() {
+        return callbackUrl;
+    }
+    
+    public void setCallbackUrl(String callbackUrl) {
+        this.callbackUrl = callbackUrl;
+    }
+    
+    public String getProcessingOwner() {
+        return processingOwner;
+    }
+    
+    public void setProcessingOwner(String processingOwner) {
+        this.processingOwner = processingOwner;
+    }
+    
+    public LocalDateTime getLeaseExpiresAt() {
+        return leaseExpiresAt;
+    }
+    
+    public void setLeaseExpiresAt(LocalDateTime leaseExpiresAt) {
+        this.leaseExpiresAt = leaseExpiresAt;
+    }
 }
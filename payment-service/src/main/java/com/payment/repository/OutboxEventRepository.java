@@ -0,0 +1,58 @@
+package com.payment.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.payment.model.OutboxEvent;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+    
+    /**
+     * Lock the oldest unpublished events that no relay holds a live claim on
+     * Rows locked by another relay instance are skipped rather than waited on
+     */
+    @Query(value = "SELECT * FROM payment_outbox WHERE published_at IS NULL " +
+                   "AND (claimed_at IS NULL OR claimed_at < :claimExpiredBefore) " +
+                   "ORDER BY id LIMIT :limit FOR UPDATE SKIP LOCKED",
+           nativeQuery = true)
+    List<OutboxEvent> lockClaimable(@Param("claimExpiredBefore") LocalDateTime claimExpiredBefore,
+                                    @Param("limit") int limit);
+    
+    /**
+     * Claim locked events for one relay instance
+     */
+    @Modifying
+    @Query("UPDATE OutboxEvent e SET e.claimedBy = :claimedBy, e.claimedAt = :claimedAt WHERE e.id IN :ids")
+    int claim(@Param("ids") List<Long> ids, @Param("claimedBy") String claimedBy,
+              @Param("claimedAt") LocalDateTime claimedAt);
+    
+    /**
+     * Mark events as delivered, unless another relay has taken them over since
+     */
+    @Modifying
+    @Query("UPDATE OutboxEvent e SET e.publishedAt = :publishedAt WHERE e.id IN :ids AND e.claimedBy = :claimedBy")
+    int markPublished(@Param("ids") List<Long> ids, @Param("claimedBy") String claimedBy,
+                      @Param("publishedAt") LocalDateTime publishedAt);
+    
+    /**
+     * Give up a claim after a failed delivery so the next run retries at once
+     */
+    @Modifying
+    @Query("UPDATE OutboxEvent e SET e.claimedBy = NULL, e.claimedAt = NULL " +
+           "WHERE e.id IN :ids AND e.claimedBy = :claimedBy AND e.publishedAt IS NULL")
+    int releaseClaim(@Param("ids") List<Long> ids, @Param("claimedBy") String claimedBy);
+    
+    /**
+     * Delete delivered events older than the retention window
+     */
+    @Modifying
+    @Query("DELETE FROM OutboxEvent e WHERE e.publishedAt < :cutoff")
+    int deletePublishedBefore(@Param("cutoff") LocalDateTime cutoff);
+}
@@ -1,9 +1,11 @@
 package com.payment.repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -58,4 +60,41 @@ public interface PaymentRepository extends JpaRepository<Payment, Long> {
      * Find payments by user ID ordered by creation date
      */
     List<Payment> findByUserIdOrderByCreatedAtDesc(Long userId);
+    
+    /**
+     * Extend the lease on every PROCESSING payment an instance still owns
+     */
+    @Modifying
+    @Query("UPDATE Payment p SET p.leaseExpiresAt = :until " +
+           "WHERE p.status = com.payment.model.Payment.PaymentStatus.PROCESSING AND p.processingOwner = :owner")
+    int renewLeases(@Param("owner") String owner, @Param("until") LocalDateTime until);
+    
+    /**
+     * Fail PROCESSING payments whose owner stopped renewing their lease
+     * Rows without a lease predate leases and have no live owner either
+     */
+    @Modifying
+    @Query("UPDATE Payment p SET p.status = com.payment.model.Payment.PaymentStatus.FAILED, " +
+           "p.failureReason = :reason, p.updatedAt = CURRENT_TIMESTAMP " +
+           "WHERE p.status = com.payment.model.Payment.PaymentStatus.PROCESSING " +
+           "AND (p.leaseExpiresAt IS NULL OR p.leaseExpiresAt < :now)")
+    int failExpiredLeases(@Param("now") LocalDateTime now, @Param("reason") String reason);
+    
+    /**
+     * Record the gateway outcome of a payment, only if it is still in the state it was taken from
+     * A PROCESSING payment must still belong to the given owner, so a payment that was reaped or
+     * finalized elsewhere meanwhile is left alone
+     * 
+     * @return 1 if the outcome was recorded, 0 if the payment had changed meanwhile
+     */
+    @Modifying
+    @Query("UPDATE Payment p SET p.status = :status, p.transactionId = :transactionId, " +
+           "p.failureReason = :failureReason, p.completedAt = :completedAt, p.updatedAt = :now, " +
+           "p.processingOwner = NULL, p.leaseExpiresAt = NULL " +
+           "WHERE p.id = :id AND p.status = :expected " +
+           "AND (p.processingOwner = :owner OR (p.processingOwner IS NULL AND :owner IS NULL))")
+    int finish(@Param("id") Long id, @Param("expected") Payment.PaymentStatus expected, @Param("owner") String owner,
+               @Param("status") Payment.PaymentStatus status, @Param("transactionId") String transactionId,
+               @Param("failureReason") String failureReason, @Param("completedAt") LocalDateTime completedAt,
+               @Param("now") LocalDateTime now);
 }
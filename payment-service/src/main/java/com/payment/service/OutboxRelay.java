@@ -0,0 +1,111 @@
+package com.payment.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.payment.client.OrderServiceClient;
+import com.payment.dto.OrderStatusEvent;
+import com.payment.model.OutboxEvent;
+import com.payment.repository.OutboxEventRepository;
+
+/**
+ * Relays outbox events to order-service in batches
+ * 
+ * A batch is claimed for this instance in one short transaction, sent with
+ * no transaction or row lock held, and marked published in a second one.
+ * A failed delivery releases the claim for the next run; a claim left by a
+ * relay that died lapses after {@code claim-timeout-ms}. Delivery is at least
+ * once and, per relay, in outbox order.
+ */
+@Component
+public class OutboxRelay {
+    
+    private static final Logger logger = LoggerFactory.getLogger(OutboxRelay.class);
+    
+    private final OutboxEventRepository outboxEventRepository;
+    private final OrderServiceClient orderServiceClient;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final int retentionHours;
+    private final long claimTimeoutMs;
+    private final String relayId = UUID.randomUUID().toString();
+    
+    public OutboxRelay(OutboxEventRepository outboxEventRepository,
+                       OrderServiceClient orderServiceClient,
+                       TransactionTemplate transactionTemplate,
+                       @Value("${payment.outbox.batch-size:100}") int batchSize,
+                       @Value("${payment.outbox.retention-hours:24}") int retentionHours,
+                       @Value("${payment.outbox.claim-timeout-ms:30000}") long claimTimeoutMs) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.orderServiceClient = orderServiceClient;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+        this.retentionHours = retentionHours;
+        this.claimTimeoutMs = claimTimeoutMs;
+    }
+    
+    /**
+     * Publish pending events until the outbox is drained or a delivery fails
+     */
+    @Scheduled(fixedDelayString = "${payment.outbox.relay-interval-ms:500}")
+    public void relay() {
+        try {
+            int published;
+            do {
+                published = publishBatch();
+            } while (published == batchSize);
+        } catch (RuntimeException e) {
+            logger.warn("Outbox relay to order-service failed, retrying on next run: {}", e.getMessage());
+        }
+    }
+    
+    private int publishBatch() {
+        List<OutboxEvent> batch = transactionTemplate.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            List<OutboxEvent> claimable = outboxEventRepository.lockClaimable(now.minus(Duration.ofMillis(claimTimeoutMs)),
+                    batchSize);
+            if (!claimable.isEmpty()) {
+                outboxEventRepository.claim(ids(claimable), relayId, now);
+            }
+            return claimable;
+        });
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        List<Long> ids = ids(batch);
+        try {
+            orderServiceClient.publishStatusEvents(batch.stream()
+                    .map(event -> new OrderStatusEvent(event.getEventId(), event.getOrderId(), event.getOrderStatus()))
+                    .toList());
+        } catch (RuntimeException e) {
+            transactionTemplate.executeWithoutResult(status -> outboxEventRepository.releaseClaim(ids, relayId));
+            throw e;
+        }
+        transactionTemplate.executeWithoutResult(status ->
+                outboxEventRepository.markPublished(ids, relayId, LocalDateTime.now()));
+        logger.debug("Relayed {} order status events", batch.size());
+        return batch.size();
+    }
+    
+    private static List<Long> ids(List<OutboxEvent> events) {
+        return events.stream().map(OutboxEvent::getId).toList();
+    }
+    
+    /**
+     * Remove delivered events once they are past the retention window
+     */
+    @Scheduled(fixedDelayString = "${payment.outbox.cleanup-interval-ms:3600000}")
+    public void purgePublished() {
+        transactionTemplate.executeWithoutResult(status ->
+                outboxEventRepository.deletePublishedBefore(LocalDateTime.now().minusHours(retentionHours)));
+    }
+}
@@ -0,0 +1,80 @@
+package com.payment.service;
+
+import java.io.BufferedOutputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.util.zip.GZIPOutputStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.stereotype.Component;
+
+/**
+ * Command-line export of payments to a file
+ * 
+ * Active only when {@code payment.export.file} is set. The format follows the
+ * file name ({@code .csv} or {@code .ndjson}, optionally with {@code .gz}).
+ * Output goes to a {@code .part} file that is renamed once complete, and the
+ * JVM exits as soon as the export is done, before the application is marked
+ * ready, so none of the startup recovery meant for a serving instance runs.
+ */
+@Component
+@ConditionalOnProperty(name = "payment.export.file")
+public class PaymentExportRunner implements ApplicationRunner {
+    
+    private static final Logger logger = LoggerFactory.getLogger(PaymentExportRunner.class);
+    
+    private final PaymentExportService paymentExportService;
+    private final ConfigurableApplicationContext context;
+    private final Path file;
+    private final LocalDateTime from;
+    private final LocalDateTime to;
+    
+    public PaymentExportRunner(PaymentExportService paymentExportService,
+                               ConfigurableApplicationContext context,
+                               @Value("${payment.export.file}") String file,
+                               @Value("${payment.export.from}") String from,
+                               @Value("${payment.export.to}") String to) {
+        this.paymentExportService = paymentExportService;
+        this.context = context;
+        this.file = Path.of(file);
+        this.from = LocalDateTime.parse(from);
+        this.to = LocalDateTime.parse(to);
+    }
+    
+    @Override
+    public void run(ApplicationArguments args) {
+        int exitCode = 0;
+        try {
+            String name = file.getFileName().toString();
+            boolean gzip = name.endsWith(".gz");
+            String baseName = gzip ? name.substring(0, name.length() - 3) : name;
+            PaymentExportService.Format format = baseName.endsWith(".ndjson") || baseName.endsWith(".jsonl")
+                ? PaymentExportService.Format.NDJSON
+                : PaymentExportService.Format.CSV;
+            
+            Path partial = file.resolveSibling(name + ".part");
+            long count;
+            try (OutputStream fileOut = new BufferedOutputStream(Files.newOutputStream(partial), 64 * 1024);
+                 OutputStream out = gzip ? new GZIPOutputStream(fileOut, 64 * 1024) : fileOut) {
+                count = paymentExportService.export(from, to, format, out);
+            }
+            Files.move(partial, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            logger.info("Exported {} payments from {} to {} into {}", count, from, to, file);
+        } catch (Exception e) {
+            logger.error("Payment export to {} failed", file, e);
+            exitCode = 1;
+        }
+        int code = exitCode;
+        System.exit(SpringApplication.exit(context, () -> code));
+    }
+}
@@ -0,0 +1,227 @@
+package com.payment.service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.payment.exceptions.InvalidExportRequestException;
+
+/**
+ * Streams payments for a date range as CSV or NDJSON
+ * 
+ * Rows are read through a forward-only cursor and written as they arrive,
+ * so memory use stays flat regardless of how many payments are exported.
+ * With the default fetch size of {@link Integer#MIN_VALUE} the MySQL driver
+ * streams rows one at a time; a positive fetch size together with
+ * {@code useCursorFetch=true} on the JDBC URL reads them in server-side
+ * cursor batches instead.
+ */
+@Service
+public class PaymentExportService {
+    
+    public enum Format {
+        CSV, NDJSON;
+        
+        public static Format parse(String value) {
+            for (Format format : values()) {
+                if (format.name().equalsIgnoreCase(value)) {
+                    return format;
+                }
+            }
+            throw new InvalidExportRequestException("Unknown export format '" + value + "'. Use csv or ndjson");
+        }
+    }
+    
+    private static final String[] COLUMNS = {
+        "id", "order_id", "user_id", "amount", "currency", "payment_method", "status",
+        "transaction_id", "failure_reason", "created_at", "updated_at", "completed_at"
+    };
+    
+    private static final String EXPORT_SQL = "SELECT " + String.join(", ", COLUMNS)
+        + " FROM payments WHERE created_at >= ? AND created_at < ? ORDER BY created_at, id";
+    
+    private static final int WRITE_BUFFER_SIZE = 64 * 1024;
+    
+    private final JdbcTemplate exportJdbcTemplate;
+    private final JsonFactory jsonFactory = new JsonFactory();
+    
+    public PaymentExportService(DataSource dataSource,
+                                @Value("${payment.export.fetch-size:-2147483648}") int fetchSize) {
+        this.exportJdbcTemplate = new JdbcTemplate(dataSource);
+        this.exportJdbcTemplate.setFetchSize(fetchSize);
+    }
+    
+    /**
+     * Write every payment created in {@code [from, to)} to {@code out}
+     * 
+     * The stream is flushed but not closed, so callers can wrap it (for
+     * example in a GZIPOutputStream) and finish it themselves.
+     * 
+     * @return The number of payments written
+     * @throws InvalidExportRequestException if the range is empty or inverted
+     */
+    public long export(LocalDateTime from, LocalDateTime to, Format format, OutputStream out) throws IOException {
+        validateRange(from, to);
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), WRITE_BUFFER_SIZE);
+        RowWriter rowWriter = format == Format.CSV ? new CsvRowWriter(writer) : new NdjsonRowWriter(writer);
+        
+        long[] count = {0};
+        try {
+            rowWriter.start();
+            exportJdbcTemplate.query(EXPORT_SQL, resultSet -> {
+                try {
+                    rowWriter.write(resultSet);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                count[0]++;
+            }, Timestamp.valueOf(from), Timestamp.valueOf(to));
+            rowWriter.finish();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        writer.flush();
+        return count[0];
+    }
+    
+    /**
+     * Fail before any output is written, while the caller can still report an error
+     */
+    public void validateRange(LocalDateTime from, LocalDateTime to) {
+        if (from == null || to == null || !from.isBefore(to)) {
+            throw new InvalidExportRequestException("Export range needs from < to");
+        }
+    }
+    
+    private interface RowWriter {
+        void start() throws IOException;
+        
+        void write(ResultSet resultSet) throws SQLException, IOException;
+        
+        void finish() throws IOException;
+    }
+    
+    /**
+     * RFC 4180 CSV with a header row; timestamps in ISO-8601
+     */
+    private static final class CsvRowWriter implements RowWriter {
+        private final Writer writer;
+        
+        CsvRowWriter(Writer writer) {
+            this.writer = writer;
+        }
+        
+        @Override
+        public void start() throws IOException {
+            writer.write(String.join(",", COLUMNS));
+            writer.write("\r\n");
+        }
+        
+        @Override
+        public void write(ResultSet resultSet) throws SQLException, IOException {
+            for (int i = 0; i < COLUMNS.length; i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                String value = format(resultSet.getObject(i + 1));
+                if (value != null) {
+                    writeEscaped(value);
+                }
+            }
+            writer.write("\r\n");
+        }
+        
+        @Override
+        public void finish() {
+        }
+        
+        private void writeEscaped(String value) throws IOException {
+            boolean quote = false;
+            for (int i = 0; i < value.length() && !quote; i++) {
+                char c = value.charAt(i);
+                quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+            }
+            if (!quote) {
+                writer.write(value);
+                return;
+            }
+            writer.write('"');
+            writer.write(value.replace("\"", "\"\""));
+            writer.write('"');
+        }
+        
+        private static String format(Object value) {
+            if (value == null) {
+                return null;
+            }
+            if (value instanceof BigDecimal decimal) {
+                return decimal.toPlainString();
+            }
+            if (value instanceof Timestamp timestamp) {
+                return timestamp.toLocalDateTime().toString();
+            }
+            return value.toString();
+        }
+    }
+    
+    /**
+     * One JSON object per line, keyed by column name
+     */
+    private final class NdjsonRowWriter implements RowWriter {
+        private final JsonGenerator generator;
+        
+        NdjsonRowWriter(Writer writer) throws IOException {
+            this.generator = jsonFactory.createGenerator(writer);
+            this.generator.configure(JsonGenerator.Feature.AUTO_CLOSE_TARGET, false);
+            this.generator.setRootValueSeparator(null);
+        }
+        
+        @Override
+        public void start() {
+        }
+        
+        @Override
+        public void write(ResultSet resultSet) throws SQLException, IOException {
+            generator.writeStartObject();
+            for (int i = 0; i < COLUMNS.length; i++) {
+                Object value = resultSet.getObject(i + 1);
+                generator.writeFieldName(COLUMNS[i]);
+                if (value == null) {
+                    generator.writeNull();
+                } else if (value instanceof BigDecimal decimal) {
+                    generator.writeNumber(decimal);
+                } else if (value instanceof Number number) {
+                    generator.writeNumber(number.longValue());
+                } else if (value instanceof Timestamp timestamp) {
+                    generator.writeString(timestamp.toLocalDateTime().toString());
+                } else {
+                    generator.writeString(value.toString());
+                }
+            }
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        }
+        
+        @Override
+        public void finish() throws IOException {
+            generator.close();
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.payment.service;
 
 import com.payment.client.OrderServiceClient;
+import com.payment.client.PaymentCallbackClient;
 import com.payment.client.UserServiceClient;
 import com.payment.dto.OrderDto;
 import com.payment.dto.PaymentRequest;
@@ -8,19 +9,33 @@ import com.payment.exceptions.InvalidPaymentMethodException;
 import com.payment.exceptions.OrderValidationException;
 import com.payment.exceptions.PaymentNotFoundException;
 import com.payment.exceptions.PaymentProcessingException;
+import com.payment.exceptions.PaymentQueueFullException;
+import com.payment.model.OutboxEvent;
 import com.payment.model.Payment;
+import com.payment.repository.OutboxEventRepository;
 import com.payment.repository.PaymentRepository;
 import com.payment.service.PaymentGatewayService.PaymentResult;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
 
 @Service
 @Transactional
@@ -40,72 +55,225 @@ public class PaymentService {
     @Autowired
     private UserServiceClient userServiceClient;
     
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+    
+    @Autowired
+    private PaymentCallbackClient paymentCallbackClient;
+    
+    @Autowired
+    @Qualifier("paymentWorkerExecutor")
+    private Executor paymentWorkerExecutor;
+    
+    @Value("${payment.worker.lease-ms:60000}")
+    private long leaseMs;
+    
+    /** Owner recorded on the PROCESSING payments of this process */
+    private final String instanceId = UUID.randomUUID().toString();
+    
     /**
      * Process a new payment
+     * 
+     * The PENDING record is committed before the gateway is called and the
+     * outcome is written in a second short transaction, so no DB connection
+     * is held while the gateway call is in flight.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public CompletableFuture<Payment> processPayment(PaymentRequest paymentRequest) {
+        Payment payment = createPayment(paymentRequest, Payment.PaymentStatus.PENDING);
+        return completePayment(payment, paymentRequest);
+    }
+    
+    /**
+     * Accept a payment for background processing
+     * 
+     * The payment is stored as PROCESSING and handed to the worker queue; the
+     * caller polls it by ID or is notified at its callback URL when it completes.
+     * 
+     * @throws PaymentQueueFullException if the worker queue has no room
      */
-    public Payment processPayment(PaymentRequest paymentRequest) {
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Payment submitPayment(PaymentRequest paymentRequest) {
+        Payment payment = createPayment(paymentRequest, Payment.PaymentStatus.PROCESSING);
+        try {
+            paymentWorkerExecutor.execute(() -> processQueuedPayment(payment, paymentRequest));
+        } catch (RejectedExecutionException e) {
+            payment.setStatus(Payment.PaymentStatus.FAILED);
+            payment.setFailureReason("Payment queue is full");
+            transactionTemplate.executeWithoutResult(status -> paymentRepository.save(payment));
+            throw new PaymentQueueFullException("Too many payments in progress, retry later");
+        }
+        logger.info("Queued payment {} for order: {}", payment.getId(), paymentRequest.getOrderId());
+        return payment;
+    }
+    
+    /**
+     * Keep the leases on this instance's PROCESSING payments alive
+     */
+    @Scheduled(fixedDelayString = "${payment.worker.heartbeat-interval-ms:20000}")
+    public void renewProcessingLeases() {
+        paymentRepository.renewLeases(instanceId, leaseUntil());
+    }
+    
+    /**
+     * Fail payments whose in-memory work was lost because their instance stopped
+     * 
+     * Card details are never persisted, so a PROCESSING payment cannot be
+     * resumed elsewhere. Its owner renews the lease while it is alive, so
+     * payments in flight on other replicas are left alone.
+     */
+    @Scheduled(fixedDelayString = "${payment.worker.reaper-interval-ms:30000}")
+    public void failAbandonedPayments() {
+        int failed = paymentRepository.failExpiredLeases(LocalDateTime.now(),
+                "Processing interrupted: the instance handling it stopped");
+        if (failed > 0) {
+            logger.warn("Marked {} abandoned payments as failed", failed);
+        }
+    }
+    
+    private LocalDateTime leaseUntil() {
+        return LocalDateTime.now().plus(Duration.ofMillis(leaseMs));
+    }
+    
+    private void processQueuedPayment(Payment payment, PaymentRequest paymentRequest) {
+        Payment outcome;
+        try {
+            outcome = completePayment(payment, paymentRequest).join();
+        } catch (CompletionException e) {
+            // finalizePayment has already recorded the failure on this instance
+            outcome = payment;
+        }
+        paymentCallbackClient.notifyCompletion(outcome);
+    }
+    
+    /**
+     * Validate a payment request and commit its payment record
+     */
+    private Payment createPayment(PaymentRequest paymentRequest, Payment.PaymentStatus initialStatus) {
         logger.info("Processing payment for order: {} with method: {}", 
                    paymentRequest.getOrderId(), paymentRequest.getPaymentMethod());
         
+        if (paymentRequest.getCallbackUrl() != null) {
+            paymentCallbackClient.checkCallbackUrl(paymentRequest.getCallbackUrl());
+        }
+        
         // Validate order exists and is pending payment
         validateOrder(paymentRequest.getOrderId());
         
         // Validate user exists
         validateUser(paymentRequest.getUserId());
         
-        // Check if payment already exists for this order
-        Optional<Payment> existingPayment = paymentRepository.findByOrderId(paymentRequest.getOrderId());
-        if (existingPayment.isPresent() && 
-            (existingPayment.get().getStatus() == Payment.PaymentStatus.COMPLETED ||
-             existingPayment.get().getStatus() == Payment.PaymentStatus.PENDING)) {
-            throw new PaymentProcessingException("Payment already exists for order: " + paymentRequest.getOrderId());
+        // Phase 1: create the payment record
+        return transactionTemplate.execute(status -> {
+            // Check if payment already exists for this order
+            Optional<Payment> existingPayment = paymentRepository.findByOrderId(paymentRequest.getOrderId());
+            if (existingPayment.isPresent() && 
+                (existingPayment.get().getStatus() == Payment.PaymentStatus.COMPLETED ||
+                 existingPayment.get().getStatus() == Payment.PaymentStatus.PENDING ||
+                 existingPayment.get().getStatus() == Payment.PaymentStatus.PROCESSING)) {
+                throw new PaymentProcessingException("Payment already exists for order: " + paymentRequest.getOrderId());
+            }
+            Payment payment = createPaymentRecord(paymentRequest);
+            payment.setStatus(initialStatus);
+            if (initialStatus == Payment.PaymentStatus.PROCESSING) {
+                payment.setProcessingOwner(instanceId);
+                payment.setLeaseExpiresAt(leaseUntil());
+            }
+            return paymentRepository.save(payment);
+        });
+    }
+    
+    /**
+     * Call the gateway and record its outcome once it answers
+     */
+    private CompletableFuture<Payment> completePayment(Payment payment, PaymentRequest paymentRequest) {
+        CompletableFuture<PaymentResult> gatewayCall;
+        try {
+            gatewayCall = processPaymentThroughGateway(paymentRequest);
+        } catch (RuntimeException e) {
+            gatewayCall = CompletableFuture.failedFuture(e);
         }
         
-        // Create payment record
-        Payment payment = createPaymentRecord(paymentRequest);
-        payment = paymentRepository.save(payment);
+        // Phase 2: record the outcome once the gateway answers
+        return gatewayCall.handle((result, error) -> finalizePayment(payment, paymentRequest, result, error));
+    }
+    
+    /**
+     * Record the gateway outcome of a PENDING or PROCESSING payment
+     * 
+     * The write only applies if the payment is still in the state it was
+     * taken from, and for PROCESSING payments still owned by this instance,
+     * so a payment the reaper failed meanwhile is not overwritten and gets no
+     * PAID event.
+     */
+    private Payment finalizePayment(Payment payment, PaymentRequest paymentRequest,
+                                    PaymentResult result, Throwable error) {
+        Throwable failure = unwrap(error);
+        Payment.PaymentStatus expected = payment.getStatus();
+        String owner = payment.getProcessingOwner();
         
-        try {
-            // Process payment through gateway
-            PaymentResult result = processPaymentThroughGateway(paymentRequest);
+        if (failure == null && result.isSuccess()) {
+            payment.setStatus(Payment.PaymentStatus.COMPLETED);
+            payment.setTransactionId(result.getTransactionId());
+            payment.setCompletedAt(LocalDateTime.now());
             
-            if (result.isSuccess()) {
-                // Update payment status to completed
-                payment.setStatus(Payment.PaymentStatus.COMPLETED);
-                payment.setTransactionId(result.getTransactionId());
-                payment.setCompletedAt(LocalDateTime.now());
-                
-                // Update order status to paid
-                orderServiceClient.updateOrderStatus(paymentRequest.getOrderId(), "PAID");
-                
-                logger.info("Payment completed successfully for order: {} with transaction ID: {}", 
-                           paymentRequest.getOrderId(), result.getTransactionId());
-            } else {
-                // Update payment status to failed
-                payment.setStatus(Payment.PaymentStatus.FAILED);
-                payment.setFailureReason(result.getMessage());
-                
-                logger.warn("Payment failed for order: {} - {}", 
-                           paymentRequest.getOrderId(), result.getMessage());
-                
-                throw new PaymentProcessingException("Payment processing failed: " + result.getMessage());
+            // The order is marked PAID by the outbox relay, committed together with the payment
+            boolean recorded = transactionTemplate.execute(status -> {
+                if (!finish(payment, expected, owner)) {
+                    return false;
+                }
+                outboxEventRepository.save(new OutboxEvent(payment.getId(), payment.getOrderId(), "PAID"));
+                return true;
+            });
+            if (!recorded) {
+                logger.error("Payment {} for order {} was charged with transaction ID {} but had already been "
+                        + "finalized elsewhere; it needs reconciling", payment.getId(), paymentRequest.getOrderId(),
+                        result.getTransactionId());
+                return getPaymentById(payment.getId());
             }
             
-            return paymentRepository.save(payment);
-            
-        } catch (Exception e) {
-            // Update payment status to failed
-            payment.setStatus(Payment.PaymentStatus.FAILED);
-            payment.setFailureReason(e.getMessage());
-            paymentRepository.save(payment);
-            
-            logger.error("Payment processing error for order: {}", paymentRequest.getOrderId(), e);
-            
-            if (e instanceof PaymentProcessingException) {
-                throw e;
-            }
-            throw new PaymentProcessingException("Unexpected error during payment processing: " + e.getMessage());
+            logger.info("Payment completed successfully for order: {} with transaction ID: {}", 
+                       paymentRequest.getOrderId(), result.getTransactionId());
+            return payment;
+        }
+        
+        // Update payment status to failed
+        String reason = failure != null ? failure.getMessage() : result.getMessage();
+        payment.setStatus(Payment.PaymentStatus.FAILED);
+        payment.setFailureReason(reason);
+        if (!transactionTemplate.execute(status -> finish(payment, expected, owner))) {
+            logger.warn("Payment {} had already been finalized elsewhere; not recording its failure", payment.getId());
         }
+        
+        if (failure == null) {
+            logger.warn("Payment failed for order: {} - {}", paymentRequest.getOrderId(), reason);
+            throw new PaymentProcessingException("Payment processing failed: " + reason);
+        }
+        
+        logger.error("Payment processing error for order: {}", paymentRequest.getOrderId(), failure);
+        
+        if (failure instanceof PaymentProcessingException processingException) {
+            throw processingException;
+        }
+        throw new PaymentProcessingException("Unexpected error during payment processing: " + reason);
+    }
+    
+    /**
+     * Write the outcome held by a payment, if it is still in the expected state and owned by the expected owner
+     */
+    private boolean finish(Payment payment, Payment.PaymentStatus expected, String owner) {
+        LocalDateTime now = LocalDateTime.now();
+        if (paymentRepository.finish(payment.getId(), expected, owner, payment.getStatus(), payment.getTransactionId(),
+                payment.getFailureReason(), payment.getCompletedAt(), now) == 0) {
+            return false;
+        }
+        payment.setUpdatedAt(now);
+        payment.setProcessingOwner(null);
+        payment.setLeaseExpiresAt(null);
+        return true;
     }
     
     /**
@@ -153,34 +321,55 @@ public class PaymentService {
     
     /**
      * Process refund
+     * 
+     * Like payments, the refund is validated and recorded in short
+     * transactions on either side of the gateway call.
      */
-    public Payment processRefund(Long paymentId, BigDecimal refundAmount, String reason) {
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public CompletableFuture<Payment> processRefund(Long paymentId, BigDecimal refundAmount, String reason) {
         logger.info("Processing refund for payment ID: {} with amount: {}", paymentId, refundAmount);
         
-        Payment originalPayment = getPaymentById(paymentId);
-        
-        // Validate payment can be refunded
-        if (originalPayment.getStatus() != Payment.PaymentStatus.COMPLETED) {
-            throw new PaymentProcessingException("Can only refund completed payments");
-        }
-        
-        if (refundAmount.compareTo(originalPayment.getAmount()) > 0) {
-            throw new PaymentProcessingException("Refund amount cannot exceed original payment amount");
-        }
+        Payment originalPayment = transactionTemplate.execute(status -> {
+            Payment payment = getPaymentById(paymentId);
+            
+            // Validate payment can be refunded
+            if (payment.getStatus() != Payment.PaymentStatus.COMPLETED) {
+                throw new PaymentProcessingException("Can only refund completed payments");
+            }
+            
+            if (refundAmount.compareTo(payment.getAmount()) > 0) {
+                throw new PaymentProcessingException("Refund amount cannot exceed original payment amount");
+            }
+            
+            // Check if full refund already exists
+            Optional<Payment> existingRefund = paymentRepository.findByOrderIdAndStatus(
+                    payment.getOrderId(), Payment.PaymentStatus.REFUNDED);
+            if (existingRefund.isPresent()) {
+                throw new PaymentProcessingException("Payment has already been refunded");
+            }
+            return payment;
+        });
         
-        // Check if full refund already exists
-        Optional<Payment> existingRefund = paymentRepository.findByOrderIdAndStatus(
-                originalPayment.getOrderId(), Payment.PaymentStatus.REFUNDED);
-        if (existingRefund.isPresent()) {
-            throw new PaymentProcessingException("Payment has already been refunded");
+        CompletableFuture<PaymentResult> gatewayCall;
+        try {
+            gatewayCall = paymentGatewayService.processRefund(originalPayment.getTransactionId(), refundAmount);
+        } catch (RuntimeException e) {
+            gatewayCall = CompletableFuture.failedFuture(e);
         }
         
-        try {
-            // Process refund through gateway
-            PaymentResult refundResult = paymentGatewayService.processRefund(
-                    originalPayment.getTransactionId(), refundAmount);
-            
-            if (refundResult.isSuccess()) {
+        return gatewayCall.handle((refundResult, error) -> {
+            try {
+                Throwable failure = unwrap(error);
+                if (failure instanceof RuntimeException runtimeException) {
+                    throw runtimeException;
+                }
+                if (failure != null) {
+                    throw new PaymentProcessingException(failure.getMessage());
+                }
+                if (!refundResult.isSuccess()) {
+                    throw new PaymentProcessingException("Refund processing failed: " + refundResult.getMessage());
+                }
+                
                 // Create refund payment record
                 Payment refundPayment = new Payment();
                 refundPayment.setOrderId(originalPayment.getOrderId());
@@ -193,29 +382,36 @@ public class PaymentService {
                 refundPayment.setFailureReason(reason);
                 refundPayment.setCompletedAt(LocalDateTime.now());
                 
-                refundPayment = paymentRepository.save(refundPayment);
-                
-                // Update order status if full refund
-                if (refundAmount.compareTo(originalPayment.getAmount()) == 0) {
-                    orderServiceClient.updateOrderStatus(originalPayment.getOrderId(), "REFUNDED");
-                }
+                Payment savedRefund = transactionTemplate.execute(status -> {
+                    Payment saved = paymentRepository.save(refundPayment);
+                    // Update order status if full refund, via the outbox
+                    if (refundAmount.compareTo(originalPayment.getAmount()) == 0) {
+                        outboxEventRepository.save(new OutboxEvent(saved.getId(), saved.getOrderId(), "REFUNDED"));
+                    }
+                    return saved;
+                });
                 
                 logger.info("Refund completed successfully for payment ID: {} with transaction ID: {}", 
                            paymentId, refundResult.getTransactionId());
                 
-                return refundPayment;
-            } else {
-                throw new PaymentProcessingException("Refund processing failed: " + refundResult.getMessage());
-            }
-            
-        } catch (Exception e) {
-            logger.error("Refund processing error for payment ID: {}", paymentId, e);
-            
-            if (e instanceof PaymentProcessingException) {
-                throw e;
+                return savedRefund;
+                
+            } catch (Exception e) {
+                logger.error("Refund processing error for payment ID: {}", paymentId, e);
+                
+                if (e instanceof PaymentProcessingException processingException) {
+                    throw processingException;
+                }
+                throw new PaymentProcessingException("Unexpected error during refund processing: " + e.getMessage());
             }
-            throw new PaymentProcessingException("Unexpected error during refund processing: " + e.getMessage());
+        });
+    }
+    
+    private static Throwable unwrap(Throwable error) {
+        if (error instanceof CompletionException && error.getCause() != null) {
+            return error.getCause();
         }
+        return error;
     }
     
     /**
@@ -268,6 +464,7 @@ public class PaymentService {
         payment.setCurrency(paymentRequest.getCurrency());
         payment.setPaymentMethod(Payment.PaymentMethod.valueOf(paymentRequest.getPaymentMethod()));
         payment.setStatus(Payment.PaymentStatus.PENDING);
+        payment.setCallbackUrl(paymentRequest.getCallbackUrl());
         payment.setCreatedAt(LocalDateTime.now());
         
         return payment;
@@ -276,7 +473,7 @@ public class PaymentService {
     /**
      * Process payment through appropriate gateway
      */
-    private PaymentResult processPaymentThroughGateway(PaymentRequest paymentRequest) {
+    private CompletableFuture<PaymentResult> processPaymentThroughGateway(PaymentRequest paymentRequest) {
         Payment.PaymentMethod method = Payment.PaymentMethod.valueOf(paymentRequest.getPaymentMethod());
         
         switch (method) {
@@ -1,8 +1,10 @@
 package com.trader;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;	
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class TraderServiceApplication {
 
 	public static void main(String[] args) {
@@ -0,0 +1,32 @@
+package com.trader.config;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadPoolExecutor;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+public class CatalogConfig {
+
+	/**
+	 * Executor that delivers catalog invalidations off the request thread
+	 * When the queue is full the oldest invalidation is dropped; consumer TTLs cover it
+	 */
+	@Bean(name = "catalogInvalidationExecutor")
+	public Executor catalogInvalidationExecutor(
+			@Value("${trader.catalog.invalidation.queue-capacity:1000}") int queueCapacity,
+			@Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+		ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+		executor.setVirtualThreads(virtualThreads);
+		executor.setCorePoolSize(2);
+		executor.setMaxPoolSize(2);
+		executor.setQueueCapacity(queueCapacity);
+		executor.setThreadNamePrefix("catalog-invalidation-");
+		executor.setRejectedExecutionHandler(new ThreadPoolExecutor.DiscardOldestPolicy());
+		executor.initialize();
+		return executor;
+	}
+}
@@ -1,11 +1,23 @@
 package com.trader.config;
+import java.nio.charset.StandardCharsets;
+
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.AnonymousAuthenticationFilter;
+import org.springframework.security.web.authentication.HttpStatusEntryPoint;
+
+import com.beemo.common.security.IdentityHeader;
+import com.beemo.common.security.IdentityHeaderFilter;
+import com.beemo.common.security.ServiceIdentity;
+import com.fasterxml.jackson.databind.ObjectMapper;
 @Configuration
 @EnableWebSecurity
 public class SecurityConfig {
@@ -15,13 +27,37 @@ public class SecurityConfig {
 	}
 
 	@Bean
-	public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
+	public IdentityHeader identityHeader(@Value("${beemo.security.identity.secret}") String identitySecret,
+			@Value("${beemo.security.identity.cache-size:10000}") int cacheSize) {
+		return new IdentityHeader(identitySecret.getBytes(StandardCharsets.UTF_8), cacheSize);
+	}
+
+	/**
+	 * Identity sent with catalog invalidations to order-service
+	 */
+	@Bean
+	public ServiceIdentity serviceIdentity(IdentityHeader identityHeader,
+			@Value("${spring.application.name}") String serviceName) {
+		return new ServiceIdentity(identityHeader, serviceName);
+	}
+
+	@Bean
+	public SecurityFilterChain filterChain(HttpSecurity http, IdentityHeader identityHeader,
+			ObjectMapper objectMapper) throws Exception {
 		http
 			.csrf(csrf -> csrf.disable())
+			.addFilterBefore(new IdentityHeaderFilter(identityHeader, objectMapper), AnonymousAuthenticationFilter.class)
 			.sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+			.exceptionHandling(exceptions -> exceptions.authenticationEntryPoint(new HttpStatusEntryPoint(HttpStatus.UNAUTHORIZED)))
 			.authorizeHttpRequests(auth -> auth
-				.requestMatchers("/**","products/*","products", "/traders/login", "/traders/register", "/login.html", "/register.html", "/static/**", "/css/**", "/js/**").permitAll()
-				.requestMatchers(org.springframework.http.HttpMethod.POST, "/login", "/register").permitAll()
+				.requestMatchers("/error").permitAll()
+				.requestMatchers("/login.html", "/register.html", "/static/**", "/css/**", "/js/**").permitAll()
+				.requestMatchers(HttpMethod.POST, "/login", "/register").permitAll()
+				// The catalog is public; changing it needs a signed-in caller
+				.requestMatchers(HttpMethod.GET, "/products", "/products/**").permitAll()
+				// Stock reservations are only made by order services
+				.requestMatchers(HttpMethod.POST, "/products/reservations", "/products/reservations/*/claim",
+					"/products/reservations/*/release", "/products/*/reservations").hasRole("SERVICE")
 				.anyRequest().authenticated()
 			);
 		return http.build();
@@ -0,0 +1,44 @@
+package com.trader.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+
+	private final ThreadPoolTaskExecutor catalogStreamExecutor;
+	private final long streamTimeoutMs;
+
+	public WebConfig(@Value("${trader.catalog.stream.threads:4}") int threads,
+			@Value("${trader.catalog.stream.queue-capacity:100}") int queueCapacity,
+			@Value("${trader.catalog.stream.timeout-ms:600000}") long streamTimeoutMs,
+			@Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+		this.catalogStreamExecutor = new ThreadPoolTaskExecutor();
+		this.catalogStreamExecutor.setVirtualThreads(virtualThreads);
+		this.catalogStreamExecutor.setCorePoolSize(threads);
+		this.catalogStreamExecutor.setMaxPoolSize(threads);
+		this.catalogStreamExecutor.setQueueCapacity(queueCapacity);
+		this.catalogStreamExecutor.setThreadNamePrefix("catalog-stream-");
+		this.streamTimeoutMs = streamTimeoutMs;
+	}
+
+	/**
+	 * Executor that writes streamed catalog responses
+	 * Each stream holds a database connection until it finishes, so the pool
+	 * stays well below the connection pool size, virtual threads or not
+	 */
+	@Bean(name = "catalogStreamExecutor")
+	public ThreadPoolTaskExecutor catalogStreamExecutor() {
+		return catalogStreamExecutor;
+	}
+
+	@Override
+	public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+		configurer.setTaskExecutor(catalogStreamExecutor);
+		configurer.setDefaultTimeout(streamTimeoutMs);
+	}
+}
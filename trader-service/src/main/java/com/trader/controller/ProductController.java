@@ -1,9 +1,13 @@
 package com.trader.controller;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
+import java.util.Map;
 
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -14,9 +18,21 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import com.trader.dto.ProductPage;
+import com.trader.dto.ProductSearchResult;
+import com.trader.dto.StockReservationBatch;
+import com.trader.dto.StockReservationRequest;
 import com.trader.model.Product;
+import com.trader.repository.ProductSort;
 import com.trader.service.ProductService;
+import com.trader.service.StockReservationService;
 
 import jakarta.validation.Valid;
 
@@ -24,16 +40,66 @@ import jakarta.validation.Valid;
 @RequestMapping("/products")
 public class ProductController {
 	
+	private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
 	private final ProductService productService;
+	private final StockReservationService stockReservationService;
+	private final ObjectMapper objectMapper;
+	// Leaves flushing to the servlet buffer instead of sending a chunk per row
+	private final ObjectWriter rowWriter;
 
-	public ProductController(ProductService productService) {
+	public ProductController(ProductService productService, StockReservationService stockReservationService,
+			ObjectMapper objectMapper) {
 		this.productService = productService;
+		this.stockReservationService = stockReservationService;
+		this.objectMapper = objectMapper;
+		this.rowWriter = objectMapper.writerFor(Product.class).without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
 	}
 	
+	/**
+	 * List the whole catalog as a JSON array
+	 * Rows are written as they come off the database cursor instead of being collected first
+	 */
 	@GetMapping
-	public ResponseEntity<List<Product>> getAllProducts() {
-		List<Product> products = productService.findAllProducts();
-		return ResponseEntity.ok(products);
+	public ResponseEntity<StreamingResponseBody> getAllProducts(@RequestParam(defaultValue = "id") String sort) {
+		ProductSort productSort = ProductSort.parse(sort);
+		StreamingResponseBody body = out -> {
+			try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+				generator.writeStartArray();
+				productService.streamProducts(productSort, product -> write(generator, product));
+				generator.writeEndArray();
+			}
+		};
+		return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+	}
+
+	/**
+	 * Read one page of the catalog
+	 * Pass the returned nextCursor back as {@code cursor} to get the following page
+	 */
+	@GetMapping(params = "limit")
+	public ResponseEntity<ProductPage> getProductPage(@RequestParam int limit,
+			@RequestParam(defaultValue = "id") String sort,
+			@RequestParam(required = false) String cursor) {
+		return ResponseEntity.ok(productService.findProductPage(sort, cursor, limit));
+	}
+
+	/**
+	 * Stream the whole catalog as newline-delimited JSON, one product per line
+	 */
+	@GetMapping(value = "/stream", produces = "application/x-ndjson")
+	public ResponseEntity<StreamingResponseBody> streamProducts(@RequestParam(defaultValue = "id") String sort) {
+		ProductSort productSort = ProductSort.parse(sort);
+		StreamingResponseBody body = out -> {
+			try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+				generator.setRootValueSeparator(null);
+				productService.streamProducts(productSort, product -> {
+					write(generator, product);
+					writeNewline(generator);
+				});
+			}
+		};
+		return ResponseEntity.ok().contentType(NDJSON).body(body);
 	}
 
 	@PostMapping
@@ -50,6 +116,26 @@ public class ProductController {
 		}
 	}
 
+	/**
+	 * Full-text search over product names and descriptions
+	 */
+	@GetMapping("/search")
+	public ResponseEntity<List<ProductSearchResult>> searchProducts(@RequestParam String q,
+			@RequestParam(defaultValue = "false") boolean fuzzy,
+			@RequestParam(required = false) Double minPrice,
+			@RequestParam(required = false) Double maxPrice,
+			@RequestParam(defaultValue = "20") int limit) {
+		return ResponseEntity.ok(productService.searchProducts(q, fuzzy, minPrice, maxPrice, limit));
+	}
+
+	/**
+	 * Fetch several products in one round trip
+	 */
+	@GetMapping("/batch")
+	public ResponseEntity<List<Product>> getProductsByIds(@RequestParam List<Long> ids) {
+		return ResponseEntity.ok(productService.findAllByIds(ids));
+	}
+
 	@GetMapping("/{id}")
 	public ResponseEntity<Product> getProductById(@PathVariable Long id) {
 		Product product = productService.findById(id);
@@ -115,4 +201,64 @@ public class ProductController {
 				.body("Error updating stock: " + e.getMessage());
 		}
 	}
+
+	/**
+	 * Reserve stock for a product in a single atomic step
+	 * Replaces the separate check-stock and update-stock calls
+	 */
+	@PostMapping("/{id}/reservations")
+	public ResponseEntity<?> reserveStock(@PathVariable Long id, @RequestParam int quantity) {
+		int remainingStock = productService.reserveStock(id, quantity);
+		return ResponseEntity.ok(Map.of(
+			"productId", id,
+			"reserved", quantity,
+			"remainingStock", remainingStock
+		));
+	}
+
+	/**
+	 * Reserve stock for several products in one round trip
+	 * Either every line is reserved or none is; the reservation must be claimed or released by its ID
+	 */
+	@PostMapping("/reservations")
+	public ResponseEntity<StockReservationBatch> reserveStockBatch(
+			@RequestBody List<StockReservationRequest> requests) {
+		return ResponseEntity.ok(stockReservationService.reserve(requests));
+	}
+
+	/**
+	 * Keep the stock of a batch reservation whose order was stored
+	 * Claiming an already claimed reservation does nothing
+	 */
+	@PostMapping("/reservations/{reservationId}/claim")
+	public ResponseEntity<Void> claimStockBatch(@PathVariable String reservationId) {
+		stockReservationService.claim(reservationId);
+		return ResponseEntity.noContent().build();
+	}
+
+	/**
+	 * Give back stock from a batch reservation whose order was not stored
+	 * Releasing an already released or expired reservation does nothing
+	 */
+	@PostMapping("/reservations/{reservationId}/release")
+	public ResponseEntity<Void> releaseStockBatch(@PathVariable String reservationId) {
+		stockReservationService.release(reservationId);
+		return ResponseEntity.noContent().build();
+	}
+
+	private void write(JsonGenerator generator, Product product) {
+		try {
+			rowWriter.writeValue(generator, product);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	private static void writeNewline(JsonGenerator generator) {
+		try {
+			generator.writeRaw('\n');
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
 }
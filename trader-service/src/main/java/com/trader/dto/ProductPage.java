@@ -0,0 +1,48 @@
+package com.trader.dto;
+
+import java.util.List;
+
+import com.trader.model.Product;
+
+/**
+ * One page of the catalog plus the cursor to continue from
+ */
+public class ProductPage {
+
+	private List<Product> items;
+	private String nextCursor;
+	private boolean hasMore;
+
+	public ProductPage() {
+	}
+
+	public ProductPage(List<Product> items, String nextCursor) {
+		this.items = items;
+		this.nextCursor = nextCursor;
+		this.hasMore = nextCursor != null;
+	}
+
+	public List<Product> getItems() {
+		return items;
+	}
+
+	public void setItems(List<Product> items) {
+		this.items = items;
+	}
+
+	public String getNextCursor() {
+		return nextCursor;
+	}
+
+	public void setNextCursor(String nextCursor) {
+		this.nextCursor = nextCursor;
+	}
+
+	public boolean isHasMore() {
+		return hasMore;
+	}
+
+	public void setHasMore(boolean hasMore) {
+		this.hasMore = hasMore;
+	}
+}
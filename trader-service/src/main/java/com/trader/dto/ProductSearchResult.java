@@ -0,0 +1,64 @@
+package com.trader.dto;
+
+/**
+ * Product matching a search query, with its relevance score
+ */
+public class ProductSearchResult {
+
+	private Long id;
+	private String name;
+	private String description;
+	private double price;
+	private double score;
+
+	public ProductSearchResult() {
+	}
+
+	public ProductSearchResult(Long id, String name, String description, double price, double score) {
+		this.id = id;
+		this.name = name;
+		this.description = description;
+		this.price = price;
+		this.score = score;
+	}
+
+	public Long getId() {
+		return id;
+	}
+
+	public void setId(Long id) {
+		this.id = id;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public void setName(String name) {
+		this.name = name;
+	}
+
+	public String getDescription() {
+		return description;
+	}
+
+	public void setDescription(String description) {
+		this.description = description;
+	}
+
+	public double getPrice() {
+		return price;
+	}
+
+	public void setPrice(double price) {
+		this.price = price;
+	}
+
+	public double getScore() {
+		return score;
+	}
+
+	public void setScore(double score) {
+		this.score = score;
+	}
+}
@@ -0,0 +1,47 @@
+package com.trader.dto;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * A batch reservation: its ID for claiming or releasing it, and one result per product
+ */
+public class StockReservationBatch {
+
+	private String reservationId;
+	private Instant expiresAt;
+	private List<StockReservationResult> lines;
+
+	public StockReservationBatch() {
+	}
+
+	public StockReservationBatch(String reservationId, Instant expiresAt, List<StockReservationResult> lines) {
+		this.reservationId = reservationId;
+		this.expiresAt = expiresAt;
+		this.lines = lines;
+	}
+
+	public String getReservationId() {
+		return reservationId;
+	}
+
+	public void setReservationId(String reservationId) {
+		this.reservationId = reservationId;
+	}
+
+	public Instant getExpiresAt() {
+		return expiresAt;
+	}
+
+	public void setExpiresAt(Instant expiresAt) {
+		this.expiresAt = expiresAt;
+	}
+
+	public List<StockReservationResult> getLines() {
+		return lines;
+	}
+
+	public void setLines(List<StockReservationResult> lines) {
+		this.lines = lines;
+	}
+}
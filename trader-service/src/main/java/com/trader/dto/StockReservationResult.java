@@ -0,0 +1,65 @@
+package com.trader.dto;
+
+/**
+ * Outcome of reserving stock for one product, including the product
+ * details the caller needs to price the order line
+ */
+public class StockReservationResult {
+
+	private Long productId;
+	private String name;
+	private double price;
+	private int reserved;
+	private int remainingStock;
+
+	public StockReservationResult() {
+	}
+
+	public StockReservationResult(Long productId, String name, double price, int reserved, int remainingStock) {
+		this.productId = productId;
+		this.name = name;
+		this.price = price;
+		this.reserved = reserved;
+		this.remainingStock = remainingStock;
+	}
+
+	public Long getProductId() {
+		return productId;
+	}
+
+	public void setProductId(Long productId) {
+		this.productId = productId;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public void setName(String name) {
+		this.name = name;
+	}
+
+	public double getPrice() {
+		return price;
+	}
+
+	public void setPrice(double price) {
+		this.price = price;
+	}
+
+	public int getReserved() {
+		return reserved;
+	}
+
+	public void setReserved(int reserved) {
+		this.reserved = reserved;
+	}
+
+	public int getRemainingStock() {
+		return remainingStock;
+	}
+
+	public void setRemainingStock(int remainingStock) {
+		this.remainingStock = remainingStock;
+	}
+}
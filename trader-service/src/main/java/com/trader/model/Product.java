@@ -5,7 +5,10 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
 @Entity
+@Table(indexes = @Index(name = "idx_product_price_id", columnList = "price, id"))
 public class Product {
 	@Id
 	@GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -20,8 +23,13 @@ public class Product {
 	@Column(nullable = false)
 	private double price;
 
-	@Column(nullable = false)
+	// Only written on insert; afterwards stock is owned by the StockEngine
+	@Column(nullable = false, updatable = false)
 	private int stock = 0;
+
+	// Catalog version, bumped on every change to name, description or price
+	@Column(nullable = false)
+	private long version;
 	
 	public Product() {
 	}
@@ -77,4 +85,12 @@ public class Product {
 	public void setStock(int stock) {
 		this.stock = stock;
 	}
+
+	public long getVersion() {
+		return version;
+	}
+
+	public void setVersion(long version) {
+		this.version = version;
+	}
 }
@@ -0,0 +1,41 @@
+package com.trader.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+/**
+ * Last stock journal sequence whose deltas have been applied to {@code product.stock}
+ * 
+ * Single-row table, updated in the same transaction as the stock deltas so a
+ * journal entry is never applied twice after a restart.
+ */
+@Entity
+@Table(name = "stock_ledger_checkpoint")
+public class StockLedgerCheckpoint {
+	@Id
+	private int id;
+
+	@Column(name = "last_sequence", nullable = false)
+	private long lastSequence;
+
+	public StockLedgerCheckpoint() {
+	}
+
+	public int getId() {
+		return id;
+	}
+
+	public void setId(int id) {
+		this.id = id;
+	}
+
+	public long getLastSequence() {
+		return lastSequence;
+	}
+
+	public void setLastSequence(long lastSequence) {
+		this.lastSequence = lastSequence;
+	}
+}
@@ -0,0 +1,95 @@
+package com.trader.model;
+
+import java.time.Instant;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Lob;
+import jakarta.persistence.Table;
+
+/**
+ * Stock taken by one batch reservation, until its order claims it or it is given back
+ *
+ * The lines are stored as {@code productId:quantity} pairs in one column, so
+ * finished reservations can be purged with a single DELETE.
+ */
+@Entity
+@Table(name = "stock_reservation", indexes = @Index(name = "idx_stock_reservation_status_expires", columnList = "status, expires_at"))
+public class StockReservation {
+
+	public enum Status {
+		/** Stock is taken; expires unless claimed */
+		HELD,
+		/** The order was stored and keeps the stock */
+		CLAIMED,
+		/** Given back by the caller */
+		RELEASED,
+		/** Given back because it was not claimed in time */
+		EXPIRED
+	}
+
+	@Id
+	@Column(length = 36)
+	private String id;
+
+	@Enumerated(EnumType.STRING)
+	@Column(nullable = false, length = 16)
+	private Status status = Status.HELD;
+
+	@Lob
+	@Column(nullable = false)
+	private String lines;
+
+	@Column(name = "expires_at", nullable = false)
+	private Instant expiresAt;
+
+	public StockReservation() {
+	}
+
+	public StockReservation(String id, SortedMap<Long, Integer> quantities, Instant expiresAt) {
+		this.id = id;
+		this.lines = quantities.entrySet().stream()
+			.map(entry -> entry.getKey() + ":" + entry.getValue())
+			.collect(Collectors.joining(","));
+		this.expiresAt = expiresAt;
+	}
+
+	/**
+	 * Reserved quantities keyed by product ID, in ID order
+	 */
+	public SortedMap<Long, Integer> quantities() {
+		SortedMap<Long, Integer> quantities = new TreeMap<>();
+		for (String line : lines.split(",")) {
+			int colon = line.indexOf(':');
+			quantities.put(Long.valueOf(line.substring(0, colon)), Integer.valueOf(line.substring(colon + 1)));
+		}
+		return quantities;
+	}
+
+	public String getId() {
+		return id;
+	}
+
+	public Status getStatus() {
+		return status;
+	}
+
+	public void setStatus(Status status) {
+		this.status = status;
+	}
+
+	public String getLines() {
+		return lines;
+	}
+
+	public Instant getExpiresAt() {
+		return expiresAt;
+	}
+}
@@ -0,0 +1,43 @@
+package com.trader.repository;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+import com.trader.model.Product;
+
+/**
+ * Catalog reads that bypass the JPA persistence context
+ */
+public interface ProductQueryRepository {
+
+	/**
+	 * Read the next page of products after a keyset position
+	 * 
+	 * @param sort The ordering to page in
+	 * @param afterValue The sort value of the last row already returned, or null for the first page
+	 * @param afterId The ID of the last row already returned, ignored for the first page
+	 * @param limit The maximum number of rows to return
+	 * @return Up to {@code limit} products in sort order
+	 */
+	List<Product> findPage(ProductSort sort, Object afterValue, long afterId, int limit);
+
+	/**
+	 * Hand every product to {@code action} in sort order, one row at a time
+	 * 
+	 * Rows are streamed from the database cursor, so memory use does not
+	 * grow with the size of the catalog.
+	 * 
+	 * @param sort The ordering to stream in
+	 * @param action Called once per row, on the calling thread
+	 */
+	void streamAll(ProductSort sort, Consumer<Product> action);
+
+	/**
+	 * Hand every product with {@code fromId <= id < toId} to {@code action}, streamed like {@link #streamAll}
+	 * 
+	 * @param fromId The first ID of the range, inclusive
+	 * @param toId The end of the range, exclusive
+	 * @param action Called once per row, on the calling thread
+	 */
+	void streamIdRange(long fromId, long toId, Consumer<Product> action);
+}
@@ -0,0 +1,82 @@
+package com.trader.repository;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.function.Consumer;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import com.trader.model.Product;
+
+/**
+ * JDBC implementation of {@link ProductQueryRepository}
+ * 
+ * Pages seek past the last row with {@code WHERE (col > ? OR (col = ? AND id > ?))}
+ * instead of using OFFSET, so every page costs the same index range scan
+ * no matter how deep into the catalog it is. Streaming uses a separate
+ * JdbcTemplate with a fetch size of {@link Integer#MIN_VALUE}, which makes
+ * the MySQL driver read rows off the socket one at a time instead of
+ * buffering the whole result set.
+ */
+public class ProductQueryRepositoryImpl implements ProductQueryRepository {
+
+	private static final String COLUMNS = "SELECT id, name, description, price, stock, version FROM product";
+
+	private static final RowMapper<Product> ROW_MAPPER = ProductQueryRepositoryImpl::mapRow;
+
+	private final JdbcTemplate jdbcTemplate;
+	private final JdbcTemplate streamingJdbcTemplate;
+
+	public ProductQueryRepositoryImpl(JdbcTemplate jdbcTemplate, DataSource dataSource) {
+		this.jdbcTemplate = jdbcTemplate;
+		this.streamingJdbcTemplate = new JdbcTemplate(dataSource);
+		this.streamingJdbcTemplate.setFetchSize(Integer.MIN_VALUE);
+	}
+
+	@Override
+	public List<Product> findPage(ProductSort sort, Object afterValue, long afterId, int limit) {
+		String orderBy = orderBy(sort);
+		if (afterValue == null) {
+			return jdbcTemplate.query(COLUMNS + orderBy + " LIMIT ?", ROW_MAPPER, limit);
+		}
+		if (sort == ProductSort.ID) {
+			return jdbcTemplate.query(COLUMNS + " WHERE id > ?" + orderBy + " LIMIT ?", ROW_MAPPER, afterId, limit);
+		}
+		String column = sort.getColumn();
+		String seek = " WHERE (" + column + " > ? OR (" + column + " = ? AND id > ?))";
+		return jdbcTemplate.query(COLUMNS + seek + orderBy + " LIMIT ?", ROW_MAPPER,
+			afterValue, afterValue, afterId, limit);
+	}
+
+	@Override
+	public void streamAll(ProductSort sort, Consumer<Product> action) {
+		streamingJdbcTemplate.query(COLUMNS + orderBy(sort), resultSet -> {
+			action.accept(mapRow(resultSet, 0));
+		});
+	}
+
+	@Override
+	public void streamIdRange(long fromId, long toId, Consumer<Product> action) {
+		streamingJdbcTemplate.query(COLUMNS + " WHERE id >= ? AND id < ?", resultSet -> {
+			action.accept(mapRow(resultSet, 0));
+		}, fromId, toId);
+	}
+
+	private static String orderBy(ProductSort sort) {
+		return sort == ProductSort.ID
+			? " ORDER BY id"
+			: " ORDER BY " + sort.getColumn() + ", id";
+	}
+
+	private static Product mapRow(ResultSet resultSet, int rowNum) throws SQLException {
+		Product product = new Product(resultSet.getString("name"), resultSet.getString("description"),
+			resultSet.getDouble("price"), resultSet.getInt("stock"));
+		product.setId(resultSet.getLong("id"));
+		product.setVersion(resultSet.getLong("version"));
+		return product;
+	}
+}
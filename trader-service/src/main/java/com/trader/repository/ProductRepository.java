@@ -3,6 +3,9 @@ package com.trader.repository;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import com.trader.model.Product;
 
@@ -13,7 +16,7 @@ import com.trader.model.Product;
  * for Product entities and includes custom query methods for
  * product retrieval.
  */
-public interface ProductRepository extends JpaRepository<Product, Long> {
+public interface ProductRepository extends JpaRepository<Product, Long>, ProductQueryRepository {
 	/**
 	 * Save a product entity
 	 * 
@@ -27,4 +30,52 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
 	 * @return Optional containing the product if found, empty otherwise
 	 */
 	Optional<Product> findByName(String name);
+
+	/**
+	 * Atomically decrement stock if enough units are available
+	 * 
+	 * The stock check and the decrement happen in a single conditional UPDATE,
+	 * so concurrent reservations can never oversell a product.
+	 * 
+	 * @param id The ID of the product
+	 * @param quantity The quantity to reserve
+	 * @return 1 if the stock was reserved, 0 if the product is missing or has insufficient stock
+	 */
+	@Modifying(clearAutomatically = true)
+	@Query(value = "UPDATE product SET stock = stock - :quantity WHERE id = :id AND stock >= :quantity", nativeQuery = true)
+	int reserveStock(@Param("id") Long id, @Param("quantity") int quantity);
+
+	/**
+	 * Read the current stock of a product without loading the entity
+	 * 
+	 * @param id The ID of the product
+	 * @return Optional containing the stock if the product exists, empty otherwise
+	 */
+	@Query("SELECT p.stock FROM Product p WHERE p.id = :id")
+	Optional<Integer> findStockById(@Param("id") Long id);
+
+	/**
+	 * Overwrite the stock of a product
+	 * 
+	 * {@code Product.stock} is not updatable through the entity, so this is
+	 * the only way an absolute stock level is written.
+	 * 
+	 * @param id The ID of the product
+	 * @param stock The new stock level
+	 * @return 1 if the product exists, 0 otherwise
+	 */
+	@Modifying(clearAutomatically = true)
+	@Query(value = "UPDATE product SET stock = :stock WHERE id = :id", nativeQuery = true)
+	int overwriteStock(@Param("id") Long id, @Param("stock") int stock);
+
+	/**
+	 * Smallest and largest product IDs, used to split the catalog into ranges
+	 * 
+	 * @return Optional containing the ID, empty if there are no products
+	 */
+	@Query("SELECT MIN(p.id) FROM Product p")
+	Optional<Long> findMinId();
+
+	@Query("SELECT MAX(p.id) FROM Product p")
+	Optional<Long> findMaxId();
 }
@@ -0,0 +1,37 @@
+package com.trader.repository;
+
+import com.trader.exceptions.BadRequestException;
+
+/**
+ * Orderings the catalog can be paged or streamed in
+ * Every ordering ends with the product ID so rows have a total order for keyset paging
+ */
+public enum ProductSort {
+	ID("id"),
+	NAME("name"),
+	PRICE("price");
+
+	private final String column;
+
+	ProductSort(String column) {
+		this.column = column;
+	}
+
+	public String getColumn() {
+		return column;
+	}
+
+	/**
+	 * Parse a sort parameter such as {@code name} or {@code PRICE}
+	 * 
+	 * @throws BadRequestException if the value does not name a sort field
+	 */
+	public static ProductSort parse(String value) {
+		for (ProductSort sort : values()) {
+			if (sort.column.equalsIgnoreCase(value)) {
+				return sort;
+			}
+		}
+		throw new BadRequestException("Unknown sort field '" + value + "'. Use one of: id, name, price");
+	}
+}
@@ -0,0 +1,49 @@
+package com.trader.repository;
+
+import java.time.Instant;
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.trader.model.StockReservation;
+
+/**
+ * Repository for batch stock reservations
+ */
+public interface StockReservationRepository extends JpaRepository<StockReservation, String> {
+
+	/**
+	 * Move a reservation out of HELD
+	 *
+	 * Conditional, so of a concurrent claim, release and expiry exactly one wins.
+	 *
+	 * @param id The reservation ID
+	 * @param status The new status
+	 * @return 1 if the reservation was HELD and is now in the new status, 0 otherwise
+	 */
+	@Modifying(clearAutomatically = true)
+	@Query("UPDATE StockReservation r SET r.status = :status WHERE r.id = :id "
+		+ "AND r.status = com.trader.model.StockReservation.Status.HELD")
+	int finishHeld(@Param("id") String id, @Param("status") StockReservation.Status status);
+
+	/**
+	 * IDs of held reservations whose claim period has passed, oldest first
+	 */
+	@Query("SELECT r.id FROM StockReservation r WHERE r.status = com.trader.model.StockReservation.Status.HELD "
+		+ "AND r.expiresAt < :now ORDER BY r.expiresAt")
+	List<String> findExpiredIds(@Param("now") Instant now, Pageable pageable);
+
+	/**
+	 * Delete finished reservations that expired before the given time
+	 *
+	 * @return The number of reservations deleted
+	 */
+	@Modifying
+	@Query("DELETE FROM StockReservation r WHERE r.status <> com.trader.model.StockReservation.Status.HELD "
+		+ "AND r.expiresAt < :before")
+	int deleteFinishedBefore(@Param("before") Instant before);
+}
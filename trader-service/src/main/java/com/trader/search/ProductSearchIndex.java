@@ -0,0 +1,355 @@
+package com.trader.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.trader.dto.ProductSearchResult;
+import com.trader.model.Product;
+import com.trader.repository.ProductRepository;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * In-memory inverted index over product names and descriptions
+ *
+ * Terms are accent-folded, lower-cased words. Each term maps to the products
+ * containing it and whether it occurs in the name, the description or both.
+ * The term dictionary is sorted, so prefix matches are a range scan and fuzzy
+ * candidates are limited to terms with the same first letter.
+ *
+ * The index is loaded from MySQL in parallel ID ranges at startup and then
+ * updated by {@link com.trader.service.ProductService} on every catalog
+ * write. Writes made through other trader-service instances are only picked
+ * up on the next restart.
+ */
+@Component
+public class ProductSearchIndex {
+
+	private static final byte IN_NAME = 1;
+	private static final byte IN_DESCRIPTION = 2;
+
+	private static final double EXACT_WEIGHT = 3;
+	private static final double PREFIX_WEIGHT = 2;
+	private static final double FUZZY_WEIGHT = 1;
+	private static final double NAME_BOOST = 2;
+
+	/** Cap on dictionary terms a single prefix or fuzzy term may expand to */
+	private static final int MAX_EXPANSIONS = 64;
+	private static final int MIN_FUZZY_LENGTH = 4;
+
+	private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+	private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+	private static final Logger logger = LoggerFactory.getLogger(ProductSearchIndex.class);
+
+	private record Doc(long id, String name, String description, double price, Map<String, Byte> terms) {
+	}
+
+	private final ProductRepository productRepository;
+	private final int rebuildThreads;
+
+	private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+	/** Term to product ID to field mask; guarded by lock */
+	private TreeMap<String, Map<Long, Byte>> postings = new TreeMap<>();
+	/** Guarded by lock */
+	private Map<Long, Doc> docs = new HashMap<>();
+
+	public ProductSearchIndex(ProductRepository productRepository,
+			@Value("${trader.search.rebuild-threads:4}") int rebuildThreads) {
+		this.productRepository = productRepository;
+		this.rebuildThreads = rebuildThreads;
+	}
+
+	/**
+	 * Load the whole catalog, reading ID ranges on several connections at once
+	 */
+	@PostConstruct
+	public void rebuild() {
+		long started = System.nanoTime();
+		long minId = productRepository.findMinId().orElse(0L);
+		long maxId = productRepository.findMaxId().orElse(-1L);
+		TreeMap<String, Map<Long, Byte>> newPostings = new TreeMap<>();
+		Map<Long, Doc> newDocs = new HashMap<>();
+
+		if (maxId >= minId) {
+			int ranges = rebuildThreads * 4;
+			long rangeSize = Math.max(1, (maxId - minId) / ranges + 1);
+			ExecutorService pool = Executors.newFixedThreadPool(rebuildThreads);
+			try {
+				List<Future<List<Doc>>> parts = new ArrayList<>();
+				for (long from = minId; from <= maxId; from += rangeSize) {
+					long start = from;
+					long end = Math.min(from + rangeSize, maxId + 1);
+					parts.add(pool.submit(() -> {
+						List<Doc> part = new ArrayList<>();
+						productRepository.streamIdRange(start, end, product -> part.add(toDoc(product)));
+						return part;
+					}));
+				}
+				for (Future<List<Doc>> part : parts) {
+					for (Doc doc : part.get()) {
+						newDocs.put(doc.id(), doc);
+						addPostings(newPostings, doc);
+					}
+				}
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new IllegalStateException("Interrupted while building the search index", e);
+			} catch (ExecutionException e) {
+				throw new IllegalStateException("Could not build the search index", e.getCause());
+			} finally {
+				pool.shutdownNow();
+			}
+		}
+
+		lock.writeLock().lock();
+		try {
+			postings = newPostings;
+			docs = newDocs;
+		} finally {
+			lock.writeLock().unlock();
+		}
+		logger.info("Indexed {} products ({} terms) in {} ms", newDocs.size(), newPostings.size(),
+			(System.nanoTime() - started) / 1_000_000);
+	}
+
+	/**
+	 * Add a product or replace its previous entry
+	 */
+	public void index(Product product) {
+		Doc doc = toDoc(product);
+		lock.writeLock().lock();
+		try {
+			Doc previous = docs.put(doc.id(), doc);
+			if (previous != null) {
+				removePostings(previous);
+			}
+			addPostings(postings, doc);
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	public void remove(long productId) {
+		lock.writeLock().lock();
+		try {
+			Doc previous = docs.remove(productId);
+			if (previous != null) {
+				removePostings(previous);
+			}
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Find products matching every word of the query
+	 *
+	 * The last word also matches as a prefix, so partially typed queries work.
+	 * With {@code fuzzy}, words of four or more letters also match terms one
+	 * edit away (two for words of eight or more).
+	 *
+	 * @param query The words to search for
+	 * @param fuzzy Whether to tolerate typos
+	 * @param minPrice Lowest price to include, or null
+	 * @param maxPrice Highest price to include, or null
+	 * @param limit Maximum number of results
+	 * @return The best matches, highest score first
+	 */
+	public List<ProductSearchResult> search(String query, boolean fuzzy, Double minPrice, Double maxPrice, int limit) {
+		List<String> words = new ArrayList<>(tokenize(query));
+		if (words.isEmpty()) {
+			return List.of();
+		}
+
+		lock.readLock().lock();
+		try {
+			String last = words.get(words.size() - 1);
+			List<Map<Long, Double>> perWord = new ArrayList<>(words.size());
+			for (String word : words) {
+				perWord.add(match(word, word.equals(last), fuzzy));
+			}
+			// Intersect from the rarest word so the candidate set shrinks quickly
+			perWord.sort(Comparator.comparingInt(Map::size));
+			Map<Long, Double> scores = null;
+			for (Map<Long, Double> matches : perWord) {
+				if (scores == null) {
+					scores = new HashMap<>(matches);
+				} else {
+					scores.keySet().retainAll(matches.keySet());
+					scores.replaceAll((id, score) -> score + matches.get(id));
+				}
+				if (scores.isEmpty()) {
+					return List.of();
+				}
+			}
+
+			Comparator<ProductSearchResult> ranking = Comparator.comparingDouble(ProductSearchResult::getScore)
+				.thenComparing(ProductSearchResult::getId, Comparator.reverseOrder());
+			PriorityQueue<ProductSearchResult> top = new PriorityQueue<>(limit + 1, ranking);
+			for (Map.Entry<Long, Double> entry : scores.entrySet()) {
+				Doc doc = docs.get(entry.getKey());
+				if ((minPrice != null && doc.price() < minPrice) || (maxPrice != null && doc.price() > maxPrice)) {
+					continue;
+				}
+				top.add(new ProductSearchResult(doc.id(), doc.name(), doc.description(), doc.price(), entry.getValue()));
+				if (top.size() > limit) {
+					top.poll();
+				}
+			}
+			List<ProductSearchResult> results = new ArrayList<>(top);
+			results.sort(ranking.reversed());
+			return results;
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	public int size() {
+		lock.readLock().lock();
+		try {
+			return docs.size();
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Products containing the word, scored by how closely and where it matched
+	 */
+	private Map<Long, Double> match(String word, boolean prefix, boolean fuzzy) {
+		Map<Long, Double> matches = new HashMap<>();
+		collect(matches, postings.get(word), EXACT_WEIGHT);
+
+		if (prefix) {
+			int expanded = 0;
+			for (Map.Entry<String, Map<Long, Byte>> entry
+					: postings.subMap(word, false, word + Character.MAX_VALUE, false).entrySet()) {
+				collect(matches, entry.getValue(), PREFIX_WEIGHT);
+				if (++expanded == MAX_EXPANSIONS) {
+					break;
+				}
+			}
+		}
+
+		if (fuzzy && word.length() >= MIN_FUZZY_LENGTH) {
+			int maxEdits = word.length() >= 8 ? 2 : 1;
+			String first = word.substring(0, 1);
+			NavigableMap<String, Map<Long, Byte>> candidates = postings.subMap(first, true,
+				first + Character.MAX_VALUE, false);
+			int expanded = 0;
+			for (Map.Entry<String, Map<Long, Byte>> entry : candidates.entrySet()) {
+				String term = entry.getKey();
+				if (Math.abs(term.length() - word.length()) > maxEdits || term.equals(word)) {
+					continue;
+				}
+				if (withinDistance(word, term, maxEdits)) {
+					collect(matches, entry.getValue(), FUZZY_WEIGHT);
+					if (++expanded == MAX_EXPANSIONS) {
+						break;
+					}
+				}
+			}
+		}
+		return matches;
+	}
+
+	private static void collect(Map<Long, Double> matches, Map<Long, Byte> posting, double weight) {
+		if (posting == null) {
+			return;
+		}
+		posting.forEach((id, fields) -> {
+			double score = (fields & IN_NAME) != 0 ? weight * NAME_BOOST : weight;
+			matches.merge(id, score, Math::max);
+		});
+	}
+
+	private static void addPostings(TreeMap<String, Map<Long, Byte>> target, Doc doc) {
+		doc.terms().forEach((term, fields) -> target.computeIfAbsent(term, t -> new HashMap<>()).put(doc.id(), fields));
+	}
+
+	private void removePostings(Doc doc) {
+		for (String term : doc.terms().keySet()) {
+			Map<Long, Byte> posting = postings.get(term);
+			if (posting != null) {
+				posting.remove(doc.id());
+				if (posting.isEmpty()) {
+					postings.remove(term);
+				}
+			}
+		}
+	}
+
+	private static Doc toDoc(Product product) {
+		Map<String, Byte> terms = new HashMap<>();
+		for (String term : tokenize(product.getName())) {
+			terms.merge(term, IN_NAME, (a, b) -> (byte) (a | b));
+		}
+		for (String term : tokenize(product.getDescription())) {
+			terms.merge(term, IN_DESCRIPTION, (a, b) -> (byte) (a | b));
+		}
+		return new Doc(product.getId(), product.getName(), product.getDescription(), product.getPrice(), terms);
+	}
+
+	private static Set<String> tokenize(String text) {
+		Set<String> terms = new LinkedHashSet<>();
+		if (text == null || text.isBlank()) {
+			return terms;
+		}
+		String folded = MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("")
+			.toLowerCase(Locale.ROOT);
+		for (String term : SEPARATORS.split(folded)) {
+			if (!term.isEmpty()) {
+				terms.add(term);
+			}
+		}
+		return terms;
+	}
+
+	/**
+	 * Levenshtein distance check that gives up once a row exceeds {@code maxEdits}
+	 */
+	private static boolean withinDistance(String a, String b, int maxEdits) {
+		int[] previous = new int[b.length() + 1];
+		int[] current = new int[b.length() + 1];
+		for (int j = 0; j <= b.length(); j++) {
+			previous[j] = j;
+		}
+		for (int i = 1; i <= a.length(); i++) {
+			current[0] = i;
+			int rowMin = current[0];
+			for (int j = 1; j <= b.length(); j++) {
+				int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+				current[j] = Math.min(Math.min(current[j - 1] + 1, previous[j] + 1), previous[j - 1] + cost);
+				rowMin = Math.min(rowMin, current[j]);
+			}
+			if (rowMin > maxEdits) {
+				return false;
+			}
+			int[] swap = previous;
+			previous = current;
+			current = swap;
+		}
+		return previous[b.length()] <= maxEdits;
+	}
+}
@@ -0,0 +1,77 @@
+package com.trader.service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+import com.beemo.common.security.ServiceIdentity;
+
+/**
+ * Tells every order-service instance that a product's catalog data changed
+ * 
+ * Invalidations are fire-and-forget: each carries the product's new version,
+ * so late or reordered deliveries cannot resurrect stale data, and a lost
+ * one is bounded by the consumers' cache TTL.
+ */
+@Component
+public class CatalogInvalidationPublisher {
+	private static final Logger logger = LoggerFactory.getLogger(CatalogInvalidationPublisher.class);
+
+	private final DiscoveryClient discoveryClient;
+	private final RestTemplate restTemplate;
+	private final Executor executor;
+	private final List<String> subscriberServiceIds;
+
+	public CatalogInvalidationPublisher(DiscoveryClient discoveryClient, RestTemplateBuilder restTemplateBuilder,
+			ServiceIdentity serviceIdentity, @Qualifier("catalogInvalidationExecutor") Executor executor,
+			@Value("${trader.catalog.invalidation.subscribers:order-service}") List<String> subscriberServiceIds,
+			@Value("${trader.catalog.invalidation.timeout-ms:1000}") long timeoutMs) {
+		this.discoveryClient = discoveryClient;
+		this.restTemplate = restTemplateBuilder
+			.connectTimeout(Duration.ofMillis(timeoutMs))
+			.readTimeout(Duration.ofMillis(timeoutMs))
+			.additionalInterceptors(serviceIdentity)
+			.build();
+		this.executor = executor;
+		this.subscriberServiceIds = subscriberServiceIds;
+	}
+
+	/**
+	 * Publish an invalidation for one product without blocking the caller
+	 * 
+	 * @param productId The ID of the product that changed
+	 * @param version The product's catalog version after the change
+	 * @param deleted Whether the product was deleted
+	 */
+	public void productChanged(long productId, long version, boolean deleted) {
+		Map<String, Object> event = Map.of("productId", productId, "version", version, "deleted", deleted);
+		try {
+			executor.execute(() -> deliver(event));
+		} catch (RuntimeException e) {
+			logger.warn("Dropped catalog invalidation for product {}: {}", productId, e.getMessage());
+		}
+	}
+
+	private void deliver(Map<String, Object> event) {
+		for (String serviceId : subscriberServiceIds) {
+			for (ServiceInstance instance : discoveryClient.getInstances(serviceId)) {
+				try {
+					restTemplate.postForEntity(instance.getUri() + "/product-invalidations", event, Void.class);
+				} catch (RuntimeException e) {
+					logger.warn("Could not deliver catalog invalidation to {}: {}", instance.getUri(), e.getMessage());
+				}
+			}
+		}
+	}
+}
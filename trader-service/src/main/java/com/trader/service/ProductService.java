@@ -1,18 +1,41 @@
 package com.trader.service;
 
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
 
 import org.springframework.stereotype.Service;
 
+import com.trader.dto.ProductPage;
+import com.trader.dto.ProductSearchResult;
+import com.trader.exceptions.BadRequestException;
+import com.trader.exceptions.NotFoundException;
 import com.trader.model.Product;
 import com.trader.repository.ProductRepository;
+import com.trader.repository.ProductSort;
+import com.trader.search.ProductSearchIndex;
+import com.trader.stock.StockEngine;
 
 @Service
 public class ProductService {
+	private static final int MAX_PAGE_SIZE = 1000;
+	private static final int MAX_SEARCH_RESULTS = 100;
+
 	private final ProductRepository productRepository;
+	private final StockEngine stockEngine;
+	private final CatalogInvalidationPublisher invalidationPublisher;
+	private final ProductSearchIndex searchIndex;
 
-	public ProductService(ProductRepository productRepository) {
+	public ProductService(ProductRepository productRepository, StockEngine stockEngine,
+			CatalogInvalidationPublisher invalidationPublisher, ProductSearchIndex searchIndex) {
 		this.productRepository = productRepository;
+		this.stockEngine = stockEngine;
+		this.invalidationPublisher = invalidationPublisher;
+		this.searchIndex = searchIndex;
 	}
 
 	/**
@@ -22,7 +45,18 @@ public class ProductService {
 	 * @return The saved product entity
 	 */
 	public Product saveProduct(Product product) {
-		return productRepository.save(product);
+		Optional<Product> existing = product.getId() != 0
+			? productRepository.findById(product.getId())
+			: Optional.empty();
+		product.setVersion(nextVersion(existing.map(Product::getVersion).orElse(0L)));
+		Product saved = productRepository.save(product);
+		searchIndex.index(saved);
+		if (existing.isPresent()) {
+			stockEngine.setStock(saved.getId(), product.getStock());
+			saved.setStock(product.getStock());
+			invalidationPublisher.productChanged(saved.getId(), saved.getVersion(), false);
+		}
+		return saved;
 	}
 
 	/**
@@ -32,7 +66,7 @@ public class ProductService {
 	 * @return The product if found, null otherwise
 	 */
 	public Product findByName(String name) {
-		return productRepository.findByName(name).orElse(null);
+		return productRepository.findByName(name).map(this::withCurrentStock).orElse(null);
 	}
 
 	/**
@@ -41,7 +75,89 @@ public class ProductService {
 	 * @return List of all products
 	 */
 	public List<Product> findAllProducts() {
-		return productRepository.findAll();
+		List<Product> products = productRepository.findAll();
+		stockEngine.applyCurrentStock(products);
+		return products;
+	}
+
+	/**
+	 * Read one page of the catalog using keyset pagination
+	 * 
+	 * @param sort The field to order by: id, name or price
+	 * @param cursor The cursor returned with the previous page, or null for the first page
+	 * @param limit The page size, between 1 and 1000
+	 * @return The page and, if more rows follow, the cursor for the next one
+	 * @throws BadRequestException if the sort field, cursor or limit is invalid
+	 */
+	public ProductPage findProductPage(String sort, String cursor, int limit) {
+		if (limit < 1 || limit > MAX_PAGE_SIZE) {
+			throw new BadRequestException("Limit must be between 1 and " + MAX_PAGE_SIZE);
+		}
+		ProductSort productSort = ProductSort.parse(sort);
+		Object afterValue = null;
+		long afterId = 0;
+		if (cursor != null && !cursor.isEmpty()) {
+			String[] position = decodeCursor(cursor, productSort);
+			afterId = Long.parseLong(position[1]);
+			afterValue = productSort == ProductSort.PRICE ? Double.valueOf(position[2]) : position[2];
+		}
+
+		// One extra row tells us whether another page follows without a COUNT query
+		List<Product> products = new ArrayList<>(productRepository.findPage(productSort, afterValue, afterId, limit + 1));
+		String nextCursor = null;
+		if (products.size() > limit) {
+			products.remove(limit);
+			nextCursor = encodeCursor(productSort, products.get(limit - 1));
+		}
+		stockEngine.applyCurrentStock(products);
+		return new ProductPage(products, nextCursor);
+	}
+
+	/**
+	 * Hand every product to {@code action} straight from the database cursor
+	 * 
+	 * @param sort The ordering to stream in
+	 * @param action Called once per product, in order
+	 */
+	public void streamProducts(ProductSort sort, Consumer<Product> action) {
+		productRepository.streamAll(sort, product -> action.accept(withCurrentStock(product)));
+	}
+
+	/**
+	 * Search product names and descriptions
+	 * 
+	 * @param query The words to search for; the last one may be partially typed
+	 * @param fuzzy Whether to tolerate typos
+	 * @param minPrice Lowest price to include, or null
+	 * @param maxPrice Highest price to include, or null
+	 * @param limit Maximum number of results, between 1 and 100
+	 * @return The best matches, highest score first
+	 * @throws BadRequestException if the query is blank or the limit or price range is invalid
+	 */
+	public List<ProductSearchResult> searchProducts(String query, boolean fuzzy, Double minPrice, Double maxPrice,
+			int limit) {
+		if (query == null || query.isBlank()) {
+			throw new BadRequestException("Search query must not be empty");
+		}
+		if (limit < 1 || limit > MAX_SEARCH_RESULTS) {
+			throw new BadRequestException("Limit must be between 1 and " + MAX_SEARCH_RESULTS);
+		}
+		if (minPrice != null && maxPrice != null && minPrice > maxPrice) {
+			throw new BadRequestException("minPrice must not be greater than maxPrice");
+		}
+		return searchIndex.search(query, fuzzy, minPrice, maxPrice, limit);
+	}
+
+	/**
+	 * Find several products by ID in one query
+	 * 
+	 * @param ids The IDs of the products to fetch
+	 * @return The products that exist, in no particular order
+	 */
+	public List<Product> findAllByIds(Collection<Long> ids) {
+		List<Product> products = productRepository.findAllById(ids);
+		stockEngine.applyCurrentStock(products);
+		return products;
 	}
 
 	/**
@@ -51,19 +167,30 @@ public class ProductService {
 	 * @return The product if found, null otherwise
 	 */
 	public Product findById(Long id) {
-		return productRepository.findById(id).orElse(null);
+		return productRepository.findById(id).map(this::withCurrentStock).orElse(null);
 	}
 
 	public void deleteProduct(Long id) {
-		if (productRepository.existsById(id)) {
+		Optional<Product> existing = productRepository.findById(id);
+		if (existing.isPresent()) {
 			productRepository.deleteById(id);
+			stockEngine.remove(id);
+			searchIndex.remove(id);
+			invalidationPublisher.productChanged(id, nextVersion(existing.get().getVersion()), true);
 		} else {
 			throw new IllegalArgumentException("Product with ID " + id + " does not exist.");
 		}
 	}
 	public Product updateProduct(Product product) {
-		if (productRepository.existsById(product.getId())) {
-			return productRepository.save(product);
+		Optional<Product> existing = productRepository.findById(product.getId());
+		if (existing.isPresent()) {
+			product.setVersion(nextVersion(existing.get().getVersion()));
+			Product saved = productRepository.save(product);
+			searchIndex.index(saved);
+			stockEngine.setStock(saved.getId(), product.getStock());
+			saved.setStock(product.getStock());
+			invalidationPublisher.productChanged(saved.getId(), saved.getVersion(), false);
+			return saved;
 		} else {
 			throw new IllegalArgumentException("Product with ID " + product.getId() + " does not exist.");
 		}
@@ -77,16 +204,28 @@ public class ProductService {
 	 * @return true if stock update successful, false if insufficient stock
 	 */
 	public boolean updateProductStock(Long productId, int quantity) {
-		Product product = findById(productId);
-		if (product == null) {
+		try {
+			stockEngine.reserve(productId, quantity);
+			return true;
+		} catch (BadRequestException | NotFoundException e) {
 			return false;
 		}
-		if (product.getStock() >= quantity) {
-			product.setStock(product.getStock() - quantity);
-			productRepository.save(product);
-			return true;
+	}
+
+	/**
+	 * Reserve stock for a product in a single atomic step
+	 * 
+	 * @param productId The ID of the product
+	 * @param quantity The quantity to reserve
+	 * @return The stock remaining after the reservation
+	 * @throws BadRequestException if the quantity is invalid or stock is insufficient
+	 * @throws NotFoundException if the product does not exist
+	 */
+	public int reserveStock(Long productId, int quantity) {
+		if (quantity < 1) {
+			throw new BadRequestException("Quantity must be at least 1");
 		}
-		return false;
+		return stockEngine.reserve(productId, quantity);
 	}
 
 	/**
@@ -97,7 +236,52 @@ public class ProductService {
 	 * @return true if sufficient stock available
 	 */
 	public boolean hasInStock(Long productId, int quantity) {
-		Product product = findById(productId);
-		return product != null && product.getStock() >= quantity;
+		try {
+			return stockEngine.availableStock(productId) >= quantity;
+		} catch (NotFoundException e) {
+			return false;
+		}
+	}
+
+	/**
+	 * Catalog versions only move forward, even across restarts
+	 */
+	private static long nextVersion(long previous) {
+		return Math.max(previous + 1, System.currentTimeMillis());
+	}
+
+	/**
+	 * Cursors are opaque to clients: base64url of sort, last ID and last sort value
+	 */
+	private static String encodeCursor(ProductSort sort, Product last) {
+		String value = switch (sort) {
+			case ID -> Long.toString(last.getId());
+			case NAME -> last.getName();
+			case PRICE -> Double.toString(last.getPrice());
+		};
+		String position = sort.getColumn() + ":" + last.getId() + ":" + value;
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(StandardCharsets.UTF_8));
+	}
+
+	private static String[] decodeCursor(String cursor, ProductSort sort) {
+		try {
+			String position = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+			String[] parts = position.split(":", 3);
+			if (parts.length != 3 || !parts[0].equals(sort.getColumn())) {
+				throw new BadRequestException("Cursor does not belong to a page sorted by " + sort.getColumn());
+			}
+			Long.parseLong(parts[1]);
+			if (sort == ProductSort.PRICE) {
+				Double.parseDouble(parts[2]);
+			}
+			return parts;
+		} catch (IllegalArgumentException e) {
+			throw new BadRequestException("Invalid cursor");
+		}
+	}
+
+	private Product withCurrentStock(Product product) {
+		stockEngine.applyCurrentStock(List.of(product));
+		return product;
 	}
-}
\ No newline at end of file
+}
@@ -0,0 +1,223 @@
+package com.trader.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.trader.dto.StockReservationBatch;
+import com.trader.dto.StockReservationRequest;
+import com.trader.dto.StockReservationResult;
+import com.trader.exceptions.BadRequestException;
+import com.trader.exceptions.NotFoundException;
+import com.trader.model.Product;
+import com.trader.model.StockReservation;
+import com.trader.repository.ProductRepository;
+import com.trader.repository.StockReservationRepository;
+import com.trader.stock.StockEngine;
+
+/**
+ * Batch stock reservations that are either claimed by their order or given back
+ *
+ * Every batch is recorded under a reservation ID. The order service claims it
+ * once the order is stored, or releases it if the order could not be; both
+ * are idempotent per ID, so callers may retry them. A reservation that is
+ * neither claimed nor released within {@code trader.stock.reservations.ttl},
+ * e.g. because its caller died, is released by a background sweep.
+ */
+@Service
+public class StockReservationService {
+	private static final Logger logger = LoggerFactory.getLogger(StockReservationService.class);
+	private static final int SWEEP_BATCH = 100;
+
+	private final ProductRepository productRepository;
+	private final StockReservationRepository reservationRepository;
+	private final StockEngine stockEngine;
+	private final TransactionTemplate transactionTemplate;
+	private final Duration ttl;
+	private final Duration retention;
+
+	public StockReservationService(ProductRepository productRepository, StockReservationRepository reservationRepository,
+			StockEngine stockEngine, TransactionTemplate transactionTemplate,
+			@Value("${trader.stock.reservations.ttl:5m}") Duration ttl,
+			@Value("${trader.stock.reservations.retention:1d}") Duration retention) {
+		this.productRepository = productRepository;
+		this.reservationRepository = reservationRepository;
+		this.stockEngine = stockEngine;
+		this.transactionTemplate = transactionTemplate;
+		this.ttl = ttl;
+		this.retention = retention;
+	}
+
+	/**
+	 * Reserve stock for several products in one all-or-nothing batch
+	 *
+	 * Lines for the same product are merged and applied in product ID order,
+	 * so concurrent batches always lock rows in the same order. If any line
+	 * cannot be reserved nothing is reserved.
+	 *
+	 * @param requests The products and quantities to reserve
+	 * @return The reservation ID and one result per distinct product, with name, price and remaining stock
+	 * @throws BadRequestException if a quantity is invalid or stock is insufficient
+	 * @throws NotFoundException if a product does not exist
+	 */
+	public StockReservationBatch reserve(List<StockReservationRequest> requests) {
+		SortedMap<Long, Integer> quantities = mergeQuantities(requests);
+
+		Map<Long, Product> products = productRepository.findAllById(quantities.keySet()).stream()
+			.collect(Collectors.toMap(Product::getId, Function.identity()));
+		for (Long productId : quantities.keySet()) {
+			if (!products.containsKey(productId)) {
+				throw new NotFoundException("Product with ID " + productId + " not found");
+			}
+		}
+
+		StockReservation reservation = new StockReservation(UUID.randomUUID().toString(), quantities,
+			Instant.now().plus(ttl));
+		Map<Long, Integer> remaining;
+		if (stockEngine.isTransactional()) {
+			remaining = transactionTemplate.execute(status -> {
+				Map<Long, Integer> left = stockEngine.reserveAll(quantities);
+				reservationRepository.save(reservation);
+				return left;
+			});
+		} else {
+			remaining = stockEngine.reserveAll(quantities);
+			try {
+				reservationRepository.save(reservation);
+			} catch (RuntimeException e) {
+				stockEngine.releaseAll(quantities);
+				throw e;
+			}
+		}
+
+		List<StockReservationResult> results = new ArrayList<>(quantities.size());
+		quantities.forEach((productId, quantity) -> {
+			Product product = products.get(productId);
+			results.add(new StockReservationResult(product.getId(), product.getName(), product.getPrice(),
+				quantity, remaining.get(productId)));
+		});
+		return new StockReservationBatch(reservation.getId(), reservation.getExpiresAt(), results);
+	}
+
+	/**
+	 * Keep the stock of a reservation whose order was stored
+	 *
+	 * @param reservationId The reservation ID
+	 * @throws BadRequestException if the reservation was already released or expired
+	 * @throws NotFoundException if there is no such reservation
+	 */
+	public void claim(String reservationId) {
+		int claimed = transactionTemplate.execute(status ->
+			reservationRepository.finishHeld(reservationId, StockReservation.Status.CLAIMED));
+		if (claimed == 0) {
+			StockReservation.Status status = find(reservationId).getStatus();
+			if (status != StockReservation.Status.CLAIMED) {
+				throw new BadRequestException("Reservation " + reservationId + " was already "
+					+ status.name().toLowerCase(Locale.ROOT));
+			}
+		}
+	}
+
+	/**
+	 * Give back the stock of a reservation whose order was not stored
+	 *
+	 * Releasing a reservation that was already released or has expired does nothing.
+	 *
+	 * @param reservationId The reservation ID
+	 * @throws BadRequestException if the reservation was already claimed
+	 * @throws NotFoundException if there is no such reservation
+	 */
+	public void release(String reservationId) {
+		if (!giveBack(reservationId, StockReservation.Status.RELEASED)
+				&& find(reservationId).getStatus() == StockReservation.Status.CLAIMED) {
+			throw new BadRequestException("Reservation " + reservationId + " was already claimed");
+		}
+	}
+
+	/**
+	 * Give back reservations that were not claimed in time, and drop finished ones past their retention
+	 */
+	@Scheduled(fixedDelayString = "${trader.stock.reservations.sweep-interval-ms:10000}")
+	public void expire() {
+		Instant now = Instant.now();
+		List<String> expired;
+		do {
+			expired = reservationRepository.findExpiredIds(now, PageRequest.of(0, SWEEP_BATCH));
+			for (String reservationId : expired) {
+				if (giveBack(reservationId, StockReservation.Status.EXPIRED)) {
+					logger.warn("Released unclaimed stock reservation {}", reservationId);
+				}
+			}
+		} while (expired.size() == SWEEP_BATCH);
+
+		int purged = transactionTemplate.execute(status ->
+			reservationRepository.deleteFinishedBefore(now.minus(retention)));
+		if (purged > 0) {
+			logger.info("Purged {} finished stock reservations", purged);
+		}
+	}
+
+	/**
+	 * Move a held reservation to RELEASED or EXPIRED and return its stock
+	 *
+	 * @return true if this call gave the stock back, false if the reservation was no longer held
+	 */
+	private boolean giveBack(String reservationId, StockReservation.Status status) {
+		SortedMap<Long, Integer> quantities = transactionTemplate.execute(tx -> {
+			if (reservationRepository.finishHeld(reservationId, status) == 0) {
+				return null;
+			}
+			SortedMap<Long, Integer> held = find(reservationId).quantities();
+			if (stockEngine.isTransactional()) {
+				stockEngine.releaseAll(held);
+			}
+			return held;
+		});
+		if (quantities == null) {
+			return false;
+		}
+		if (!stockEngine.isTransactional()) {
+			// Only once the status change is committed, so a failed commit cannot return the stock twice
+			stockEngine.releaseAll(quantities);
+		}
+		return true;
+	}
+
+	private StockReservation find(String reservationId) {
+		return reservationRepository.findById(reservationId)
+			.orElseThrow(() -> new NotFoundException("Reservation " + reservationId + " not found"));
+	}
+
+	/**
+	 * Merge lines per product, in product ID order so rows are always locked in the same order
+	 */
+	private static SortedMap<Long, Integer> mergeQuantities(List<StockReservationRequest> requests) {
+		if (requests == null || requests.isEmpty()) {
+			throw new BadRequestException("At least one reservation line is required");
+		}
+		SortedMap<Long, Integer> quantities = new TreeMap<>();
+		for (StockReservationRequest request : requests) {
+			if (request.getProductId() == null || request.getQuantity() < 1) {
+				throw new BadRequestException("Each line needs a product ID and a quantity of at least 1");
+			}
+			quantities.merge(request.getProductId(), request.getQuantity(), Integer::sum);
+		}
+		return quantities;
+	}
+}
@@ -0,0 +1,127 @@
+package com.trader.stock;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.trader.exceptions.BadRequestException;
+import com.trader.exceptions.NotFoundException;
+import com.trader.model.Product;
+import com.trader.repository.ProductRepository;
+
+/**
+ * Stock engine that applies every change directly to MySQL
+ * 
+ * Check and decrement happen in one conditional UPDATE, so concurrent
+ * reservations cannot oversell without any pessimistic locking.
+ */
+@Component
+@ConditionalOnProperty(name = "trader.stock.engine", havingValue = "database", matchIfMissing = true)
+public class DatabaseStockEngine implements StockEngine {
+
+	private static final String RESERVE_STOCK_SQL =
+		"UPDATE product SET stock = stock - ? WHERE id = ? AND stock >= ?";
+	private static final String RELEASE_STOCK_SQL =
+		"UPDATE product SET stock = stock + ? WHERE id = ?";
+	private static final String SELECT_STOCK_SQL =
+		"SELECT id, stock FROM product WHERE id IN (:ids)";
+
+	private final ProductRepository productRepository;
+	private final NamedParameterJdbcTemplate jdbcTemplate;
+
+	public DatabaseStockEngine(ProductRepository productRepository, NamedParameterJdbcTemplate jdbcTemplate) {
+		this.productRepository = productRepository;
+		this.jdbcTemplate = jdbcTemplate;
+	}
+
+	@Override
+	@Transactional
+	public int reserve(Long productId, int quantity) {
+		if (productRepository.reserveStock(productId, quantity) == 1) {
+			return productRepository.findStockById(productId).orElse(0);
+		}
+		Integer available = productRepository.findStockById(productId)
+			.orElseThrow(() -> new NotFoundException("Product with ID " + productId + " not found"));
+		throw new BadRequestException("Insufficient stock for product " + productId +
+			". Requested: " + quantity + ", Available: " + available);
+	}
+
+	@Override
+	@Transactional
+	public Map<Long, Integer> reserveAll(SortedMap<Long, Integer> quantities) {
+		List<Object[]> batchArgs = new ArrayList<>(quantities.size());
+		quantities.forEach((productId, quantity) -> batchArgs.add(new Object[] { quantity, productId, quantity }));
+		int[] updateCounts = jdbcTemplate.getJdbcTemplate().batchUpdate(RESERVE_STOCK_SQL, batchArgs);
+
+		// Read through JDBC so entities cached in the persistence context are not returned
+		Map<Long, Integer> stock = new HashMap<>();
+		jdbcTemplate.query(SELECT_STOCK_SQL, new MapSqlParameterSource("ids", quantities.keySet()),
+			rs -> {
+				stock.put(rs.getLong("id"), rs.getInt("stock"));
+			});
+
+		int line = 0;
+		for (Map.Entry<Long, Integer> entry : quantities.entrySet()) {
+			Integer available = stock.get(entry.getKey());
+			if (available == null) {
+				throw new NotFoundException("Product with ID " + entry.getKey() + " not found");
+			}
+			if (updateCounts[line++] == 0) {
+				throw new BadRequestException("Insufficient stock for product " + entry.getKey() +
+					". Requested: " + entry.getValue() + ", Available: " + available);
+			}
+		}
+		return stock;
+	}
+
+	@Override
+	@Transactional
+	public void releaseAll(SortedMap<Long, Integer> quantities) {
+		List<Object[]> batchArgs = new ArrayList<>(quantities.size());
+		quantities.forEach((productId, quantity) -> batchArgs.add(new Object[] { quantity, productId }));
+		int[] updateCounts = jdbcTemplate.getJdbcTemplate().batchUpdate(RELEASE_STOCK_SQL, batchArgs);
+
+		int line = 0;
+		for (Long productId : quantities.keySet()) {
+			if (updateCounts[line++] == 0) {
+				throw new NotFoundException("Product with ID " + productId + " not found");
+			}
+		}
+	}
+
+	@Override
+	public boolean isTransactional() {
+		return true;
+	}
+
+	@Override
+	public int availableStock(Long productId) {
+		return productRepository.findStockById(productId)
+			.orElseThrow(() -> new NotFoundException("Product with ID " + productId + " not found"));
+	}
+
+	@Override
+	@Transactional
+	public void setStock(Long productId, int stock) {
+		productRepository.overwriteStock(productId, stock);
+	}
+
+	@Override
+	public void applyCurrentStock(Collection<Product> products) {
+		// The column is always current
+	}
+
+	@Override
+	public void remove(Long productId) {
+		// Nothing is held outside the database
+	}
+}
@@ -0,0 +1,317 @@
+package com.trader.stock;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.trader.exceptions.BadRequestException;
+import com.trader.exceptions.NotFoundException;
+import com.trader.model.Product;
+import com.trader.repository.ProductRepository;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Stock engine that reserves against in-memory counters
+ *
+ * Each product gets a cell loaded lazily from MySQL and decremented with a
+ * CAS loop, so reservations for a hot product never wait on a row lock. A
+ * reservation is acknowledged only after it is in the {@link StockJournal},
+ * whose group commit shares one fsync between every reservation that arrived
+ * meanwhile. Net deltas are flushed to {@code product.stock} in one batch per
+ * interval together with the journal sequence they cover, and journal
+ * entries past that checkpoint are replayed on startup.
+ *
+ * Only one trader-service instance may run with this engine against a
+ * database, because the counters are authoritative.
+ */
+@Component
+@ConditionalOnProperty(name = "trader.stock.engine", havingValue = "ledger")
+public class LedgerStockEngine implements StockEngine {
+
+	private static final String APPLY_DELTA_SQL = "UPDATE product SET stock = stock + ? WHERE id = ?";
+	private static final String SELECT_CHECKPOINT_SQL = "SELECT last_sequence FROM stock_ledger_checkpoint WHERE id = 1";
+	private static final String INSERT_CHECKPOINT_SQL = "INSERT INTO stock_ledger_checkpoint (id, last_sequence) VALUES (1, 0)";
+	private static final String UPDATE_CHECKPOINT_SQL = "UPDATE stock_ledger_checkpoint SET last_sequence = ? WHERE id = 1";
+	private static final Logger logger = LoggerFactory.getLogger(LedgerStockEngine.class);
+
+	private final ProductRepository productRepository;
+	private final JdbcTemplate jdbcTemplate;
+	private final TransactionTemplate transactionTemplate;
+	private final Path journalDir;
+	private final long segmentBytes;
+	private final int maxBatch;
+
+	private final Map<Long, Cell> cells = new ConcurrentHashMap<>();
+	/** Durable deltas not yet flushed to MySQL; guarded by stateLock */
+	private final Map<Long, Long> pending = new HashMap<>();
+	private final ReentrantLock stateLock = new ReentrantLock();
+	private final ReentrantLock flushLock = new ReentrantLock();
+	/** Last journal sequence on disk; guarded by stateLock */
+	private long durableSequence;
+	private long checkpoint;
+	private StockJournal journal;
+
+	public LedgerStockEngine(ProductRepository productRepository, JdbcTemplate jdbcTemplate,
+			TransactionTemplate transactionTemplate,
+			@Value("${trader.stock.ledger.journal-dir:data/stock-journal}") String journalDir,
+			@Value("${trader.stock.ledger.segment-bytes:67108864}") long segmentBytes,
+			@Value("${trader.stock.ledger.max-batch:4096}") int maxBatch) {
+		this.productRepository = productRepository;
+		this.jdbcTemplate = jdbcTemplate;
+		this.transactionTemplate = transactionTemplate;
+		this.journalDir = Path.of(journalDir);
+		this.segmentBytes = segmentBytes;
+		this.maxBatch = maxBatch;
+	}
+
+	/**
+	 * Replay journal entries the database has not seen yet, then start journaling
+	 */
+	@PostConstruct
+	public void start() {
+		List<Long> stored = jdbcTemplate.queryForList(SELECT_CHECKPOINT_SQL, Long.class);
+		if (stored.isEmpty()) {
+			jdbcTemplate.update(INSERT_CHECKPOINT_SQL);
+		}
+		checkpoint = stored.isEmpty() ? 0 : stored.get(0);
+
+		StockJournal.Recovery recovery = StockJournal.recover(journalDir, checkpoint);
+		if (recovery.lastSequence() > checkpoint) {
+			logger.info("Replaying stock journal from sequence {} to {} for {} products",
+				checkpoint + 1, recovery.lastSequence(), recovery.deltas().size());
+			apply(recovery.deltas(), recovery.lastSequence());
+			checkpoint = recovery.lastSequence();
+		}
+		durableSequence = checkpoint;
+		journal = new StockJournal(journalDir, checkpoint + 1, segmentBytes, maxBatch, this::onDurable);
+		journal.deleteSegmentsThrough(checkpoint);
+	}
+
+	/**
+	 * Commit queued reservations and write the remaining deltas back
+	 */
+	@PreDestroy
+	public void stop() {
+		journal.close();
+		flush();
+	}
+
+	@Override
+	public int reserve(Long productId, int quantity) {
+		Cell cell = cell(productId);
+		long remaining = cell.tryReserve(quantity);
+		if (remaining < 0) {
+			throw new BadRequestException("Insufficient stock for product " + productId +
+				". Requested: " + quantity + ", Available: " + cell.available.get());
+		}
+		awaitDurable(List.of(new StockJournal.Delta(productId, -quantity)), Map.of(cell, quantity));
+		return (int) remaining;
+	}
+
+	@Override
+	public Map<Long, Integer> reserveAll(SortedMap<Long, Integer> quantities) {
+		Map<Cell, Integer> reserved = new LinkedHashMap<>();
+		Map<Long, Integer> remaining = new HashMap<>();
+		List<StockJournal.Delta> deltas = new ArrayList<>(quantities.size());
+		try {
+			for (Map.Entry<Long, Integer> entry : quantities.entrySet()) {
+				Cell cell = cell(entry.getKey());
+				long left = cell.tryReserve(entry.getValue());
+				if (left < 0) {
+					throw new BadRequestException("Insufficient stock for product " + entry.getKey() +
+						". Requested: " + entry.getValue() + ", Available: " + cell.available.get());
+				}
+				reserved.put(cell, entry.getValue());
+				remaining.put(entry.getKey(), (int) left);
+				deltas.add(new StockJournal.Delta(entry.getKey(), -entry.getValue()));
+			}
+		} catch (RuntimeException e) {
+			reserved.forEach(Cell::release);
+			throw e;
+		}
+		awaitDurable(deltas, reserved);
+		return remaining;
+	}
+
+	@Override
+	public void releaseAll(SortedMap<Long, Integer> quantities) {
+		Map<Cell, Integer> undo = new LinkedHashMap<>();
+		List<StockJournal.Delta> deltas = new ArrayList<>(quantities.size());
+		for (Map.Entry<Long, Integer> entry : quantities.entrySet()) {
+			Cell cell = cell(entry.getKey());
+			undo.put(cell, -entry.getValue());
+			deltas.add(new StockJournal.Delta(entry.getKey(), entry.getValue()));
+		}
+		undo.forEach((cell, quantity) -> cell.release(-quantity));
+		awaitDurable(deltas, undo);
+	}
+
+	@Override
+	public boolean isTransactional() {
+		// Counters and the journal are outside the database
+		return false;
+	}
+
+	@Override
+	public int availableStock(Long productId) {
+		return (int) cell(productId).available.get();
+	}
+
+	@Override
+	public void setStock(Long productId, int stock) {
+		Cell cell = cell(productId);
+		long previous = cell.available.getAndSet(stock);
+		int delta = (int) (stock - previous);
+		if (delta != 0) {
+			awaitDurable(List.of(new StockJournal.Delta(productId, delta)), Map.of(cell, -delta));
+		}
+	}
+
+	@Override
+	public void applyCurrentStock(Collection<Product> products) {
+		for (Product product : products) {
+			Cell cell = cells.get(product.getId());
+			if (cell != null) {
+				product.setStock((int) cell.available.get());
+			}
+		}
+	}
+
+	@Override
+	public void remove(Long productId) {
+		cells.remove(productId);
+	}
+
+	/**
+	 * Write net deltas for everything journaled so far to MySQL
+	 */
+	@Scheduled(fixedDelayString = "${trader.stock.ledger.flush-interval-ms:200}")
+	public void flush() {
+		flushLock.lock();
+		try {
+			Map<Long, Long> deltas;
+			long sequence;
+			stateLock.lock();
+			try {
+				if (durableSequence == checkpoint) {
+					return;
+				}
+				deltas = new HashMap<>(pending);
+				pending.clear();
+				sequence = durableSequence;
+			} finally {
+				stateLock.unlock();
+			}
+
+			try {
+				apply(deltas, sequence);
+			} catch (RuntimeException e) {
+				logger.warn("Stock flush failed, retrying on next interval", e);
+				stateLock.lock();
+				try {
+					deltas.forEach((productId, delta) -> pending.merge(productId, delta, Long::sum));
+				} finally {
+					stateLock.unlock();
+				}
+				return;
+			}
+			checkpoint = sequence;
+			journal.deleteSegmentsThrough(sequence);
+		} finally {
+			flushLock.unlock();
+		}
+	}
+
+	private void apply(Map<Long, Long> deltas, long sequence) {
+		List<Object[]> batchArgs = new ArrayList<>(deltas.size());
+		deltas.forEach((productId, delta) -> {
+			if (delta != 0) {
+				batchArgs.add(new Object[] { delta, productId });
+			}
+		});
+		transactionTemplate.executeWithoutResult(status -> {
+			if (!batchArgs.isEmpty()) {
+				jdbcTemplate.batchUpdate(APPLY_DELTA_SQL, batchArgs);
+			}
+			jdbcTemplate.update(UPDATE_CHECKPOINT_SQL, sequence);
+		});
+	}
+
+	/**
+	 * Runs on the journal writer thread, in sequence order
+	 */
+	private void onDurable(List<StockJournal.Delta> deltas, long sequence) {
+		stateLock.lock();
+		try {
+			for (StockJournal.Delta delta : deltas) {
+				pending.merge(delta.productId(), (long) delta.delta(), Long::sum);
+			}
+			durableSequence = sequence;
+		} finally {
+			stateLock.unlock();
+		}
+	}
+
+	private void awaitDurable(List<StockJournal.Delta> deltas, Map<Cell, Integer> undo) {
+		try {
+			journal.append(deltas).join();
+		} catch (CompletionException e) {
+			undo.forEach(Cell::release);
+			throw new IllegalStateException("Stock change could not be journaled", e.getCause());
+		}
+	}
+
+	private Cell cell(Long productId) {
+		return cells.computeIfAbsent(productId, id -> new Cell(productRepository.findStockById(id)
+			.orElseThrow(() -> new NotFoundException("Product with ID " + id + " not found"))));
+	}
+
+	/**
+	 * Available stock of one product
+	 */
+	private static final class Cell {
+		private final AtomicLong available;
+
+		Cell(long available) {
+			this.available = new AtomicLong(available);
+		}
+
+		/**
+		 * @return The stock left after reserving, or -1 if there was not enough
+		 */
+		long tryReserve(int quantity) {
+			long current;
+			do {
+				current = available.get();
+				if (current < quantity) {
+					return -1;
+				}
+			} while (!available.compareAndSet(current, current - quantity));
+			return current - quantity;
+		}
+
+		void release(int quantity) {
+			available.addAndGet(quantity);
+		}
+	}
+}
@@ -0,0 +1,85 @@
+package com.trader.stock;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.SortedMap;
+
+import com.trader.exceptions.BadRequestException;
+import com.trader.exceptions.NotFoundException;
+import com.trader.model.Product;
+
+/**
+ * Owner of every change to {@code Product.stock}
+ * 
+ * The default engine writes straight to MySQL with conditional updates. The
+ * ledger engine ({@code trader.stock.engine=ledger}) keeps counters in memory,
+ * journals every change to local disk and flushes net deltas in batches.
+ */
+public interface StockEngine {
+
+	/**
+	 * Atomically reserve stock for one product
+	 * 
+	 * @param productId The ID of the product
+	 * @param quantity The quantity to reserve, at least 1
+	 * @return The stock remaining after the reservation
+	 * @throws BadRequestException if stock is insufficient
+	 * @throws NotFoundException if the product does not exist
+	 */
+	int reserve(Long productId, int quantity);
+
+	/**
+	 * Reserve stock for several products, all or nothing
+	 * 
+	 * @param quantities Quantities keyed by product ID, iterated in ID order
+	 * @return The stock remaining per product after the reservation
+	 * @throws BadRequestException if stock is insufficient for any product
+	 * @throws NotFoundException if any product does not exist
+	 */
+	Map<Long, Integer> reserveAll(SortedMap<Long, Integer> quantities);
+
+	/**
+	 * Give back stock taken by an earlier reservation, e.g. for an order that
+	 * could not be stored
+	 * 
+	 * @param quantities Quantities keyed by product ID, iterated in ID order
+	 * @throws NotFoundException if any product does not exist
+	 */
+	void releaseAll(SortedMap<Long, Integer> quantities);
+
+	/**
+	 * Whether changes are made in the caller's database transaction and roll back with it
+	 */
+	boolean isTransactional();
+
+	/**
+	 * Current stock available for reservation
+	 * 
+	 * @param productId The ID of the product
+	 * @return The available stock
+	 * @throws NotFoundException if the product does not exist
+	 */
+	int availableStock(Long productId);
+
+	/**
+	 * Overwrite the stock of an existing product
+	 * 
+	 * @param productId The ID of the product
+	 * @param stock The new absolute stock level
+	 */
+	void setStock(Long productId, int stock);
+
+	/**
+	 * Replace the stock of loaded products with the engine's current view
+	 * 
+	 * @param products Products read from the database
+	 */
+	void applyCurrentStock(Collection<Product> products);
+
+	/**
+	 * Drop any state held for a deleted product
+	 * 
+	 * @param productId The ID of the deleted product
+	 */
+	void remove(Long productId);
+}
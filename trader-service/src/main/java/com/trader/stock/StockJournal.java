@@ -0,0 +1,361 @@
+package com.trader.stock;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Append-only, fsync'd journal of stock deltas with group commit
+ *
+ * Callers enqueue a group of deltas and wait on the returned future. A single
+ * writer thread drains whatever is queued, writes it as one buffer, forces it
+ * to disk once and only then completes the futures, so thousands of
+ * reservations share each fsync. Records are fixed-size and checksummed; a
+ * group is only replayed if its last record (the commit marker) made it to
+ * disk intact.
+ *
+ * The journal is split into segments named after their first sequence number
+ * so segments fully covered by a database checkpoint can simply be deleted.
+ */
+public class StockJournal implements AutoCloseable {
+
+	/** sequence(8) productId(8) delta(4) flags(4) crc(4) */
+	static final int RECORD_SIZE = 28;
+
+	private static final int FLAG_GROUP_END = 1;
+	private static final String SEGMENT_PREFIX = "stock-";
+	private static final String SEGMENT_SUFFIX = ".journal";
+	private static final Logger logger = LoggerFactory.getLogger(StockJournal.class);
+
+	/**
+	 * A change to the stock of one product
+	 */
+	public record Delta(long productId, int delta) {
+	}
+
+	/**
+	 * Net deltas found in the journal after a checkpoint
+	 */
+	public record Recovery(Map<Long, Long> deltas, long lastSequence) {
+	}
+
+	private record PendingAppend(List<Delta> deltas, CompletableFuture<Long> durable) {
+	}
+
+	private final Path directory;
+	private final long segmentBytes;
+	private final int maxBatch;
+	private final BiConsumer<List<Delta>, Long> onDurable;
+	private final BlockingQueue<PendingAppend> queue = new LinkedBlockingQueue<>();
+	private final Thread writer;
+
+	private volatile boolean running = true;
+	private volatile Path activePath;
+	private volatile IOException failure;
+	private FileChannel active;
+	private long nextSequence;
+
+	/**
+	 * Open a new segment and start the writer thread
+	 *
+	 * @param directory Directory holding the journal segments
+	 * @param nextSequence Sequence number of the first record to write
+	 * @param segmentBytes Size after which a new segment is started
+	 * @param maxBatch Maximum number of appends committed with one fsync
+	 * @param onDurable Called on the writer thread, in sequence order, once a
+	 *                  group is on disk, with its deltas and its last sequence
+	 */
+	public StockJournal(Path directory, long nextSequence, long segmentBytes, int maxBatch,
+			BiConsumer<List<Delta>, Long> onDurable) {
+		this.directory = directory;
+		this.nextSequence = nextSequence;
+		this.segmentBytes = segmentBytes;
+		this.maxBatch = maxBatch;
+		this.onDurable = onDurable;
+		try {
+			Files.createDirectories(directory);
+			openSegment(nextSequence);
+		} catch (IOException e) {
+			throw new UncheckedIOException("Cannot open stock journal in " + directory, e);
+		}
+		this.writer = new Thread(this::writeLoop, "stock-journal-writer");
+		this.writer.setDaemon(true);
+		this.writer.start();
+	}
+
+	/**
+	 * Durably append a group of deltas
+	 *
+	 * @param deltas The deltas to append; replayed all together or not at all
+	 * @return Future completed with the group's last sequence once it is on disk
+	 */
+	public CompletableFuture<Long> append(List<Delta> deltas) {
+		CompletableFuture<Long> durable = new CompletableFuture<>();
+		if (!running || failure != null) {
+			durable.completeExceptionally(new IOException("Stock journal is not accepting writes", failure));
+			return durable;
+		}
+		queue.add(new PendingAppend(deltas, durable));
+		return durable;
+	}
+
+	private void writeLoop() {
+		List<PendingAppend> batch = new ArrayList<>(maxBatch);
+		while (running || !queue.isEmpty()) {
+			try {
+				PendingAppend first = queue.poll(100, TimeUnit.MILLISECONDS);
+				if (first == null) {
+					continue;
+				}
+				batch.add(first);
+				queue.drainTo(batch, maxBatch - 1);
+				writeBatch(batch);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				running = false;
+			} finally {
+				batch.clear();
+			}
+		}
+	}
+
+	private void writeBatch(List<PendingAppend> batch) {
+		int records = batch.stream().mapToInt(append -> append.deltas().size()).sum();
+		ByteBuffer buffer = ByteBuffer.allocate(records * RECORD_SIZE);
+		long firstSequence = nextSequence;
+		long sequence = firstSequence;
+		long[] groupEnds = new long[batch.size()];
+		for (int i = 0; i < batch.size(); i++) {
+			List<Delta> deltas = batch.get(i).deltas();
+			for (int j = 0; j < deltas.size(); j++) {
+				Delta delta = deltas.get(j);
+				writeRecord(buffer, sequence++, delta, j == deltas.size() - 1 ? FLAG_GROUP_END : 0);
+			}
+			groupEnds[i] = sequence - 1;
+		}
+		buffer.flip();
+
+		long position = -1;
+		try {
+			if (failure != null) {
+				throw failure;
+			}
+			if (active.size() > 0 && active.size() + buffer.remaining() > segmentBytes) {
+				active.close();
+				openSegment(firstSequence);
+			}
+			position = active.position();
+			while (buffer.hasRemaining()) {
+				active.write(buffer);
+			}
+			active.force(false);
+		} catch (IOException e) {
+			discardPartialWrite(position, e);
+			batch.forEach(append -> append.durable().completeExceptionally(e));
+			return;
+		}
+
+		nextSequence = sequence;
+		for (int i = 0; i < batch.size(); i++) {
+			PendingAppend append = batch.get(i);
+			try {
+				onDurable.accept(append.deltas(), groupEnds[i]);
+			} finally {
+				append.durable().complete(groupEnds[i]);
+			}
+		}
+	}
+
+	/**
+	 * Cut off a torn write so later groups are not appended after garbage.
+	 * If that is impossible the journal stops accepting writes.
+	 */
+	private void discardPartialWrite(long position, IOException cause) {
+		logger.error("Stock journal write failed", cause);
+		if (failure != null || position < 0) {
+			failure = cause;
+			return;
+		}
+		try {
+			active.truncate(position);
+			active.position(position);
+		} catch (IOException e) {
+			failure = e;
+		}
+	}
+
+	private static void writeRecord(ByteBuffer buffer, long sequence, Delta delta, int flags) {
+		int start = buffer.position();
+		buffer.putLong(sequence);
+		buffer.putLong(delta.productId());
+		buffer.putInt(delta.delta());
+		buffer.putInt(flags);
+		CRC32 crc = new CRC32();
+		crc.update(buffer.array(), start, RECORD_SIZE - 4);
+		buffer.putInt((int) crc.getValue());
+	}
+
+	private void openSegment(long firstSequence) throws IOException {
+		Path path = directory.resolve(segmentName(firstSequence));
+		active = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+		active.position(active.size());
+		activePath = path;
+	}
+
+	/**
+	 * Delete segments whose records are all covered by a checkpoint
+	 *
+	 * @param checkpoint Last sequence already applied to the database
+	 */
+	public void deleteSegmentsThrough(long checkpoint) {
+		List<Path> segments = listSegments(directory);
+		for (int i = 0; i < segments.size() - 1; i++) {
+			Path segment = segments.get(i);
+			long nextStart = segmentStart(segments.get(i + 1));
+			if (nextStart - 1 <= checkpoint && !segment.equals(activePath)) {
+				try {
+					Files.deleteIfExists(segment);
+				} catch (IOException e) {
+					logger.warn("Could not delete stock journal segment {}", segment, e);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Stop accepting writes, commit everything already queued and close the segment
+	 */
+	@Override
+	public void close() {
+		running = false;
+		try {
+			writer.join(TimeUnit.SECONDS.toMillis(10));
+			active.close();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} catch (IOException e) {
+			logger.warn("Could not close stock journal", e);
+		}
+		PendingAppend leftover;
+		while ((leftover = queue.poll()) != null) {
+			leftover.durable().completeExceptionally(new IOException("Stock journal closed"));
+		}
+	}
+
+	/**
+	 * Replay every complete group written after a checkpoint
+	 *
+	 * A torn or corrupt tail in the newest segment is expected after a crash
+	 * and is truncated; damage anywhere else aborts recovery.
+	 *
+	 * @param directory Directory holding the journal segments
+	 * @param checkpoint Last sequence already applied to the database
+	 * @return The net delta per product and the last complete sequence found
+	 */
+	public static Recovery recover(Path directory, long checkpoint) {
+		Map<Long, Long> deltas = new HashMap<>();
+		long lastSequence = checkpoint;
+		List<Path> segments = listSegments(directory);
+		for (int i = 0; i < segments.size(); i++) {
+			Path segment = segments.get(i);
+			boolean newest = i == segments.size() - 1;
+			try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+				ByteBuffer buffer = ByteBuffer.allocate(RECORD_SIZE);
+				Map<Long, Long> group = new HashMap<>();
+				long validEnd = 0;
+				long position = 0;
+				while (true) {
+					buffer.clear();
+					int read = 0;
+					while (buffer.hasRemaining() && (read = channel.read(buffer, position + buffer.position())) > 0) {
+						// keep reading until the record is complete or the file ends
+					}
+					if (buffer.position() == 0 && read <= 0) {
+						break;
+					}
+					if (buffer.hasRemaining() || !checksumMatches(buffer)) {
+						if (!newest) {
+							throw new IllegalStateException("Corrupt stock journal segment " + segment);
+						}
+						logger.warn("Truncating torn tail of stock journal segment {} at byte {}", segment, validEnd);
+						channel.truncate(validEnd);
+						break;
+					}
+					position += RECORD_SIZE;
+					buffer.flip();
+					long sequence = buffer.getLong();
+					long productId = buffer.getLong();
+					int delta = buffer.getInt();
+					int flags = buffer.getInt();
+					if (sequence > checkpoint) {
+						group.merge(productId, (long) delta, Long::sum);
+					}
+					if ((flags & FLAG_GROUP_END) != 0) {
+						group.forEach((id, value) -> deltas.merge(id, value, Long::sum));
+						group.clear();
+						validEnd = position;
+						lastSequence = Math.max(lastSequence, sequence);
+					}
+				}
+				if (!group.isEmpty() || validEnd < channel.size()) {
+					// An unterminated group at the end of the journal was never acknowledged
+					channel.truncate(validEnd);
+				}
+			} catch (IOException e) {
+				throw new UncheckedIOException("Cannot read stock journal segment " + segment, e);
+			}
+		}
+		deltas.values().removeIf(value -> value == 0);
+		return new Recovery(deltas, lastSequence);
+	}
+
+	private static boolean checksumMatches(ByteBuffer record) {
+		CRC32 crc = new CRC32();
+		crc.update(record.array(), 0, RECORD_SIZE - 4);
+		return (int) crc.getValue() == record.getInt(RECORD_SIZE - 4);
+	}
+
+	private static List<Path> listSegments(Path directory) {
+		if (!Files.isDirectory(directory)) {
+			return List.of();
+		}
+		try (Stream<Path> files = Files.list(directory)) {
+			return files
+				.filter(path -> {
+					String name = path.getFileName().toString();
+					return name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX);
+				})
+				.sorted((a, b) -> Long.compare(segmentStart(a), segmentStart(b)))
+				.toList();
+		} catch (IOException e) {
+			throw new UncheckedIOException("Cannot list stock journal segments in " + directory, e);
+		}
+	}
+
+	private static String segmentName(long firstSequence) {
+		return SEGMENT_PREFIX + String.format("%020d", firstSequence) + SEGMENT_SUFFIX;
+	}
+
+	private static long segmentStart(Path segment) {
+		String name = segment.getFileName().toString();
+		return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+	}
+}
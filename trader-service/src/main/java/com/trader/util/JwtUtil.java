@@ -1,11 +1,16 @@
 package com.trader.util;
 
-import io.jsonwebtoken.Claims;
+import com.beemo.common.security.InvalidTokenException;
+import com.beemo.common.security.JwtClaims;
+import com.beemo.common.security.JwtVerifier;
+import com.beemo.common.security.VerifiedTokenCache;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
@@ -14,37 +19,33 @@ import java.util.function.Function;
 /**
  * JWT Utility class for token generation and validation
  * 
- * Updated to use JJWT 0.12.x which is compatible with Java 21
- * and doesn't rely on deprecated JAXB dependencies.
+ * Tokens are issued with JJWT 0.12.x and read back through the shared
+ * verifier, which verifies and parses each token once and serves it from
+ * a cache until it expires.
  */
 @Component
 public class JwtUtil {
-    private final SecretKey SECRET_KEY = Keys.hmacShaKeyFor("beemo_secret_key_that_is_long_enough_for_hmac_sha256".getBytes());
+    private final SecretKey SECRET_KEY;
     private final long EXPIRATION_TIME = 1000 * 60 * 60 * 10; // 10 hours
+    private final VerifiedTokenCache tokenCache;
 
-    public String extractUsername(String token) {
-        return extractClaim(token, Claims::getSubject);
-    }
-
-    public Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
+    public JwtUtil(@Value("${beemo.security.jwt.secret}") String secret,
+                   @Value("${beemo.security.jwt.cache-size:10000}") int cacheSize) {
+        byte[] secretBytes = secret.getBytes(StandardCharsets.UTF_8);
+        this.SECRET_KEY = Keys.hmacShaKeyFor(secretBytes);
+        this.tokenCache = new VerifiedTokenCache(new JwtVerifier(secretBytes), cacheSize);
     }
 
-    public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
-        final Claims claims = extractAllClaims(token);
-        return claimsResolver.apply(claims);
+    public String extractUsername(String token) {
+        return extractClaim(token, JwtClaims::subject);
     }
 
-    private Claims extractAllClaims(String token) {
-        return Jwts.parser()
-                .verifyWith(SECRET_KEY)
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+    public Date extractExpiration(String token) {
+        return extractClaim(token, claims -> Date.from(claims.expiresAt()));
     }
 
-    private Boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+    public <T> T extractClaim(String token, Function<JwtClaims, T> claimsResolver) {
+        return claimsResolver.apply(tokenCache.verify(token));
     }
 
     public String generateToken(String username) {
@@ -53,17 +54,21 @@ public class JwtUtil {
     }
 
     private String createToken(Map<String, Object> claims, String subject) {
+        // HS256 explicitly: JJWT would otherwise pick HS384 for a key this long
         return Jwts.builder()
                 .claims(claims)
                 .subject(subject)
                 .issuedAt(new Date(System.currentTimeMillis()))
                 .expiration(new Date(System.currentTimeMillis() + EXPIRATION_TIME))
-                .signWith(SECRET_KEY)
+                .signWith(SECRET_KEY, Jwts.SIG.HS256)
                 .compact();
     }
 
     public Boolean validateToken(String token, String username) {
-        final String extractedUsername = extractUsername(token);
-        return (extractedUsername.equals(username) && !isTokenExpired(token));
+        try {
+            return tokenCache.verify(token).subject().equals(username);
+        } catch (InvalidTokenException e) {
+            return false;
+        }
     }
-} 
\ No newline at end of file
+}
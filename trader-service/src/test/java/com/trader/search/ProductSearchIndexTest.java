@@ -0,0 +1,116 @@
+package com.trader.search;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.trader.dto.ProductSearchResult;
+import com.trader.model.Product;
+import com.trader.repository.ProductRepository;
+
+class ProductSearchIndexTest {
+
+	private static final List<Product> CATALOG = List.of(
+		product(1, "Desk Lamp", "LED lamp for the office", 25),
+		product(2, "Floor Lamp", "Tall lamp", 30),
+		product(3, "Office Desk", "Oak desk with a lamp hook", 200),
+		product(4, "Crème Brûlée Torch", "Kitchen torch", 15),
+		product(5, "Lampshade", "Linen shade", 60));
+
+	private final ProductRepository productRepository = mock(ProductRepository.class);
+	private final ProductSearchIndex index = new ProductSearchIndex(productRepository, 2);
+
+	@BeforeEach
+	void setUp() {
+		when(productRepository.findMinId()).thenReturn(Optional.of(1L));
+		when(productRepository.findMaxId()).thenReturn(Optional.of(5L));
+		doAnswer(invocation -> {
+			long from = invocation.getArgument(0);
+			long to = invocation.getArgument(1);
+			Consumer<Product> action = invocation.getArgument(2);
+			CATALOG.stream().filter(p -> p.getId() >= from && p.getId() < to).forEach(action);
+			return null;
+		}).when(productRepository).streamIdRange(anyLong(), anyLong(), any());
+		index.rebuild();
+	}
+
+	@Test
+	void rebuildLoadsEveryIdRange() {
+		assertEquals(5, index.size());
+	}
+
+	@Test
+	void termsAreAccentFoldedLowerCasedAndSplitOnPunctuation() {
+		assertEquals(List.of(4L), ids(index.search("CREME brulee", false, null, null, 10)));
+		assertEquals(List.of(4L), ids(index.search("crème-brûlée", false, null, null, 10)));
+		assertEquals(List.of(), ids(index.search("  ,.; ", false, null, null, 10)));
+	}
+
+	@Test
+	void nameMatchesOutrankDescriptionMatchesAndTiesGoToTheLowerId() {
+		List<ProductSearchResult> results = index.search("lamp", false, null, null, 10);
+
+		// Exact in the name, prefix of a name word, then exact in the description only
+		assertEquals(List.of(1L, 2L, 5L, 3L), ids(results));
+		assertEquals(List.of(6.0, 6.0, 4.0, 3.0), results.stream().map(ProductSearchResult::getScore).toList());
+	}
+
+	@Test
+	void everyWordMustMatchAndScoresAdd() {
+		List<ProductSearchResult> results = index.search("desk lamp", false, null, null, 10);
+
+		assertEquals(List.of(1L, 3L), ids(results));
+		assertEquals(12.0, results.get(0).getScore());
+	}
+
+	@Test
+	void onlyTheLastWordMatchesAsAPrefix() {
+		assertEquals(List.of(1L, 3L), ids(index.search("desk la", false, null, null, 10)));
+		assertEquals(List.of(), ids(index.search("lam desk", false, null, null, 10)));
+	}
+
+	@Test
+	void fuzzyMatchingToleratesOneEditInShortWords() {
+		assertEquals(List.of(), ids(index.search("lamb", false, null, null, 10)));
+		assertEquals(List.of(1L, 2L, 3L), ids(index.search("lamb", true, null, null, 10)));
+		// Too short to be matched fuzzily
+		assertEquals(List.of(), ids(index.search("oam", true, null, null, 10)));
+	}
+
+	@Test
+	void priceRangeAndLimitAreApplied() {
+		assertEquals(List.of(5L), ids(index.search("lamp", false, 50.0, 100.0, 10)));
+		assertEquals(List.of(1L), ids(index.search("lamp", false, null, 25.0, 10)));
+		assertEquals(List.of(1L, 2L), ids(index.search("lamp", false, null, null, 2)));
+	}
+
+	@Test
+	void reindexedAndRemovedProductsDropTheirOldTerms() {
+		index.index(product(2, "Floor Light", "Tall light", 30));
+		index.remove(1);
+
+		assertEquals(List.of(5L, 3L), ids(index.search("lamp", false, null, null, 10)));
+		assertEquals(List.of(2L), ids(index.search("light", false, null, null, 10)));
+		assertEquals(4, index.size());
+	}
+
+	private static List<Long> ids(List<ProductSearchResult> results) {
+		return results.stream().map(ProductSearchResult::getId).toList();
+	}
+
+	private static Product product(long id, String name, String description, double price) {
+		Product product = new Product(name, description, price);
+		product.setId(id);
+		return product;
+	}
+}
@@ -0,0 +1,178 @@
+package com.trader.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.trader.dto.StockReservationBatch;
+import com.trader.dto.StockReservationRequest;
+import com.trader.dto.StockReservationResult;
+import com.trader.exceptions.BadRequestException;
+import com.trader.exceptions.NotFoundException;
+import com.trader.model.Product;
+import com.trader.model.StockReservation;
+import com.trader.repository.ProductRepository;
+import com.trader.repository.StockReservationRepository;
+import com.trader.stock.StockEngine;
+
+class StockReservationServiceTest {
+
+	private final ProductRepository productRepository = mock(ProductRepository.class);
+	private final StockReservationRepository reservationRepository = mock(StockReservationRepository.class);
+	private final StockEngine stockEngine = mock(StockEngine.class);
+	private final TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+	/** Reservations as stored, keyed by ID */
+	private final Map<String, StockReservation> stored = new HashMap<>();
+
+	@BeforeEach
+	@SuppressWarnings("unchecked")
+	void setUp() {
+		when(productRepository.findAllById(any())).thenReturn(List.of(product(1L, "Lamp"), product(2L, "Desk")));
+		when(stockEngine.reserveAll(any())).thenReturn(Map.of(1L, 8, 2L, 1));
+		when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+			invocation.<TransactionCallback<Object>>getArgument(0).doInTransaction(null));
+		when(reservationRepository.save(any())).thenAnswer(invocation -> {
+			StockReservation reservation = invocation.getArgument(0);
+			stored.put(reservation.getId(), reservation);
+			return reservation;
+		});
+		when(reservationRepository.findById(anyString()))
+			.thenAnswer(invocation -> Optional.ofNullable(stored.get(invocation.<String>getArgument(0))));
+		when(reservationRepository.finishHeld(anyString(), any())).thenAnswer(invocation -> {
+			StockReservation reservation = stored.get(invocation.<String>getArgument(0));
+			if (reservation == null || reservation.getStatus() != StockReservation.Status.HELD) {
+				return 0;
+			}
+			reservation.setStatus(invocation.getArgument(1));
+			return 1;
+		});
+		when(reservationRepository.findExpiredIds(any(), any(Pageable.class))).thenAnswer(invocation -> {
+			Instant now = invocation.getArgument(0);
+			return stored.values().stream()
+				.filter(r -> r.getStatus() == StockReservation.Status.HELD && r.getExpiresAt().isBefore(now))
+				.map(StockReservation::getId)
+				.toList();
+		});
+	}
+
+	@Test
+	void linesForTheSameProductAreMergedInProductIdOrder() {
+		StockReservationBatch batch = service(Duration.ofMinutes(5)).reserve(List.of(
+			new StockReservationRequest(2L, 1), new StockReservationRequest(1L, 2), new StockReservationRequest(2L, 3)));
+
+		verify(stockEngine).reserveAll(new TreeMap<>(Map.of(1L, 2, 2L, 4)));
+		assertEquals(List.of(1L, 2L), batch.getLines().stream().map(StockReservationResult::getProductId).toList());
+		assertEquals(List.of(2, 4), batch.getLines().stream().map(StockReservationResult::getReserved).toList());
+		assertEquals(List.of(8, 1), batch.getLines().stream().map(StockReservationResult::getRemainingStock).toList());
+		assertEquals(StockReservation.Status.HELD, stored.get(batch.getReservationId()).getStatus());
+	}
+
+	@Test
+	void invalidLinesAndMissingProductsReserveNothing() {
+		StockReservationService service = service(Duration.ofMinutes(5));
+
+		assertThrows(BadRequestException.class, () -> service.reserve(List.of()));
+		assertThrows(BadRequestException.class, () -> service.reserve(List.of(new StockReservationRequest(1L, 0))));
+		assertThrows(NotFoundException.class, () -> service.reserve(List.of(new StockReservationRequest(3L, 1))));
+		verify(stockEngine, never()).reserveAll(any());
+	}
+
+	@Test
+	void claimKeepsTheStockAndMayBeRetried() {
+		StockReservationService service = service(Duration.ofMinutes(5));
+		String reservationId = reserve(service);
+
+		service.claim(reservationId);
+		service.claim(reservationId);
+
+		assertEquals(StockReservation.Status.CLAIMED, stored.get(reservationId).getStatus());
+		assertThrows(BadRequestException.class, () -> service.release(reservationId));
+		verify(stockEngine, never()).releaseAll(any());
+	}
+
+	@Test
+	void releaseGivesTheStockBackOnce() {
+		StockReservationService service = service(Duration.ofMinutes(5));
+		String reservationId = reserve(service);
+
+		service.release(reservationId);
+		service.release(reservationId);
+
+		verify(stockEngine, times(1)).releaseAll(new TreeMap<>(Map.of(1L, 2)));
+		BadRequestException e = assertThrows(BadRequestException.class, () -> service.claim(reservationId));
+		assertEquals("Reservation " + reservationId + " was already released", e.getMessage());
+	}
+
+	@Test
+	void unclaimedReservationsExpireAndCanNoLongerBeClaimed() {
+		// Already past its claim period when the sweep runs
+		StockReservationService service = service(Duration.ofSeconds(-1));
+		String reservationId = reserve(service);
+
+		service.expire();
+		service.expire();
+
+		assertEquals(StockReservation.Status.EXPIRED, stored.get(reservationId).getStatus());
+		verify(stockEngine, times(1)).releaseAll(new TreeMap<>(Map.of(1L, 2)));
+		BadRequestException e = assertThrows(BadRequestException.class, () -> service.claim(reservationId));
+		assertEquals("Reservation " + reservationId + " was already expired", e.getMessage());
+		// Releasing an expired reservation is a no-op, not a second give-back
+		service.release(reservationId);
+		verify(stockEngine, times(1)).releaseAll(any());
+	}
+
+	@Test
+	void reservationsWithinTheirClaimPeriodAreNotExpired() {
+		StockReservationService service = service(Duration.ofMinutes(5));
+		String reservationId = reserve(service);
+
+		service.expire();
+
+		assertEquals(StockReservation.Status.HELD, stored.get(reservationId).getStatus());
+		verify(stockEngine, never()).releaseAll(any());
+	}
+
+	@Test
+	void unknownReservationsAreNotFound() {
+		StockReservationService service = service(Duration.ofMinutes(5));
+
+		assertThrows(NotFoundException.class, () -> service.claim("missing"));
+		assertThrows(NotFoundException.class, () -> service.release("missing"));
+	}
+
+	private StockReservationService service(Duration ttl) {
+		return new StockReservationService(productRepository, reservationRepository, stockEngine, transactionTemplate,
+			ttl, Duration.ofDays(1));
+	}
+
+	private static String reserve(StockReservationService service) {
+		return service.reserve(List.of(new StockReservationRequest(1L, 2))).getReservationId();
+	}
+
+	private static Product product(long id, String name) {
+		Product product = new Product(name, name + " description", 10.0);
+		product.setId(id);
+		return product;
+	}
+}
@@ -0,0 +1,105 @@
+package com.trader.stock;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.sql.ResultSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+
+import com.trader.exceptions.BadRequestException;
+import com.trader.exceptions.NotFoundException;
+import com.trader.repository.ProductRepository;
+
+class DatabaseStockEngineTest {
+
+	private final ProductRepository productRepository = mock(ProductRepository.class);
+	private final NamedParameterJdbcTemplate namedJdbcTemplate = mock(NamedParameterJdbcTemplate.class);
+	private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+	private final DatabaseStockEngine engine = new DatabaseStockEngine(productRepository, namedJdbcTemplate);
+	/** Stock per product after the batch update */
+	private final Map<Long, Integer> stock = new TreeMap<>();
+
+	@BeforeEach
+	void setUp() throws Exception {
+		when(namedJdbcTemplate.getJdbcTemplate()).thenReturn(jdbcTemplate);
+		doAnswer(invocation -> {
+			RowCallbackHandler handler = invocation.getArgument(2);
+			for (Map.Entry<Long, Integer> entry : stock.entrySet()) {
+				ResultSet row = mock(ResultSet.class);
+				when(row.getLong("id")).thenReturn(entry.getKey());
+				when(row.getInt("stock")).thenReturn(entry.getValue());
+				handler.processRow(row);
+			}
+			return null;
+		}).when(namedJdbcTemplate).query(anyString(), any(SqlParameterSource.class), any(RowCallbackHandler.class));
+	}
+
+	@Test
+	void reserveReturnsTheStockLeftAfterTheConditionalUpdate() {
+		when(productRepository.reserveStock(1L, 2)).thenReturn(1);
+		when(productRepository.findStockById(1L)).thenReturn(Optional.of(3));
+
+		assertEquals(3, engine.reserve(1L, 2));
+	}
+
+	@Test
+	void reserveWithoutEnoughStockIsABadRequest() {
+		when(productRepository.reserveStock(1L, 5)).thenReturn(0);
+		when(productRepository.findStockById(1L)).thenReturn(Optional.of(3));
+
+		BadRequestException e = assertThrows(BadRequestException.class, () -> engine.reserve(1L, 5));
+		assertEquals("Insufficient stock for product 1. Requested: 5, Available: 3", e.getMessage());
+	}
+
+	@Test
+	void reserveOfAMissingProductIsNotFound() {
+		when(productRepository.reserveStock(9L, 1)).thenReturn(0);
+		when(productRepository.findStockById(9L)).thenReturn(Optional.empty());
+
+		assertThrows(NotFoundException.class, () -> engine.reserve(9L, 1));
+	}
+
+	@Test
+	void reserveAllReturnsTheStockLeftPerProduct() {
+		when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenReturn(new int[] { 1, 1 });
+		stock.put(1L, 3);
+		stock.put(2L, 0);
+
+		assertEquals(Map.of(1L, 3, 2L, 0), engine.reserveAll(new TreeMap<>(Map.of(1L, 2, 2L, 1))));
+	}
+
+	@Test
+	void reserveAllFailsOnTheLineThatCouldNotBeReserved() {
+		// The transaction rolls back the first line's decrement
+		when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenReturn(new int[] { 1, 0 });
+		stock.put(1L, 3);
+		stock.put(2L, 1);
+
+		BadRequestException e = assertThrows(BadRequestException.class,
+			() -> engine.reserveAll(new TreeMap<>(Map.of(1L, 2, 2L, 4))));
+		assertEquals("Insufficient stock for product 2. Requested: 4, Available: 1", e.getMessage());
+	}
+
+	@Test
+	void reserveAllOfAMissingProductIsNotFound() {
+		when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenReturn(new int[] { 1, 0 });
+		stock.put(1L, 3);
+
+		assertThrows(NotFoundException.class, () -> engine.reserveAll(new TreeMap<>(Map.of(1L, 2, 9L, 1))));
+	}
+}
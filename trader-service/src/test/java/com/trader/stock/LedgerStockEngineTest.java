@@ -0,0 +1,154 @@
+package com.trader.stock;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.trader.exceptions.BadRequestException;
+import com.trader.repository.ProductRepository;
+
+class LedgerStockEngineTest {
+
+	private static final String APPLY_DELTA_SQL = "UPDATE product SET stock = stock + ? WHERE id = ?";
+	private static final String UPDATE_CHECKPOINT_SQL = "UPDATE stock_ledger_checkpoint SET last_sequence = ? WHERE id = 1";
+
+	@TempDir
+	Path dir;
+
+	private final ProductRepository productRepository = mock(ProductRepository.class);
+	private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+	private final TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+	/** Delta batches written to product.stock, as productId to delta */
+	private final List<Map<Long, Long>> applied = new ArrayList<>();
+	private boolean failNextFlush;
+	private LedgerStockEngine engine;
+
+	@BeforeEach
+	@SuppressWarnings("unchecked")
+	void setUp() {
+		when(productRepository.findStockById(1L)).thenReturn(Optional.of(5));
+		when(productRepository.findStockById(2L)).thenReturn(Optional.of(1));
+		doAnswer(invocation -> {
+			invocation.<Consumer<TransactionStatus>>getArgument(0).accept(null);
+			return null;
+		}).when(transactionTemplate).executeWithoutResult(any());
+		doAnswer(invocation -> {
+			if (failNextFlush) {
+				failNextFlush = false;
+				throw new DataAccessResourceFailureException("Database unavailable");
+			}
+			Map<Long, Long> batch = new TreeMap<>();
+			for (Object[] args : invocation.<List<Object[]>>getArgument(1)) {
+				batch.put((Long) args[1], (Long) args[0]);
+			}
+			applied.add(batch);
+			return new int[batch.size()];
+		}).when(jdbcTemplate).batchUpdate(eq(APPLY_DELTA_SQL), anyList());
+	}
+
+	@AfterEach
+	void tearDown() {
+		if (engine != null) {
+			engine.stop();
+		}
+	}
+
+	@Test
+	void startReplaysJournalEntriesPastTheCheckpoint() {
+		try (StockJournal journal = new StockJournal(dir, 1, 1 << 20, 16, (deltas, sequence) -> { })) {
+			journal.append(List.of(new StockJournal.Delta(1, -2))).join();
+			journal.append(List.of(new StockJournal.Delta(1, -1), new StockJournal.Delta(2, -1))).join();
+		}
+		checkpointAt(1);
+
+		start();
+
+		assertEquals(List.of(Map.of(1L, -1L, 2L, -1L)), applied);
+		verify(jdbcTemplate).update(UPDATE_CHECKPOINT_SQL, 3L);
+	}
+
+	@Test
+	void reserveAllUndoesEarlierLinesWhenOneIsShort() {
+		checkpointAt(0);
+		start();
+
+		TreeMap<Long, Integer> quantities = new TreeMap<>(Map.of(1L, 3, 2L, 2));
+		assertThrows(BadRequestException.class, () -> engine.reserveAll(quantities));
+
+		assertEquals(5, engine.availableStock(1L));
+		assertEquals(1, engine.availableStock(2L));
+		engine.flush();
+		verify(jdbcTemplate, never()).update(eq(UPDATE_CHECKPOINT_SQL), any(Object[].class));
+	}
+
+	@Test
+	void failedFlushKeepsItsDeltasForTheNextOne() {
+		checkpointAt(0);
+		start();
+
+		engine.reserve(1L, 2);
+		failNextFlush = true;
+		engine.flush();
+		assertEquals(List.of(), applied);
+		verify(jdbcTemplate, never()).update(eq(UPDATE_CHECKPOINT_SQL), any(Object[].class));
+
+		// The retry carries the failed batch merged with what was reserved since
+		engine.reserve(1L, 1);
+		engine.flush();
+
+		assertEquals(List.of(Map.of(1L, -3L)), applied);
+		verify(jdbcTemplate).update(UPDATE_CHECKPOINT_SQL, 2L);
+		assertEquals(2, engine.availableStock(1L));
+	}
+
+	@Test
+	void releaseAllReturnsReservedStock() {
+		checkpointAt(0);
+		start();
+
+		TreeMap<Long, Integer> quantities = new TreeMap<>(Map.of(1L, 4, 2L, 1));
+		assertEquals(Map.of(1L, 1, 2L, 0), engine.reserveAll(quantities));
+		engine.releaseAll(quantities);
+
+		assertEquals(5, engine.availableStock(1L));
+		assertEquals(1, engine.availableStock(2L));
+		// Reserve and release net out, so only the checkpoint moves
+		engine.flush();
+		assertEquals(List.of(), applied);
+		verify(jdbcTemplate).update(UPDATE_CHECKPOINT_SQL, 4L);
+	}
+
+	private void checkpointAt(long sequence) {
+		when(jdbcTemplate.queryForList(anyString(), eq(Long.class))).thenReturn(List.of(sequence));
+	}
+
+	private void start() {
+		engine = new LedgerStockEngine(productRepository, jdbcTemplate, transactionTemplate, dir.toString(), 1 << 20, 16);
+		engine.start();
+	}
+}
@@ -0,0 +1,89 @@
+package com.trader.stock;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class StockJournalTest {
+
+	@TempDir
+	Path dir;
+
+	@Test
+	void recoverReplaysOnlyGroupsPastTheCheckpoint() {
+		try (StockJournal journal = new StockJournal(dir, 1, 1 << 20, 16, (deltas, sequence) -> { })) {
+			assertEquals(1L, journal.append(List.of(new StockJournal.Delta(1, -5))).join());
+			assertEquals(3L, journal.append(List.of(new StockJournal.Delta(1, -2), new StockJournal.Delta(2, -1))).join());
+			assertEquals(4L, journal.append(List.of(new StockJournal.Delta(2, 1))).join());
+		}
+
+		StockJournal.Recovery recovery = StockJournal.recover(dir, 1);
+
+		// Product 2 nets out to zero and is dropped
+		assertEquals(Map.of(1L, -2L), recovery.deltas());
+		assertEquals(4, recovery.lastSequence());
+	}
+
+	@Test
+	void recoverTruncatesATornTail() throws IOException {
+		try (StockJournal journal = new StockJournal(dir, 1, 1 << 20, 16, (deltas, sequence) -> { })) {
+			journal.append(List.of(new StockJournal.Delta(7, -3))).join();
+		}
+		Path segment = segments().get(0);
+		Files.write(segment, new byte[StockJournal.RECORD_SIZE + 5], StandardOpenOption.APPEND);
+
+		StockJournal.Recovery recovery = StockJournal.recover(dir, 0);
+
+		assertEquals(Map.of(7L, -3L), recovery.deltas());
+		assertEquals(1, recovery.lastSequence());
+		assertEquals(StockJournal.RECORD_SIZE, Files.size(segment));
+	}
+
+	@Test
+	void onDurableSeesEveryGroupInSequenceOrder() {
+		List<Long> sequences = new ArrayList<>();
+		try (StockJournal journal = new StockJournal(dir, 10, 1 << 20, 16,
+				(deltas, sequence) -> sequences.add(sequence))) {
+			journal.append(List.of(new StockJournal.Delta(1, -1), new StockJournal.Delta(2, -1))).join();
+			journal.append(List.of(new StockJournal.Delta(3, -1))).join();
+		}
+
+		assertEquals(List.of(11L, 12L), sequences);
+	}
+
+	@Test
+	void deleteSegmentsThroughKeepsSegmentsPastTheCheckpoint() throws IOException {
+		// One record per segment, so every append starts a new one
+		try (StockJournal journal = new StockJournal(dir, 1, StockJournal.RECORD_SIZE, 16, (deltas, sequence) -> { })) {
+			for (int i = 0; i < 3; i++) {
+				journal.append(List.of(new StockJournal.Delta(1, -1))).join();
+			}
+			assertEquals(3, segments().size());
+
+			journal.deleteSegmentsThrough(2);
+
+			List<Path> left = segments();
+			assertEquals(1, left.size());
+			assertTrue(left.get(0).getFileName().toString().contains("00000000000000000003"));
+		}
+
+		assertEquals(Map.of(1L, -1L), StockJournal.recover(dir, 2).deltas());
+	}
+
+	private List<Path> segments() throws IOException {
+		try (Stream<Path> files = Files.list(dir)) {
+			return files.sorted().toList();
+		}
+	}
+}
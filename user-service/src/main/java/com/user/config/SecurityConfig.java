@@ -1,12 +1,23 @@
 package com.user.config;
 
+import java.nio.charset.StandardCharsets;
+
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.AnonymousAuthenticationFilter;
+import org.springframework.security.web.authentication.HttpStatusEntryPoint;
+
+import com.beemo.common.security.IdentityHeader;
+import com.beemo.common.security.IdentityHeaderFilter;
+import com.fasterxml.jackson.databind.ObjectMapper;
 
 @Configuration
 @EnableWebSecurity
@@ -18,15 +29,24 @@ public class SecurityConfig {
     }
 
     @Bean
-    public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain filterChain(HttpSecurity http,
+                                           @Value("${beemo.security.identity.secret}") String identitySecret,
+                                           @Value("${beemo.security.identity.cache-size:10000}") int cacheSize,
+                                           ObjectMapper objectMapper) throws Exception {
+        IdentityHeader identityHeader = new IdentityHeader(identitySecret.getBytes(StandardCharsets.UTF_8), cacheSize);
         http
             .csrf(csrf -> csrf.disable())
             .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+            .exceptionHandling(exceptions -> exceptions.authenticationEntryPoint(new HttpStatusEntryPoint(HttpStatus.UNAUTHORIZED)))
+            .addFilterBefore(new IdentityHeaderFilter(identityHeader, objectMapper), AnonymousAuthenticationFilter.class)
             .authorizeHttpRequests(auth -> auth
-                .requestMatchers("/","/v3/api-docs/**", "/swagger-ui/**", "/swagger-ui.html","/**", "/users/login", "/users/register", "/login.html", "/register.html", "/static/**", "/css/**", "/js/**").permitAll()
-                .requestMatchers(org.springframework.http.HttpMethod.POST, "/login", "/register").permitAll()
+                .requestMatchers("/error").permitAll()
+                .requestMatchers("/", "/v3/api-docs/**", "/swagger-ui/**", "/swagger-ui.html", "/login.html", "/register.html", "/static/**", "/css/**", "/js/**").permitAll()
+                .requestMatchers(HttpMethod.POST, "/login", "/register").permitAll()
+                // Existence checks made by order-service and payment-service
+                .requestMatchers("/validate", "/*/validate").hasRole("SERVICE")
                 .anyRequest().authenticated()
             );
         return http.build();
     }
-}
\ No newline at end of file
+}
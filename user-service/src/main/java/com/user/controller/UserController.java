@@ -1,16 +1,23 @@
 package com.user.controller;
 
+import java.util.List;
+
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.user.exceptions.BadRequestException;
 import com.user.model.User;
 import com.user.service.UserService;
 
 @RestController
 public class UserController {
     
+    private static final int MAX_BULK_IDS = 1000;
+    
     private final UserService userService;
     
     public UserController(UserService userService) {
@@ -25,7 +32,21 @@ public class UserController {
     
     @GetMapping("/{id}/validate")
     public ResponseEntity<Boolean> validateUser(@PathVariable Long id) {
-        User user = userService.findById(id);
-        return ResponseEntity.ok(user != null);
+        return ResponseEntity.ok(userService.existsById(id));
+    }
+    
+    /**
+     * Check many user IDs in one query
+     * Returns the subset of the given IDs that belong to existing users
+     */
+    @PostMapping("/validate")
+    public ResponseEntity<List<Long>> validateUsers(@RequestBody List<Long> ids) {
+        if (ids == null || ids.isEmpty()) {
+            return ResponseEntity.ok(List.of());
+        }
+        if (ids.size() > MAX_BULK_IDS) {
+            throw new BadRequestException("At most " + MAX_BULK_IDS + " IDs can be validated at once");
+        }
+        return ResponseEntity.ok(userService.findExistingIds(ids));
     }
 }
@@ -1,5 +1,8 @@
 package com.user.service;
 
+import java.util.Collection;
+import java.util.List;
+
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.stereotype.Service;
 
@@ -34,6 +37,14 @@ public class UserService {
         return userRepository.findById(id).orElse(null);
     }
 
+    public boolean existsById(Long id) {
+        return userRepository.existsById(id);
+    }
+
+    public List<Long> findExistingIds(Collection<Long> ids) {
+        return userRepository.findExistingIds(ids);
+    }
+
     public boolean checkPassword(String rawPassword, String encodedPassword) {
         return passwordEncoder.matches(rawPassword, encodedPassword);
     }
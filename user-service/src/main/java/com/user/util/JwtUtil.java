@@ -1,39 +1,46 @@
 package com.user.util;
 
-import io.jsonwebtoken.Claims;
+import com.beemo.common.security.InvalidTokenException;
+import com.beemo.common.security.JwtClaims;
+import com.beemo.common.security.JwtVerifier;
+import com.beemo.common.security.VerifiedTokenCache;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import java.nio.charset.StandardCharsets;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.function.Function;
 
+/**
+ * Issues tokens and reads them back through the shared verifier
+ * Each token is verified and parsed once, then served from the cache until it expires
+ */
 @Component
 public class JwtUtil {
-    private final String SECRET_KEY = "beemo_secret";
+    private final byte[] secretKey;
     private final long EXPIRATION_TIME = 1000 * 60 * 60 * 10; // 10 hours
+    private final VerifiedTokenCache tokenCache;
 
-    public String extractUsername(String token) {
-        return extractClaim(token, Claims::getSubject);
-    }
-
-    public Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
+    public JwtUtil(@Value("${beemo.security.jwt.secret}") String secret,
+                   @Value("${beemo.security.jwt.cache-size:10000}") int cacheSize) {
+        this.secretKey = secret.getBytes(StandardCharsets.UTF_8);
+        this.tokenCache = new VerifiedTokenCache(new JwtVerifier(secretKey), cacheSize);
     }
 
-    public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
-        final Claims claims = extractAllClaims(token);
-        return claimsResolver.apply(claims);
+    public String extractUsername(String token) {
+        return extractClaim(token, JwtClaims::subject);
     }
 
-    private Claims extractAllClaims(String token) {
-        return Jwts.parser().setSigningKey(SECRET_KEY).parseClaimsJws(token).getBody();
+    public Date extractExpiration(String token) {
+        return extractClaim(token, claims -> Date.from(claims.expiresAt()));
     }
 
-    private Boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+    public <T> T extractClaim(String token, Function<JwtClaims, T> claimsResolver) {
+        return claimsResolver.apply(tokenCache.verify(token));
     }
 
     public String generateToken(String username) {
@@ -47,12 +54,15 @@ public class JwtUtil {
                 .setSubject(subject)
                 .setIssuedAt(new Date(System.currentTimeMillis()))
                 .setExpiration(new Date(System.currentTimeMillis() + EXPIRATION_TIME))
-                .signWith(SignatureAlgorithm.HS256, SECRET_KEY)
+                .signWith(SignatureAlgorithm.HS256, secretKey)
                 .compact();
     }
 
     public Boolean validateToken(String token, String username) {
-        final String extractedUsername = extractUsername(token);
-        return (extractedUsername.equals(username) && !isTokenExpired(token));
+        try {
+            return tokenCache.verify(token).subject().equals(username);
+        } catch (InvalidTokenException e) {
+            return false;
+        }
     }
-} 
\ No newline at end of file
+}